@@ -0,0 +1,12 @@
+-- ============================================
+-- Миграция существующей БД: полнотекстовый поиск по задачам
+-- ============================================
+-- Нужна для GET /api/tasks/search при app.search.engine=postgres (по умолчанию).
+-- Колонка генерируется самой БД, приложение её не пишет. Выполните один раз в БД cursospring.
+-- На большой таблице ADD COLUMN ... STORED перезаписывает таблицу — запускайте в окно обслуживания.
+
+-- Полнотекстовый поиск (GET /api/tasks/search): tsvector из title и description,
+-- PostgreSQL пересчитывает его сам при каждом INSERT/UPDATE (нужен PostgreSQL 12+).
+ALTER TABLE tasks ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (to_tsvector('simple', coalesce(title, '') || ' ' || coalesce(description, ''))) STORED;
+CREATE INDEX IF NOT EXISTS idx_tasks_search_vector ON tasks USING GIN (search_vector);
@@ -0,0 +1,8 @@
+-- ============================================
+-- Миграция существующей БД: версия задачи для оптимистичной блокировки
+-- ============================================
+-- Task.version (@Version): растёт на каждом изменении, из неё строится ETag,
+-- PATCH/DELETE с If-Match сравнивают её в условии UPDATE/DELETE. Выполните один раз в БД cursospring.
+-- ADD COLUMN с константным DEFAULT в PostgreSQL 11+ не перезаписывает таблицу.
+
+ALTER TABLE tasks ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,19 @@
+-- ============================================
+-- Миграция существующей БД: архив выполненных задач
+-- ============================================
+-- TaskArchiveService переносит сюда задачи, выполненные и не менявшиеся app.archive.after-days дней.
+-- Рабочие запросы читают только tasks; архив — с ?includeArchived=true. Выполните один раз в БД cursospring.
+
+CREATE TABLE IF NOT EXISTS tasks_archive (
+    id BIGINT PRIMARY KEY,
+    title VARCHAR(255) NOT NULL,
+    description TEXT,
+    due_date DATE,
+    completed BOOLEAN NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    version BIGINT NOT NULL,
+    archived_at TIMESTAMP NOT NULL
+);
+CREATE INDEX IF NOT EXISTS idx_tasks_archive_created_at ON tasks_archive(created_at DESC);
+CREATE INDEX IF NOT EXISTS idx_tasks_archive_due_date ON tasks_archive(due_date, id);
@@ -0,0 +1,9 @@
+-- ============================================
+-- Миграция существующей БД: шаг последовательности tasks_id_seq = 50
+-- ============================================
+-- Task.id генерируется из tasks_id_seq с allocationSize = 50 (pooled-оптимизатор Hibernate).
+-- Если таблица создана раньше (BIGSERIAL с шагом 1), приложение не стартует с ошибкой
+-- несовпадения шага последовательности. Выполните скрипт один раз в БД cursospring.
+-- Уже выданные id не меняются; новые id идут дальше текущего значения последовательности.
+
+ALTER SEQUENCE tasks_id_seq INCREMENT BY 50;
@@ -13,14 +13,71 @@
 -- Создание таблицы tasks
 CREATE TABLE IF NOT EXISTS tasks (
     id BIGSERIAL PRIMARY KEY,
+    owner VARCHAR(100) NOT NULL,
     title VARCHAR(255) NOT NULL,
     description TEXT,
     due_date DATE,
     completed BOOLEAN NOT NULL DEFAULT false,
     created_at TIMESTAMP NOT NULL,
-    updated_at TIMESTAMP NOT NULL
+    updated_at TIMESTAMP NOT NULL,
+    version BIGINT NOT NULL DEFAULT 0
 );
 
+-- Шаг последовательности id = 50: приложение (Task.id, allocationSize = 50) берёт id блоками
+-- и может отправлять INSERT JDBC-батчами. Должен совпадать с allocationSize.
+ALTER SEQUENCE tasks_id_seq INCREMENT BY 50;
+
 -- Индексы для оптимизации запросов
-CREATE INDEX IF NOT EXISTS idx_tasks_completed ON tasks(completed);
-CREATE INDEX IF NOT EXISTS idx_tasks_created_at ON tasks(created_at DESC);
+CREATE INDEX IF NOT EXISTS idx_tasks_owner_id ON tasks(owner, id);
+CREATE INDEX IF NOT EXISTS idx_tasks_owner_created_at_id ON tasks(owner, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_tasks_owner_completed_due_date ON tasks(owner, completed, due_date);
+CREATE INDEX IF NOT EXISTS idx_tasks_open_due_date ON tasks(due_date, id) WHERE completed = false;
+CREATE INDEX IF NOT EXISTS idx_tasks_archivable ON tasks(updated_at) WHERE completed = true;
+CREATE INDEX IF NOT EXISTS idx_tasks_owner_updated_at_id ON tasks(owner, updated_at, id);
+
+-- Полнотекстовый поиск (GET /api/tasks/search): tsvector из title и description,
+-- PostgreSQL пересчитывает его сам при каждом INSERT/UPDATE (нужен PostgreSQL 12+).
+ALTER TABLE tasks ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (to_tsvector('simple', coalesce(title, '') || ' ' || coalesce(description, ''))) STORED;
+CREATE INDEX IF NOT EXISTS idx_tasks_search_vector ON tasks USING GIN (search_vector);
+
+-- Архив выполненных задач (TaskArchiveService): те же колонки и id, что в tasks, плюс время переноса.
+-- Рабочие запросы его не читают; он участвует только в запросах с ?includeArchived=true.
+CREATE TABLE IF NOT EXISTS tasks_archive (
+    id BIGINT PRIMARY KEY,
+    owner VARCHAR(100) NOT NULL,
+    title VARCHAR(255) NOT NULL,
+    description TEXT,
+    due_date DATE,
+    completed BOOLEAN NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    version BIGINT NOT NULL,
+    archived_at TIMESTAMP NOT NULL
+);
+CREATE INDEX IF NOT EXISTS idx_tasks_archive_owner_id ON tasks_archive(owner, id);
+CREATE INDEX IF NOT EXISTS idx_tasks_archive_owner_created_at_id ON tasks_archive(owner, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_tasks_archive_due_date ON tasks_archive(due_date, id);
+
+-- Надгробия удалённых и перенесённых в архив задач для дельта-синхронизации (TaskSyncService);
+-- старше app.sync.tombstone-retention удаляются приложением.
+CREATE TABLE IF NOT EXISTS task_tombstones (
+    task_id BIGINT PRIMARY KEY,
+    owner VARCHAR(100) NOT NULL,
+    deleted_at TIMESTAMP NOT NULL
+);
+CREATE INDEX IF NOT EXISTS idx_task_tombstones_owner_deleted_at_id ON task_tombstones(owner, deleted_at, task_id);
+CREATE INDEX IF NOT EXISTS idx_task_tombstones_deleted_at_id ON task_tombstones(deleted_at, task_id);
+
+-- Вложения задач: ссылки на файлы из app.file.upload-dir (TaskAttachmentService). Без внешнего ключа
+-- на tasks: при переносе в tasks_archive вложения остаются, при удалении задачи приложение удаляет их само.
+CREATE TABLE IF NOT EXISTS task_attachments (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    task_id BIGINT NOT NULL,
+    owner VARCHAR(100) NOT NULL,
+    file_name VARCHAR(255) NOT NULL,
+    size_in_bytes BIGINT NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    CONSTRAINT uk_task_attachments_task_id_file_name UNIQUE (task_id, file_name)
+);
+CREATE INDEX IF NOT EXISTS idx_task_attachments_file_name ON task_attachments(file_name);
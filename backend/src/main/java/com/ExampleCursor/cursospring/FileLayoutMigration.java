@@ -0,0 +1,42 @@
+package com.ExampleCursor.cursospring;
+
+import com.ExampleCursor.cursospring.service.FileShardLayout;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Перенос файлов, загруженных до перехода на шарды, из корня каталога загрузок в их шарды (см. FileShardLayout).
+ * Аргументы: каталог загрузок [--dry-run]. С --dry-run только показывает, что будет перенесено.
+ * Можно запускать при работающем приложении: файлы находятся по имени и в корне, и в шарде.
+ * Из собранного jar:
+ * java -cp cursospring.jar -Dloader.main=com.ExampleCursor.cursospring.FileLayoutMigration
+ * org.springframework.boot.loader.launch.PropertiesLauncher ./uploads --dry-run
+ */
+public final class FileLayoutMigration {
+
+    private FileLayoutMigration() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: FileLayoutMigration <upload directory> [--dry-run]");
+            System.exit(2);
+        }
+        Path root = Path.of(args[0]);
+        boolean dryRun = false;
+        for (int i = 1; i < args.length; i++) {
+            switch (args[i]) {
+                case "--dry-run" -> dryRun = true;
+                default -> throw new IllegalArgumentException("Unknown argument: " + args[i]);
+            }
+        }
+        if (!Files.isDirectory(root)) {
+            System.err.println("Not a directory: " + root);
+            System.exit(2);
+        }
+        int moved = FileShardLayout.migrate(root, dryRun);
+        System.out.println((dryRun ? "Would move " : "Moved ") + moved + " files into shards");
+    }
+}
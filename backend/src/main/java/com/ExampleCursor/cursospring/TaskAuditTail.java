@@ -0,0 +1,62 @@
+package com.ExampleCursor.cursospring;
+
+import com.ExampleCursor.cursospring.service.TaskAuditJournal;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+
+/**
+ * Просмотр журнала аудита без запуска приложения: по записи JSON на строку, как tail.
+ * Аргументы: каталог журнала [--from SEQ] [--follow]. Без --from — с начала, с --follow — ждать новых записей.
+ * Из собранного jar:
+ * java -cp cursospring.jar -Dloader.main=com.ExampleCursor.cursospring.TaskAuditTail
+ * org.springframework.boot.loader.launch.PropertiesLauncher ./data/audit --follow
+ */
+public final class TaskAuditTail {
+
+    private static final long POLL_MILLIS = 200;
+
+    private TaskAuditTail() {
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length == 0) {
+            System.err.println("Usage: TaskAuditTail <journal directory> [--from SEQ] [--follow]");
+            System.exit(2);
+        }
+        Path directory = Path.of(args[0]);
+        long after = 0;
+        boolean follow = false;
+        for (int i = 1; i < args.length; i++) {
+            switch (args[i]) {
+                case "--from" -> after = Long.parseLong(args[++i]) - 1;
+                case "--follow" -> follow = true;
+                default -> throw new IllegalArgumentException("Unknown argument: " + args[i]);
+            }
+        }
+        ObjectMapper mapper = JsonMapper.builder().build();
+        do {
+            long last = TaskAuditJournal.read(directory, after, (seq, payload) -> {
+                ObjectNode entry = (ObjectNode) mapper.readTree(bytes(payload));
+                entry.put("seq", seq);
+                System.out.println(mapper.writeValueAsString(entry));
+                return true;
+            });
+            System.out.flush();
+            if (last == after && follow) {
+                Thread.sleep(POLL_MILLIS);
+            }
+            after = last;
+        } while (follow);
+    }
+
+    private static byte[] bytes(ByteBuffer payload) {
+        byte[] bytes = new byte[payload.remaining()];
+        payload.get(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,57 @@
+package com.ExampleCursor.cursospring.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * Кэши чтения задач на Caffeine с ограничением по размеру.
+ * Статистика включена (recordStats) — Spring Boot Actuator публикует её как метрики
+ * cache.gets (hit/miss), cache.evictions, cache.size с тегом cache (tasks, taskPages).
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    /** TaskResponse по id. */
+    public static final String TASKS = "tasks";
+    /** Страницы GET /api/tasks по TaskQuery. */
+    public static final String TASK_PAGES = "taskPages";
+
+    /**
+     * Только явно перечисленные кэши (без создания новых по имени).
+     * TransactionAwareCacheManagerProxy откладывает @CacheEvict до коммита транзакции,
+     * чтобы параллельное чтение не положило в кэш ещё не закоммиченные данные; а чтение, начатое
+     * до очистки, не кладёт в кэш свой (уже старый) результат — см. GenerationCheckedCaffeineCache.
+     * Этого не видно только при чтении с отстающей реплики после очистки: такая запись живёт
+     * не дольше expireAfterWrite.
+     */
+    @Bean
+    public CacheManager cacheManager(TaskCacheProperties properties) {
+        CaffeineCacheManager manager = new CaffeineCacheManager() {
+            @Override
+            protected Cache adaptCaffeineCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache) {
+                return new GenerationCheckedCaffeineCache(name, cache, isAllowNullValues());
+            }
+        };
+        manager.setCacheNames(List.of());
+        manager.registerCustomCache(TASKS, Caffeine.newBuilder()
+                .maximumSize(properties.getTaskMaxSize())
+                .expireAfterWrite(properties.getExpireAfterWrite())
+                .recordStats()
+                .build());
+        manager.registerCustomCache(TASK_PAGES, Caffeine.newBuilder()
+                .maximumSize(properties.getPageMaxSize())
+                .expireAfterWrite(properties.getExpireAfterWrite())
+                .recordStats()
+                .build());
+        return new TransactionAwareCacheManagerProxy(manager);
+    }
+}
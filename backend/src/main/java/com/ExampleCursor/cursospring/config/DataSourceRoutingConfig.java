@@ -0,0 +1,87 @@
+package com.ExampleCursor.cursospring.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DataSource с репликами для чтения; включается, только если задан app.datasource.replicas[0].url.
+ * <p>
+ * Primary собирается из spring.datasource.* (включая spring.datasource.hikari.*), реплики — из
+ * app.datasource.replicas с теми же драйвером и настройками Hikari. Пулы доступны только через
+ * ReadWriteRoutingDataSource, JPA и JdbcTemplate получают его в обёртке LazyConnectionDataSourceProxy.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.datasource.replicas[0]", name = "url")
+public class DataSourceRoutingConfig {
+
+    private static final String HIKARI_PREFIX = "spring.datasource.hikari";
+
+    @Bean
+    public ReadWriteRoutingDataSource routingDataSource(DataSourceProperties dataSourceProperties,
+                                                        DataSourceRoutingProperties properties,
+                                                        Environment environment,
+                                                        ObjectProvider<MeterRegistry> meterRegistry) {
+        MeterRegistry registry = meterRegistry.getIfAvailable(SimpleMeterRegistry::new);
+        Binder binder = Binder.get(environment);
+
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        binder.bind(HIKARI_PREFIX, Bindable.ofInstance(primary));
+        primary.setPoolName(ReadWriteRoutingDataSource.PRIMARY);
+        primary.setMetricRegistry(registry);
+
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (DataSourceRoutingProperties.Replica config : properties.getReplicas()) {
+            HikariDataSource replica = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .driverClassName(dataSourceProperties.determineDriverClassName())
+                    .url(config.getUrl())
+                    .username(config.getUsername() != null ? config.getUsername() : dataSourceProperties.determineUsername())
+                    .password(config.getPassword() != null ? config.getPassword() : dataSourceProperties.determinePassword())
+                    .build();
+            binder.bind(HIKARI_PREFIX, Bindable.ofInstance(replica));
+            replica.setPoolName("replica-" + (replicas.size() + 1));
+            replica.setReadOnly(true);
+            replica.setMaximumPoolSize(properties.getReplicaPoolSize());
+            replica.setConnectionTimeout(properties.getReplicaConnectionTimeout().toMillis());
+            // Недоступная при старте реплика не мешает запуску: её исключит первая же проверка
+            replica.setInitializationFailTimeout(-1);
+            replica.setMetricRegistry(registry);
+            replicas.add(replica);
+        }
+        return new ReadWriteRoutingDataSource(primary, replicas, registry);
+    }
+
+    /**
+     * Соединение берётся из пула при первом SQL, когда флаг readOnly транзакции уже известен.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(DataSourceRoutingProperties properties) {
+        // Порядок по умолчанию — после Spring Security, чтобы пользователь запроса был уже известен
+        return new FilterRegistrationBean<>(new ReadYourWritesFilter(properties.getReadYourWritesWindow()));
+    }
+}
@@ -0,0 +1,49 @@
+package com.ExampleCursor.cursospring.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Реплики для чтения (DataSourceRoutingConfig). Без app.datasource.replicas всё идёт
+ * в spring.datasource.url, как раньше.
+ */
+@Component
+@ConfigurationProperties(prefix = "app.datasource")
+@Getter
+@Setter
+public class DataSourceRoutingProperties {
+
+    /** Пулы реплик: readOnly-транзакции распределяются по ним по кругу. */
+    private List<Replica> replicas = new ArrayList<>();
+
+    /** После записи из сессии её чтения столько времени идут в primary (реплика могла не догнать). */
+    private Duration readYourWritesWindow = Duration.ofSeconds(5);
+
+    /** Период проверки реплик; недоступная реплика исключается, пока проверка не пройдёт снова. */
+    private Duration healthCheckInterval = Duration.ofSeconds(5);
+
+    /** Ожидание соединения от реплики: дольше — запрос уходит в primary. */
+    private Duration replicaConnectionTimeout = Duration.ofSeconds(1);
+
+    /** Размер пула каждой реплики. */
+    private int replicaPoolSize = 10;
+
+    @Getter
+    @Setter
+    public static class Replica {
+
+        private String url;
+
+        /** Пусто — как у primary. */
+        private String username;
+
+        /** Пусто — как у primary. */
+        private String password;
+    }
+}
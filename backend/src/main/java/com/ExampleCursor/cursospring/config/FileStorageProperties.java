@@ -4,8 +4,10 @@ import lombok.Getter;
 import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
 
 import java.nio.file.Path;
+import java.time.Duration;
 
 /**
  * Путь к каталогу, где хранятся загруженные файлы (настраивается в application.properties).
@@ -22,6 +24,24 @@ public class FileStorageProperties {
      */
     private String uploadDir = "./data/uploads";
 
+    /**
+     * Предел размера для потоковой загрузки PUT /api/files/{fileName}; multipart ограничивает
+     * spring.servlet.multipart.max-file-size.
+     */
+    private DataSize maxUploadSize = DataSize.ofGigabytes(1);
+
+    /** Размер части для возобновляемой загрузки, если клиент не задал свой. */
+    private DataSize uploadChunkSize = DataSize.ofMegabytes(8);
+
+    /** Сессия возобновляемой загрузки без новых частей дольше этого срока удаляется вместе с файлом. */
+    private Duration uploadSessionTimeout = Duration.ofHours(24);
+
+    /**
+     * Дедупликация: одинаковое содержимое хранится один раз (по SHA-256), имена — жёсткие ссылки на него.
+     * Файлы, загруженные до включения, остаются как есть.
+     */
+    private boolean deduplicate = false;
+
     public Path getUploadPath() {
         return Path.of(uploadDir).toAbsolutePath().normalize();
     }
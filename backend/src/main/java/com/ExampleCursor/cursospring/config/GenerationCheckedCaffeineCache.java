@@ -0,0 +1,75 @@
+package com.ExampleCursor.cursospring.config;
+
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * CaffeineCache, который не кладёт значение, прочитанное из БД до очистки кэша.
+ * <p>
+ * Гонка без проверки: чтение промахивается мимо кэша и читает задачи, запись коммитит изменение
+ * и очищает кэш (после коммита, TransactionAwareCacheManagerProxy), затем чтение кладёт в кэш
+ * уже устаревшую страницу — и она отдаётся до следующей записи. Поэтому каждый evict/clear
+ * увеличивает поколение, промах запоминает поколение на момент чтения, а put того же ключа
+ * в том же потоке (так работает @Cacheable: get, вызов метода, put) пропускается, если поколение
+ * с тех пор сменилось. Пропуск стоит только одного заполнения кэша.
+ * <p>
+ * Наследник CaffeineCache, а не обёртка: метрики Actuator (cache.gets, cache.evictions) по-прежнему
+ * снимаются с Caffeine.
+ */
+class GenerationCheckedCaffeineCache extends CaffeineCache {
+
+    private final AtomicLong generation = new AtomicLong();
+    private final ThreadLocal<Miss> lastMiss = new ThreadLocal<>();
+
+    GenerationCheckedCaffeineCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache,
+                                   boolean allowNullValues) {
+        super(name, cache, allowNullValues);
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        Object value = super.lookup(key);
+        if (value == null) {
+            lastMiss.set(new Miss(key, generation.get()));
+        }
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        Miss miss = lastMiss.get();
+        lastMiss.remove();
+        if (miss != null && miss.key().equals(key) && miss.generation() != generation.get()) {
+            return;
+        }
+        super.put(key, value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        generation.incrementAndGet();
+        super.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        generation.incrementAndGet();
+        return super.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        generation.incrementAndGet();
+        super.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        generation.incrementAndGet();
+        return super.invalidate();
+    }
+
+    private record Miss(Object key, long generation) {
+    }
+}
@@ -0,0 +1,187 @@
+package com.ExampleCursor.cursospring.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Маршрутизация соединений: readOnly-транзакции — на реплики по кругу, всё остальное — в primary.
+ * <p>
+ * Решение принимается при первом запросе соединения, поэтому снаружи нужен
+ * LazyConnectionDataSourceProxy: к этому моменту флаг readOnly транзакции уже выставлен.
+ * В primary идут и чтения потока, закреплённого за primary (pinToPrimary — окно read-your-writes).
+ * Реплика, не отдавшая соединение, помечается недоступной, запрос уходит на следующую или в primary;
+ * вернёт её в ротацию только checkReplicas. Исключение — таймаут занятого пула (все соединения выданы,
+ * сама реплика отвечает): в primary уходит только этот запрос, реплика остаётся в ротации. Вне транзакции (health-check Actuator, DDL Hibernate) — primary,
+ * поэтому упавшая реплика не делает приложение DOWN: её состояние видно в метрике.
+ * <p>
+ * Метрики: datasource.routing (теги target, reason) — куда ушли соединения и почему,
+ * datasource.replica.available — 1/0 по каждой реплике; пулы публикуют hikaricp.* с тегом pool.
+ */
+@Slf4j
+public class ReadWriteRoutingDataSource extends AbstractDataSource {
+
+    public static final String PRIMARY = "primary";
+
+    private static final ThreadLocal<Boolean> PINNED_TO_PRIMARY = new ThreadLocal<>();
+
+    private final HikariDataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final AtomicInteger next = new AtomicInteger();
+    private final Counter writes;
+    private final Counter readYourWrites;
+    private final Counter failovers;
+
+    public ReadWriteRoutingDataSource(HikariDataSource primary, List<HikariDataSource> replicaPools,
+                                      MeterRegistry meterRegistry) {
+        this.primary = primary;
+        for (HikariDataSource pool : replicaPools) {
+            Replica replica = new Replica(pool, routingCounter(meterRegistry, pool.getPoolName(), "read"));
+            Gauge.builder("datasource.replica.available", replica, r -> r.available ? 1 : 0)
+                    .description("1 — реплика в ротации чтений")
+                    .tag("replica", pool.getPoolName())
+                    .register(meterRegistry);
+            replicas.add(replica);
+        }
+        this.writes = routingCounter(meterRegistry, PRIMARY, "write");
+        this.readYourWrites = routingCounter(meterRegistry, PRIMARY, "read-your-writes");
+        this.failovers = routingCounter(meterRegistry, PRIMARY, "failover");
+    }
+
+    /**
+     * Закрепляет чтения текущего потока за primary (или снимает закрепление) — см. ReadYourWritesFilter.
+     */
+    public static void pinToPrimary(boolean pinned) {
+        if (pinned) {
+            PINNED_TO_PRIMARY.set(Boolean.TRUE);
+        } else {
+            PINNED_TO_PRIMARY.remove();
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            writes.increment();
+            return primary.getConnection();
+        }
+        if (Boolean.TRUE.equals(PINNED_TO_PRIMARY.get())) {
+            readYourWrites.increment();
+            return primary.getConnection();
+        }
+        int size = replicas.size();
+        int start = next.getAndIncrement();
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get(Math.floorMod(start + i, size));
+            if (!replica.available) {
+                continue;
+            }
+            try {
+                Connection connection = replica.pool.getConnection();
+                replica.routed.increment();
+                return connection;
+            } catch (SQLException e) {
+                if (isPoolTimeout(e)) {
+                    log.debug("Read replica {} pool is busy, trying next: {}", replica.pool.getPoolName(), e.getMessage());
+                } else {
+                    markUnavailable(replica, e.getMessage());
+                }
+            }
+        }
+        failovers.increment();
+        return primary.getConnection();
+    }
+
+    /**
+     * Соединение с явным логином — только primary.
+     */
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+
+    /**
+     * Проверка реплик: недоступные исключаются из ротации, восстановившиеся возвращаются.
+     * Занятый пул (таймаут без ошибки подключения) состояние реплики не меняет.
+     */
+    @Scheduled(fixedDelayString = "${app.datasource.health-check-interval:5s}")
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.pool.getConnection()) {
+                if (!connection.isValid(1)) {
+                    markUnavailable(replica, "connection is not valid");
+                } else if (!replica.available) {
+                    replica.available = true;
+                    log.info("Read replica {} is back in rotation", replica.pool.getPoolName());
+                }
+            } catch (SQLException e) {
+                if (!isPoolTimeout(e)) {
+                    markUnavailable(replica, e.getMessage());
+                }
+            }
+        }
+    }
+
+    public boolean isAvailable(String replicaName) {
+        return replicas.stream().anyMatch(r -> r.pool.getPoolName().equals(replicaName) && r.available);
+    }
+
+    public List<DataSource> getReplicas() {
+        return replicas.stream().<DataSource>map(r -> r.pool).toList();
+    }
+
+    public void close() {
+        replicas.forEach(r -> r.pool.close());
+        primary.close();
+    }
+
+    private void markUnavailable(Replica replica, String reason) {
+        if (replica.available) {
+            replica.available = false;
+            log.warn("Read replica {} removed from rotation, reads fall back to primary: {}",
+                    replica.pool.getPoolName(), reason);
+        }
+    }
+
+    /**
+     * Hikari отвечает SQLTransientConnectionException на любой таймаут ожидания соединения; если при этом
+     * не удавалось подключиться к БД, последняя ошибка подключения лежит в cause. Без cause пул просто
+     * занят — реплика жива.
+     */
+    private static boolean isPoolTimeout(SQLException e) {
+        return e instanceof SQLTransientConnectionException && e.getCause() == null;
+    }
+
+    private static Counter routingCounter(MeterRegistry meterRegistry, String target, String reason) {
+        return Counter.builder("datasource.routing")
+                .description("Соединения, выданные маршрутизатором")
+                .tag("target", target)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    private static final class Replica {
+
+        private final HikariDataSource pool;
+        private final Counter routed;
+        private volatile boolean available = true;
+
+        private Replica(HikariDataSource pool, Counter routed) {
+            this.pool = pool;
+            this.routed = routed;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.ExampleCursor.cursospring.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.security.Principal;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Read-your-writes при чтении с реплик: клиент (пользователь, без входа — HTTP-сессия),
+ * приславший изменяющий запрос, следующие readYourWritesWindow читает из primary,
+ * пока реплика догоняет его запись. Отсчёт окна — от конца изменяющего запроса.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+    private final Cache<String, Boolean> recentWriters;
+
+    public ReadYourWritesFilter(Duration window) {
+        this.recentWriters = Caffeine.newBuilder().expireAfterWrite(window).build();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean writes = !SAFE_METHODS.contains(request.getMethod());
+        String client = clientKey(request);
+        ReadWriteRoutingDataSource.pinToPrimary(
+                writes || (client != null && recentWriters.getIfPresent(client) != null));
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReadWriteRoutingDataSource.pinToPrimary(false);
+            if (writes) {
+                // Без входа ключ — сессия, она могла появиться только во время запроса
+                if (client == null) {
+                    client = clientKey(request);
+                }
+                if (client != null) {
+                    recentWriters.put(client, Boolean.TRUE);
+                }
+            }
+        }
+    }
+
+    /**
+     * Пользователь, а не сессия: клиенты с Basic Auth без cookie получают новую сессию на каждый запрос.
+     */
+    private static String clientKey(HttpServletRequest request) {
+        Principal principal = request.getUserPrincipal();
+        if (principal != null) {
+            return "user:" + principal.getName();
+        }
+        HttpSession session = request.getSession(false);
+        return session != null ? "session:" + session.getId() : null;
+    }
+}
@@ -0,0 +1,12 @@
+package com.ExampleCursor.cursospring.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Включает @Scheduled-задачи (например, ежедневный пересчёт статистики задач).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
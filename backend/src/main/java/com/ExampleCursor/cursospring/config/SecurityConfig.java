@@ -57,6 +57,9 @@ public class SecurityConfig {
                 .authorizeHttpRequests(auth -> auth
                         // Логин и /me можно вызывать без авторизации (чтобы вообще войти и проверить сессию).
                         .requestMatchers("/api/auth/login", "/api/auth/me").permitAll()
+                        // Health-check для балансировщика/Docker — без входа; остальной Actuator (метрики) — только с авторизацией.
+                        .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers("/actuator/**").authenticated()
                         // Всё под /api/* (в т.ч. /api/tasks) — только для авторизованных.
                         .requestMatchers("/api/**").authenticated()
                         // Всё остальное (например статика, Swagger) — разрешено без входа.
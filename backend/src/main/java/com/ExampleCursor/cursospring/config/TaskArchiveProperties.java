@@ -0,0 +1,33 @@
+package com.ExampleCursor.cursospring.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Архивация выполненных задач в tasks_archive (TaskArchiveService).
+ */
+@Component
+@ConfigurationProperties(prefix = "app.archive")
+@Getter
+@Setter
+public class TaskArchiveProperties {
+
+    /** false — архиватор не запускается. */
+    private boolean enabled = true;
+
+    /** Выполненная задача уходит в архив, если не менялась столько дней. */
+    private int afterDays = 30;
+
+    /** Задач в одной транзакции переноса. */
+    private int batchSize = 500;
+
+    /** Пауза между пачками, чтобы перенос не забирал у рабочих запросов БД и WAL. */
+    private Duration pause = Duration.ofMillis(200);
+
+    /** Период запуска архиватора. */
+    private Duration interval = Duration.ofHours(1);
+}
@@ -0,0 +1,39 @@
+package com.ExampleCursor.cursospring.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Журнал аудита изменений задач (TaskAuditService, TaskAuditJournal).
+ */
+@Component
+@ConfigurationProperties(prefix = "app.audit")
+@Getter
+@Setter
+public class TaskAuditProperties {
+
+    /** false — изменения не журналируются. */
+    private boolean enabled = true;
+
+    /** Каталог сегментов журнала; писать в него может только один экземпляр приложения. */
+    private String directory = "./data/audit";
+
+    /** Размер сегмента: столько файл занимает на диске сразу, по заполнении начинается следующий. */
+    private DataSize segmentSize = DataSize.ofMegabytes(64);
+
+    /** Период fsync: при сбое ОС могут пропасть записи не более чем за этот интервал. */
+    private Duration flushInterval = Duration.ofMillis(200);
+
+    /** Сколько записей журнала (всех пользователей) просматривает один запрос GET /api/tasks/audit. */
+    private int maxScanRecords = 10_000;
+
+    public Path getDirectoryPath() {
+        return Path.of(directory).toAbsolutePath().normalize();
+    }
+}
@@ -0,0 +1,30 @@
+package com.ExampleCursor.cursospring.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Размеры кэшей чтения задач (app.cache.*). При превышении Caffeine вытесняет редко используемые записи.
+ */
+@Component
+@ConfigurationProperties(prefix = "app.cache")
+@Getter
+@Setter
+public class TaskCacheProperties {
+
+    /** Максимум задач в кэше по id. */
+    private long taskMaxSize = 10_000;
+
+    /** Максимум страниц списка (разные курсоры/фильтры) в кэше. */
+    private long pageMaxSize = 1_000;
+
+    /**
+     * Сколько живёт запись кэша. Изменения задач очищают кэш сразу; срок ограничивает только то,
+     * что проверка поколения не ловит, — страницу, прочитанную с отстающей реплики.
+     */
+    private Duration expireAfterWrite = Duration.ofMinutes(5);
+}
@@ -0,0 +1,34 @@
+package com.ExampleCursor.cursospring.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Групповая запись создаваемых задач (TaskGroupCommitService): POST /api/tasks копятся в очереди
+ * и вставляются пачкой в одной транзакции — один fsync WAL на пачку вместо одного на задачу.
+ */
+@Component
+@ConfigurationProperties(prefix = "app.group-commit")
+@Getter
+@Setter
+public class TaskGroupCommitProperties {
+
+    /** По умолчанию выключено: каждая задача создаётся в своей транзакции. */
+    private boolean enabled = false;
+
+    /** Сколько задач может ждать записи; при переполнении POST отвечает 429. */
+    private int queueCapacity = 10_000;
+
+    /** Максимум задач в одной транзакции. */
+    private int maxBatchSize = 500;
+
+    /** Сколько пачка добирает задачи после первой, прежде чем уйти в БД. */
+    private Duration maxDelay = Duration.ofMillis(5);
+
+    /** Сколько остановка ждёт, пока писатель допишет очередь; недописанное получает 429. */
+    private Duration stopTimeout = Duration.ofSeconds(30);
+}
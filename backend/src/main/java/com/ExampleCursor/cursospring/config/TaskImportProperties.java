@@ -0,0 +1,28 @@
+package com.ExampleCursor.cursospring.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Массовый импорт задач (TaskImportService).
+ */
+@Component
+@ConfigurationProperties(prefix = "app.import")
+@Getter
+@Setter
+public class TaskImportProperties {
+
+    /** Сколько ошибок по строкам вернуть в ответе; остальные только считаются. */
+    private int maxReportedErrors = 100;
+
+    /** Предел длины одной записи в символах: держит память постоянной и на битом файле. */
+    private int maxRecordLength = 1024 * 1024;
+
+    /**
+     * Строк в одной транзакции переноса в tasks. Транзакция части должна укладываться в
+     * app.sync.settle-window с большим запасом.
+     */
+    private int mergeChunkSize = 10_000;
+}
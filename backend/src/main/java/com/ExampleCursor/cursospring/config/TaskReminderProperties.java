@@ -0,0 +1,46 @@
+package com.ExampleCursor.cursospring.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Настройки напоминаний о сроках задач (TaskReminderService).
+ */
+@Component
+@ConfigurationProperties(prefix = "app.reminders")
+@Getter
+@Setter
+public class TaskReminderProperties {
+
+    /** false — напоминания выключены (TaskReminderService не создаётся). */
+    private boolean enabled = true;
+
+    /** Во сколько (по времени сервера) в день срока приходит напоминание. */
+    private LocalTime timeOfDay = LocalTime.of(9, 0);
+
+    /** На сколько дней вперёд задачи держатся в памяти; дальние сроки подгружаются каждую полночь. */
+    private int horizonDays = 7;
+
+    /** Шаг колеса и период проверки: напоминание может опоздать не больше чем на tick. */
+    private Duration tick = Duration.ofMinutes(1);
+
+    /** Корзин на уровне колеса и число уровней: 64^4 минут ≈ 30 лет без переполнения. */
+    private int wheelSize = 64;
+    private int wheelLevels = 4;
+
+    /** Размер страницы при загрузке задач из БД. */
+    private int loadBatchSize = 1000;
+
+    /** Куда отправлять напоминания: log, sse, webhook. */
+    private List<String> sinks = new ArrayList<>(List.of("log", "sse"));
+
+    /** URL для sink'а webhook (POST JSON TaskReminder). */
+    private String webhookUrl;
+}
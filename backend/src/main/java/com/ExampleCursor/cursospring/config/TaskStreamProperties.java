@@ -0,0 +1,27 @@
+package com.ExampleCursor.cursospring.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Настройки SSE-ленты изменений задач (/api/tasks/stream).
+ */
+@Component
+@ConfigurationProperties(prefix = "app.task-stream")
+@Getter
+@Setter
+public class TaskStreamProperties {
+
+    /** Сколько неотправленных событий держим на одного подписчика; при переполнении — resync. */
+    private int bufferSize = 256;
+
+    /** Через сколько соединение закрывается сервером (EventSource в браузере переподключится сам). */
+    private Duration timeout = Duration.ofMinutes(30);
+
+    /** Период heartbeat-комментариев: держат соединение через прокси и выявляют отключившихся клиентов. */
+    private Duration heartbeatInterval = Duration.ofSeconds(15);
+}
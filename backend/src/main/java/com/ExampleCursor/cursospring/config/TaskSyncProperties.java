@@ -0,0 +1,31 @@
+package com.ExampleCursor.cursospring.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Дельта-синхронизация GET /api/tasks/changes (TaskSyncService).
+ */
+@Component
+@ConfigurationProperties(prefix = "app.sync")
+@Getter
+@Setter
+public class TaskSyncProperties {
+
+    /**
+     * Изменения моложе этого срока в ответ не попадают: транзакция, взявшая updated_at раньше,
+     * может закоммититься (и дойти до реплики) позже. Должен перекрывать самую долгую пишущую
+     * транзакцию и отставание реплик.
+     */
+    private Duration settleWindow = Duration.ofSeconds(10);
+
+    /** Сколько хранятся надгробия; токен старше этого срока отвергается (410). */
+    private Duration tombstoneRetention = Duration.ofDays(30);
+
+    /** Период удаления устаревших надгробий. */
+    private Duration purgeInterval = Duration.ofHours(1);
+}
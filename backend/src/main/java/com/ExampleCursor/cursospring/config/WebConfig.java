@@ -25,9 +25,11 @@ public class WebConfig implements WebMvcConfigurer {
                     "http://91.194.3.57:*"
                 )
                 // Какие HTTP-методы разрешены с другого origin.
-                .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
+                .allowedMethods("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS")
                 // Разрешаем любые заголовки (в т.ч. Authorization, Content-Type).
                 .allowedHeaders("*")
+                // ETag нужен фронту, чтобы отправлять его обратно в If-Match.
+                .exposedHeaders("ETag")
                 // allowCredentials(true) — можно отправлять куки (JSESSIONID) с cross-origin запросами.
                 // Нужно, если логинимся через /api/auth/login и потом ходим с той же сессией с фронта.
                 .allowCredentials(true);
@@ -1,19 +1,20 @@
 package com.ExampleCursor.cursospring.controller;
 
 import com.ExampleCursor.cursospring.dto.FileInfoDto;
+import com.ExampleCursor.cursospring.dto.FileInfoPageResponse;
+import com.ExampleCursor.cursospring.dto.FileQuery;
+import com.ExampleCursor.cursospring.dto.FileSort;
 import com.ExampleCursor.cursospring.service.FileStorageService;
+import com.ExampleCursor.cursospring.service.TaskAttachmentService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
-import org.springframework.core.io.Resource;
-import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.net.URLEncoder;
-import java.nio.charset.StandardCharsets;
-import java.util.List;
 
 /**
  * API файлового менеджера: загрузка, список, скачивание и удаление файлов.
@@ -25,6 +26,7 @@ import java.util.List;
 public class FileController {
 
     private final FileStorageService fileStorageService;
+    private final TaskAttachmentService taskAttachmentService;
 
     @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<FileInfoDto> upload(@RequestParam("file") MultipartFile file) throws IOException {
@@ -32,24 +34,55 @@ public class FileController {
         return ResponseEntity.ok(info);
     }
 
+    /**
+     * Потоковая загрузка: тело запроса — содержимое файла (не multipart). Пишется сразу в каталог
+     * загрузок, без временного файла контейнера; в ответе размер и SHA-256. Имя занято — как и при
+     * POST, добавляется суффикс _1, _2 и т.д.
+     */
+    @PutMapping(path = "/{fileName}", consumes = "!" + MediaType.APPLICATION_FORM_URLENCODED_VALUE)
+    public ResponseEntity<FileInfoDto> uploadStream(@PathVariable String fileName, HttpServletRequest request)
+            throws IOException {
+        FileInfoDto info = fileStorageService.storeStream(
+                fileName, request.getInputStream(), request.getContentLengthLong());
+        return ResponseEntity.ok(info);
+    }
+
+    /**
+     * Постраничный список файлов из индекса в памяти (без обхода каталога). Следующая страница — ?after=
+     * со значением nextCursor из ответа; prefix — только имена с этим началом; limit по умолчанию 100, не больше 1000.
+     */
     @GetMapping
-    public ResponseEntity<List<FileInfoDto>> listAll() throws IOException {
-        return ResponseEntity.ok(fileStorageService.listAll());
+    public ResponseEntity<FileInfoPageResponse> list(
+            @RequestParam(required = false) String prefix,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(defaultValue = "NAME_ASC") FileSort sort) throws IOException {
+        FileQuery query = FileQuery.builder()
+                .prefix(prefix)
+                .after(after)
+                .limit(limit)
+                .sort(sort)
+                .build();
+        return ResponseEntity.ok(fileStorageService.findPage(query));
     }
 
+    /**
+     * Скачивание с ETag/Last-Modified (повторный запрос с If-None-Match или If-Modified-Since — 304)
+     * и Range: докачка и параллельная загрузка частями, несколько диапазонов — multipart/byteranges.
+     */
     @GetMapping("/{fileName}")
-    public ResponseEntity<Resource> download(@PathVariable String fileName) throws IOException {
-        Resource resource = fileStorageService.loadAsResource(fileName);
-        String encodedName = URLEncoder.encode(fileName, StandardCharsets.UTF_8).replace("+", "%20");
-        return ResponseEntity.ok()
-                .contentType(MediaType.APPLICATION_OCTET_STREAM)
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename*=UTF-8''" + encodedName)
-                .body(resource);
+    public void download(@PathVariable String fileName, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        FileDownloads.write(fileStorageService.getFile(fileName), fileName, request, response);
     }
 
+    /**
+     * Удаление файла; вложения задач, которые на него ссылались, удаляются вместе с ним.
+     */
     @DeleteMapping("/{fileName}")
     public ResponseEntity<Void> delete(@PathVariable String fileName) throws IOException {
         fileStorageService.delete(fileName);
+        taskAttachmentService.detachFile(fileName);
         return ResponseEntity.noContent().build();
     }
 }
@@ -0,0 +1,211 @@
+package com.ExampleCursor.cursospring.controller;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.experimental.UtilityClass;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
+import org.springframework.http.MediaType;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Отдача файла с диска: валидаторы ETag (размер и время изменения) и Last-Modified, условные запросы
+ * (If-None-Match / If-Modified-Since — 304), Range с одним или несколькими диапазонами
+ * (206, multipart/byteranges), If-Range и 416 для недостижимых диапазонов.
+ * <p>
+ * Целый файл или один диапазон Tomcat отправляет сам через sendfile (FileChannel.transferTo в сокет):
+ * контроллер только выставляет атрибуты запроса, и байты файла не проходят через кучу. Без поддержки
+ * sendfile (TLS, другой контейнер) и для нескольких диапазонов — FileChannel.transferTo в поток ответа.
+ */
+@UtilityClass
+class FileDownloads {
+
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    /** Больше диапазонов в одном запросе не разбираем — отдаём файл целиком (RFC 9110 это разрешает). */
+    private static final int MAX_RANGES = 16;
+
+    void write(Path file, String fileName, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        long size = attributes.size();
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        String eTag = "\"" + Long.toHexString(size) + "-" + Long.toHexString(lastModified) + "\"";
+
+        // До проверки: иначе Spring Security допишет no-store и к 304
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        if (new ServletWebRequest(request, response).checkNotModified(eTag, lastModified)) {
+            return;
+        }
+        response.setHeader(HttpHeaders.ETAG, eTag);
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, lastModified);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        String encodedName = URLEncoder.encode(fileName, StandardCharsets.UTF_8).replace("+", "%20");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename*=UTF-8''" + encodedName);
+
+        boolean head = HttpMethod.HEAD.matches(request.getMethod());
+        List<Range> ranges = requestedRanges(request, size, eTag, lastModified);
+        if (ranges == null) {
+            response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+            response.setContentLengthLong(size);
+            if (!head) {
+                send(file, new Range(0, size), request, response);
+            }
+        } else if (ranges.isEmpty()) {
+            response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+        } else if (ranges.size() == 1) {
+            Range range = ranges.getFirst();
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, range.contentRange(size));
+            response.setContentLengthLong(range.length());
+            if (!head) {
+                send(file, range, request, response);
+            }
+        } else {
+            sendMultipart(file, ranges, size, head, response);
+        }
+    }
+
+    /**
+     * Диапазоны из Range: null — отдавать файл целиком (заголовка нет, If-Range не совпал, Range
+     * некорректен или диапазонов слишком много), пустой список — ни один диапазон не попадает в файл (416).
+     */
+    private List<Range> requestedRanges(HttpServletRequest request, long size, String eTag, long lastModified) {
+        String header = request.getHeader(HttpHeaders.RANGE);
+        if (header == null || !ifRangeMatches(request.getHeader(HttpHeaders.IF_RANGE), eTag, lastModified)) {
+            return null;
+        }
+        List<HttpRange> parsed;
+        try {
+            parsed = HttpRange.parseRanges(header);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        if (parsed.isEmpty() || parsed.size() > MAX_RANGES) {
+            return null;
+        }
+        List<Range> ranges = new ArrayList<>(parsed.size());
+        for (HttpRange range : parsed) {
+            long start = range.getRangeStart(size);
+            long end = range.getRangeEnd(size);
+            if (start < size && start <= end) {
+                ranges.add(new Range(start, end - start + 1));
+            }
+        }
+        return ranges;
+    }
+
+    /**
+     * If-Range — строгий ETag или дата: диапазон отдаётся, только если файл с тех пор не менялся.
+     */
+    private boolean ifRangeMatches(String ifRange, String eTag, long lastModified) {
+        if (ifRange == null) {
+            return true;
+        }
+        String value = ifRange.trim();
+        if (value.startsWith("\"")) {
+            return value.equals(eTag);
+        }
+        if (value.startsWith("W/")) {
+            return false;
+        }
+        try {
+            long date = ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+            return date == lastModified / 1000 * 1000;
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+
+    private void send(Path file, Range range, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, range.start());
+            request.setAttribute(SENDFILE_END, range.start() + range.length());
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            transfer(channel, range, Channels.newChannel(response.getOutputStream()));
+        }
+    }
+
+    private void sendMultipart(Path file, List<Range> ranges, long size, boolean head, HttpServletResponse response)
+            throws IOException {
+        String boundary = HexFormat.of().toHexDigits(ThreadLocalRandom.current().nextLong());
+        List<byte[]> partHeaders = new ArrayList<>(ranges.size());
+        long contentLength = 0;
+        for (Range range : ranges) {
+            byte[] partHeader = ("\r\n--" + boundary + "\r\n"
+                    + HttpHeaders.CONTENT_TYPE + ": " + MediaType.APPLICATION_OCTET_STREAM_VALUE + "\r\n"
+                    + HttpHeaders.CONTENT_RANGE + ": " + range.contentRange(size) + "\r\n\r\n")
+                    .getBytes(StandardCharsets.US_ASCII);
+            partHeaders.add(partHeader);
+            contentLength += partHeader.length + range.length();
+        }
+        byte[] end = ("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII);
+        contentLength += end.length;
+
+        response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+        response.setContentType("multipart/byteranges; boundary=" + boundary);
+        response.setContentLengthLong(contentLength);
+        if (head) {
+            return;
+        }
+        ServletOutputStream out = response.getOutputStream();
+        WritableByteChannel target = Channels.newChannel(out);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            for (int i = 0; i < ranges.size(); i++) {
+                out.write(partHeaders.get(i));
+                transfer(channel, ranges.get(i), target);
+            }
+        }
+        out.write(end);
+    }
+
+    private void transfer(FileChannel channel, Range range, WritableByteChannel target) throws IOException {
+        long position = range.start();
+        long remaining = range.length();
+        while (remaining > 0) {
+            long sent = channel.transferTo(position, remaining, target);
+            if (sent <= 0) {
+                // Файл укоротили во время отдачи: Content-Length уже не выполнить, обрываем ответ
+                throw new IOException("File truncated while sending: " + remaining + " bytes left");
+            }
+            position += sent;
+            remaining -= sent;
+        }
+    }
+
+    private record Range(long start, long length) {
+
+        String contentRange(long size) {
+            return "bytes " + start + "-" + (start + length - 1) + "/" + size;
+        }
+    }
+}
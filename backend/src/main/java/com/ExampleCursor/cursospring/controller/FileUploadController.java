@@ -0,0 +1,80 @@
+package com.ExampleCursor.cursospring.controller;
+
+import com.ExampleCursor.cursospring.dto.FileInfoDto;
+import com.ExampleCursor.cursospring.dto.FileUploadChunkResponse;
+import com.ExampleCursor.cursospring.dto.FileUploadSessionRequest;
+import com.ExampleCursor.cursospring.dto.FileUploadSessionResponse;
+import com.ExampleCursor.cursospring.service.FileUploadSessionService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+
+/**
+ * Возобновляемая загрузка файлов частями (см. FileUploadSessionService). Сессия видна только
+ * начавшему её пользователю; готовый файл появляется в /api/files, как после обычной загрузки.
+ */
+@RestController
+@RequestMapping("/api/files/uploads")
+@RequiredArgsConstructor
+public class FileUploadController {
+
+    /** Необязательный SHA-256 (hex) части: при несовпадении часть не засчитывается, ответ 400. */
+    public static final String CHUNK_SHA256_HEADER = "X-Chunk-SHA256";
+
+    private final FileUploadSessionService fileUploadSessionService;
+
+    @PostMapping
+    public ResponseEntity<FileUploadSessionResponse> start(
+            @Valid @RequestBody FileUploadSessionRequest request,
+            Authentication authentication) throws IOException {
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(fileUploadSessionService.start(authentication.getName(), request));
+    }
+
+    /**
+     * Сколько получено и каких частей не хватает — после обрыва соединения отправляются только они.
+     */
+    @GetMapping("/{uploadId}")
+    public ResponseEntity<FileUploadSessionResponse> getStatus(
+            @PathVariable String uploadId,
+            Authentication authentication) {
+        return ResponseEntity.ok(fileUploadSessionService.getStatus(authentication.getName(), uploadId));
+    }
+
+    /**
+     * Часть index — тело запроса (байты файла без multipart). Части можно слать параллельно;
+     * одну и ту же часть одновременно — нельзя (409).
+     */
+    @PutMapping(path = "/{uploadId}/chunks/{index}", consumes = "!" + MediaType.APPLICATION_FORM_URLENCODED_VALUE)
+    public ResponseEntity<FileUploadChunkResponse> uploadChunk(
+            @PathVariable String uploadId,
+            @PathVariable int index,
+            @RequestHeader(value = CHUNK_SHA256_HEADER, required = false) String sha256,
+            HttpServletRequest request,
+            Authentication authentication) throws IOException {
+        return ResponseEntity.ok(fileUploadSessionService.writeChunk(
+                authentication.getName(), uploadId, index, request.getInputStream(), sha256));
+    }
+
+    @PostMapping("/{uploadId}/complete")
+    public ResponseEntity<FileInfoDto> complete(
+            @PathVariable String uploadId,
+            Authentication authentication) throws IOException {
+        return ResponseEntity.ok(fileUploadSessionService.complete(authentication.getName(), uploadId));
+    }
+
+    @DeleteMapping("/{uploadId}")
+    public ResponseEntity<Void> abort(
+            @PathVariable String uploadId,
+            Authentication authentication) throws IOException {
+        fileUploadSessionService.abort(authentication.getName(), uploadId);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -1,6 +1,12 @@
 package com.ExampleCursor.cursospring.controller;
 
+import com.ExampleCursor.cursospring.service.FileUploadConflictException;
+import com.ExampleCursor.cursospring.service.PreconditionFailedException;
 import com.ExampleCursor.cursospring.service.ResourceNotFoundException;
+import com.ExampleCursor.cursospring.service.SyncTokenExpiredException;
+import com.ExampleCursor.cursospring.service.TaskQueueFullException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -19,6 +25,40 @@ public class GlobalExceptionHandler {
                 .body(Map.of("error", ex.getMessage()));
     }
 
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<Map<String, String>> handlePreconditionFailed(PreconditionFailedException ex) {
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                .body(Map.of("error", ex.getMessage()));
+    }
+
+    /**
+     * Задачу изменили параллельно между чтением и записью (@Version): клиенту стоит перечитать её и повторить.
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Map<String, String>> handleOptimisticLock(OptimisticLockingFailureException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(Map.of("error", "Resource was modified concurrently, reload and retry"));
+    }
+
+    @ExceptionHandler(FileUploadConflictException.class)
+    public ResponseEntity<Map<String, String>> handleUploadConflict(FileUploadConflictException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(Map.of("error", ex.getMessage()));
+    }
+
+    @ExceptionHandler(SyncTokenExpiredException.class)
+    public ResponseEntity<Map<String, String>> handleSyncTokenExpired(SyncTokenExpiredException ex) {
+        return ResponseEntity.status(HttpStatus.GONE)
+                .body(Map.of("error", ex.getMessage()));
+    }
+
+    @ExceptionHandler(TaskQueueFullException.class)
+    public ResponseEntity<Map<String, String>> handleQueueFull(TaskQueueFullException ex) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(Map.of("error", ex.getMessage()));
+    }
+
     @ExceptionHandler(BadCredentialsException.class)
     public ResponseEntity<Map<String, String>> handleBadCredentials(BadCredentialsException ex) {
         return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
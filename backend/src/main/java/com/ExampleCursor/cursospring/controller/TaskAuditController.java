@@ -0,0 +1,35 @@
+package com.ExampleCursor.cursospring.controller;
+
+import com.ExampleCursor.cursospring.dto.TaskAuditPageResponse;
+import com.ExampleCursor.cursospring.service.TaskAuditService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Чтение журнала аудита задач по порядку: следующая порция — ?after= с nextAfter предыдущей.
+ * Пользователь видит только записи о своих задачах; порция может быть пустой при hasMore=true.
+ */
+@RestController
+@RequestMapping("/api/tasks/audit")
+@ConditionalOnProperty(prefix = "app.audit", name = "enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class TaskAuditController {
+
+    private static final int MAX_LIMIT = 1000;
+
+    private final TaskAuditService taskAuditService;
+
+    @GetMapping
+    public ResponseEntity<TaskAuditPageResponse> read(
+            @RequestParam(defaultValue = "0") long after,
+            @RequestParam(defaultValue = "100") int limit,
+            Authentication authentication) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_LIMIT);
+        }
+        return ResponseEntity.ok(taskAuditService.read(authentication.getName(), after, limit));
+    }
+}
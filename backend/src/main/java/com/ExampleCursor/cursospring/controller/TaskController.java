@@ -1,43 +1,308 @@
 package com.ExampleCursor.cursospring.controller;
 
+import com.ExampleCursor.cursospring.dto.AttachFileRequest;
 import com.ExampleCursor.cursospring.dto.CreateTaskRequest;
+import com.ExampleCursor.cursospring.dto.TaskChangesResponse;
+import com.ExampleCursor.cursospring.dto.PatchTaskRequest;
+import com.ExampleCursor.cursospring.dto.TaskAttachmentPageResponse;
+import com.ExampleCursor.cursospring.dto.TaskAttachmentResponse;
+import com.ExampleCursor.cursospring.dto.TaskBatchRequest;
+import com.ExampleCursor.cursospring.dto.TaskBatchResponse;
+import com.ExampleCursor.cursospring.dto.TaskExportFormat;
+import com.ExampleCursor.cursospring.dto.TaskImportResponse;
+import com.ExampleCursor.cursospring.dto.TaskPageResponse;
+import com.ExampleCursor.cursospring.dto.TaskQuery;
 import com.ExampleCursor.cursospring.dto.TaskResponse;
+import com.ExampleCursor.cursospring.dto.TaskSearchResponse;
+import com.ExampleCursor.cursospring.dto.TaskStatsResponse;
+import com.ExampleCursor.cursospring.dto.TaskSort;
 import com.ExampleCursor.cursospring.dto.UpdateTaskRequest;
+import com.ExampleCursor.cursospring.service.TaskAttachmentService;
+import com.ExampleCursor.cursospring.service.TaskEventStreamService;
+import com.ExampleCursor.cursospring.service.TaskExportService;
+import com.ExampleCursor.cursospring.service.TaskGroupCommitService;
+import com.ExampleCursor.cursospring.service.TaskImportService;
 import com.ExampleCursor.cursospring.service.TaskService;
+import com.ExampleCursor.cursospring.service.TaskStatsService;
+import com.ExampleCursor.cursospring.service.TaskSyncService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Задачи текущего пользователя: владелец — имя из Authentication, задачи других пользователей
+ * для него не существуют (404) и не попадают ни в списки, ни в поиск, ни в ленты изменений.
+ */
 @RestController
 @RequestMapping("/api/tasks")
 @RequiredArgsConstructor
 public class TaskController {
 
     private final TaskService taskService;
+    private final TaskGroupCommitService taskGroupCommitService;
+    private final TaskExportService taskExportService;
+    private final TaskImportService taskImportService;
+    private final TaskStatsService taskStatsService;
+    private final TaskEventStreamService taskEventStreamService;
+    private final TaskSyncService taskSyncService;
+    private final TaskAttachmentService taskAttachmentService;
 
+    /**
+     * Постраничный список задач. Следующая страница — ?after= со значением nextCursor из ответа;
+     * limit по умолчанию 50, не больше 500. Ответ с ETag: повторный запрос с If-None-Match получает 304.
+     * Архивные задачи (давно выполненные, см. TaskArchiveService) — только с includeArchived=true.
+     */
     @GetMapping
-    public ResponseEntity<java.util.List<TaskResponse>> getAllTasks() {
-        return ResponseEntity.ok(taskService.findAll());
+    public ResponseEntity<TaskPageResponse> getTasks(
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) Boolean completed,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueTo,
+            @RequestParam(defaultValue = "ID_ASC") TaskSort sort,
+            @RequestParam(defaultValue = "false") boolean includeArchived,
+            Authentication authentication) {
+        TaskQuery query = taskQuery(authentication, after, limit, completed, dueFrom, dueTo, sort, includeArchived);
+        TaskPageResponse page = taskService.findPage(query);
+        return ResponseEntity.ok().eTag(TaskETags.of(page)).body(page);
+    }
+
+    /**
+     * Та же страница, что и GET /api/tasks, но у каждой задачи — сводка вложений.
+     * Вложения всей страницы читаются одним запросом, независимо от limit.
+     */
+    @GetMapping("/with-attachments")
+    public ResponseEntity<TaskAttachmentPageResponse> getTasksWithAttachments(
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) Boolean completed,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueTo,
+            @RequestParam(defaultValue = "ID_ASC") TaskSort sort,
+            @RequestParam(defaultValue = "false") boolean includeArchived,
+            Authentication authentication) {
+        TaskQuery query = taskQuery(authentication, after, limit, completed, dueFrom, dueTo, sort, includeArchived);
+        return ResponseEntity.ok(taskAttachmentService.findPage(query));
+    }
+
+    private static TaskQuery taskQuery(Authentication authentication, String after, Integer limit, Boolean completed,
+                                       LocalDate dueFrom, LocalDate dueTo, TaskSort sort, boolean includeArchived) {
+        return TaskQuery.builder()
+                .owner(authentication.getName())
+                .after(after)
+                .limit(limit)
+                .completed(completed)
+                .dueFrom(dueFrom)
+                .dueTo(dueTo)
+                .sort(sort)
+                .includeArchived(includeArchived)
+                .build();
+    }
+
+    /**
+     * Лента изменений (Server-Sent Events): события task (CREATED/UPDATED/DELETED) после коммита,
+     * reminder — наступил срок задачи (TaskReminderService), resync — клиент отстал и должен
+     * перечитать список, плюс периодические heartbeat-комментарии.
+     */
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(HttpServletResponse response, Authentication authentication) {
+        // Отключаем буферизацию в nginx, иначе события доходят пачками
+        response.setHeader("X-Accel-Buffering", "no");
+        return taskEventStreamService.subscribe(authentication.getName());
+    }
+
+    /**
+     * Дельта-синхронизация: задачи, созданные или изменённые после токена, и id удалённых.
+     * Без since — все задачи; nextToken из ответа передаётся в следующий ?since=, пока hasMore — сразу.
+     * Токен старше срока хранения удалений — 410, нужна полная синхронизация.
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<TaskChangesResponse> getChanges(
+            @RequestParam(required = false) String since,
+            @RequestParam(required = false) Integer limit,
+            Authentication authentication) {
+        return ResponseEntity.ok(taskSyncService.findChanges(authentication.getName(), since, limit));
+    }
+
+    /**
+     * Сводка: всего / выполнено / открыто / просрочено / срок на этой неделе. Не обращается к БД.
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<TaskStatsResponse> getStats(Authentication authentication) {
+        return ResponseEntity.ok(taskStatsService.getStats(authentication.getName()));
+    }
+
+    /**
+     * Полнотекстовый поиск по заголовку и описанию: ?q=слова&page=0&size=20.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<TaskSearchResponse> searchTasks(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            Authentication authentication) {
+        return ResponseEntity.ok(taskService.search(authentication.getName(), q, page, size));
+    }
+
+    /**
+     * Задача по id (с includeArchived=true — и из архива). При совпадении If-None-Match
+     * с ETag Spring отвечает 304 без тела.
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<TaskResponse> getTask(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "false") boolean includeArchived,
+            Authentication authentication) {
+        String owner = authentication.getName();
+        TaskResponse task = includeArchived
+                ? taskService.findByIdIncludingArchived(owner, id)
+                : taskService.findById(owner, id);
+        return ResponseEntity.ok().eTag(TaskETags.of(task)).body(task);
+    }
+
+    /**
+     * Выгрузка всех задач (NDJSON или CSV) прямо в тело ответа, без сборки списка в памяти.
+     */
+    @GetMapping("/export")
+    public void exportTasks(
+            @RequestParam(defaultValue = "NDJSON") TaskExportFormat format,
+            HttpServletResponse response,
+            Authentication authentication) throws IOException {
+        response.setContentType(format.getContentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"tasks." + format.getFileExtension() + "\"");
+        taskExportService.export(authentication.getName(), format, response.getOutputStream());
+    }
+
+    /**
+     * Импорт задач из тела запроса (NDJSON или CSV с заголовком, как у /export) без загрузки файла в память.
+     * Только PostgreSQL. Ошибочные строки не отменяют импорт: они перечислены в ответе с номерами строк.
+     * Тело в application/x-www-form-urlencoded контейнер разобрал бы как параметры формы — такой запрос получает 415.
+     */
+    @PostMapping(value = "/import", consumes = {"application/x-ndjson", "text/csv", MediaType.APPLICATION_JSON_VALUE,
+            MediaType.TEXT_PLAIN_VALUE, MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<TaskImportResponse> importTasks(
+            @RequestParam(defaultValue = "NDJSON") TaskExportFormat format,
+            HttpServletRequest request,
+            Authentication authentication) throws IOException {
+        return ResponseEntity.ok(taskImportService.importTasks(
+                authentication.getName(), format, request.getInputStream()));
     }
 
+    /**
+     * Создание задачи. При app.group-commit.enabled=true ответ приходит после коммита пачки
+     * (см. TaskGroupCommitService), а при переполненной очереди — 429 с Retry-After.
+     */
     @PostMapping
-    public ResponseEntity<TaskResponse> createTask(@Valid @RequestBody CreateTaskRequest request) {
-        TaskResponse created = taskService.create(request);
-        return ResponseEntity.status(HttpStatus.CREATED).body(created);
+    public CompletableFuture<ResponseEntity<TaskResponse>> createTask(
+            @Valid @RequestBody CreateTaskRequest request,
+            Authentication authentication) {
+        return taskGroupCommitService.create(authentication.getName(), request)
+                .thenApply(created -> ResponseEntity.status(HttpStatus.CREATED).body(created));
     }
 
+    /**
+     * Пакет операций create/update/delete (до 1000) в одной транзакции; результат по каждой операции.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<TaskBatchResponse> applyBatch(
+            @Valid @RequestBody TaskBatchRequest request,
+            Authentication authentication) {
+        return ResponseEntity.ok(taskService.applyBatch(authentication.getName(), request));
+    }
+
+    /**
+     * Полное обновление. Поддерживает If-Match, как и PATCH: устаревший ETag — 412.
+     */
     @PutMapping("/{id}")
     public ResponseEntity<TaskResponse> updateTask(
             @PathVariable Long id,
-            @Valid @RequestBody UpdateTaskRequest request) {
-        return ResponseEntity.ok(taskService.update(id, request));
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @Valid @RequestBody UpdateTaskRequest request,
+            Authentication authentication) {
+        TaskResponse task = taskService.update(
+                authentication.getName(), id, request, TaskETags.expectedVersion(id, ifMatch));
+        return ResponseEntity.ok().eTag(TaskETags.of(task)).body(task);
+    }
+
+    /**
+     * Частичное обновление: меняются только переданные поля. С If-Match (ETag задачи) запрос
+     * выполняется, только если задачу с тех пор никто не менял, иначе 412.
+     */
+    @PatchMapping("/{id}")
+    public ResponseEntity<TaskResponse> patchTask(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @Valid @RequestBody PatchTaskRequest request,
+            Authentication authentication) {
+        TaskResponse task = taskService.patch(
+                authentication.getName(), id, request, TaskETags.expectedVersion(id, ifMatch));
+        return ResponseEntity.ok().eTag(TaskETags.of(task)).body(task);
+    }
+
+    /**
+     * Отметить задачу выполненной / снять отметку. Поддерживает If-Match, как и PATCH.
+     */
+    @PostMapping("/{id}/toggle")
+    public ResponseEntity<TaskResponse> toggleTask(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            Authentication authentication) {
+        TaskResponse task = taskService.toggleCompleted(
+                authentication.getName(), id, TaskETags.expectedVersion(id, ifMatch));
+        return ResponseEntity.ok().eTag(TaskETags.of(task)).body(task);
+    }
+
+    @GetMapping("/{id}/attachments")
+    public ResponseEntity<List<TaskAttachmentResponse>> getAttachments(
+            @PathVariable Long id,
+            Authentication authentication) {
+        return ResponseEntity.ok(taskAttachmentService.findByTask(authentication.getName(), id));
+    }
+
+    /**
+     * Прикрепить к задаче файл, уже загруженный через POST /api/files.
+     */
+    @PostMapping("/{id}/attachments")
+    public ResponseEntity<TaskAttachmentResponse> attachFile(
+            @PathVariable Long id,
+            @Valid @RequestBody AttachFileRequest request,
+            Authentication authentication) throws IOException {
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(taskAttachmentService.attach(authentication.getName(), id, request.getFileName()));
+    }
+
+    @DeleteMapping("/{id}/attachments/{attachmentId}")
+    public ResponseEntity<Void> detachFile(
+            @PathVariable Long id,
+            @PathVariable Long attachmentId,
+            Authentication authentication) {
+        taskAttachmentService.detach(authentication.getName(), id, attachmentId);
+        return ResponseEntity.noContent().build();
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteTask(@PathVariable Long id) {
-        taskService.deleteById(id);
+    public ResponseEntity<Void> deleteTask(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            Authentication authentication) {
+        taskService.deleteById(authentication.getName(), id, TaskETags.expectedVersion(id, ifMatch));
         return ResponseEntity.noContent().build();
     }
 }
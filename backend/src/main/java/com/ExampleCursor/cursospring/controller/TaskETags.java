@@ -0,0 +1,52 @@
+package com.ExampleCursor.cursospring.controller;
+
+import com.ExampleCursor.cursospring.dto.TaskPageResponse;
+import com.ExampleCursor.cursospring.dto.TaskResponse;
+import com.ExampleCursor.cursospring.service.PreconditionFailedException;
+import lombok.experimental.UtilityClass;
+
+/**
+ * ETag для ответов с задачами, вычисляется из id и version (без сериализации в JSON).
+ * Любое изменение задачи увеличивает version, а значит меняет и ETag.
+ */
+@UtilityClass
+class TaskETags {
+
+    String of(TaskResponse task) {
+        return "\"" + task.getId() + "-" + version(task) + "\"";
+    }
+
+    String of(TaskPageResponse page) {
+        long hash = 17;
+        for (TaskResponse task : page.getItems()) {
+            hash = 31 * hash + task.getId();
+            hash = 31 * hash + version(task);
+        }
+        hash = 31 * hash + (page.getNextCursor() != null ? page.getNextCursor().hashCode() : 0);
+        return "\"p" + page.getItems().size() + "-" + Long.toHexString(hash) + "\"";
+    }
+
+    /**
+     * Ожидаемая версия задачи из If-Match. null — заголовка нет или он равен "*" (проверка не нужна).
+     * Слабый ETag (W/) или ETag другой задачи не может совпасть — сразу 412.
+     */
+    Long expectedVersion(Long id, String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String value = ifMatch.trim();
+        String prefix = "\"" + id + "-";
+        if (value.startsWith(prefix) && value.endsWith("\"") && value.length() > prefix.length() + 1) {
+            try {
+                return Long.parseLong(value.substring(prefix.length(), value.length() - 1));
+            } catch (NumberFormatException ignored) {
+                // обработаем ниже как несовпадение
+            }
+        }
+        throw new PreconditionFailedException("If-Match does not match task " + id);
+    }
+
+    private long version(TaskResponse task) {
+        return task.getVersion() != null ? task.getVersion() : 0;
+    }
+}
@@ -0,0 +1,20 @@
+package com.ExampleCursor.cursospring.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+
+/**
+ * Прикрепить к задаче уже загруженный файл (POST /api/files) по его имени.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AttachFileRequest {
+
+    @NotBlank(message = "File name is required")
+    @Size(max = 255)
+    private String fileName;
+}
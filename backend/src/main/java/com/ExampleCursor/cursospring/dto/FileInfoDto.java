@@ -5,8 +5,12 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.Instant;
+
 /**
- * Информация о файле в списке: имя (как хранится на диске) и размер в байтах.
+ * Информация о файле в списке: имя (как хранится на диске), размер в байтах и время изменения.
+ * sha256 (hex) известен для файлов, загруженных потоком (PUT), и для всех файлов при дедупликации;
+ * для остальных — null.
  */
 @Data
 @Builder
@@ -16,4 +20,6 @@ public class FileInfoDto {
 
     private String name;
     private long sizeInBytes;
+    private Instant lastModified;
+    private String sha256;
 }
@@ -0,0 +1,21 @@
+package com.ExampleCursor.cursospring.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Страница списка файлов. nextCursor передаётся в ?after= для получения следующей страницы;
+ * null, если страниц больше нет.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FileInfoPageResponse {
+
+    private List<FileInfoDto> items;
+    private String nextCursor;
+    private boolean hasMore;
+}
@@ -0,0 +1,25 @@
+package com.ExampleCursor.cursospring.dto;
+
+import lombok.*;
+
+/**
+ * Параметры постраничного списка файлов: префикс имени, курсор, размер страницы и сортировка.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FileQuery {
+
+    /** Только файлы, имя которых начинается с prefix; null или пустая строка — все. */
+    private String prefix;
+
+    /** Непрозрачный курсор из nextCursor предыдущей страницы; null — первая страница. */
+    private String after;
+
+    private Integer limit;
+
+    @Builder.Default
+    private FileSort sort = FileSort.NAME_ASC;
+}
@@ -0,0 +1,14 @@
+package com.ExampleCursor.cursospring.dto;
+
+/**
+ * Порядок сортировки списка файлов. Каждый вариант — отдельный упорядоченный набор в FileMetadataIndex,
+ * при равенстве размера или времени изменения порядок задаёт имя.
+ */
+public enum FileSort {
+    NAME_ASC,
+    NAME_DESC,
+    SIZE_DESC,
+    SIZE_ASC,
+    MODIFIED_DESC,
+    MODIFIED_ASC
+}
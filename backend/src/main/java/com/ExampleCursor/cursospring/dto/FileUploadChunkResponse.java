@@ -0,0 +1,18 @@
+package com.ExampleCursor.cursospring.dto;
+
+import lombok.*;
+
+/**
+ * Принятая часть загрузки: sha256 (hex) посчитан сервером по записанным байтам.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FileUploadChunkResponse {
+
+    private int index;
+    private long sizeInBytes;
+    private String sha256;
+}
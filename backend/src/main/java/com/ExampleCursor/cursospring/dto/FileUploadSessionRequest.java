@@ -0,0 +1,28 @@
+package com.ExampleCursor.cursospring.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+
+/**
+ * Начало возобновляемой загрузки: имя и полный размер файла; chunkSize — необязательный размер части в байтах.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FileUploadSessionRequest {
+
+    @NotBlank(message = "File name is required")
+    @Size(max = 255)
+    private String fileName;
+
+    @NotNull(message = "Size is required")
+    @PositiveOrZero
+    private Long size;
+
+    private Integer chunkSize;
+}
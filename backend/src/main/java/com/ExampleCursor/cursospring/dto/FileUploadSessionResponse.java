@@ -0,0 +1,27 @@
+package com.ExampleCursor.cursospring.dto;
+
+import lombok.*;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Состояние возобновляемой загрузки. Часть index занимает байты [index * chunkSize, min(size, (index + 1) * chunkSize));
+ * missingChunks — что ещё нужно отправить (в любом порядке и параллельно) перед завершением.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FileUploadSessionResponse {
+
+    private String uploadId;
+    private String fileName;
+    private long size;
+    private int chunkSize;
+    private int chunkCount;
+    private long receivedBytes;
+    private List<Integer> missingChunks;
+    private Instant expiresAt;
+}
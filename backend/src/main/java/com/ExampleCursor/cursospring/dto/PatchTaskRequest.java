@@ -0,0 +1,62 @@
+package com.ExampleCursor.cursospring.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+
+import java.time.LocalDate;
+
+/**
+ * Частичное обновление задачи (PATCH): меняются только поля, присутствующие в JSON.
+ * Явный null очищает description/dueDate; отсутствующее поле остаётся как есть.
+ */
+@Getter
+@NoArgsConstructor
+public class PatchTaskRequest {
+
+    @Size(max = 255)
+    private String title;
+
+    private String description;
+
+    private LocalDate dueDate;
+
+    private Boolean completed;
+
+    @JsonIgnore
+    private boolean titleSet;
+
+    @JsonIgnore
+    private boolean descriptionSet;
+
+    @JsonIgnore
+    private boolean dueDateSet;
+
+    @JsonIgnore
+    private boolean completedSet;
+
+    public void setTitle(String title) {
+        this.title = title;
+        this.titleSet = true;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+        this.descriptionSet = true;
+    }
+
+    public void setDueDate(LocalDate dueDate) {
+        this.dueDate = dueDate;
+        this.dueDateSet = true;
+    }
+
+    public void setCompleted(Boolean completed) {
+        this.completed = completed;
+        this.completedSet = true;
+    }
+
+    @JsonIgnore
+    public boolean isEmpty() {
+        return !titleSet && !descriptionSet && !dueDateSet && !completedSet;
+    }
+}
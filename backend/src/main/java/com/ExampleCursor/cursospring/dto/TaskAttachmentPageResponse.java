@@ -0,0 +1,20 @@
+package com.ExampleCursor.cursospring.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Страница задач со сводками вложений; курсор тот же, что у TaskPageResponse.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskAttachmentPageResponse {
+
+    private List<TaskWithAttachmentsResponse> items;
+    private String nextCursor;
+    private boolean hasMore;
+}
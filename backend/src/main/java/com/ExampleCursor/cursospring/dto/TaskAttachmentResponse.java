@@ -0,0 +1,33 @@
+package com.ExampleCursor.cursospring.dto;
+
+import com.ExampleCursor.cursospring.entity.TaskAttachment;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Сводка о вложении задачи: файл скачивается через GET /api/files/{fileName}.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskAttachmentResponse {
+
+    private Long id;
+    private Long taskId;
+    private String fileName;
+    private Long sizeInBytes;
+    private LocalDateTime createdAt;
+
+    public static TaskAttachmentResponse fromEntity(TaskAttachment attachment) {
+        return TaskAttachmentResponse.builder()
+                .id(attachment.getId())
+                .taskId(attachment.getTaskId())
+                .fileName(attachment.getFileName())
+                .sizeInBytes(attachment.getSizeInBytes())
+                .createdAt(attachment.getCreatedAt())
+                .build();
+    }
+}
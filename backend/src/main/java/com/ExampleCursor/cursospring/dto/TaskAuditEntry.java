@@ -0,0 +1,28 @@
+package com.ExampleCursor.cursospring.dto;
+
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Запись журнала аудита: seq — сквозной номер (продолжение — ?after=seq), type — CREATED/UPDATED/DELETED/ARCHIVED
+ * или IMPORTED (массовый импорт: только count, без состояний задач), user — кто изменил (null — фоновая задача),
+ * owner — чьих задач касается запись: её видит только он. before/after — задача до и после изменения.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskAuditEntry {
+
+    private long seq;
+    private Instant at;
+    private String type;
+    private Long taskId;
+    private String user;
+    private String owner;
+    private TaskResponse before;
+    private TaskResponse after;
+    private Long count;
+}
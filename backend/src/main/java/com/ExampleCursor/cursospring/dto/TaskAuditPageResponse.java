@@ -0,0 +1,22 @@
+package com.ExampleCursor.cursospring.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Порция журнала аудита. nextAfter передаётся в ?after= для следующей порции — это seq последней
+ * просмотренной записи, а не последней из items: чужие записи за ней уже пропущены.
+ * hasMore — в журнале есть записи после nextAfter.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskAuditPageResponse {
+
+    private List<TaskAuditEntry> items;
+    private long nextAfter;
+    private boolean hasMore;
+}
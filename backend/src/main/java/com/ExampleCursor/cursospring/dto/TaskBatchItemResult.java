@@ -0,0 +1,30 @@
+package com.ExampleCursor.cursospring.dto;
+
+import lombok.*;
+
+/**
+ * Результат одной операции пакета: index — позиция в запросе, task — задача после операции
+ * (для DELETE и ошибок null), error — причина, если операция не выполнена.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskBatchItemResult {
+
+    public enum Status {
+        CREATED,
+        UPDATED,
+        DELETED,
+        NOT_FOUND,
+        INVALID
+    }
+
+    private int index;
+    private TaskBatchOperationType type;
+    private Long id;
+    private Status status;
+    private TaskResponse task;
+    private String error;
+}
@@ -0,0 +1,33 @@
+package com.ExampleCursor.cursospring.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+
+import java.time.LocalDate;
+
+/**
+ * Одна операция пакетного запроса. Для CREATE нужен title; для UPDATE — id и title
+ * (поля как в PUT /api/tasks/{id}); для DELETE — только id.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskBatchOperation {
+
+    @NotNull
+    private TaskBatchOperationType type;
+
+    private Long id;
+
+    @Size(max = 255)
+    private String title;
+
+    private String description;
+
+    private LocalDate dueDate;
+
+    private Boolean completed;
+}
@@ -0,0 +1,7 @@
+package com.ExampleCursor.cursospring.dto;
+
+public enum TaskBatchOperationType {
+    CREATE,
+    UPDATE,
+    DELETE
+}
@@ -0,0 +1,22 @@
+package com.ExampleCursor.cursospring.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskBatchRequest {
+
+    public static final int MAX_OPERATIONS = 1000;
+
+    @NotEmpty
+    @Size(max = MAX_OPERATIONS)
+    private List<@Valid TaskBatchOperation> operations;
+}
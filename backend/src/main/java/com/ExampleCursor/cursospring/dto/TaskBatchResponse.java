@@ -0,0 +1,17 @@
+package com.ExampleCursor.cursospring.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskBatchResponse {
+
+    private List<TaskBatchItemResult> results;
+    private int succeeded;
+    private int failed;
+}
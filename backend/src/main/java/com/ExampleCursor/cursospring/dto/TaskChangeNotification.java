@@ -0,0 +1,18 @@
+package com.ExampleCursor.cursospring.dto;
+
+import lombok.*;
+
+/**
+ * Событие SSE-ленты: тип изменения (CREATED/UPDATED/DELETED), id задачи и её новое состояние (для DELETED — null).
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskChangeNotification {
+
+    private String type;
+    private Long taskId;
+    private TaskResponse task;
+}
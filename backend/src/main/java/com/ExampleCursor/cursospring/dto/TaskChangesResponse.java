@@ -0,0 +1,22 @@
+package com.ExampleCursor.cursospring.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Изменения задач с момента токена: созданные и изменённые задачи целиком, удалённые — только id.
+ * nextToken передаётся в ?since= следующего запроса; hasMore — изменения ещё есть, запросить сразу.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskChangesResponse {
+
+    private List<TaskResponse> upserted;
+    private List<Long> deleted;
+    private String nextToken;
+    private boolean hasMore;
+}
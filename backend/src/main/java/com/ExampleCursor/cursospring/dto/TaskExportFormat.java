@@ -0,0 +1,17 @@
+package com.ExampleCursor.cursospring.dto;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Формат выгрузки задач: NDJSON (один JSON-объект на строку) или CSV с заголовком.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum TaskExportFormat {
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String fileExtension;
+}
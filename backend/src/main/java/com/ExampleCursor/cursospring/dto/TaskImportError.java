@@ -0,0 +1,17 @@
+package com.ExampleCursor.cursospring.dto;
+
+import lombok.*;
+
+/**
+ * Отклонённая строка импорта: line — номер строки в файле (с 1), с которой начинается запись.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskImportError {
+
+    private long line;
+    private String error;
+}
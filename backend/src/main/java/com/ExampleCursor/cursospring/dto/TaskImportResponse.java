@@ -0,0 +1,21 @@
+package com.ExampleCursor.cursospring.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Итог импорта: imported — добавлено задач, failed — отклонено строк. errors — первые ошибки
+ * (не больше app.import.max-reported-errors), остальные только учтены в failed.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskImportResponse {
+
+    private long imported;
+    private long failed;
+    private List<TaskImportError> errors;
+}
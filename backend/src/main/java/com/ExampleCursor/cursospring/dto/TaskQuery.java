@@ -0,0 +1,38 @@
+package com.ExampleCursor.cursospring.dto;
+
+import lombok.*;
+
+import java.time.LocalDate;
+
+/**
+ * Параметры постраничного списка задач: курсор, размер страницы, фильтры и сортировка.
+ * Пустые (null) фильтры не применяются. equals/hashCode нужны для ключа кэша страниц.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode
+public class TaskQuery {
+
+    /** Владелец задач — текущий пользователь; входит в ключ кэша страниц. */
+    private String owner;
+
+    /** Непрозрачный курсор из nextCursor предыдущей страницы; null — первая страница. */
+    private String after;
+
+    private Integer limit;
+
+    private Boolean completed;
+
+    private LocalDate dueFrom;
+
+    private LocalDate dueTo;
+
+    @Builder.Default
+    private TaskSort sort = TaskSort.ID_ASC;
+
+    /** true — вместе с архивными задачами (tasks_archive), иначе только рабочая таблица. */
+    private boolean includeArchived;
+}
@@ -0,0 +1,24 @@
+package com.ExampleCursor.cursospring.dto;
+
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Напоминание о наступившем сроке задачи (см. TaskReminderService).
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskReminder {
+
+    private Long taskId;
+    /** Владелец задачи: SSE-лента доставляет напоминание только ему. */
+    private String owner;
+    private String title;
+    private LocalDate dueDate;
+    private LocalDateTime remindAt;
+}
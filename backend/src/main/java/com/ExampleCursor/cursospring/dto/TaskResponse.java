@@ -20,6 +20,8 @@ public class TaskResponse {
     private Boolean completed;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private Long version;
+    private String owner;
 
     public static TaskResponse fromEntity(Task task) {
         return TaskResponse.builder()
@@ -30,6 +32,8 @@ public class TaskResponse {
                 .completed(task.getCompleted())
                 .createdAt(task.getCreatedAt())
                 .updatedAt(task.getUpdatedAt())
+                .version(task.getVersion())
+                .owner(task.getOwner())
                 .build();
     }
 }
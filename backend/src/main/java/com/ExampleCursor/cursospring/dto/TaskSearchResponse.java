@@ -0,0 +1,19 @@
+package com.ExampleCursor.cursospring.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskSearchResponse {
+
+    private String query;
+    private int page;
+    private int size;
+    private boolean hasMore;
+    private List<TaskSearchResult> items;
+}
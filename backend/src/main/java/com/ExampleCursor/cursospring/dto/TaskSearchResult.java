@@ -0,0 +1,15 @@
+package com.ExampleCursor.cursospring.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskSearchResult {
+
+    private TaskResponse task;
+    /** Релевантность: чем больше, тем лучше совпадение. Сравнима только внутри одного запроса. */
+    private double score;
+}
@@ -0,0 +1,12 @@
+package com.ExampleCursor.cursospring.dto;
+
+/**
+ * Порядок сортировки списка задач. Каждый вариант опирается на индекс:
+ * по id — первичный ключ, по created_at — idx_tasks_created_at_id (created_at, id).
+ */
+public enum TaskSort {
+    ID_ASC,
+    ID_DESC,
+    CREATED_AT_DESC,
+    CREATED_AT_ASC
+}
@@ -0,0 +1,24 @@
+package com.ExampleCursor.cursospring.dto;
+
+import lombok.*;
+
+import java.time.LocalDate;
+
+/**
+ * Сводка по задачам. overdue — открытые со сроком раньше date; dueThisWeek — открытые
+ * со сроком от date до воскресенья текущей недели включительно.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskStatsResponse {
+
+    private LocalDate date;
+    private long total;
+    private long completed;
+    private long open;
+    private long overdue;
+    private long dueThisWeek;
+}
@@ -0,0 +1,16 @@
+package com.ExampleCursor.cursospring.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskWithAttachmentsResponse {
+
+    private TaskResponse task;
+    private List<TaskAttachmentResponse> attachments;
+}
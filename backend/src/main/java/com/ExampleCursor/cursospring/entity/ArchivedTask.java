@@ -0,0 +1,55 @@
+package com.ExampleCursor.cursospring.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Задача, перенесённая архиватором (TaskArchiveService) из tasks в tasks_archive.
+ * Колонки те же, что у Task (вместе с владельцем), плюс время переноса; id сохраняется прежним.
+ */
+@Entity
+@Table(name = "tasks_archive", indexes = {
+        @Index(name = "idx_tasks_archive_owner_id", columnList = "owner, id"),
+        @Index(name = "idx_tasks_archive_owner_created_at_id", columnList = "owner, created_at, id"),
+        @Index(name = "idx_tasks_archive_due_date", columnList = "due_date, id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ArchivedTask {
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false, length = 100)
+    private String owner;
+
+    @Column(nullable = false, length = 255)
+    private String title;
+
+    @Column(columnDefinition = "TEXT")
+    private String description;
+
+    @Column(name = "due_date")
+    private LocalDate dueDate;
+
+    @Column(nullable = false)
+    private Boolean completed;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Column(nullable = false)
+    private Long version;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+}
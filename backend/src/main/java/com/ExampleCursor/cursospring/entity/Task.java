@@ -2,12 +2,25 @@ package com.ExampleCursor.cursospring.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 
+/**
+ * Схема в PostgreSQL задаётся миграциями Flyway (db/migration), Hibernate её только проверяет.
+ * Индексы ниже нужны схеме, которую Hibernate создаёт сам (H2 в тестах); в PostgreSQL
+ * idx_tasks_open_due_date частичный (WHERE completed = false) и есть ещё idx_tasks_archivable.
+ */
 @Entity
-@Table(name = "tasks")
+@Table(name = "tasks", indexes = {
+        @Index(name = "idx_tasks_owner_id", columnList = "owner, id"),
+        @Index(name = "idx_tasks_owner_created_at_id", columnList = "owner, created_at, id"),
+        @Index(name = "idx_tasks_owner_updated_at_id", columnList = "owner, updated_at, id"),
+        @Index(name = "idx_tasks_owner_completed_due_date", columnList = "owner, completed, due_date"),
+        @Index(name = "idx_tasks_open_due_date", columnList = "due_date, id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -15,10 +28,23 @@ import java.time.LocalDateTime;
 @Builder
 public class Task {
 
+    /**
+     * Id из последовательности tasks_id_seq с шагом 50 (pooled-оптимизатор): один nextval на 50 вставок.
+     * С IDENTITY Hibernate вынужден выполнять каждый INSERT сразу и не может собирать их в JDBC-батч.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tasks_id_seq")
+    @SequenceGenerator(name = "tasks_id_seq", sequenceName = "tasks_id_seq", allocationSize = 50)
     private Long id;
 
+    /**
+     * Владелец — имя аутентифицированного пользователя. Все запросы от имени пользователя
+     * ограничены его задачами, и индексы начинаются с owner: стоимость запроса зависит от числа
+     * задач пользователя, а не от размера таблицы.
+     */
+    @Column(nullable = false, length = 100, updatable = false)
+    private String owner;
+
     @Column(nullable = false, length = 255)
     private String title;
 
@@ -38,9 +64,23 @@ public class Task {
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
 
+    /**
+     * Версия для оптимистичной блокировки: растёт на каждом UPDATE, в том числе в одиночных
+     * UPDATE ... RETURNING из TaskRepositoryImpl. Из неё строится ETag, по ней проверяется If-Match.
+     */
+    @Version
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private Long version;
+
+    /** Время с точностью до микросекунд — как хранит timestamp в PostgreSQL. */
+    public static LocalDateTime now() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    }
+
     @PrePersist
     protected void onCreate() {
-        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime now = now();
         if (createdAt == null) {
             createdAt = now;
         }
@@ -51,6 +91,6 @@ public class Task {
 
     @PreUpdate
     protected void onUpdate() {
-        updatedAt = LocalDateTime.now();
+        updatedAt = now();
     }
 }
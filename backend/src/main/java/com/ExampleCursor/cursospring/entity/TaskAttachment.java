@@ -0,0 +1,54 @@
+package com.ExampleCursor.cursospring.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Файл из FileStorageService, прикреплённый к задаче. Связь с Task — только task_id, без
+ * {@code @OneToMany} в Task: вложения к странице задач читаются одним запросом по id всей страницы
+ * (TaskAttachmentRepository.findResponsesByTaskIdIn), а не по запросу на задачу.
+ * Внешнего ключа нет: при переносе в tasks_archive вложения остаются за задачей, а при удалении
+ * задачи удаляются вместе с ней (TaskRepositoryImpl.deleteReturning, TaskService.applyBatch).
+ */
+@Entity
+@Table(name = "task_attachments",
+        uniqueConstraints = @UniqueConstraint(name = "uk_task_attachments_task_id_file_name",
+                columnNames = {"task_id", "file_name"}),
+        indexes = @Index(name = "idx_task_attachments_file_name", columnList = "file_name"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskAttachment {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "task_id", nullable = false, updatable = false)
+    private Long taskId;
+
+    @Column(nullable = false, length = 100, updatable = false)
+    private String owner;
+
+    /** Имя файла в FileStorageService, как в GET /api/files/{fileName}. */
+    @Column(name = "file_name", nullable = false, length = 255, updatable = false)
+    private String fileName;
+
+    /** Размер на момент прикрепления: список задач не обращается к диску. */
+    @Column(name = "size_in_bytes", nullable = false)
+    private Long sizeInBytes;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = Task.now();
+        }
+    }
+}
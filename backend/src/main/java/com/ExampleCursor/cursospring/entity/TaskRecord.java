@@ -0,0 +1,51 @@
+package com.ExampleCursor.cursospring.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.Getter;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.Subselect;
+import org.hibernate.annotations.Synchronize;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Рабочие и архивные задачи вместе (UNION ALL tasks и tasks_archive), только для чтения —
+ * для запросов с ?includeArchived=true. Условия запросов PostgreSQL переносит внутрь
+ * обеих веток, так что индексы каждой таблицы используются как обычно.
+ */
+@Entity
+@Immutable
+@Subselect("""
+        select id, owner, title, description, due_date, completed, created_at, updated_at, version from tasks
+        union all
+        select id, owner, title, description, due_date, completed, created_at, updated_at, version from tasks_archive
+        """)
+@Synchronize({"tasks", "tasks_archive"})
+@Getter
+public class TaskRecord {
+
+    @Id
+    private Long id;
+
+    private String owner;
+
+    private String title;
+
+    private String description;
+
+    @Column(name = "due_date")
+    private LocalDate dueDate;
+
+    private Boolean completed;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    private Long version;
+}
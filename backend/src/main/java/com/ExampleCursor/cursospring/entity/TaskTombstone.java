@@ -0,0 +1,34 @@
+package com.ExampleCursor.cursospring.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Надгробие удалённой (или перенесённой в архив) задачи: по нему GET /api/tasks/changes сообщает
+ * клиенту, что задачу нужно убрать. Пишется в той же транзакции, что и удаление.
+ */
+@Entity
+@Table(name = "task_tombstones", indexes = {
+        @Index(name = "idx_task_tombstones_owner_deleted_at_id", columnList = "owner, deleted_at, task_id"),
+        @Index(name = "idx_task_tombstones_deleted_at_id", columnList = "deleted_at, task_id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskTombstone {
+
+    @Id
+    @Column(name = "task_id")
+    private Long taskId;
+
+    /** Владелец удалённой задачи: синхронизация отдаёт пользователю только его удаления. */
+    @Column(nullable = false, length = 100)
+    private String owner;
+
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+}
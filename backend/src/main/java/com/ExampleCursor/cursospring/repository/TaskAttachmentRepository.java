@@ -0,0 +1,60 @@
+package com.ExampleCursor.cursospring.repository;
+
+import com.ExampleCursor.cursospring.dto.TaskAttachmentResponse;
+import com.ExampleCursor.cursospring.entity.TaskAttachment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface TaskAttachmentRepository extends JpaRepository<TaskAttachment, Long> {
+
+    /**
+     * Вложения всех задач страницы одним запросом (task_id in :taskIds по уникальному индексу
+     * (task_id, file_name)): число запросов на страницу не зависит от её размера.
+     */
+    @Query("""
+            select new com.ExampleCursor.cursospring.dto.TaskAttachmentResponse(
+                a.id, a.taskId, a.fileName, a.sizeInBytes, a.createdAt)
+            from TaskAttachment a
+            where a.owner = :owner
+              and a.taskId in :taskIds
+            order by a.taskId, a.fileName
+            """)
+    List<TaskAttachmentResponse> findResponsesByTaskIdIn(@Param("owner") String owner,
+                                                         @Param("taskIds") Collection<Long> taskIds);
+
+    Optional<TaskAttachment> findByTaskIdAndFileName(Long taskId, String fileName);
+
+    /**
+     * Вставка, если такого вложения (task_id, file_name) ещё нет: параллельное прикрепление того же файла
+     * ждёт чужую вставку и ничего не делает, вместо ошибки уникального ключа. Возвращает 1 или 0.
+     * Без списка колонок в ON CONFLICT — его не понимает H2 в тестах; другого уникального ключа, кроме
+     * identity id, у таблицы нет.
+     */
+    @Modifying
+    @Query(value = """
+            insert into task_attachments (task_id, owner, file_name, size_in_bytes, created_at)
+            values (:taskId, :owner, :fileName, :sizeInBytes, :createdAt)
+            on conflict do nothing
+            """, nativeQuery = true)
+    int insertIfAbsent(@Param("taskId") Long taskId, @Param("owner") String owner, @Param("fileName") String fileName,
+                       @Param("sizeInBytes") Long sizeInBytes, @Param("createdAt") LocalDateTime createdAt);
+
+    @Modifying
+    @Query("delete from TaskAttachment a where a.owner = :owner and a.taskId = :taskId and a.id = :id")
+    int deleteByOwnerAndTaskIdAndId(@Param("owner") String owner, @Param("taskId") Long taskId, @Param("id") Long id);
+
+    @Modifying
+    @Query("delete from TaskAttachment a where a.taskId in :taskIds")
+    int deleteByTaskIdIn(@Param("taskIds") Collection<Long> taskIds);
+
+    @Modifying
+    @Query("delete from TaskAttachment a where a.fileName = :fileName")
+    int deleteByFileName(@Param("fileName") String fileName);
+}
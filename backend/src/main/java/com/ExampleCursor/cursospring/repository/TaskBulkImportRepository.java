@@ -0,0 +1,219 @@
+package com.ExampleCursor.cursospring.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.function.Supplier;
+
+/**
+ * Массовая загрузка задач (только PostgreSQL): строки идут протоколом COPY во временную таблицу
+ * tasks_import, затем INSERT ... SELECT переносит их в tasks частями по mergeChunkSize строк.
+ * Ни строки, ни батчи в памяти не копятся — память не зависит от размера загрузки.
+ * <p>
+ * Каждая часть — своя короткая транзакция со своим created_at/updated_at: одна транзакция на весь файл
+ * коммитилась бы позже settle-window после своего updated_at, и клиенты синхронизации, уже получившие
+ * токен дальше этого времени, её задачи не увидели бы (см. TaskSyncProperties.settleWindow). Поэтому
+ * вызывать вне транзакции: загрузка держит одно соединение и сама управляет его транзакциями,
+ * tasks_import живёт в его сессии и удаляется в конце. Ошибка при переносе оставляет уже перенесённые части.
+ * <p>
+ * id берутся из tasks_id_seq теми же блоками по 50, что и у Hibernate (pooled-оптимизатор):
+ * nextval = hi отдаёт загрузке id (hi - 49 .. hi], пересечься с приложением они не могут.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TaskBulkImportRepository {
+
+    /** Совпадает с INCREMENT BY у tasks_id_seq и allocationSize у Task.id. */
+    private static final int ID_BLOCK_SIZE = 50;
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    private static final String CREATE_STAGING = """
+            CREATE TEMP TABLE tasks_import (
+                line BIGINT NOT NULL PRIMARY KEY,
+                title VARCHAR(255) NOT NULL,
+                description TEXT,
+                due_date DATE,
+                completed BOOLEAN NOT NULL
+            )""";
+
+    private static final String DROP_STAGING = "DROP TABLE IF EXISTS tasks_import";
+
+    private static final String COPY_STAGING =
+            "COPY tasks_import (line, title, description, due_date, completed) FROM STDIN (FORMAT csv)";
+
+    /** Граница следующей части: последняя строка и число строк после line = ?. */
+    private static final String NEXT_CHUNK = """
+            SELECT max(line), count(*)
+            FROM (SELECT line FROM tasks_import WHERE line > ? ORDER BY line LIMIT ?) chunk""";
+
+    /**
+     * Номера строк части (rn) сопоставляются с id из выделенных блоков. Блоков на один
+     * больше, чем нужно: первый nextval новой последовательности (hi = 1) даёт блок из одного id.
+     */
+    private static final String MERGE = """
+            WITH ids AS (
+                SELECT id, row_number() OVER (ORDER BY id) AS rn
+                FROM (SELECT nextval('tasks_id_seq') AS hi FROM generate_series(1, ?)) blocks,
+                     generate_series(greatest(blocks.hi - %1$d + 1, 1), blocks.hi) AS id
+            ), staged AS (
+                SELECT row_number() OVER (ORDER BY line) AS rn, title, description, due_date, completed
+                FROM tasks_import
+                WHERE line > ? AND line <= ?
+            )
+            INSERT INTO tasks (id, owner, title, description, due_date, completed, created_at, updated_at, version)
+            SELECT ids.id, ?, staged.title, staged.description, staged.due_date, staged.completed, ?, ?, 0
+            FROM staged JOIN ids USING (rn)""".formatted(ID_BLOCK_SIZE);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Загружает строки, которые source пишет в StagingWriter, как задачи owner и возвращает число добавленных.
+     * Время created_at/updated_at каждой части берётся из clock в начале её транзакции.
+     */
+    public long importTasks(String owner, RowSource source, Supplier<LocalDateTime> clock, int mergeChunkSize) {
+        return jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            if (!connection.isWrapperFor(PGConnection.class)) {
+                throw new IllegalStateException("Bulk import requires PostgreSQL");
+            }
+            if (!connection.getAutoCommit()) {
+                throw new IllegalStateException("Bulk import manages its own transactions, call it outside one");
+            }
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(DROP_STAGING);
+                statement.execute(CREATE_STAGING);
+            }
+            try {
+                return copy(connection, source) == 0 ? 0L : merge(connection, owner, clock, mergeChunkSize);
+            } finally {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute(DROP_STAGING);
+                }
+            }
+        });
+    }
+
+    private static long copy(Connection connection, RowSource source) throws SQLException {
+        PGCopyOutputStream copy = new PGCopyOutputStream(
+                connection.unwrap(PGConnection.class), COPY_STAGING, COPY_BUFFER_SIZE);
+        try {
+            source.writeTo(new StagingWriter(copy));
+            return copy.endCopy();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            if (copy.isActive()) {
+                copy.cancelCopy();
+            }
+        }
+    }
+
+    private static long merge(Connection connection, String owner, Supplier<LocalDateTime> clock, int chunkSize)
+            throws SQLException {
+        long merged = 0;
+        long after = Long.MIN_VALUE;
+        try (PreparedStatement next = connection.prepareStatement(NEXT_CHUNK);
+             PreparedStatement insert = connection.prepareStatement(MERGE)) {
+            while (true) {
+                next.setLong(1, after);
+                next.setInt(2, chunkSize);
+                long last;
+                long rows;
+                try (ResultSet chunk = next.executeQuery()) {
+                    chunk.next();
+                    last = chunk.getLong(1);
+                    rows = chunk.getLong(2);
+                }
+                if (rows == 0) {
+                    return merged;
+                }
+                connection.setAutoCommit(false);
+                try {
+                    LocalDateTime now = clock.get();
+                    insert.setLong(1, (rows + ID_BLOCK_SIZE - 1) / ID_BLOCK_SIZE + 1);
+                    insert.setLong(2, after);
+                    insert.setLong(3, last);
+                    insert.setString(4, owner);
+                    insert.setTimestamp(5, Timestamp.valueOf(now));
+                    insert.setTimestamp(6, Timestamp.valueOf(now));
+                    merged += insert.executeUpdate();
+                    connection.commit();
+                } catch (SQLException | RuntimeException e) {
+                    connection.rollback();
+                    throw e;
+                } finally {
+                    connection.setAutoCommit(true);
+                }
+                after = last;
+            }
+        }
+    }
+
+    /**
+     * Поставщик строк загрузки; исключение из writeTo отменяет COPY и всю загрузку.
+     */
+    @FunctionalInterface
+    public interface RowSource {
+
+        void writeTo(StagingWriter writer) throws IOException;
+    }
+
+    /**
+     * Строка в формате COPY CSV: все значения в кавычках, null — пустое поле без кавычек.
+     * line — номер строки в исходном файле, задаёт порядок id.
+     */
+    public static final class StagingWriter {
+
+        private final OutputStream out;
+        private final StringBuilder row = new StringBuilder();
+
+        private StagingWriter(OutputStream out) {
+            this.out = out;
+        }
+
+        public void write(long line, String title, String description, LocalDate dueDate, boolean completed)
+                throws IOException {
+            row.setLength(0);
+            row.append(line).append(',');
+            quote(title);
+            row.append(',');
+            quote(description);
+            row.append(',');
+            if (dueDate != null) {
+                row.append(dueDate);
+            }
+            row.append(',').append(completed).append('\n');
+            out.write(row.toString().getBytes(StandardCharsets.UTF_8));
+        }
+
+        private void quote(String value) {
+            if (value == null) {
+                return;
+            }
+            row.append('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"') {
+                    row.append('"');
+                }
+                row.append(c);
+            }
+            row.append('"');
+        }
+    }
+}
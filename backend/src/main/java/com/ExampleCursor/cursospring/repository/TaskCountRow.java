@@ -0,0 +1,15 @@
+package com.ExampleCursor.cursospring.repository;
+
+import java.time.LocalDate;
+
+/**
+ * Количество задач с данным статусом и сроком (строка GROUP BY completed, due_date).
+ */
+public interface TaskCountRow {
+
+    Boolean getCompleted();
+
+    LocalDate getDueDate();
+
+    Long getCount();
+}
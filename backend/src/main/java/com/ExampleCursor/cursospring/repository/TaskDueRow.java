@@ -0,0 +1,13 @@
+package com.ExampleCursor.cursospring.repository;
+
+import java.time.LocalDate;
+
+/**
+ * Открытая задача со сроком: ровно то, что нужно колесу напоминаний, без остальных колонок.
+ */
+public interface TaskDueRow {
+
+    Long getId();
+
+    LocalDate getDueDate();
+}
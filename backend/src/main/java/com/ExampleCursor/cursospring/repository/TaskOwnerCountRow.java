@@ -0,0 +1,9 @@
+package com.ExampleCursor.cursospring.repository;
+
+/**
+ * Количество задач владельца с данным статусом и сроком (строка GROUP BY owner, completed, due_date).
+ */
+public interface TaskOwnerCountRow extends TaskCountRow {
+
+    String getOwner();
+}
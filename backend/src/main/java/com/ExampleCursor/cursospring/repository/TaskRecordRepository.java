@@ -0,0 +1,103 @@
+package com.ExampleCursor.cursospring.repository;
+
+import com.ExampleCursor.cursospring.dto.TaskResponse;
+import com.ExampleCursor.cursospring.entity.TaskRecord;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Чтение задач вместе с архивом (?includeArchived=true). Те же запросы, что в TaskRepository,
+ * но по TaskRecord (tasks UNION ALL tasks_archive).
+ */
+public interface TaskRecordRepository extends Repository<TaskRecord, Long> {
+
+    @Query("""
+            select new com.ExampleCursor.cursospring.dto.TaskResponse(
+                t.id, t.title, t.description, t.dueDate, t.completed, t.createdAt, t.updatedAt, t.version, t.owner)
+            from TaskRecord t
+            where t.owner = :owner
+              and t.id = :id
+            """)
+    Optional<TaskResponse> findResponseById(@Param("owner") String owner, @Param("id") Long id);
+
+    @Query("""
+            select new com.ExampleCursor.cursospring.dto.TaskResponse(
+                t.id, t.title, t.description, t.dueDate, t.completed, t.createdAt, t.updatedAt, t.version, t.owner)
+            from TaskRecord t
+            where t.owner = :owner
+              and t.id > :afterId
+              and (:completed is null or t.completed = :completed)
+              and (:dueFrom is null or t.dueDate >= :dueFrom)
+              and (:dueTo is null or t.dueDate <= :dueTo)
+            order by t.id asc
+            """)
+    List<TaskResponse> findPageByIdAsc(@Param("owner") String owner,
+                                       @Param("afterId") Long afterId,
+                                       @Param("completed") Boolean completed,
+                                       @Param("dueFrom") LocalDate dueFrom,
+                                       @Param("dueTo") LocalDate dueTo,
+                                       Limit limit);
+
+    @Query("""
+            select new com.ExampleCursor.cursospring.dto.TaskResponse(
+                t.id, t.title, t.description, t.dueDate, t.completed, t.createdAt, t.updatedAt, t.version, t.owner)
+            from TaskRecord t
+            where t.owner = :owner
+              and t.id < :afterId
+              and (:completed is null or t.completed = :completed)
+              and (:dueFrom is null or t.dueDate >= :dueFrom)
+              and (:dueTo is null or t.dueDate <= :dueTo)
+            order by t.id desc
+            """)
+    List<TaskResponse> findPageByIdDesc(@Param("owner") String owner,
+                                        @Param("afterId") Long afterId,
+                                        @Param("completed") Boolean completed,
+                                        @Param("dueFrom") LocalDate dueFrom,
+                                        @Param("dueTo") LocalDate dueTo,
+                                        Limit limit);
+
+    @Query("""
+            select new com.ExampleCursor.cursospring.dto.TaskResponse(
+                t.id, t.title, t.description, t.dueDate, t.completed, t.createdAt, t.updatedAt, t.version, t.owner)
+            from TaskRecord t
+            where t.owner = :owner
+              and (t.createdAt, t.id) < (:afterCreatedAt, :afterId)
+              and (:completed is null or t.completed = :completed)
+              and (:dueFrom is null or t.dueDate >= :dueFrom)
+              and (:dueTo is null or t.dueDate <= :dueTo)
+            order by t.createdAt desc, t.id desc
+            """)
+    List<TaskResponse> findPageByCreatedAtDesc(@Param("owner") String owner,
+                                               @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                               @Param("afterId") Long afterId,
+                                               @Param("completed") Boolean completed,
+                                               @Param("dueFrom") LocalDate dueFrom,
+                                               @Param("dueTo") LocalDate dueTo,
+                                               Limit limit);
+
+    @Query("""
+            select new com.ExampleCursor.cursospring.dto.TaskResponse(
+                t.id, t.title, t.description, t.dueDate, t.completed, t.createdAt, t.updatedAt, t.version, t.owner)
+            from TaskRecord t
+            where t.owner = :owner
+              and (t.createdAt, t.id) > (:afterCreatedAt, :afterId)
+              and (:completed is null or t.completed = :completed)
+              and (:dueFrom is null or t.dueDate >= :dueFrom)
+              and (:dueTo is null or t.dueDate <= :dueTo)
+            order by t.createdAt asc, t.id asc
+            """)
+    List<TaskResponse> findPageByCreatedAtAsc(@Param("owner") String owner,
+                                              @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                              @Param("afterId") Long afterId,
+                                              @Param("completed") Boolean completed,
+                                              @Param("dueFrom") LocalDate dueFrom,
+                                              @Param("dueTo") LocalDate dueTo,
+                                              Limit limit);
+}
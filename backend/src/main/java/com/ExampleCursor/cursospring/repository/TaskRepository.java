@@ -1,7 +1,287 @@
 package com.ExampleCursor.cursospring.repository;
 
+import com.ExampleCursor.cursospring.dto.TaskResponse;
 import com.ExampleCursor.cursospring.entity.Task;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.jpa.SpecHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
-public interface TaskRepository extends JpaRepository<Task, Long> {
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface TaskRepository extends JpaRepository<Task, Long>, TaskRepositoryCustom {
+
+    /*
+     * Все запросы чтения возвращают TaskResponse напрямую (constructor expression):
+     * Hibernate не создаёт управляемые сущности, не хранит их снимки для dirty checking
+     * и не копирует их потом в DTO.
+     *
+     * Запросы от имени пользователя ограничены его задачами (t.owner = :owner), и их индексы
+     * начинаются с owner. Без владельца работают только фоновые задачи по всем пользователям:
+     * построение индекса поиска, статистика, напоминания, архиватор.
+     */
+
+    @Query("""
+            select new com.ExampleCursor.cursospring.dto.TaskResponse(
+                t.id, t.title, t.description, t.dueDate, t.completed, t.createdAt, t.updatedAt, t.version, t.owner)
+            from Task t
+            where t.owner = :owner
+              and t.id = :id
+            """)
+    Optional<TaskResponse> findResponseById(@Param("owner") String owner, @Param("id") Long id);
+
+    /*
+     * Keyset-пагинация: вместо OFFSET условие "после последнего ключа" + LIMIT.
+     * Стоимость страницы не зависит от её номера и размера таблицы.
+     * Ключ курсора всегда задан (для первой страницы — граничное значение из TaskCursor),
+     * чтобы условие по ключу шло прямо в индекс. Составной ключ сравнивается как строка —
+     * (created_at, id) < (:at, :id): такое условие PostgreSQL целиком превращает в границу
+     * индекса idx_tasks_created_at_id, а развёрнутое через OR — только фильтрует строки.
+     * Фильтр со значением null не применяется.
+     */
+
+    @Query("""
+            select new com.ExampleCursor.cursospring.dto.TaskResponse(
+                t.id, t.title, t.description, t.dueDate, t.completed, t.createdAt, t.updatedAt, t.version, t.owner)
+            from Task t
+            where t.owner = :owner
+              and t.id > :afterId
+              and (:completed is null or t.completed = :completed)
+              and (:dueFrom is null or t.dueDate >= :dueFrom)
+              and (:dueTo is null or t.dueDate <= :dueTo)
+            order by t.id asc
+            """)
+    List<TaskResponse> findPageByIdAsc(@Param("owner") String owner,
+                                       @Param("afterId") Long afterId,
+                                       @Param("completed") Boolean completed,
+                                       @Param("dueFrom") LocalDate dueFrom,
+                                       @Param("dueTo") LocalDate dueTo,
+                                       Limit limit);
+
+    @Query("""
+            select new com.ExampleCursor.cursospring.dto.TaskResponse(
+                t.id, t.title, t.description, t.dueDate, t.completed, t.createdAt, t.updatedAt, t.version, t.owner)
+            from Task t
+            where t.owner = :owner
+              and t.id < :afterId
+              and (:completed is null or t.completed = :completed)
+              and (:dueFrom is null or t.dueDate >= :dueFrom)
+              and (:dueTo is null or t.dueDate <= :dueTo)
+            order by t.id desc
+            """)
+    List<TaskResponse> findPageByIdDesc(@Param("owner") String owner,
+                                        @Param("afterId") Long afterId,
+                                        @Param("completed") Boolean completed,
+                                        @Param("dueFrom") LocalDate dueFrom,
+                                        @Param("dueTo") LocalDate dueTo,
+                                        Limit limit);
+
+    @Query("""
+            select new com.ExampleCursor.cursospring.dto.TaskResponse(
+                t.id, t.title, t.description, t.dueDate, t.completed, t.createdAt, t.updatedAt, t.version, t.owner)
+            from Task t
+            where t.owner = :owner
+              and (t.createdAt, t.id) < (:afterCreatedAt, :afterId)
+              and (:completed is null or t.completed = :completed)
+              and (:dueFrom is null or t.dueDate >= :dueFrom)
+              and (:dueTo is null or t.dueDate <= :dueTo)
+            order by t.createdAt desc, t.id desc
+            """)
+    List<TaskResponse> findPageByCreatedAtDesc(@Param("owner") String owner,
+                                               @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                               @Param("afterId") Long afterId,
+                                               @Param("completed") Boolean completed,
+                                               @Param("dueFrom") LocalDate dueFrom,
+                                               @Param("dueTo") LocalDate dueTo,
+                                               Limit limit);
+
+    @Query("""
+            select new com.ExampleCursor.cursospring.dto.TaskResponse(
+                t.id, t.title, t.description, t.dueDate, t.completed, t.createdAt, t.updatedAt, t.version, t.owner)
+            from Task t
+            where t.owner = :owner
+              and (t.createdAt, t.id) > (:afterCreatedAt, :afterId)
+              and (:completed is null or t.completed = :completed)
+              and (:dueFrom is null or t.dueDate >= :dueFrom)
+              and (:dueTo is null or t.dueDate <= :dueTo)
+            order by t.createdAt asc, t.id asc
+            """)
+    List<TaskResponse> findPageByCreatedAtAsc(@Param("owner") String owner,
+                                              @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                              @Param("afterId") Long afterId,
+                                              @Param("completed") Boolean completed,
+                                              @Param("dueFrom") LocalDate dueFrom,
+                                              @Param("dueTo") LocalDate dueTo,
+                                              Limit limit);
+
+    /**
+     * Все задачи курсором по 1000 строк (fetch size) — для фонового построения индекса поиска.
+     * Вызывать внутри транзакции и закрывать Stream: иначе PostgreSQL JDBC читает всю выборку в память.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("""
+            select new com.ExampleCursor.cursospring.dto.TaskResponse(
+                t.id, t.title, t.description, t.dueDate, t.completed, t.createdAt, t.updatedAt, t.version, t.owner)
+            from Task t
+            order by t.id
+            """)
+    Stream<TaskResponse> streamAll();
+
+    /**
+     * Задачи пользователя тем же курсором, по индексу idx_tasks_owner_id (выгрузка).
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("""
+            select new com.ExampleCursor.cursospring.dto.TaskResponse(
+                t.id, t.title, t.description, t.dueDate, t.completed, t.createdAt, t.updatedAt, t.version, t.owner)
+            from Task t
+            where t.owner = :owner
+            order by t.id
+            """)
+    Stream<TaskResponse> streamByOwner(@Param("owner") String owner);
+
+    @Query("""
+            select new com.ExampleCursor.cursospring.dto.TaskResponse(
+                t.id, t.title, t.description, t.dueDate, t.completed, t.createdAt, t.updatedAt, t.version, t.owner)
+            from Task t
+            where t.owner = :owner
+              and t.id in :ids
+            """)
+    List<TaskResponse> findResponsesByIdIn(@Param("owner") String owner, @Param("ids") Collection<Long> ids);
+
+    /**
+     * Задачи по id у всех владельцев — для напоминаний, которые колесо выбирает по сроку.
+     */
+    @Query("""
+            select new com.ExampleCursor.cursospring.dto.TaskResponse(
+                t.id, t.title, t.description, t.dueDate, t.completed, t.createdAt, t.updatedAt, t.version, t.owner)
+            from Task t
+            where t.id in :ids
+            """)
+    List<TaskResponse> findAllOwnersResponsesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Сущности пользователя по id (пакетные операции): чужие задачи для него не существуют.
+     */
+    List<Task> findByOwnerAndIdIn(String owner, Collection<Long> ids);
+
+    Optional<Task> findByIdAndOwner(Long id, String owner);
+
+    /**
+     * Полнотекстовый поиск по сгенерированной колонке search_vector (GIN-индекс idx_tasks_search_vector,
+     * см. backend/sql). Запрос в синтаксисе websearch_to_tsquery: слова, "фразы", -исключения, or.
+     */
+    @Query(value = """
+            select t.id as id, cast(ts_rank(t.search_vector, q) as double precision) as rank
+            from tasks t, websearch_to_tsquery('simple', :query) q
+            where t.owner = :owner
+              and t.search_vector @@ q
+            order by rank desc, t.id desc
+            limit :limit offset :offset
+            """, nativeQuery = true)
+    List<TaskSearchRow> searchFullText(@Param("owner") String owner,
+                                       @Param("query") String query,
+                                       @Param("offset") int offset,
+                                       @Param("limit") int limit);
+
+    /**
+     * Один агрегирующий запрос для начального заполнения счётчиков статистики всех пользователей
+     * (TaskStatsService); читает только индекс idx_tasks_owner_completed_due_date.
+     */
+    @Query("""
+            select t.owner as owner, t.completed as completed, t.dueDate as dueDate, count(t) as count
+            from Task t
+            group by t.owner, t.completed, t.dueDate
+            """)
+    List<TaskOwnerCountRow> countByOwnerCompletedAndDueDate();
+
+    /**
+     * То же для одного пользователя — пересчёт его счётчиков после импорта.
+     */
+    @Query("""
+            select t.completed as completed, t.dueDate as dueDate, count(t) as count
+            from Task t
+            where t.owner = :owner
+            group by t.completed, t.dueDate
+            """)
+    List<TaskCountRow> countByCompletedAndDueDate(@Param("owner") String owner);
+
+    /**
+     * Открытые задачи со сроком в [from, to] для колеса напоминаний, keyset-страницами по (due_date, id)
+     * (частичный индекс idx_tasks_open_due_date). Первая страница — afterDueDate = from - 1 день, afterId = 0.
+     */
+    @Query("""
+            select t.id as id, t.dueDate as dueDate
+            from Task t
+            where t.completed = false
+              and (t.dueDate, t.id) > (:afterDueDate, :afterId)
+              and t.dueDate <= :to
+            order by t.dueDate asc, t.id asc
+            """)
+    List<TaskDueRow> findOpenDuePage(@Param("afterDueDate") LocalDate afterDueDate,
+                                     @Param("afterId") Long afterId,
+                                     @Param("to") LocalDate to,
+                                     Limit limit);
+
+    /**
+     * Задачи, созданные или изменённые после ключа (updated_at, id), до horizon включительно —
+     * для дельта-синхронизации (TaskSyncService). Идёт по индексу idx_tasks_owner_updated_at_id.
+     */
+    @Query("""
+            select new com.ExampleCursor.cursospring.dto.TaskResponse(
+                t.id, t.title, t.description, t.dueDate, t.completed, t.createdAt, t.updatedAt, t.version, t.owner)
+            from Task t
+            where t.owner = :owner
+              and (t.updatedAt, t.id) > (:afterUpdatedAt, :afterId)
+              and t.updatedAt <= :horizon
+            order by t.updatedAt asc, t.id asc
+            """)
+    List<TaskResponse> findChangedAfter(@Param("owner") String owner,
+                                        @Param("afterUpdatedAt") LocalDateTime afterUpdatedAt,
+                                        @Param("afterId") Long afterId,
+                                        @Param("horizon") LocalDateTime horizon,
+                                        Limit limit);
+
+    /**
+     * Очередная пачка для архиватора: выполненные задачи без изменений с cutoff.
+     * Строки блокируются (FOR UPDATE SKIP LOCKED), чтобы их не изменили между копированием и удалением;
+     * занятые кем-то строки пропускаются до следующего прохода. Самые старые — первыми, по частичному
+     * индексу idx_tasks_archivable: с order by id PostgreSQL шёл бы по первичному ключу через всю таблицу.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = SpecHints.HINT_SPEC_LOCK_TIMEOUT, value = "-2"))
+    @Query("select t from Task t where t.completed = true and t.updatedAt < :cutoff order by t.updatedAt")
+    List<Task> findArchivable(@Param("cutoff") LocalDateTime cutoff, Limit limit);
+
+    @Modifying
+    @Query("""
+            insert into ArchivedTask (id, owner, title, description, dueDate, completed, createdAt, updatedAt, version, archivedAt)
+            select t.id, t.owner, t.title, t.description, t.dueDate, t.completed, t.createdAt, t.updatedAt, t.version, :archivedAt
+            from Task t
+            where t.id in :ids
+            """)
+    int copyToArchive(@Param("ids") Collection<Long> ids, @Param("archivedAt") LocalDateTime archivedAt);
+
+    @Modifying
+    @Query("delete from Task t where t.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Текущая версия задачи. Нужна только когда условный UPDATE/DELETE не затронул ни одной строки,
+     * чтобы отличить "задачи нет" (404) от "версия не совпала" (412).
+     */
+    @Query("select t.version from Task t where t.owner = :owner and t.id = :id")
+    Optional<Long> findVersionById(@Param("owner") String owner, @Param("id") Long id);
 }
@@ -0,0 +1,24 @@
+package com.ExampleCursor.cursospring.repository;
+
+import com.ExampleCursor.cursospring.dto.PatchTaskRequest;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Записи одним SQL-оператором, без предварительного SELECT сущности (реализация — TaskRepositoryImpl).
+ * Затрагиваются только задачи owner. expectedVersion == null — без проверки версии.
+ * Пустой Optional — ни одна строка не затронута: задачи нет (или она чужая) либо её версия не совпала.
+ */
+public interface TaskRepositoryCustom {
+
+    Optional<TaskRowChange> patch(String owner, Long id, PatchTaskRequest patch, Long expectedVersion, LocalDateTime now);
+
+    Optional<TaskRowChange> toggleCompleted(String owner, Long id, Long expectedVersion, LocalDateTime now);
+
+    /**
+     * Удаляет задачу и в том же операторе пишет её надгробие в task_tombstones (deletedAt)
+     * и удаляет её вложения из task_attachments.
+     */
+    Optional<TaskRowChange> deleteReturning(String owner, Long id, Long expectedVersion, LocalDateTime deletedAt);
+}
@@ -0,0 +1,117 @@
+package com.ExampleCursor.cursospring.repository;
+
+import com.ExampleCursor.cursospring.dto.PatchTaskRequest;
+import com.ExampleCursor.cursospring.dto.TaskResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * UPDATE/DELETE ... RETURNING для PostgreSQL через JdbcTemplate (в той же транзакции, что и JPA).
+ * Один оператор = один round-trip: проверка существования и версии идёт в WHERE,
+ * а RETURNING отдаёт и новую, и прежнюю строку — событию TaskChangedEvent нужны обе.
+ * Прежняя строка берётся из CTE с FOR UPDATE: при конкурентном UPDATE она перечитывается
+ * после снятия блокировки, и условие по версии проверяется уже на свежей строке.
+ */
+@RequiredArgsConstructor
+class TaskRepositoryImpl implements TaskRepositoryCustom {
+
+    private static final String COLUMNS = "id, owner, title, description, due_date, completed, created_at, updated_at, version";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    public Optional<TaskRowChange> patch(String owner, Long id, PatchTaskRequest patch, Long expectedVersion, LocalDateTime now) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        List<String> assignments = new ArrayList<>();
+        if (patch.isTitleSet()) {
+            assignments.add("title = :title");
+            params.addValue("title", patch.getTitle(), Types.VARCHAR);
+        }
+        if (patch.isDescriptionSet()) {
+            assignments.add("description = :description");
+            params.addValue("description", patch.getDescription(), Types.VARCHAR);
+        }
+        if (patch.isDueDateSet()) {
+            assignments.add("due_date = :dueDate");
+            params.addValue("dueDate", patch.getDueDate(), Types.DATE);
+        }
+        if (patch.isCompletedSet()) {
+            assignments.add("completed = :completed");
+            params.addValue("completed", patch.getCompleted(), Types.BOOLEAN);
+        }
+        return update(owner, id, assignments, params, expectedVersion, now);
+    }
+
+    @Override
+    public Optional<TaskRowChange> toggleCompleted(String owner, Long id, Long expectedVersion, LocalDateTime now) {
+        return update(owner, id, List.of("completed = NOT old.completed"), new MapSqlParameterSource(), expectedVersion, now);
+    }
+
+    @Override
+    public Optional<TaskRowChange> deleteReturning(String owner, Long id, Long expectedVersion, LocalDateTime deletedAt) {
+        MapSqlParameterSource params = new MapSqlParameterSource("id", id);
+        params.addValue("owner", owner);
+        params.addValue("deletedAt", deletedAt);
+        String sql = "WITH deleted AS (DELETE FROM tasks WHERE id = :id AND owner = :owner"
+                + versionCondition(expectedVersion, params) + " RETURNING " + COLUMNS + "),"
+                + " tombstone AS (INSERT INTO task_tombstones (task_id, owner, deleted_at)"
+                + " SELECT id, owner, :deletedAt FROM deleted),"
+                + " attachments AS (DELETE FROM task_attachments WHERE task_id IN (SELECT id FROM deleted))"
+                + " SELECT " + COLUMNS + " FROM deleted";
+        List<TaskRowChange> rows = jdbcTemplate.query(sql, params,
+                (rs, rowNum) -> new TaskRowChange(mapTask(rs, ""), null));
+        return rows.stream().findFirst();
+    }
+
+    private Optional<TaskRowChange> update(String owner, Long id, List<String> assignments, MapSqlParameterSource params,
+                                           Long expectedVersion, LocalDateTime now) {
+        params.addValue("id", id);
+        params.addValue("owner", owner);
+        params.addValue("now", now);
+        String sql = "WITH old AS (SELECT " + COLUMNS + " FROM tasks WHERE id = :id AND owner = :owner"
+                + versionCondition(expectedVersion, params) + " FOR UPDATE)"
+                + " UPDATE tasks t SET "
+                + String.join(", ", assignments) + (assignments.isEmpty() ? "" : ", ")
+                + "updated_at = :now, version = old.version + 1"
+                + " FROM old WHERE t.id = old.id"
+                + " RETURNING t.id, t.owner, t.title, t.description, t.due_date, t.completed, t.created_at, t.updated_at, t.version,"
+                + " old.title AS old_title, old.description AS old_description, old.due_date AS old_due_date,"
+                + " old.completed AS old_completed, old.created_at AS old_created_at,"
+                + " old.updated_at AS old_updated_at, old.version AS old_version";
+        List<TaskRowChange> rows = jdbcTemplate.query(sql, params,
+                (rs, rowNum) -> new TaskRowChange(mapTask(rs, "old_"), mapTask(rs, "")));
+        return rows.stream().findFirst();
+    }
+
+    private static String versionCondition(Long expectedVersion, MapSqlParameterSource params) {
+        if (expectedVersion == null) {
+            return "";
+        }
+        params.addValue("expectedVersion", expectedVersion);
+        return " AND version = :expectedVersion";
+    }
+
+    private static TaskResponse mapTask(ResultSet rs, String prefix) throws SQLException {
+        return TaskResponse.builder()
+                .id(rs.getLong("id"))
+                .title(rs.getString(prefix + "title"))
+                .description(rs.getString(prefix + "description"))
+                .dueDate(rs.getObject(prefix + "due_date", LocalDate.class))
+                .completed(rs.getBoolean(prefix + "completed"))
+                .createdAt(rs.getObject(prefix + "created_at", LocalDateTime.class))
+                .updatedAt(rs.getObject(prefix + "updated_at", LocalDateTime.class))
+                .version(rs.getLong(prefix + "version"))
+                .owner(rs.getString("owner"))
+                .build();
+    }
+}
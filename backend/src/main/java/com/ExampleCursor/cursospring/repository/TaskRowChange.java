@@ -0,0 +1,9 @@
+package com.ExampleCursor.cursospring.repository;
+
+import com.ExampleCursor.cursospring.dto.TaskResponse;
+
+/**
+ * Результат одиночного UPDATE/DELETE ... RETURNING: строка до изменения и после (для DELETE — null).
+ */
+public record TaskRowChange(TaskResponse previous, TaskResponse current) {
+}
@@ -0,0 +1,11 @@
+package com.ExampleCursor.cursospring.repository;
+
+/**
+ * Строка результата полнотекстового поиска: id задачи и ранг ts_rank.
+ */
+public interface TaskSearchRow {
+
+    Long getId();
+
+    Double getRank();
+}
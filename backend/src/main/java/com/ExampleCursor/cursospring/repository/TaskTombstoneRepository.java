@@ -0,0 +1,49 @@
+package com.ExampleCursor.cursospring.repository;
+
+import com.ExampleCursor.cursospring.entity.TaskTombstone;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface TaskTombstoneRepository extends JpaRepository<TaskTombstone, Long> {
+
+    /**
+     * Надгробия для задач, которые сейчас будут удалены: одним INSERT ... SELECT,
+     * без чтения и сохранения сущностей по одной.
+     */
+    @Modifying
+    @Query("""
+            insert into TaskTombstone (taskId, owner, deletedAt)
+            select t.id, t.owner, :deletedAt
+            from Task t
+            where t.id in :ids
+            """)
+    int insertForTasks(@Param("ids") Collection<Long> ids, @Param("deletedAt") LocalDateTime deletedAt);
+
+    /**
+     * Удаления задач owner keyset-страницей по (deleted_at, task_id), как TaskRepository.findChangedAfter;
+     * до horizon включительно.
+     */
+    @Query("""
+            select t from TaskTombstone t
+            where t.owner = :owner
+              and (t.deletedAt, t.taskId) > (:afterDeletedAt, :afterTaskId)
+              and t.deletedAt <= :horizon
+            order by t.deletedAt asc, t.taskId asc
+            """)
+    List<TaskTombstone> findDeletedAfter(@Param("owner") String owner,
+                                         @Param("afterDeletedAt") LocalDateTime afterDeletedAt,
+                                         @Param("afterTaskId") Long afterTaskId,
+                                         @Param("horizon") LocalDateTime horizon,
+                                         Limit limit);
+
+    @Modifying
+    @Query("delete from TaskTombstone t where t.deletedAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff);
+}
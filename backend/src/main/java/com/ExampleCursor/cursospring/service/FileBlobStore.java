@@ -0,0 +1,192 @@
+package com.ExampleCursor.cursospring.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.UserDefinedFileAttributeView;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Хранение содержимого по SHA-256 (app.file.deduplicate=true). Содержимое лежит один раз в BLOBS_DIR/ab/&lt;sha256&gt;,
+ * а видимые имена в каталоге загрузок — жёсткие ссылки на этот блоб. Каталог имён и есть индекс «имя → блоб»,
+ * счётчик ссылок — число жёстких ссылок на inode (unix:nlink): его ведёт ядро, и он не расходится с диском
+ * после сбоя. Блоб без имён (nlink = 1) удаляется при удалении последнего имени или уборкой removeOrphans.
+ * SHA-256 блоба записан в расширенный атрибут user.sha256; если ФС их не поддерживает, хэш пересчитывается.
+ * <p>
+ * Нужна ФС с жёсткими ссылками и атрибутами unix (Linux, macOS). Блокировки — на процесс: один экземпляр
+ * приложения на каталог загрузок.
+ */
+@Slf4j
+final class FileBlobStore {
+
+    static final String BLOBS_DIR = ".blobs";
+    private static final String SHA256_ATTRIBUTE = "sha256";
+    private static final int LOCK_STRIPES = 64;
+
+    /** Проверка «есть ли блоб» и создание/удаление ссылок на него — под замком своего хэша. */
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    FileBlobStore() {
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    /** Создаёт для блоба новое свободное имя (жёсткую ссылку) и возвращает его путь. */
+    @FunctionalInterface
+    interface NameLinker {
+        Path link(Path blob) throws IOException;
+    }
+
+    /**
+     * Публикует дописанный part с хэшем sha256: если такое содержимое уже есть, part удаляется, иначе становится
+     * блобом (rename). Возвращает новое имя — жёсткую ссылку на блоб.
+     */
+    Path publish(Path root, Path part, String sha256, NameLinker linker) throws IOException {
+        Path blob = blobPath(root, sha256);
+        synchronized (lock(sha256)) {
+            if (Files.exists(blob)) {
+                Files.delete(part);
+                log.info("Deduplicated upload: blob {}", sha256);
+            } else {
+                writeSha256(part, sha256);
+                Files.createDirectories(blob.getParent());
+                Files.move(part, blob, StandardCopyOption.ATOMIC_MOVE);
+            }
+            return linker.link(blob);
+        }
+    }
+
+    /**
+     * Новое имя для уже хранящегося содержимого, без записи данных. null — блоба с таким хэшем нет.
+     */
+    Path linkExisting(Path root, String sha256, NameLinker linker) throws IOException {
+        Path blob = blobPath(root, sha256);
+        synchronized (lock(sha256)) {
+            if (!Files.exists(blob)) {
+                return null;
+            }
+            log.info("Deduplicated upload: blob {}", sha256);
+            return linker.link(blob);
+        }
+    }
+
+    /**
+     * Удаляет имя; блоб удаляется вместе с последним именем. Файл без других ссылок (загружен до включения
+     * дедупликации) просто удаляется.
+     */
+    void delete(Path root, Path file) throws IOException {
+        if (linkCount(file) == 1) {
+            Files.delete(file);
+            return;
+        }
+        String sha256 = sha256(file);
+        Path blob = blobPath(root, sha256);
+        synchronized (lock(sha256)) {
+            Files.delete(file);
+            if (Files.exists(blob) && linkCount(blob) == 1) {
+                Files.delete(blob);
+                log.info("Deleted blob without references: {}", sha256);
+            }
+        }
+    }
+
+    /**
+     * Удаляет блобы без имён: остаются, если процесс упал между переносом блоба и созданием ссылки,
+     * или если имена удалили в обход приложения. Возвращает число удалённых блобов.
+     */
+    int removeOrphans(Path root) throws IOException {
+        Path blobs = root.resolve(BLOBS_DIR);
+        if (!Files.isDirectory(blobs)) {
+            return 0;
+        }
+        List<Path> candidates;
+        try (Stream<Path> files = Files.walk(blobs, 2)) {
+            candidates = files.filter(Files::isRegularFile).toList();
+        }
+        int removed = 0;
+        for (Path blob : candidates) {
+            synchronized (lock(blob.getFileName().toString())) {
+                try {
+                    if (linkCount(blob) == 1) {
+                        Files.delete(blob);
+                        removed++;
+                    }
+                } catch (NoSuchFileException e) {
+                    // удалён вместе с последним именем, пока шёл обход
+                }
+            }
+        }
+        return removed;
+    }
+
+    Path blobPath(Path root, String sha256) {
+        return root.resolve(BLOBS_DIR).resolve(sha256.substring(0, 2)).resolve(sha256);
+    }
+
+    /**
+     * SHA-256 содержимого файла: из атрибута user.sha256, если он есть, иначе чтением файла.
+     */
+    String sha256(Path file) throws IOException {
+        String stored = readSha256(file);
+        if (stored != null) {
+            return stored;
+        }
+        MessageDigest digest = FileStorageService.sha256();
+        try (InputStream in = Files.newInputStream(file)) {
+            byte[] buffer = new byte[64 * 1024];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * SHA-256 из атрибута user.sha256; null — атрибута нет или ФС их не поддерживает.
+     */
+    static String readSha256(Path file) {
+        UserDefinedFileAttributeView view = Files.getFileAttributeView(file, UserDefinedFileAttributeView.class);
+        if (view == null) {
+            return null;
+        }
+        try {
+            ByteBuffer value = ByteBuffer.allocate(view.size(SHA256_ATTRIBUTE));
+            view.read(SHA256_ATTRIBUTE, value);
+            return StandardCharsets.US_ASCII.decode(value.flip()).toString();
+        } catch (IOException | UnsupportedOperationException e) {
+            return null;
+        }
+    }
+
+    static void writeSha256(Path file, String sha256) {
+        UserDefinedFileAttributeView view = Files.getFileAttributeView(file, UserDefinedFileAttributeView.class);
+        if (view == null) {
+            return;
+        }
+        try {
+            view.write(SHA256_ATTRIBUTE, StandardCharsets.US_ASCII.encode(sha256));
+        } catch (IOException | UnsupportedOperationException e) {
+            log.debug("Extended attributes are not supported for {}", file, e);
+        }
+    }
+
+    private static int linkCount(Path file) throws IOException {
+        return (Integer) Files.getAttribute(file, "unix:nlink");
+    }
+
+    private Object lock(String sha256) {
+        return locks[Math.floorMod(sha256.hashCode(), LOCK_STRIPES)];
+    }
+}
@@ -0,0 +1,47 @@
+package com.ExampleCursor.cursospring.service;
+
+import com.ExampleCursor.cursospring.dto.FileSort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Курсор для постраничного списка файлов: сортировка + ключ последнего отданного файла.
+ * Клиент получает его как непрозрачную base64url-строку и передаёт обратно в ?after=.
+ */
+record FileCursor(FileSort sort, String name, long size, long lastModified) {
+
+    static FileCursor of(FileSort sort, FileMetadataIndex.Entry last) {
+        return new FileCursor(sort, last.name(), last.size(), last.lastModified());
+    }
+
+    /** Запись-граница для FileMetadataIndex.page: хэш в сравнении не участвует. */
+    FileMetadataIndex.Entry toEntry() {
+        return new FileMetadataIndex.Entry(name, size, lastModified, null);
+    }
+
+    String encode() {
+        // Имя последним: в нём может встретиться разделитель
+        String raw = sort.name() + "|" + size + "|" + lastModified + "|" + name;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Разбирает курсор и проверяет, что он выдан для той же сортировки, что и текущий запрос.
+     */
+    static FileCursor decode(String value, FileSort expectedSort) {
+        FileCursor cursor;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 4);
+            cursor = new FileCursor(FileSort.valueOf(parts[0]), parts[3],
+                    Long.parseLong(parts[1]), Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        if (cursor.sort() != expectedSort) {
+            throw new IllegalArgumentException("Cursor was issued for sort " + cursor.sort());
+        }
+        return cursor;
+    }
+}
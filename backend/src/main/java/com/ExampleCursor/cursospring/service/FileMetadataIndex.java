@@ -0,0 +1,197 @@
+package com.ExampleCursor.cursospring.service;
+
+import com.ExampleCursor.cursospring.dto.FileSort;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Метаданные файлов каталога загрузок в памяти: по одному упорядоченному набору на вид сортировки
+ * (имя; размер + имя; время изменения + имя). Страница — переход к курсору за O(log n) и чтение limit
+ * записей, без обхода каталога. Префикс имени при сортировке по имени — поддиапазон ключей; при сортировке
+ * по размеру или времени см. page: отдельного индекса на каждый возможный префикс нет.
+ * <p>
+ * Чтение без блокировок (наборы конкурентные), изменения сериализуются. Без зависимостей от Spring
+ * и файловой системы, поэтому легко тестируется.
+ */
+public class FileMetadataIndex {
+
+    private static final Comparator<Entry> BY_SIZE =
+            Comparator.comparingLong(Entry::size).thenComparing(Entry::name);
+    private static final Comparator<Entry> BY_MODIFIED =
+            Comparator.comparingLong(Entry::lastModified).thenComparing(Entry::name);
+
+    /**
+     * Сколько имён с префиксом ещё отбирается по поддиапазону ключей (см. page); при большем числе
+     * совпадений дешевле пропускать чужие записи в общем порядке.
+     */
+    static final int PREFIX_SORT_LIMIT = 10_000;
+
+    private final int prefixSortLimit;
+
+    private final ConcurrentSkipListMap<String, Entry> byName = new ConcurrentSkipListMap<>();
+    private final ConcurrentSkipListSet<Entry> bySize = new ConcurrentSkipListSet<>(BY_SIZE);
+    private final ConcurrentSkipListSet<Entry> byModified = new ConcurrentSkipListSet<>(BY_MODIFIED);
+
+    /**
+     * Файл каталога загрузок.
+     *
+     * @param lastModified время изменения, мс с эпохи
+     * @param sha256       hex или null, если хэш неизвестен
+     */
+    public record Entry(String name, long size, long lastModified, String sha256) {
+    }
+
+    public FileMetadataIndex() {
+        this(PREFIX_SORT_LIMIT);
+    }
+
+    FileMetadataIndex(int prefixSortLimit) {
+        this.prefixSortLimit = prefixSortLimit;
+    }
+
+    /**
+     * Добавляет файл или заменяет запись с тем же именем.
+     */
+    public synchronized void put(Entry entry) {
+        Entry previous = byName.put(entry.name(), entry);
+        if (previous != null) {
+            bySize.remove(previous);
+            byModified.remove(previous);
+        }
+        bySize.add(entry);
+        byModified.add(entry);
+    }
+
+    public synchronized void remove(String name) {
+        Entry previous = byName.remove(name);
+        if (previous != null) {
+            bySize.remove(previous);
+            byModified.remove(previous);
+        }
+    }
+
+    public Entry get(String name) {
+        return byName.get(name);
+    }
+
+    public int size() {
+        return byName.size();
+    }
+
+    /**
+     * Имена с префиксом prefix по возрастанию — поддиапазон ключей, без обхода остальных.
+     */
+    public Collection<String> namesStartingWith(String prefix) {
+        String end = prefixEnd(prefix);
+        return end != null
+                ? byName.subMap(prefix, true, end, false).keySet()
+                : byName.tailMap(prefix, true).keySet();
+    }
+
+    /**
+     * До limit записей в порядке sort, строго после after (null — с начала), с именами на prefix.
+     * <p>
+     * Префикс с сортировкой по размеру или времени: имена с префиксом — поддиапазон ключей byName, из него
+     * отбираются limit первых в порядке sort (куча на limit записей) — O(m log limit) для m совпадений,
+     * независимо от размера каталога. Если совпадений больше prefixSortLimit, вместо этого читается общий
+     * порядок с пропуском чужих имён: совпадений тогда много, и в среднем на страницу просматривается
+     * около limit * size() / m записей. Худший случай этого пути — O(n), если все подходящие имена
+     * оказались в конце порядка (например, самые большие файлы при SIZE_ASC).
+     */
+    public List<Entry> page(String prefix, FileSort sort, Entry after, int limit) {
+        String namePrefix = prefix != null ? prefix : "";
+        if (!namePrefix.isEmpty() && sort != FileSort.NAME_ASC && sort != FileSort.NAME_DESC) {
+            List<Entry> page = prefixPage(namePrefix, comparator(sort), after, limit);
+            if (page != null) {
+                return page;
+            }
+        }
+        Collection<Entry> ordered = switch (sort) {
+            case NAME_ASC, NAME_DESC -> byName(namePrefix, sort == FileSort.NAME_DESC, after);
+            case SIZE_ASC, SIZE_DESC -> tail(bySize, sort == FileSort.SIZE_DESC, after);
+            case MODIFIED_ASC, MODIFIED_DESC -> tail(byModified, sort == FileSort.MODIFIED_DESC, after);
+        };
+        List<Entry> page = new ArrayList<>(Math.min(limit, 1024));
+        for (Entry entry : ordered) {
+            if (page.size() == limit) {
+                break;
+            }
+            if (entry.name().startsWith(namePrefix)) {
+                page.add(entry);
+            }
+        }
+        return page;
+    }
+
+    /**
+     * Страница из поддиапазона имён с префиксом; null — совпадений больше prefixSortLimit.
+     */
+    private List<Entry> prefixPage(String prefix, Comparator<Entry> order, Entry after, int limit) {
+        // Наверху кучи — последняя из отобранных записей, её и вытесняет более ранняя
+        PriorityQueue<Entry> first = new PriorityQueue<>(Math.min(limit, 1024) + 1, order.reversed());
+        int scanned = 0;
+        for (Entry entry : byName(prefix, false, null)) {
+            if (++scanned > prefixSortLimit) {
+                return null;
+            }
+            if (after != null && order.compare(entry, after) <= 0) {
+                continue;
+            }
+            if (first.size() < limit) {
+                first.add(entry);
+            } else if (order.compare(entry, first.peek()) < 0) {
+                first.poll();
+                first.add(entry);
+            }
+        }
+        List<Entry> page = new ArrayList<>(first);
+        page.sort(order);
+        return page;
+    }
+
+    private static Comparator<Entry> comparator(FileSort sort) {
+        return switch (sort) {
+            case SIZE_ASC -> BY_SIZE;
+            case SIZE_DESC -> BY_SIZE.reversed();
+            case MODIFIED_ASC -> BY_MODIFIED;
+            case MODIFIED_DESC -> BY_MODIFIED.reversed();
+            case NAME_ASC, NAME_DESC -> throw new IllegalArgumentException("Name order has its own range");
+        };
+    }
+
+    private Collection<Entry> byName(String prefix, boolean descending, Entry after) {
+        NavigableMap<String, Entry> range = byName;
+        if (!prefix.isEmpty()) {
+            String end = prefixEnd(prefix);
+            range = end != null ? byName.subMap(prefix, true, end, false) : byName.tailMap(prefix, true);
+        }
+        if (descending) {
+            range = range.descendingMap();
+        }
+        return after != null ? range.tailMap(after.name(), false).values() : range.values();
+    }
+
+    private static Collection<Entry> tail(NavigableSet<Entry> set, boolean descending, Entry after) {
+        NavigableSet<Entry> ordered = descending ? set.descendingSet() : set;
+        return after != null ? ordered.tailSet(after, false) : ordered;
+    }
+
+    /**
+     * Наименьшая строка, большая всех строк с префиксом prefix; null — такой нет (префикс из одних Character.MAX_VALUE).
+     */
+    private static String prefixEnd(String prefix) {
+        int i = prefix.length() - 1;
+        while (i >= 0 && prefix.charAt(i) == Character.MAX_VALUE) {
+            i--;
+        }
+        return i >= 0 ? prefix.substring(0, i) + (char) (prefix.charAt(i) + 1) : null;
+    }
+}
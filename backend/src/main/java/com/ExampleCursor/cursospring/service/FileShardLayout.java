@@ -0,0 +1,112 @@
+package com.ExampleCursor.cursospring.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Раскладка файлов каталога загрузок по шардам: файл с именем name лежит в &lt;root&gt;/.shards/h/hh/name, где
+ * h и hh — первые три hex-цифры SHA-256 от имени (как levels=1:2 в nginx). 16 × 256 = 4096 каталогов: в каждом
+ * мало записей, и WatchService укладывается в стандартный лимит inotify. Каталоги создаются по мере надобности.
+ * Шарды — в служебном SHARDS_DIR, как .incoming и .blobs, а не прямо в корне: там каталог "a" мог бы
+ * совпасть с файлом "a", загруженным до перехода на шарды. Такие файлы по-прежнему находятся по имени;
+ * перенести их — migrate() или FileLayoutMigration.
+ */
+@Slf4j
+public final class FileShardLayout {
+
+    static final String SHARDS_DIR = ".shards";
+
+    private static final Pattern FIRST_LEVEL = Pattern.compile("[0-9a-f]");
+    private static final Pattern SECOND_LEVEL = Pattern.compile("[0-9a-f]{2}");
+
+    private FileShardLayout() {
+    }
+
+    /**
+     * Место файла name в шардах. Имя — без пути (санитизированное).
+     */
+    public static Path resolve(Path root, String name) {
+        String hash = HexFormat.of().formatHex(
+                FileStorageService.sha256().digest(name.getBytes(StandardCharsets.UTF_8)));
+        return root.resolve(SHARDS_DIR).resolve(hash.substring(0, 1)).resolve(hash.substring(1, 3)).resolve(name);
+    }
+
+    /**
+     * Каталоги шардов второго уровня, которые уже есть на диске.
+     */
+    public static List<Path> shardDirectories(Path root) throws IOException {
+        List<Path> shards = new ArrayList<>();
+        Path shardsRoot = root.resolve(SHARDS_DIR);
+        if (!Files.isDirectory(shardsRoot)) {
+            return shards;
+        }
+        for (Path first : subdirectories(shardsRoot, FIRST_LEVEL)) {
+            shards.addAll(subdirectories(first, SECOND_LEVEL));
+        }
+        return shards;
+    }
+
+    /**
+     * true — путь dir внутри root по имени: SHARDS_DIR или каталог шарда первого или второго уровня в нём.
+     */
+    static boolean isShardDirectory(Path root, Path dir) {
+        Path relative = root.relativize(dir);
+        int depth = relative.getNameCount();
+        if (depth == 0 || depth > 3 || !relative.getName(0).toString().equals(SHARDS_DIR)) {
+            return false;
+        }
+        return depth == 1
+                || (depth == 2 ? FIRST_LEVEL : SECOND_LEVEL).matcher(dir.getFileName().toString()).matches();
+    }
+
+    /**
+     * Переносит файлы из корня в их шарды (rename в пределах тома; жёсткие ссылки дедупликации остаются
+     * ссылками). Можно запускать при работающем приложении и повторно. Файл, чьё место в шарде уже занято,
+     * остаётся в корне. Возвращает число перенесённых файлов.
+     */
+    public static int migrate(Path root, boolean dryRun) throws IOException {
+        List<Path> legacy;
+        try (Stream<Path> files = Files.list(root)) {
+            legacy = files.filter(Files::isRegularFile).toList();
+        }
+        int moved = 0;
+        for (Path file : legacy) {
+            Path target = resolve(root, file.getFileName().toString());
+            if (dryRun) {
+                log.info("Would move {} -> {}", file.getFileName(), root.relativize(target));
+                moved++;
+                continue;
+            }
+            Files.createDirectories(target.getParent());
+            try {
+                // Без REPLACE_EXISTING: занятое место не перезаписывается
+                Files.move(file, target);
+                moved++;
+            } catch (FileAlreadyExistsException e) {
+                log.warn("Not moved, {} already exists", root.relativize(target));
+            }
+        }
+        log.info("{} {} of {} files from {} into shards",
+                dryRun ? "Would move" : "Moved", moved, legacy.size(), root);
+        return moved;
+    }
+
+    private static List<Path> subdirectories(Path dir, Pattern name) throws IOException {
+        try (Stream<Path> entries = Files.list(dir)) {
+            return entries
+                    .filter(entry -> name.matcher(entry.getFileName().toString()).matches())
+                    .filter(Files::isDirectory)
+                    .toList();
+        }
+    }
+}
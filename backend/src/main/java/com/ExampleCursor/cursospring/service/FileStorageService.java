@@ -2,33 +2,97 @@ package com.ExampleCursor.cursospring.service;
 
 import com.ExampleCursor.cursospring.config.FileStorageProperties;
 import com.ExampleCursor.cursospring.dto.FileInfoDto;
+import com.ExampleCursor.cursospring.dto.FileInfoPageResponse;
+import com.ExampleCursor.cursospring.dto.FileQuery;
+import com.ExampleCursor.cursospring.dto.FileSort;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
-import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Stream;
 
 /**
  * Сохранение и чтение файлов на диск в каталог app.file.upload-dir.
  * Файлы переживают перезапуск приложения. Имена санитизируются (без пути и опасных символов).
+ * С app.file.deduplicate=true одинаковое содержимое хранится один раз (см. FileBlobStore).
+ * Список файлов отдаётся из FileMetadataIndex в памяти, а не обходом каталога.
+ * Файлы раскладываются по шардам (см. FileShardLayout), чтобы каталоги не разрастались.
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class FileStorageService {
 
+    /** Каталог недописанных потоковых загрузок внутри корня: в список попадают только обычные файлы. */
+    static final String INCOMING_DIR = ".incoming";
+    private static final int STREAM_CHUNK_SIZE = 64 * 1024;
+    private static final int STREAM_BUFFER_SIZE = 1024 * 1024;
+    private static final int POOLED_STREAM_BUFFERS = 16;
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+
     private final FileStorageProperties storageProperties;
 
+    /**
+     * Буферы потоковой загрузки переиспользуются: direct-буфер выделяется вне кучи и дорог в создании.
+     * Если одновременных загрузок больше, лишние буферы создаются на запрос и не возвращаются в пул.
+     */
+    private final BlockingQueue<StreamBuffer> streamBuffers = new ArrayBlockingQueue<>(POOLED_STREAM_BUFFERS);
+
+    private final FileBlobStore blobStore = new FileBlobStore();
+
+    /**
+     * Имя, размер, время изменения и хэш каждого файла. Строится обходом каталога при старте (или при первом
+     * обращении), дальше обновляется store/delete и WatchService — для изменений в обход приложения.
+     */
+    private volatile FileMetadataIndex metadataIndex;
+    private final Object metadataIndexLock = new Object();
+    private WatchService watchService;
+
+    /** Следующий номер _N для имени, которое уже занято: без перебора _1, _2, ... на каждой загрузке. */
+    private final ConcurrentHashMap<String, AtomicInteger> nameCounters = new ConcurrentHashMap<>();
+
+    /** Атомарно создаёт файл target: false — имя уже занято. */
+    @FunctionalInterface
+    private interface NameClaim {
+        boolean tryCreate(Path target) throws IOException;
+    }
+
     /**
      * Возвращает корневой каталог загрузок и создаёт его при первом обращении.
      */
@@ -54,23 +118,86 @@ public class FileStorageService {
     }
 
     /**
-     * Уникальное имя в каталоге: если файл с таким именем есть — добавляем _1, _2 и т.д.
+     * Занимает имя для нового файла: baseName, а если оно занято — baseName_N со следующим N из счётчика
+     * этого имени (при первом столкновении — больше всех N, что есть в индексе). Имя занимает claim
+     * атомарно (жёсткая ссылка на готовое содержимое, createLink не заменяет существующий файл), поэтому
+     * параллельные загрузки с одним именем получают разные N и не перезаписывают друг друга.
      */
-    private Path uniquePath(Path root, String baseName) throws IOException {
-        Path target = root.resolve(baseName);
-        if (!Files.exists(target)) {
+    private Path allocate(Path root, String baseName, NameClaim claim) throws IOException {
+        Path target = tryClaim(root, baseName, claim);
+        if (target != null) {
             return target;
         }
+        FileMetadataIndex index = metadataIndex();
+        AtomicInteger counter = nameCounters.computeIfAbsent(baseName, name -> firstFreeSuffix(index, name));
+        while (target == null) {
+            // Занятым номер может оказаться, только если файл с ним добавили в обход приложения
+            target = tryClaim(root, withSuffix(baseName, counter.getAndIncrement()), claim);
+        }
+        return target;
+    }
+
+    private Path tryClaim(Path root, String name, NameClaim claim) throws IOException {
+        if (Files.exists(root.resolve(name), LinkOption.NOFOLLOW_LINKS)) {
+            // Занято файлом в корне, загруженным до перехода на шарды
+            return null;
+        }
+        Path target = FileShardLayout.resolve(root, name);
+        Files.createDirectories(target.getParent());
+        return claim.tryCreate(target) ? target : null;
+    }
+
+    private static AtomicInteger firstFreeSuffix(FileMetadataIndex index, String baseName) {
+        int dot = baseName.lastIndexOf('.');
+        String prefix = (dot > 0 ? baseName.substring(0, dot) : baseName) + "_";
+        String suffix = dot > 0 ? baseName.substring(dot) : "";
+        int max = 0;
+        for (String name : index.namesStartingWith(prefix)) {
+            if (name.endsWith(suffix) && name.length() > prefix.length() + suffix.length()) {
+                String number = name.substring(prefix.length(), name.length() - suffix.length());
+                if (number.length() < 10 && number.chars().allMatch(c -> c >= '0' && c <= '9')) {
+                    max = Math.max(max, Integer.parseInt(number));
+                }
+            }
+        }
+        return new AtomicInteger(max + 1);
+    }
+
+    private static String withSuffix(String baseName, int number) {
         int dot = baseName.lastIndexOf('.');
         String prefix = dot > 0 ? baseName.substring(0, dot) : baseName;
         String suffix = dot > 0 ? baseName.substring(dot) : "";
-        for (int i = 1; ; i++) {
-            String candidate = prefix + "_" + i + suffix;
-            target = root.resolve(candidate);
-            if (!Files.exists(target)) {
-                return target;
+        return prefix + "_" + number + suffix;
+    }
+
+    private static boolean createLink(Path target, Path existing) throws IOException {
+        try {
+            Files.createLink(target, existing);
+            return true;
+        } catch (FileAlreadyExistsException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Путь к файлу по имени: в его шарде, а для файла, загруженного до перехода на шарды, — в корне.
+     * Имя должно быть санитизированным (без пути).
+     */
+    private Path locate(Path root, String fileName) {
+        if (fileName.isEmpty() || fileName.contains("/") || fileName.contains("\\")
+                || fileName.equals(".") || fileName.equals("..")) {
+            throw new IllegalArgumentException("Invalid file name");
+        }
+        Path file = FileShardLayout.resolve(root, fileName).normalize();
+        ensureInsideRoot(root, file);
+        if (!Files.exists(file)) {
+            Path legacy = root.resolve(fileName).normalize();
+            ensureInsideRoot(root, legacy);
+            if (Files.isRegularFile(legacy)) {
+                return legacy;
             }
         }
+        return file;
     }
 
     /**
@@ -93,63 +220,545 @@ public class FileStorageService {
         }
         Path root = getUploadRoot();
         String baseName = sanitizeFileName(file.getOriginalFilename());
-        Path target = uniquePath(root, baseName);
+        if (storageProperties.isDeduplicate()) {
+            return storeDeduplicated(file, root, baseName);
+        }
+        Path part = newIncomingPath();
+        Path target;
+        try {
+            file.transferTo(part.toFile());
+            target = publish(part, baseName);
+        } finally {
+            Files.deleteIfExists(part);
+        }
+        long size = Files.size(target);
+        log.info("Stored file: {} ({} bytes)", target.getFileName(), size);
+        return FileInfoDto.builder()
+                .name(target.getFileName().toString())
+                .sizeInBytes(size)
+                .build();
+    }
 
+    /**
+     * Multipart при дедупликации: хэш считается чтением файла, который контейнер уже сохранил. Такое содержимое
+     * уже есть — данные не пишутся вовсе; нет — файл переносится в блоб (transferTo переименовывает временный
+     * файл контейнера, если он на том же томе, иначе копирует).
+     */
+    private FileInfoDto storeDeduplicated(MultipartFile file, Path root, String baseName) throws IOException {
+        String sha256;
         try (InputStream in = file.getInputStream()) {
-            Files.copy(in, target, StandardCopyOption.REPLACE_EXISTING);
+            sha256 = digest(in);
+        }
+        FileBlobStore.NameLinker linker = blob -> allocate(root, baseName, link -> createLink(link, blob));
+        Path target = blobStore.linkExisting(root, sha256, linker);
+        if (target == null) {
+            Path part = newIncomingPath();
+            try {
+                file.transferTo(part.toFile());
+                target = blobStore.publish(root, part, sha256, linker);
+            } finally {
+                Files.deleteIfExists(part);
+            }
         }
+        refresh(target.getFileName().toString());
         long size = Files.size(target);
-        log.info("Stored file: {} ({} bytes)", target.getFileName(), size);
+        log.info("Stored file: {} ({} bytes, sha256 {})", target.getFileName(), size, sha256);
         return FileInfoDto.builder()
                 .name(target.getFileName().toString())
                 .sizeInBytes(size)
+                .sha256(sha256)
                 .build();
     }
 
     /**
-     * Список всех файлов в каталоге загрузок (имя + размер).
+     * Сохраняет тело запроса (PUT /api/files/{fileName}) прямо в каталог загрузок, без временного файла
+     * контейнера и второго копирования: байты читаются кусками в переиспользуемый буфер, по пути считаются
+     * размер и SHA-256, и пишутся в FileChannel крупными блоками из direct-буфера. Файл дописывается
+     * в INCOMING_DIR того же тома и переименовывается в итоговое имя только целиком.
+     *
+     * @param contentLength Content-Length запроса или -1, если неизвестен
      */
-    public List<FileInfoDto> listAll() throws IOException {
-        Path root = getUploadRoot();
-        try (Stream<Path> stream = Files.list(root)) {
-            return stream
-                    .filter(Files::isRegularFile)
-                    .map(p -> FileInfoDto.builder()
-                            .name(p.getFileName().toString())
-                            .sizeInBytes(p.toFile().length())
-                            .build())
-                    .toList();
+    public FileInfoDto storeStream(String originalName, InputStream in, long contentLength) throws IOException {
+        if (!StringUtils.hasText(originalName)) {
+            throw new IllegalArgumentException("File name is required");
+        }
+        long maxSize = storageProperties.getMaxUploadSize().toBytes();
+        if (contentLength > maxSize) {
+            throw new MaxUploadSizeExceededException(maxSize);
         }
+        Path part = createIncomingFile();
+        try {
+            MessageDigest digest = sha256();
+            long size;
+            try (FileChannel channel = FileChannel.open(part, StandardOpenOption.WRITE)) {
+                size = write(in, channel, 0, maxSize, digest);
+            }
+            String sha256 = HexFormat.of().formatHex(digest.digest());
+            Path target = publish(part, originalName, sha256);
+            log.info("Stored file from stream: {} ({} bytes)", target.getFileName(), size);
+            return FileInfoDto.builder()
+                    .name(target.getFileName().toString())
+                    .sizeInBytes(size)
+                    .sha256(sha256)
+                    .build();
+        } finally {
+            Files.deleteIfExists(part);
+        }
+    }
+
+    /**
+     * Новый пустой файл в INCOMING_DIR для недописанной загрузки.
+     */
+    Path createIncomingFile() throws IOException {
+        // Не createTempFile: у него права 600, а файл потом становится обычным файлом каталога загрузок
+        return Files.createFile(newIncomingPath());
+    }
+
+    /**
+     * Уникальный путь в INCOMING_DIR без создания файла: для MultipartFile.transferTo, которому разрешено
+     * отказать, если файл назначения уже есть.
+     */
+    private Path newIncomingPath() throws IOException {
+        return getIncomingDirectory().resolve("upload-" + UUID.randomUUID() + ".part");
+    }
+
+    Path getIncomingDirectory() throws IOException {
+        return Files.createDirectories(getUploadRoot().resolve(INCOMING_DIR));
+    }
+
+    Path publish(Path part, String originalName) throws IOException {
+        return publish(part, originalName, null);
     }
 
     /**
-     * Возвращает ресурс для скачивания по имени файла. Имя должно быть санитизированным (без пути).
+     * Переносит дописанный файл из INCOMING_DIR в каталог загрузок под уникальным именем, без копирования:
+     * имя занимается жёсткой ссылкой на part, после чего part удаляется. Файл появляется в каталоге сразу
+     * целиком — ни список, ни наблюдатель индекса не видят пустого или недописанного файла под этим именем.
+     * Ссылке нужна файловая система с жёсткими ссылками; INCOMING_DIR лежит в корне загрузок, то есть на ней же.
+     * При дедупликации part становится блобом с хэшем sha256 (null — посчитать чтением файла), а если такое
+     * содержимое уже есть — удаляется, и имя ссылается на имеющийся блоб.
      */
-    public Resource loadAsResource(String fileName) throws IOException {
+    Path publish(Path part, String originalName, String sha256) throws IOException {
         Path root = getUploadRoot();
-        Path file = root.resolve(fileName).normalize();
-        ensureInsideRoot(root, file);
-        if (!Files.exists(file) || !Files.isRegularFile(file)) {
+        String baseName = sanitizeFileName(originalName);
+        Path target;
+        if (storageProperties.isDeduplicate()) {
+            String hash = sha256 != null ? sha256 : blobStore.sha256(part);
+            target = blobStore.publish(root, part, hash,
+                    blob -> allocate(root, baseName, link -> createLink(link, blob)));
+        } else {
+            if (sha256 != null) {
+                // Хэш сохраняется при файле: индекс после перезапуска берёт его, не читая содержимое
+                FileBlobStore.writeSha256(part, sha256);
+            }
+            target = allocate(root, baseName, link -> createLink(link, part));
+            try {
+                Files.delete(part);
+            } catch (IOException e) {
+                // Файл уже опубликован под своим именем; лишняя ссылка в INCOMING_DIR ему не мешает
+                log.warn("Failed to remove published part {}", part, e);
+            }
+        }
+        refresh(target.getFileName().toString());
+        return target;
+    }
+
+    /**
+     * Пишет in в channel начиная с position (позиционная запись: несколько потоков могут писать
+     * в разные части одного файла) и обновляет digest. Больше maxBytes — MaxUploadSizeExceededException.
+     * Возвращает число записанных байт.
+     */
+    long write(InputStream in, FileChannel channel, long position, long maxBytes, MessageDigest digest)
+            throws IOException {
+        StreamBuffer buffer = borrowStreamBuffer();
+        try {
+            ByteBuffer direct = buffer.direct().clear();
+            long written = 0;
+            int read;
+            while ((read = in.read(buffer.chunk())) != -1) {
+                if (written + direct.position() + read > maxBytes) {
+                    throw new MaxUploadSizeExceededException(maxBytes);
+                }
+                digest.update(buffer.chunk(), 0, read);
+                if (direct.remaining() < read) {
+                    written += writeFully(channel, direct, position + written);
+                }
+                direct.put(buffer.chunk(), 0, read);
+            }
+            return written + writeFully(channel, direct, position + written);
+        } finally {
+            streamBuffers.offer(buffer);
+        }
+    }
+
+    private static int writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        buffer.flip();
+        int length = buffer.remaining();
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+        buffer.clear();
+        return length;
+    }
+
+    private String digest(InputStream in) throws IOException {
+        MessageDigest digest = sha256();
+        StreamBuffer buffer = borrowStreamBuffer();
+        try {
+            int read;
+            while ((read = in.read(buffer.chunk())) != -1) {
+                digest.update(buffer.chunk(), 0, read);
+            }
+        } finally {
+            streamBuffers.offer(buffer);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private StreamBuffer borrowStreamBuffer() {
+        StreamBuffer buffer = streamBuffers.poll();
+        return buffer != null
+                ? buffer
+                : new StreamBuffer(new byte[STREAM_CHUNK_SIZE], ByteBuffer.allocateDirect(STREAM_BUFFER_SIZE));
+    }
+
+    static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * chunk — куда читается InputStream запроса и откуда считается хэш; direct — накопитель для записи
+     * в FileChannel блоками по STREAM_BUFFER_SIZE (из heap-буфера JDK скопировал бы данные во временный direct сам).
+     */
+    private record StreamBuffer(byte[] chunk, ByteBuffer direct) {
+    }
+
+    /**
+     * Страница списка файлов из индекса в памяти: переход к курсору и чтение limit записей,
+     * без обхода каталога. limit по умолчанию 100, не больше 1000.
+     */
+    public FileInfoPageResponse findPage(FileQuery query) throws IOException {
+        int limit = resolveLimit(query.getLimit());
+        FileSort sort = query.getSort();
+        FileMetadataIndex.Entry after = query.getAfter() != null
+                ? FileCursor.decode(query.getAfter(), sort).toEntry()
+                : null;
+        List<FileMetadataIndex.Entry> rows = metadataIndex().page(query.getPrefix(), sort, after, limit + 1);
+        boolean hasMore = rows.size() > limit;
+        List<FileMetadataIndex.Entry> page = hasMore ? rows.subList(0, limit) : rows;
+        return FileInfoPageResponse.builder()
+                .items(page.stream().map(FileStorageService::toInfo).toList())
+                .nextCursor(hasMore ? FileCursor.of(sort, page.getLast()).encode() : null)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    private int resolveLimit(Integer requested) {
+        if (requested == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        if (requested < 1 || requested > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return requested;
+    }
+
+    private static FileInfoDto toInfo(FileMetadataIndex.Entry entry) {
+        return FileInfoDto.builder()
+                .name(entry.name())
+                .sizeInBytes(entry.size())
+                .lastModified(Instant.ofEpochMilli(entry.lastModified()))
+                .sha256(entry.sha256())
+                .build();
+    }
+
+    /**
+     * Имя и размер одного файла. Имя должно быть санитизированным (без пути).
+     */
+    public FileInfoDto getInfo(String fileName) throws IOException {
+        Path file = locate(getUploadRoot(), fileName);
+        if (!Files.isRegularFile(file)) {
+            throw new ResourceNotFoundException("File not found: " + fileName);
+        }
+        return FileInfoDto.builder()
+                .name(file.getFileName().toString())
+                .sizeInBytes(Files.size(file))
+                .build();
+    }
+
+    /**
+     * Путь к файлу для скачивания по имени. Имя должно быть санитизированным (без пути).
+     */
+    public Path getFile(String fileName) throws IOException {
+        Path file = locate(getUploadRoot(), fileName);
+        if (!Files.isRegularFile(file)) {
             throw new ResourceNotFoundException("File not found: " + fileName);
         }
-        Resource resource = new UrlResource(file.toUri());
-        if (!resource.exists() || !resource.isReadable()) {
+        if (!Files.isReadable(file)) {
             throw new ResourceNotFoundException("Cannot read file: " + fileName);
         }
-        return resource;
+        return file;
     }
 
     /**
-     * Удаляет файл по имени. Имя должно быть санитизированным.
+     * Удаляет файл по имени. Имя должно быть санитизированным. При дедупликации содержимое удаляется
+     * только вместе с последним именем, которое на него ссылается.
      */
     public void delete(String fileName) throws IOException {
         Path root = getUploadRoot();
-        Path file = root.resolve(fileName).normalize();
-        ensureInsideRoot(root, file);
+        Path file = locate(root, fileName);
         if (!Files.exists(file) || !Files.isRegularFile(file)) {
             throw new ResourceNotFoundException("File not found: " + fileName);
         }
-        Files.delete(file);
+        if (storageProperties.isDeduplicate()) {
+            blobStore.delete(root, file);
+        } else {
+            Files.delete(file);
+        }
+        refresh(file.getFileName().toString());
         log.info("Deleted file: {}", fileName);
     }
+
+    /**
+     * Удаляет блобы, на которые не осталось имён (сбой между записью блоба и созданием имени).
+     */
+    @Scheduled(fixedDelayString = "${app.file.upload-cleanup-interval:15m}")
+    public void removeOrphanBlobs() {
+        try {
+            int removed = blobStore.removeOrphans(getUploadRoot());
+            if (removed > 0) {
+                log.info("Removed {} blobs without references", removed);
+            }
+        } catch (IOException e) {
+            log.warn("Failed to remove orphan blobs", e);
+        }
+    }
+
+    /**
+     * Строит индекс и начинает следить за каталогом загрузок: файлы, добавленные, изменённые или удалённые
+     * в обход приложения, попадают в индекс без нового обхода. Подписка — до обхода, чтобы изменения
+     * во время него не потерялись. WatchService не рекурсивен: подписка на корень и на каждый каталог шардов,
+     * новые каталоги шардов добавляются по мере появления. Если индекс уже построен первым обращением,
+     * он сверяется с диском на месте (reconcile), а не заменяется.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void startWatching() throws IOException {
+        Path root = getUploadRoot();
+        watchService = root.getFileSystem().newWatchService();
+        watchAll(root);
+        boolean built;
+        synchronized (metadataIndexLock) {
+            built = metadataIndex == null;
+            if (built) {
+                metadataIndex = scan(root);
+            }
+        }
+        if (!built) {
+            reconcile(root);
+        }
+        Thread.ofPlatform().name("file-index-watcher").daemon().start(this::runWatcher);
+    }
+
+    @PreDestroy
+    void stopWatching() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+        }
+    }
+
+    private void runWatcher() {
+        while (true) {
+            WatchKey key;
+            try {
+                key = watchService.take();
+            } catch (ClosedWatchServiceException e) {
+                return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            try {
+                Path root = getUploadRoot();
+                Path directory = (Path) key.watchable();
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        // События потеряны — индекс сверяется с диском
+                        watchAll(root);
+                        reconcile(root);
+                        break;
+                    }
+                    Path changed = directory.resolve((Path) event.context());
+                    if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE
+                            && FileShardLayout.isShardDirectory(root, changed) && Files.isDirectory(changed)) {
+                        watchNewShard(changed);
+                    } else {
+                        refresh(changed.getFileName().toString());
+                    }
+                }
+            } catch (IOException e) {
+                log.warn("Failed to refresh file metadata index", e);
+            }
+            if (!key.reset() && key.watchable().equals(storageProperties.getUploadPath())) {
+                log.warn("Upload directory is no longer watched, file list may go stale");
+                return;
+            }
+        }
+    }
+
+    private void watchAll(Path root) throws IOException {
+        watch(root);
+        Path shardsRoot = root.resolve(FileShardLayout.SHARDS_DIR);
+        if (Files.isDirectory(shardsRoot)) {
+            watch(shardsRoot);
+        }
+        for (Path shard : FileShardLayout.shardDirectories(root)) {
+            watch(shard.getParent());
+            watch(shard);
+        }
+    }
+
+    /**
+     * Подписка на новый каталог шарда и чтение того, что в нём успело появиться до подписки.
+     */
+    private void watchNewShard(Path directory) throws IOException {
+        watch(directory);
+        try (Stream<Path> entries = Files.list(directory)) {
+            for (Path entry : (Iterable<Path>) entries::iterator) {
+                if (Files.isDirectory(entry)) {
+                    watchNewShard(entry);
+                } else {
+                    refresh(entry.getFileName().toString());
+                }
+            }
+        } catch (NoSuchFileException e) {
+            // каталог удалили сразу после создания
+        }
+    }
+
+    private void watch(Path directory) {
+        try {
+            directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+        } catch (IOException e) {
+            // Например, исчерпан лимит inotify: изменения здесь в обход приложения в индекс не попадут
+            log.warn("Cannot watch {}", directory, e);
+        }
+    }
+
+    /**
+     * Индекс; при первом обращении строится обходом каталога под metadataIndexLock — refresh,
+     * пришедшие во время обхода, ждут и применяются поверх него.
+     */
+    private FileMetadataIndex metadataIndex() throws IOException {
+        FileMetadataIndex index = metadataIndex;
+        if (index == null) {
+            synchronized (metadataIndexLock) {
+                index = metadataIndex;
+                if (index == null) {
+                    index = scan(getUploadRoot());
+                    metadataIndex = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    private FileMetadataIndex scan(Path root) throws IOException {
+        FileMetadataIndex index = new FileMetadataIndex();
+        int flat = addFiles(index, root);
+        for (Path shard : FileShardLayout.shardDirectories(root)) {
+            addFiles(index, shard);
+        }
+        if (flat > 0) {
+            log.warn("{} files are still in the root of {}, move them into shards with FileLayoutMigration",
+                    flat, root);
+        }
+        log.info("File metadata index built: {} files", index.size());
+        return index;
+    }
+
+    private static int addFiles(FileMetadataIndex index, Path directory) throws IOException {
+        int added = 0;
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                FileMetadataIndex.Entry entry = readEntry(file);
+                if (entry != null) {
+                    index.put(entry);
+                    added++;
+                }
+            }
+        }
+        return added;
+    }
+
+    /**
+     * Сверка индекса с диском после потерянных событий WatchService: refresh каждого файла каталога
+     * и каждого имени индекса, которого на диске не нашлось. Индекс не подменяется новым, поэтому
+     * параллельные загрузки и удаления не теряются: каждое изменение — тот же refresh.
+     */
+    private void reconcile(Path root) throws IOException {
+        Set<String> seen = new HashSet<>();
+        refreshAll(root, seen);
+        for (Path shard : FileShardLayout.shardDirectories(root)) {
+            refreshAll(shard, seen);
+        }
+        int rechecked = 0;
+        for (String name : List.copyOf(metadataIndex().namesStartingWith(""))) {
+            if (!seen.contains(name)) {
+                refresh(name);
+                rechecked++;
+            }
+        }
+        log.info("File metadata index reconciled: {} files on disk, {} names rechecked", seen.size(), rechecked);
+    }
+
+    private void refreshAll(Path directory, Set<String> seen) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                if (Files.isRegularFile(file, LinkOption.NOFOLLOW_LINKS)) {
+                    String name = file.getFileName().toString();
+                    seen.add(name);
+                    refresh(name);
+                }
+            }
+        } catch (NoSuchFileException e) {
+            // каталог шарда удалили во время обхода
+        }
+    }
+
+    /**
+     * Перечитывает с диска один файл каталога загрузок: есть — запись обновляется, нет — удаляется.
+     * Чтение и изменение индекса — под metadataIndexLock: из двух refresh одного имени последним
+     * применяется тот, что позже прочитал диск, и индекс не расходится с ним.
+     */
+    private void refresh(String name) throws IOException {
+        Path root = getUploadRoot();
+        synchronized (metadataIndexLock) {
+            FileMetadataIndex.Entry entry = readEntry(locate(root, name));
+            if (entry != null) {
+                metadataIndex().put(entry);
+            } else {
+                metadataIndex().remove(name);
+            }
+        }
+    }
+
+    /** Метаданные обычного файла; null — файла нет или это каталог (INCOMING_DIR, BLOBS_DIR, SHARDS_DIR, шард). */
+    private static FileMetadataIndex.Entry readEntry(Path file) throws IOException {
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+        if (!attributes.isRegularFile()) {
+            return null;
+        }
+        return new FileMetadataIndex.Entry(file.getFileName().toString(), attributes.size(),
+                attributes.lastModifiedTime().toMillis(), FileBlobStore.readSha256(file));
+    }
 }
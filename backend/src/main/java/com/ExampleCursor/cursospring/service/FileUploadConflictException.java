@@ -0,0 +1,12 @@
+package com.ExampleCursor.cursospring.service;
+
+/**
+ * Часть возобновляемой загрузки уже пишется другим запросом, или загрузка завершается. Отвечаем 409 —
+ * клиент узнаёт состояние через GET /api/files/uploads/{uploadId} и повторяет только недостающее.
+ */
+public class FileUploadConflictException extends RuntimeException {
+
+    public FileUploadConflictException(String message) {
+        super(message);
+    }
+}
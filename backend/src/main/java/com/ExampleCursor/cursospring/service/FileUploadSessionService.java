@@ -0,0 +1,322 @@
+package com.ExampleCursor.cursospring.service;
+
+import com.ExampleCursor.cursospring.config.FileStorageProperties;
+import com.ExampleCursor.cursospring.dto.FileInfoDto;
+import com.ExampleCursor.cursospring.dto.FileUploadChunkResponse;
+import com.ExampleCursor.cursospring.dto.FileUploadSessionRequest;
+import com.ExampleCursor.cursospring.dto.FileUploadSessionResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Возобновляемая загрузка больших файлов частями: начать (размер известен заранее) → отправить части
+ * по номеру, в любом порядке и параллельно → узнать, каких частей не хватает → завершить.
+ * <p>
+ * Файл сразу создаётся полного размера в INCOMING_DIR каталога загрузок, каждая часть пишется
+ * позиционной записью FileChannel в своё место, поэтому параллельные запросы друг другу не мешают,
+ * а оборванная часть просто отправляется заново. SHA-256 части считается при записи и сверяется
+ * с заголовком клиента. Завершение — переименование в каталог загрузок, без копирования.
+ * <p>
+ * Сессии хранятся в памяти процесса: после перезапуска загрузку начинают заново, а файлы брошенных
+ * сессий (и недописанные после сбоя) удаляет cleanUp по app.file.upload-session-timeout.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FileUploadSessionService {
+
+    static final int MIN_CHUNK_SIZE = 64 * 1024;
+    static final int MAX_CHUNK_SIZE = 64 * 1024 * 1024;
+
+    private final FileStorageService fileStorageService;
+    private final FileStorageProperties properties;
+
+    private final Map<String, UploadSession> sessions = new ConcurrentHashMap<>();
+
+    public FileUploadSessionResponse start(String owner, FileUploadSessionRequest request) throws IOException {
+        long maxSize = properties.getMaxUploadSize().toBytes();
+        if (request.getSize() > maxSize) {
+            throw new MaxUploadSizeExceededException(maxSize);
+        }
+        int chunkSize = request.getChunkSize() != null
+                ? request.getChunkSize()
+                : (int) properties.getUploadChunkSize().toBytes();
+        if (chunkSize < MIN_CHUNK_SIZE || chunkSize > MAX_CHUNK_SIZE) {
+            throw new IllegalArgumentException(
+                    "chunkSize must be between " + MIN_CHUNK_SIZE + " and " + MAX_CHUNK_SIZE + " bytes");
+        }
+        Path part = fileStorageService.createIncomingFile();
+        try (RandomAccessFile file = new RandomAccessFile(part.toFile(), "rw")) {
+            file.setLength(request.getSize());
+        } catch (IOException e) {
+            Files.deleteIfExists(part);
+            throw e;
+        }
+        UploadSession session = new UploadSession(UUID.randomUUID().toString(), owner, request.getFileName(),
+                request.getSize(), chunkSize, part);
+        sessions.put(session.id, session);
+        log.info("Started upload: id={}, file={}, size={}, chunks={}",
+                session.id, session.fileName, session.size, session.chunkCount);
+        return session.toResponse(expiresAt(session));
+    }
+
+    public FileUploadSessionResponse getStatus(String owner, String uploadId) {
+        UploadSession session = find(owner, uploadId);
+        return session.toResponse(expiresAt(session));
+    }
+
+    /**
+     * Пишет часть index из тела запроса. Длина должна совпасть с ожидаемой для этой части,
+     * expectedSha256 (hex) — если передан — с хэшем записанных байт; иначе часть не засчитывается.
+     */
+    public FileUploadChunkResponse writeChunk(String owner, String uploadId, int index, InputStream in,
+                                              String expectedSha256) throws IOException {
+        UploadSession session = find(owner, uploadId);
+        if (index < 0 || index >= session.chunkCount) {
+            throw new IllegalArgumentException("Chunk index must be between 0 and " + (session.chunkCount - 1));
+        }
+        long length = session.chunkLength(index);
+        session.begin(index);
+        boolean received = false;
+        try {
+            MessageDigest sha256 = FileStorageService.sha256();
+            long written;
+            try (FileChannel channel = FileChannel.open(session.path, StandardOpenOption.WRITE)) {
+                written = fileStorageService.write(in, channel, (long) index * session.chunkSize, length, sha256);
+            }
+            if (written != length) {
+                throw new IllegalArgumentException(
+                        "Chunk " + index + " must be " + length + " bytes, got " + written);
+            }
+            String actual = HexFormat.of().formatHex(sha256.digest());
+            if (expectedSha256 != null && !expectedSha256.equalsIgnoreCase(actual)) {
+                throw new IllegalArgumentException("Chunk " + index + " checksum mismatch: got " + actual);
+            }
+            received = true;
+            return FileUploadChunkResponse.builder()
+                    .index(index)
+                    .sizeInBytes(written)
+                    .sha256(actual)
+                    .build();
+        } finally {
+            session.end(index, received);
+        }
+    }
+
+    /**
+     * Все части получены — файл переносится в каталог загрузок (с суффиксом _1, _2, если имя занято).
+     */
+    public FileInfoDto complete(String owner, String uploadId) throws IOException {
+        UploadSession session = find(owner, uploadId);
+        session.seal(true);
+        Path target;
+        try {
+            target = fileStorageService.publish(session.path, session.fileName);
+        } catch (IOException | RuntimeException e) {
+            session.unseal();
+            throw e;
+        }
+        sessions.remove(session.id);
+        log.info("Completed upload: id={}, file={} ({} bytes)", session.id, target.getFileName(), session.size);
+        return FileInfoDto.builder()
+                .name(target.getFileName().toString())
+                .sizeInBytes(session.size)
+                .build();
+    }
+
+    public void abort(String owner, String uploadId) throws IOException {
+        UploadSession session = find(owner, uploadId);
+        session.seal(false);
+        sessions.remove(session.id);
+        Files.deleteIfExists(session.path);
+        log.info("Aborted upload: id={}", session.id);
+    }
+
+    /**
+     * Удаляет сессии без новых частей дольше app.file.upload-session-timeout и файлы в INCOMING_DIR,
+     * не принадлежащие живой сессии и не менявшиеся столько же (остались после сбоя или перезапуска).
+     */
+    @Scheduled(fixedDelayString = "${app.file.upload-cleanup-interval:15m}")
+    public void cleanUp() {
+        Instant now = Instant.now();
+        for (UploadSession session : sessions.values()) {
+            if (!expiresAt(session).isAfter(now) && session.tryExpire()) {
+                sessions.remove(session.id);
+                deleteQuietly(session.path);
+                log.info("Expired abandoned upload: id={}, file={}", session.id, session.fileName);
+            }
+        }
+        Instant cutoff = now.minus(properties.getUploadSessionTimeout());
+        Set<Path> live = sessions.values().stream().map(session -> session.path).collect(Collectors.toSet());
+        try (Stream<Path> files = Files.list(fileStorageService.getIncomingDirectory())) {
+            files.filter(file -> !live.contains(file))
+                    .filter(file -> lastModified(file).isBefore(cutoff))
+                    .forEach(file -> {
+                        deleteQuietly(file);
+                        log.info("Deleted stale incoming file: {}", file.getFileName());
+                    });
+        } catch (IOException e) {
+            log.warn("Failed to clean up incoming uploads", e);
+        }
+    }
+
+    private UploadSession find(String owner, String uploadId) {
+        UploadSession session = sessions.get(uploadId);
+        if (session == null || !session.owner.equals(owner)) {
+            throw new ResourceNotFoundException("Upload not found: " + uploadId);
+        }
+        return session;
+    }
+
+    private Instant expiresAt(UploadSession session) {
+        return session.lastActivity.plus(properties.getUploadSessionTimeout());
+    }
+
+    private static Instant lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toInstant();
+        } catch (IOException e) {
+            return Instant.MAX;
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Failed to delete {}", file, e);
+        }
+    }
+
+    /**
+     * Состояние одной загрузки. Какие части получены и какие сейчас пишутся — под монитором сессии;
+     * сами байты пишутся вне него.
+     */
+    private static final class UploadSession {
+
+        private final String id;
+        private final String owner;
+        private final String fileName;
+        private final long size;
+        private final int chunkSize;
+        private final int chunkCount;
+        private final Path path;
+
+        private final BitSet received = new BitSet();
+        private final BitSet inFlight = new BitSet();
+        private long receivedBytes;
+        private boolean sealed;
+        private volatile Instant lastActivity = Instant.now();
+
+        UploadSession(String id, String owner, String fileName, long size, int chunkSize, Path path) {
+            this.id = id;
+            this.owner = owner;
+            this.fileName = fileName;
+            this.size = size;
+            this.chunkSize = chunkSize;
+            this.chunkCount = Math.toIntExact((size + chunkSize - 1) / chunkSize);
+            this.path = path;
+        }
+
+        long chunkLength(int index) {
+            return Math.min(chunkSize, size - (long) index * chunkSize);
+        }
+
+        /**
+         * Часть начинает писаться. Повторно присланная часть перестаёт считаться полученной,
+         * пока не будет записана целиком.
+         */
+        synchronized void begin(int index) {
+            if (sealed) {
+                throw new FileUploadConflictException("Upload " + id + " is being completed");
+            }
+            if (inFlight.get(index)) {
+                throw new FileUploadConflictException("Chunk " + index + " is already being uploaded");
+            }
+            inFlight.set(index);
+            if (received.get(index)) {
+                received.clear(index);
+                receivedBytes -= chunkLength(index);
+            }
+            lastActivity = Instant.now();
+        }
+
+        synchronized void end(int index, boolean ok) {
+            inFlight.clear(index);
+            if (ok) {
+                received.set(index);
+                receivedBytes += chunkLength(index);
+            }
+            lastActivity = Instant.now();
+        }
+
+        /**
+         * Дальше части не принимаются (завершение или отмена). requireAll — для завершения: все части получены.
+         */
+        synchronized void seal(boolean requireAll) {
+            if (sealed) {
+                throw new FileUploadConflictException("Upload " + id + " is being completed");
+            }
+            if (!inFlight.isEmpty()) {
+                throw new FileUploadConflictException("Upload " + id + " has chunks in progress");
+            }
+            if (requireAll && received.cardinality() < chunkCount) {
+                throw new IllegalArgumentException(
+                        "Upload " + id + " is missing " + (chunkCount - received.cardinality()) + " chunks");
+            }
+            sealed = true;
+        }
+
+        synchronized void unseal() {
+            sealed = false;
+        }
+
+        synchronized boolean tryExpire() {
+            if (sealed || !inFlight.isEmpty()) {
+                return false;
+            }
+            sealed = true;
+            return true;
+        }
+
+        synchronized FileUploadSessionResponse toResponse(Instant expiresAt) {
+            List<Integer> missing = new ArrayList<>(chunkCount - received.cardinality());
+            for (int i = received.nextClearBit(0); i < chunkCount; i = received.nextClearBit(i + 1)) {
+                missing.add(i);
+            }
+            return FileUploadSessionResponse.builder()
+                    .uploadId(id)
+                    .fileName(fileName)
+                    .size(size)
+                    .chunkSize(chunkSize)
+                    .chunkCount(chunkCount)
+                    .receivedBytes(receivedBytes)
+                    .missingChunks(missing)
+                    .expiresAt(expiresAt)
+                    .build();
+        }
+    }
+}
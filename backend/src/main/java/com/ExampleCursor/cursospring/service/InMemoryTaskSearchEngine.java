@@ -0,0 +1,96 @@
+package com.ExampleCursor.cursospring.service;
+
+import com.ExampleCursor.cursospring.dto.TaskResponse;
+import com.ExampleCursor.cursospring.repository.TaskRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Поиск по инвертированному индексу в памяти (app.search.engine=memory).
+ * У каждого владельца свой индекс: поиск пользователя идёт только по его задачам, и частоты слов
+ * для ранжирования тоже считаются по ним. Индексы строятся при старте из всех задач и обновляются
+ * после коммита каждой записи, а после массового импорта индекс его владельца строится заново.
+ * Записи в индекс владельца идут под его блокировкой, поэтому перестройка не теряет изменений.
+ * Подходит для разработки и небольших инсталляций без PostgreSQL full-text.
+ */
+@Component
+@ConditionalOnProperty(name = "app.search.engine", havingValue = "memory")
+@RequiredArgsConstructor
+@Slf4j
+public class InMemoryTaskSearchEngine implements TaskSearchEngine {
+
+    private final TaskRepository taskRepository;
+    private final Map<String, InMemoryTaskSearchIndex> indexes = new ConcurrentHashMap<>();
+    private final Map<String, Object> ownerLocks = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void build() {
+        try (Stream<TaskResponse> tasks = taskRepository.streamAll()) {
+            tasks.forEach(task -> {
+                synchronized (lockFor(task.getOwner())) {
+                    indexFor(task.getOwner()).index(task.getId(), task.getTitle(), task.getDescription());
+                }
+            });
+        }
+        log.info("In-memory search index built: {} tasks, {} owners",
+                indexes.values().stream().mapToInt(InMemoryTaskSearchIndex::size).sum(), indexes.size());
+    }
+
+    /**
+     * Новый индекс владельца импорта строится рядом со старым (поиск до замены идёт по старому),
+     * onTaskChanged этого владельца ждёт и применяется уже к новому. Читает из primary (транзакция
+     * не readOnly) — там импорт точно виден.
+     */
+    @EventListener
+    @Transactional
+    public void onTasksImported(TasksImportedEvent event) {
+        String owner = event.owner();
+        synchronized (lockFor(owner)) {
+            InMemoryTaskSearchIndex rebuilt = new InMemoryTaskSearchIndex();
+            try (Stream<TaskResponse> tasks = taskRepository.streamByOwner(owner)) {
+                tasks.forEach(task -> rebuilt.index(task.getId(), task.getTitle(), task.getDescription()));
+            }
+            indexes.put(owner, rebuilt);
+            log.info("In-memory search index rebuilt for {}: {} tasks", owner, rebuilt.size());
+        }
+    }
+
+    @TransactionalEventListener
+    public void onTaskChanged(TaskChangedEvent event) {
+        TaskResponse task = event.task();
+        String owner = task != null ? task.getOwner() : event.previous().getOwner();
+        synchronized (lockFor(owner)) {
+            if (task == null) {
+                indexFor(owner).remove(event.taskId());
+            } else {
+                indexFor(owner).index(task.getId(), task.getTitle(), task.getDescription());
+            }
+        }
+    }
+
+    @Override
+    public List<Hit> search(String owner, String query, int offset, int limit) {
+        InMemoryTaskSearchIndex index = indexes.get(owner);
+        return index != null ? index.search(query, offset, limit) : List.of();
+    }
+
+    private InMemoryTaskSearchIndex indexFor(String owner) {
+        return indexes.computeIfAbsent(owner, o -> new InMemoryTaskSearchIndex());
+    }
+
+    private Object lockFor(String owner) {
+        return ownerLocks.computeIfAbsent(owner, o -> new Object());
+    }
+}
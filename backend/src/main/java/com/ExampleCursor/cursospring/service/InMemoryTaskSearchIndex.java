@@ -0,0 +1,151 @@
+package com.ExampleCursor.cursospring.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Инвертированный индекс задач в памяти: слово → (id задачи → сколько раз слово встречается).
+ * Поиск — пересечение списков по всем словам запроса (как AND в websearch_to_tsquery),
+ * ранжирование TF-IDF. Без зависимостей от Spring и БД, поэтому легко тестируется.
+ */
+public class InMemoryTaskSearchIndex {
+
+    private final Map<String, Map<Long, Integer>> postings = new HashMap<>();
+    private final Map<Long, List<String>> documentTerms = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Добавляет или переиндексирует задачу.
+     */
+    public void index(Long taskId, String title, String description) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (String term : tokenize(title)) {
+            frequencies.merge(term, 1, Integer::sum);
+        }
+        for (String term : tokenize(description)) {
+            frequencies.merge(term, 1, Integer::sum);
+        }
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(taskId);
+            frequencies.forEach((term, tf) -> postings.computeIfAbsent(term, t -> new HashMap<>()).put(taskId, tf));
+            documentTerms.put(taskId, List.copyOf(frequencies.keySet()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long taskId) {
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(taskId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documentTerms.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documentTerms.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Задачи, содержащие все слова запроса, по убыванию TF-IDF (при равенстве — новые id первыми).
+     */
+    public List<TaskSearchEngine.Hit> search(String query, int offset, int limit) {
+        List<String> terms = tokenize(query).stream().distinct().toList();
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            List<Map<Long, Integer>> lists = new ArrayList<>(terms.size());
+            for (String term : terms) {
+                Map<Long, Integer> list = postings.get(term);
+                if (list == null) {
+                    return List.of();
+                }
+                lists.add(list);
+            }
+            // Перебираем самый короткий список, остальные только проверяем
+            lists.sort(Comparator.comparingInt(Map::size));
+            int documents = documentTerms.size();
+            List<TaskSearchEngine.Hit> hits = new ArrayList<>();
+            for (Long taskId : lists.get(0).keySet()) {
+                double score = 0;
+                boolean matchesAll = true;
+                for (Map<Long, Integer> list : lists) {
+                    Integer tf = list.get(taskId);
+                    if (tf == null) {
+                        matchesAll = false;
+                        break;
+                    }
+                    score += tf * Math.log(1 + (double) documents / list.size());
+                }
+                if (matchesAll) {
+                    hits.add(new TaskSearchEngine.Hit(taskId, score));
+                }
+            }
+            hits.sort(Comparator.comparingDouble(TaskSearchEngine.Hit::score).reversed()
+                    .thenComparing(TaskSearchEngine.Hit::taskId, Comparator.reverseOrder()));
+            if (offset >= hits.size()) {
+                return List.of();
+            }
+            return List.copyOf(hits.subList(offset, Math.min(hits.size(), offset + limit)));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeUnlocked(Long taskId) {
+        List<String> terms = documentTerms.remove(taskId);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            Map<Long, Integer> list = postings.get(term);
+            if (list != null) {
+                list.remove(taskId);
+                if (list.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    /**
+     * Разбивает текст на слова: буквы и цифры, в нижнем регистре.
+     */
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        List<String> terms = new ArrayList<>();
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                terms.add(token);
+            }
+        }
+        return terms;
+    }
+}
@@ -0,0 +1,20 @@
+package com.ExampleCursor.cursospring.service;
+
+import com.ExampleCursor.cursospring.dto.TaskReminder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+@Component
+@Slf4j
+public class LogTaskReminderSink implements TaskReminderSink {
+
+    @Override
+    public String name() {
+        return "log";
+    }
+
+    @Override
+    public void send(TaskReminder reminder) {
+        log.info("Task is due: id={}, title={}, dueDate={}", reminder.getTaskId(), reminder.getTitle(), reminder.getDueDate());
+    }
+}
@@ -0,0 +1,27 @@
+package com.ExampleCursor.cursospring.service;
+
+import com.ExampleCursor.cursospring.repository.TaskRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Поиск средствами PostgreSQL: tsvector-колонка search_vector генерируется самой БД из title и description
+ * (GENERATED ALWAYS ... STORED), поэтому обновляется при каждой записи без участия приложения.
+ */
+@Component
+@ConditionalOnProperty(name = "app.search.engine", havingValue = "postgres", matchIfMissing = true)
+@RequiredArgsConstructor
+public class PostgresTaskSearchEngine implements TaskSearchEngine {
+
+    private final TaskRepository taskRepository;
+
+    @Override
+    public List<Hit> search(String owner, String query, int offset, int limit) {
+        return taskRepository.searchFullText(owner, query, offset, limit).stream()
+                .map(row -> new Hit(row.getId(), row.getRank() != null ? row.getRank() : 0))
+                .toList();
+    }
+}
@@ -0,0 +1,11 @@
+package com.ExampleCursor.cursospring.service;
+
+/**
+ * Условие If-Match не выполнено: задачу успели изменить (версия другая). Отвечаем 412.
+ */
+public class PreconditionFailedException extends RuntimeException {
+
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
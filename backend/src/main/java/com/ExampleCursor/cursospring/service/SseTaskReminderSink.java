@@ -0,0 +1,25 @@
+package com.ExampleCursor.cursospring.service;
+
+import com.ExampleCursor.cursospring.dto.TaskReminder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Напоминания в SSE-ленту /api/tasks/stream (событие reminder).
+ */
+@Component
+@RequiredArgsConstructor
+public class SseTaskReminderSink implements TaskReminderSink {
+
+    private final TaskEventStreamService taskEventStreamService;
+
+    @Override
+    public String name() {
+        return "sse";
+    }
+
+    @Override
+    public void send(TaskReminder reminder) {
+        taskEventStreamService.publishReminder(reminder);
+    }
+}
@@ -0,0 +1,12 @@
+package com.ExampleCursor.cursospring.service;
+
+/**
+ * Токен синхронизации старше срока хранения надгробий: часть удалений уже не восстановить.
+ * Отвечаем 410 — клиент должен выполнить полную синхронизацию (без since).
+ */
+public class SyncTokenExpiredException extends RuntimeException {
+
+    public SyncTokenExpiredException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,52 @@
+package com.ExampleCursor.cursospring.service;
+
+import com.ExampleCursor.cursospring.config.TaskArchiveProperties;
+import com.ExampleCursor.cursospring.entity.Task;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+
+/**
+ * Фоновый перенос давно выполненных задач из tasks в tasks_archive.
+ * Рабочая таблица и её индексы растут с числом активных задач, а не со всей историей.
+ * Перенос идёт короткими транзакциями по batchSize задач с паузой между ними;
+ * чтение архива — только явно, через ?includeArchived=true.
+ */
+@Service
+@ConditionalOnProperty(prefix = "app.archive", name = "enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class TaskArchiveService {
+
+    private final TaskService taskService;
+    private final TaskArchiveProperties properties;
+
+    @Scheduled(fixedDelayString = "${app.archive.interval:1h}", initialDelayString = "${app.archive.initial-delay:1m}")
+    public void archive() {
+        LocalDateTime cutoff = Task.now().minusDays(properties.getAfterDays());
+        long start = System.nanoTime();
+        int total = 0;
+        try {
+            while (true) {
+                int moved = taskService.archiveCompleted(cutoff, properties.getBatchSize());
+                total += moved;
+                if (moved < properties.getBatchSize()) {
+                    break;
+                }
+                Thread.sleep(properties.getPause().toMillis());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.error("Task archiving failed after {} tasks", total, e);
+        }
+        if (total > 0) {
+            log.info("Task archiving done: {} tasks completed before {} in {} ms",
+                    total, cutoff, (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.ExampleCursor.cursospring.service;
+
+import com.ExampleCursor.cursospring.dto.FileInfoDto;
+import com.ExampleCursor.cursospring.dto.TaskAttachmentPageResponse;
+import com.ExampleCursor.cursospring.dto.TaskAttachmentResponse;
+import com.ExampleCursor.cursospring.dto.TaskPageResponse;
+import com.ExampleCursor.cursospring.dto.TaskQuery;
+import com.ExampleCursor.cursospring.dto.TaskResponse;
+import com.ExampleCursor.cursospring.dto.TaskWithAttachmentsResponse;
+import com.ExampleCursor.cursospring.entity.Task;
+import com.ExampleCursor.cursospring.entity.TaskAttachment;
+import com.ExampleCursor.cursospring.repository.TaskAttachmentRepository;
+import com.ExampleCursor.cursospring.repository.TaskRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Вложения задач — ссылки на файлы FileStorageService.
+ * <p>
+ * Страница задач со вложениями — два запроса при любом размере страницы: сама страница
+ * (TaskService.findPage, с её кэшем) и вложения всех задач страницы одним task_id in (...).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TaskAttachmentService {
+
+    private final TaskService taskService;
+    private final TaskRepository taskRepository;
+    private final TaskAttachmentRepository taskAttachmentRepository;
+    private final FileStorageService fileStorageService;
+
+    @Transactional(readOnly = true)
+    public TaskAttachmentPageResponse findPage(TaskQuery query) {
+        TaskPageResponse page = taskService.findPage(query);
+        List<Long> taskIds = page.getItems().stream().map(TaskResponse::getId).toList();
+        Map<Long, List<TaskAttachmentResponse>> attachments = taskIds.isEmpty()
+                ? Map.of()
+                : taskAttachmentRepository.findResponsesByTaskIdIn(query.getOwner(), taskIds).stream()
+                        .collect(Collectors.groupingBy(TaskAttachmentResponse::getTaskId));
+        return TaskAttachmentPageResponse.builder()
+                .items(page.getItems().stream()
+                        .map(task -> TaskWithAttachmentsResponse.builder()
+                                .task(task)
+                                .attachments(attachments.getOrDefault(task.getId(), List.of()))
+                                .build())
+                        .toList())
+                .nextCursor(page.getNextCursor())
+                .hasMore(page.isHasMore())
+                .build();
+    }
+
+    @Transactional(readOnly = true)
+    public List<TaskAttachmentResponse> findByTask(String owner, Long taskId) {
+        requireTask(owner, taskId);
+        return taskAttachmentRepository.findResponsesByTaskIdIn(owner, List.of(taskId));
+    }
+
+    /**
+     * Прикрепляет загруженный файл к задаче owner. Повторное прикрепление того же файла, в том числе
+     * параллельное, возвращает существующее вложение: вставка — INSERT ... ON CONFLICT DO NOTHING,
+     * а не поиск и save, между которыми успевает вставить другой запрос (ошибка уникального ключа, 500).
+     */
+    @Transactional
+    public TaskAttachmentResponse attach(String owner, Long taskId, String fileName) throws IOException {
+        requireTask(owner, taskId);
+        FileInfoDto file = fileStorageService.getInfo(fileName);
+        int inserted = taskAttachmentRepository.insertIfAbsent(
+                taskId, owner, file.getName(), file.getSizeInBytes(), Task.now());
+        // Вложение могли открепить между вставкой другого запроса и нашим чтением
+        TaskAttachment attachment = taskAttachmentRepository.findByTaskIdAndFileName(taskId, file.getName())
+                .orElseThrow(() -> new OptimisticLockingFailureException(
+                        "Attachment was removed concurrently: " + file.getName()));
+        if (inserted > 0) {
+            log.info("Attached file to task: taskId={}, file={}", taskId, file.getName());
+        }
+        return TaskAttachmentResponse.fromEntity(attachment);
+    }
+
+    @Transactional
+    public void detach(String owner, Long taskId, Long attachmentId) {
+        if (taskAttachmentRepository.deleteByOwnerAndTaskIdAndId(owner, taskId, attachmentId) == 0) {
+            throw new ResourceNotFoundException("Attachment not found with id: " + attachmentId);
+        }
+    }
+
+    /**
+     * Файл удалён из хранилища — вложения на него больше не ведут.
+     */
+    @Transactional
+    public void detachFile(String fileName) {
+        int detached = taskAttachmentRepository.deleteByFileName(fileName);
+        if (detached > 0) {
+            log.info("Detached deleted file from tasks: file={}, attachments={}", fileName, detached);
+        }
+    }
+
+    private void requireTask(String owner, Long taskId) {
+        if (taskRepository.findVersionById(owner, taskId).isEmpty()) {
+            throw new ResourceNotFoundException("Task not found with id: " + taskId);
+        }
+    }
+}
@@ -0,0 +1,534 @@
+package com.ExampleCursor.cursospring.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only журнал из сегментов фиксированного размера, отображённых в память (MappedByteBuffer).
+ * <p>
+ * append — копирование записи в page cache без системных вызовов, единицы микросекунд.
+ * На диск записи сбрасывает flush() (force только изменённого диапазона) — его вызывают по
+ * расписанию, пачкой за интервал: после падения JVM записи не теряются, после сбоя ОС — максимум
+ * последние flushInterval. flush же заранее готовит следующий сегмент (файл заполняется нулями,
+ * место на диске выделено), так что смена сегмента в append — только переключение буфера,
+ * а переполненный диск не приводит к SIGBUS при записи в отображение.
+ * <p>
+ * Сегмент: заголовок [int MAGIC][int 0][long seq первой записи], затем записи
+ * [int длина записи][int CRC32C][long seq][payload]; длина 0 — конец записанного.
+ * Файлы — 00000001.journal, 00000002.journal, ...; у заготовленного сегмента seq первой записи 0.
+ * Читать журнал можно и из другого процесса (статический read), пишет в каталог один экземпляр
+ * (lock-файл); сам писатель читает по своим отображениям, не открывая файлы.
+ */
+@Slf4j
+public class TaskAuditJournal implements Closeable {
+
+    static final int SEGMENT_HEADER = 16;
+    static final int RECORD_HEADER = 16;
+
+    private static final int MAGIC = 0x54414a31; // "TAJ1"
+    private static final String SUFFIX = ".journal";
+    private static final String TMP_SUFFIX = ".tmp";
+    private static final int ZERO_CHUNK = 1024 * 1024;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final FileChannel lockChannel;
+    private final FileLock lock;
+    private final CRC32C crc = new CRC32C();
+
+    /**
+     * Текущий сегмент, seq, отработавшие сегменты, ещё не сброшенные на диск, и все сегменты с записями
+     * по порядку (для read без повторного отображения файлов) — под this.
+     */
+    private Segment current;
+    private long nextSeq;
+    private final List<Segment> retired = new ArrayList<>();
+    private final List<Segment> segments = new ArrayList<>();
+    /** Заготовленный следующий сегмент — под allocation (порядок захвата: this, затем allocation). */
+    private final Object allocation = new Object();
+    private Segment spare;
+    private boolean closed;
+
+    public TaskAuditJournal(Path directory, int segmentSize) throws IOException {
+        if (segmentSize < SEGMENT_HEADER + RECORD_HEADER + 1024) {
+            throw new IllegalArgumentException("Segment size too small: " + segmentSize);
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        Files.createDirectories(directory);
+        lockChannel = FileChannel.open(directory.resolve(".lock"), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        try {
+            lock = lockChannel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            lockChannel.close();
+            throw new IllegalStateException("Audit journal is already open in this process: " + directory
+                    + " (close the other writer or use another app.audit.directory)");
+        }
+        if (lock == null) {
+            lockChannel.close();
+            throw new IllegalStateException("Audit journal is used by another process: " + directory);
+        }
+        try {
+            recover();
+        } catch (IOException | RuntimeException e) {
+            // Иначе каталог останется заблокированным до конца процесса
+            releaseLock();
+            throw e;
+        }
+    }
+
+    /**
+     * Добавляет запись и возвращает её seq (с 1, без пропусков).
+     */
+    public synchronized long append(byte[] payload) {
+        if (closed) {
+            throw new IllegalStateException("Audit journal is closed");
+        }
+        int length = RECORD_HEADER + payload.length;
+        if (length > segmentSize - SEGMENT_HEADER) {
+            throw new IllegalArgumentException("Audit record too large: " + payload.length + " bytes");
+        }
+        if (current.position + length > current.capacity()) {
+            rotate();
+        }
+        MappedByteBuffer buffer = current.buffer;
+        int position = current.position;
+        long seq = nextSeq;
+        buffer.putLong(position + 8, seq);
+        buffer.put(position + RECORD_HEADER, payload);
+        crc.reset();
+        crc.update(buffer.slice(position + 8, length - 8));
+        buffer.putInt(position + 4, (int) crc.getValue());
+        // Длина — последней: читатель, увидевший её, видит и всю запись
+        buffer.putInt(position, length);
+        current.position = position + length;
+        nextSeq = seq + 1;
+        return seq;
+    }
+
+    /**
+     * seq последней записи (0 — журнал пуст).
+     */
+    public synchronized long lastSequence() {
+        return nextSeq - 1;
+    }
+
+    /**
+     * Сбрасывает на диск всё записанное с прошлого вызова и готовит следующий сегмент.
+     * Вызывается из одного потока (планировщик), append при этом не блокируется.
+     */
+    public void flush() {
+        List<Segment> done;
+        Segment segment;
+        int from;
+        int to;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            done = new ArrayList<>(retired);
+            retired.clear();
+            segment = current;
+            from = segment.forced;
+            to = segment.position;
+            segment.forced = to;
+        }
+        for (Segment old : done) {
+            if (old.position > old.forced) {
+                old.buffer.force(old.forced, old.position - old.forced);
+            }
+        }
+        if (to > from) {
+            segment.buffer.force(from, to - from);
+        }
+        synchronized (allocation) {
+            int index = segment.index + 1;
+            // Пока шёл force, append мог уже перейти в следующий сегмент
+            if (spare == null && !Files.exists(segmentFile(directory, index))) {
+                try {
+                    spare = Segment.allocate(directory, index, segmentSize);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Failed to preallocate audit segment", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Сбрасывает записанное на диск и снимает блокировку каталога — даже если сброс не удался,
+     * чтобы каталог мог открыть следующий экземпляр (новый контекст в том же процессе). Повторный вызов ничего не делает.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+        }
+        try {
+            flush();
+        } finally {
+            synchronized (this) {
+                closed = true;
+            }
+            releaseLock();
+        }
+    }
+
+    private void releaseLock() throws IOException {
+        try {
+            lock.release();
+        } finally {
+            lockChannel.close();
+        }
+    }
+
+    /**
+     * Читает записи с seq > afterSeq по порядку, пока visitor возвращает true. Возвращает seq
+     * последней прочитанной записи (afterSeq, если новых нет). Не требует открытого журнала.
+     */
+    public static long read(Path directory, long afterSeq, RecordVisitor visitor) throws IOException {
+        List<Path> files = segmentFiles(directory);
+        int start = 0;
+        for (int i = 0; i < files.size(); i++) {
+            long first = firstSequence(files.get(i));
+            if (first == 0 || first > afterSeq + 1) {
+                break;
+            }
+            start = i;
+        }
+        long last = afterSeq;
+        for (int i = start; i < files.size(); i++) {
+            MappedByteBuffer buffer;
+            try (FileChannel channel = FileChannel.open(files.get(i), StandardOpenOption.READ)) {
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+            if (buffer.capacity() < SEGMENT_HEADER || buffer.getInt(0) != MAGIC || buffer.getLong(8) == 0) {
+                break;
+            }
+            CRC32C crc = new CRC32C();
+            long expected = buffer.getLong(8);
+            int position = SEGMENT_HEADER;
+            while (true) {
+                int length = recordLength(buffer, position, expected);
+                if (length == 0) {
+                    break;
+                }
+                if (expected > afterSeq) {
+                    if (!validCrc(buffer, position, length, crc)) {
+                        return last;
+                    }
+                    if (!visitor.visit(expected, buffer.slice(position + RECORD_HEADER, length - RECORD_HEADER))) {
+                        return expected;
+                    }
+                    last = expected;
+                }
+                position += length;
+                expected++;
+            }
+        }
+        return last;
+    }
+
+    /**
+     * Читает записи этого журнала с seq > afterSeq по уже отображённым сегментам: файлы не открываются
+     * и не отображаются заново, начальный сегмент находится двоичным поиском по seq первой записи.
+     * Просматривает не больше maxRecords записей (включая те, что visitor пропускает), пока visitor
+     * возвращает true, и возвращает seq последней просмотренной (afterSeq, если новых нет) — с неё
+     * продолжается следующий вызов. Записи, добавленные во время чтения, не видны.
+     */
+    public long read(long afterSeq, int maxRecords, RecordVisitor visitor) {
+        List<Segment> from;
+        long end;
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("Audit journal is closed");
+            }
+            end = nextSeq - 1;
+            if (afterSeq >= end) {
+                return afterSeq;
+            }
+            int low = 0;
+            int high = segments.size() - 1;
+            while (low < high) {
+                int middle = (low + high + 1) >>> 1;
+                if (segments.get(middle).firstSeq <= afterSeq + 1) {
+                    low = middle;
+                } else {
+                    high = middle - 1;
+                }
+            }
+            from = new ArrayList<>(segments.subList(low, segments.size()));
+        }
+        CRC32C check = new CRC32C();
+        long last = afterSeq;
+        int scanned = 0;
+        for (Segment segment : from) {
+            ByteBuffer buffer = segment.buffer;
+            long expected = segment.firstSeq;
+            int position = SEGMENT_HEADER;
+            while (expected <= end) {
+                int length = recordLength(buffer, position, expected);
+                if (length == 0) {
+                    break;
+                }
+                if (expected > afterSeq) {
+                    if (scanned == maxRecords || !validCrc(buffer, position, length, check)) {
+                        return last;
+                    }
+                    scanned++;
+                    last = expected;
+                    if (!visitor.visit(expected, buffer.slice(position + RECORD_HEADER, length - RECORD_HEADER))) {
+                        return last;
+                    }
+                }
+                position += length;
+                expected++;
+            }
+        }
+        return last;
+    }
+
+    /**
+     * Получатель записей read: payload — только для чтения и действителен до возврата из visit.
+     */
+    @FunctionalInterface
+    public interface RecordVisitor {
+
+        boolean visit(long seq, ByteBuffer payload);
+    }
+
+    /**
+     * Восстановление после перезапуска. Хвост каталога, не похожий на сегмент (файл без MAGIC или
+     * короче заголовка — так сегмент обрывался при создании до перехода на временные файлы),
+     * удаляется: записей в нём нет, flush заготовит сегмент заново. Такой же файл перед сегментом
+     * с записями — порча журнала: открытие падает, а не теряет записи молча.
+     */
+    private void recover() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path tmp : files.filter(file -> file.toString().endsWith(SUFFIX + TMP_SUFFIX)).toList()) {
+                Files.delete(tmp);
+            }
+        }
+        List<Path> files = segmentFiles(directory);
+        Segment last = null;
+        for (int i = 0; i < files.size(); i++) {
+            Path file = files.get(i);
+            Segment segment = Segment.open(file, indexOf(file));
+            if (segment == null) {
+                for (Path rest : files.subList(i + 1, files.size())) {
+                    if (firstSequence(rest) != 0) {
+                        throw new IllegalStateException("Audit segment " + file + " is damaged, but "
+                                + rest + " after it has records");
+                    }
+                }
+                for (Path rest : files.subList(i, files.size())) {
+                    log.warn("Deleting incomplete audit segment {}", rest);
+                    Files.delete(rest);
+                }
+                break;
+            }
+            if (segment.firstSeq == 0) {
+                spare = segment;
+                break;
+            }
+            segments.add(segment);
+            last = segment;
+        }
+        if (last == null) {
+            Segment segment = spare != null ? spare : Segment.allocate(directory, 1, segmentSize);
+            spare = null;
+            segment.activate(1);
+            segments.add(segment);
+            current = segment;
+            nextSeq = 1;
+            return;
+        }
+        CRC32C check = new CRC32C();
+        long expected = last.firstSeq;
+        int position = SEGMENT_HEADER;
+        while (true) {
+            int length = recordLength(last.buffer, position, expected);
+            if (length == 0 || !validCrc(last.buffer, position, length, check)) {
+                // Оборванная при сбое запись затирается следующей
+                break;
+            }
+            position += length;
+            expected++;
+        }
+        if (position + RECORD_HEADER <= last.capacity()) {
+            last.buffer.putInt(position, 0);
+        }
+        last.position = position;
+        last.forced = position;
+        current = last;
+        nextSeq = expected;
+    }
+
+    private void rotate() {
+        Segment next;
+        synchronized (allocation) {
+            next = spare;
+            spare = null;
+            if (next == null) {
+                try {
+                    next = Segment.allocate(directory, current.index + 1, segmentSize);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Failed to create audit segment", e);
+                }
+            }
+        }
+        retired.add(current);
+        next.activate(nextSeq);
+        segments.add(next);
+        current = next;
+    }
+
+    /**
+     * Длина записи в позиции или 0, если там конец записанного (или мусор после сбоя).
+     */
+    private static int recordLength(ByteBuffer buffer, int position, long expectedSeq) {
+        if (position + RECORD_HEADER > buffer.capacity()) {
+            return 0;
+        }
+        int length = buffer.getInt(position);
+        if (length < RECORD_HEADER || length > buffer.capacity() - position
+                || buffer.getLong(position + 8) != expectedSeq) {
+            return 0;
+        }
+        return length;
+    }
+
+    private static boolean validCrc(ByteBuffer buffer, int position, int length, CRC32C crc) {
+        crc.reset();
+        crc.update(buffer.slice(position + 8, length - 8));
+        return (int) crc.getValue() == buffer.getInt(position + 4);
+    }
+
+    private static List<Path> segmentFiles(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(SUFFIX)).sorted().toList();
+        }
+    }
+
+    private static long firstSequence(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(SEGMENT_HEADER);
+            channel.read(header, 0);
+            return header.position() == SEGMENT_HEADER && header.getInt(0) == MAGIC ? header.getLong(8) : 0;
+        }
+    }
+
+    /**
+     * fsync каталога, чтобы после сбоя ОС переименованный сегмент остался на месте
+     * (на системах, где каталог так не открыть, — пропускается).
+     */
+    private static void forceDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Windows не открывает каталоги как файлы
+        }
+    }
+
+    private static Path segmentFile(Path directory, int index) {
+        return directory.resolve("%08d%s".formatted(index, SUFFIX));
+    }
+
+    private static int indexOf(Path file) {
+        String name = file.getFileName().toString();
+        return Integer.parseInt(name.substring(0, name.length() - SUFFIX.length()));
+    }
+
+    private static final class Segment {
+
+        private final int index;
+        private final MappedByteBuffer buffer;
+        private long firstSeq;
+        private int position = SEGMENT_HEADER;
+        /** До какой позиции записи уже сброшены на диск. */
+        private int forced;
+
+        private Segment(int index, MappedByteBuffer buffer, long firstSeq) {
+            this.index = index;
+            this.buffer = buffer;
+            this.firstSeq = firstSeq;
+        }
+
+        private int capacity() {
+            return buffer.capacity();
+        }
+
+        /**
+         * Новый сегмент, заполненный нулями на диске (а не разреженный файл). Файл готовится под
+         * временным именем и появляется под своим только целиком, с MAGIC: сбой посреди заполнения
+         * оставляет лишь .tmp, который recover удаляет.
+         */
+        private static Segment allocate(Path directory, int index, int size) throws IOException {
+            Path file = segmentFile(directory, index);
+            Path tmp = file.resolveSibling(file.getFileName() + TMP_SUFFIX);
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                ByteBuffer zeros = ByteBuffer.allocateDirect(ZERO_CHUNK);
+                for (long written = 0; written < size; ) {
+                    zeros.clear().limit((int) Math.min(ZERO_CHUNK, size - written));
+                    written += channel.write(zeros, written);
+                }
+                channel.write(ByteBuffer.allocate(4).putInt(0, MAGIC), 0);
+                channel.force(true);
+            }
+            try {
+                // Без REPLACE_EXISTING: существующий сегмент с записями не затирается
+                Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                Files.deleteIfExists(tmp);
+                throw e;
+            }
+            forceDirectory(directory);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                return new Segment(index, channel.map(FileChannel.MapMode.READ_WRITE, 0, size), 0);
+            }
+        }
+
+        /**
+         * Открывает сегмент; null, если это не сегмент журнала: короче заголовка или без MAGIC.
+         */
+        private static Segment open(Path file, int index) throws IOException {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                ByteBuffer header = ByteBuffer.allocate(SEGMENT_HEADER);
+                channel.read(header, 0);
+                if (channel.size() < SEGMENT_HEADER + RECORD_HEADER || header.getInt(0) != MAGIC) {
+                    return null;
+                }
+                return new Segment(index, channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size()),
+                        header.getLong(8));
+            }
+        }
+
+        private void activate(long seq) {
+            firstSeq = seq;
+            buffer.putInt(0, MAGIC);
+            buffer.putLong(8, seq);
+            forced = 0;
+        }
+    }
+}
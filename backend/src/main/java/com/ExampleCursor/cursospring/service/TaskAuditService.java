@@ -0,0 +1,139 @@
+package com.ExampleCursor.cursospring.service;
+
+import com.ExampleCursor.cursospring.config.TaskAuditProperties;
+import com.ExampleCursor.cursospring.dto.TaskAuditEntry;
+import com.ExampleCursor.cursospring.dto.TaskAuditPageResponse;
+import com.ExampleCursor.cursospring.dto.TaskResponse;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Аудит изменений задач в TaskAuditJournal — файловом журнале вместо строк в PostgreSQL,
+ * которые удвоили бы запись в каждой транзакции TaskService.
+ * <p>
+ * В журнал попадают только закоммиченные изменения (TaskChangedEvent после коммита) и массовые
+ * импорты одной записью. Запись — сериализация в JSON и копирование в отображённый в память
+ * сегмент в потоке коммита; fsync — пачкой раз в app.audit.flush-interval.
+ * Журнал общий, но каждый пользователь читает только записи о своих задачах.
+ */
+@Service
+@ConditionalOnProperty(prefix = "app.audit", name = "enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class TaskAuditService {
+
+    public static final String IMPORTED = "IMPORTED";
+
+    private final TaskAuditProperties properties;
+    private final ObjectMapper objectMapper;
+
+    private TaskAuditJournal journal;
+
+    @PostConstruct
+    void open() throws IOException {
+        journal = new TaskAuditJournal(properties.getDirectoryPath(), (int) properties.getSegmentSize().toBytes());
+        log.info("Task audit journal opened: {}, last seq {}", properties.getDirectoryPath(), journal.lastSequence());
+    }
+
+    @TransactionalEventListener
+    public void onTaskChanged(TaskChangedEvent event) {
+        append(TaskAuditEntry.builder()
+                .type(event.type().name())
+                .taskId(event.taskId())
+                .owner(event.task() != null ? event.task().getOwner() : event.previous().getOwner())
+                .before(event.previous())
+                .after(event.task())
+                .build());
+    }
+
+    @EventListener
+    public void onTasksImported(TasksImportedEvent event) {
+        append(TaskAuditEntry.builder()
+                .type(IMPORTED)
+                .owner(event.owner())
+                .count(event.count())
+                .build());
+    }
+
+    /**
+     * Записи о задачах owner с seq > after, не больше limit, по порядку. Журнал один на всех, чужие
+     * записи пропускаются при чтении, поэтому за запрос просматривается не больше app.audit.max-scan-records
+     * записей: иначе редкий автор каждым опросом читал бы весь журнал. Продолжение — с nextAfter,
+     * даже если своих записей в порции не нашлось.
+     */
+    public TaskAuditPageResponse read(String owner, long after, int limit) {
+        List<TaskAuditEntry> entries = new ArrayList<>(limit);
+        long next = journal.read(after, properties.getMaxScanRecords(), (seq, payload) -> {
+            byte[] bytes = new byte[payload.remaining()];
+            payload.get(bytes);
+            TaskAuditEntry entry = objectMapper.readValue(bytes, TaskAuditEntry.class);
+            if (!owner.equals(ownerOf(entry))) {
+                return true;
+            }
+            entry.setSeq(seq);
+            entries.add(entry);
+            return entries.size() < limit;
+        });
+        return TaskAuditPageResponse.builder()
+                .items(entries)
+                .nextAfter(next)
+                .hasMore(next < journal.lastSequence())
+                .build();
+    }
+
+    @Scheduled(fixedDelayString = "${app.audit.flush-interval:200ms}")
+    public void flush() {
+        journal.flush();
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        journal.close();
+    }
+
+    private void append(TaskAuditEntry entry) {
+        entry.setAt(Instant.now());
+        entry.setUser(currentUser());
+        try {
+            journal.append(objectMapper.writeValueAsBytes(entry));
+        } catch (RuntimeException e) {
+            // Изменение уже закоммичено: отменять нечего, остаётся не потерять сам факт сбоя
+            log.error("Failed to write audit entry {} for task {}", entry.getType(), entry.getTaskId(), e);
+        }
+    }
+
+    /**
+     * Владелец задач записи; у записей, сделанных до появления поля owner, — из состояния задачи.
+     * Запись без владельца (старый IMPORTED) не отдаётся никому.
+     */
+    private static String ownerOf(TaskAuditEntry entry) {
+        if (entry.getOwner() != null) {
+            return entry.getOwner();
+        }
+        TaskResponse task = entry.getAfter() != null ? entry.getAfter() : entry.getBefore();
+        return task != null ? task.getOwner() : null;
+    }
+
+    /**
+     * Пользователь запроса; у фоновых задач (архиватор, групповая запись) его нет.
+     */
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated() ? authentication.getName() : null;
+    }
+}
@@ -0,0 +1,40 @@
+package com.ExampleCursor.cursospring.service;
+
+import com.ExampleCursor.cursospring.dto.TaskResponse;
+
+/**
+ * Событие изменения задачи, публикуется TaskService внутри транзакции записи.
+ * Подписчики, которым нужны только закоммиченные изменения, слушают его через
+ * {@code @TransactionalEventListener} (по умолчанию AFTER_COMMIT).
+ *
+ * @param type     что произошло
+ * @param taskId   id задачи
+ * @param previous состояние до изменения; для CREATED — null
+ * @param task     состояние после изменения; для DELETED и ARCHIVED — null
+ */
+public record TaskChangedEvent(Type type, Long taskId, TaskResponse previous, TaskResponse task) {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED,
+        /** Задача перенесена в tasks_archive: из рабочей таблицы пропала, как при удалении. */
+        ARCHIVED
+    }
+
+    public static TaskChangedEvent created(TaskResponse task) {
+        return new TaskChangedEvent(Type.CREATED, task.getId(), null, task);
+    }
+
+    public static TaskChangedEvent updated(TaskResponse previous, TaskResponse task) {
+        return new TaskChangedEvent(Type.UPDATED, task.getId(), previous, task);
+    }
+
+    public static TaskChangedEvent deleted(TaskResponse previous) {
+        return new TaskChangedEvent(Type.DELETED, previous.getId(), previous, null);
+    }
+
+    public static TaskChangedEvent archived(TaskResponse previous) {
+        return new TaskChangedEvent(Type.ARCHIVED, previous.getId(), previous, null);
+    }
+}
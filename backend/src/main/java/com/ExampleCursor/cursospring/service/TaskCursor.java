@@ -0,0 +1,60 @@
+package com.ExampleCursor.cursospring.service;
+
+import com.ExampleCursor.cursospring.dto.TaskResponse;
+import com.ExampleCursor.cursospring.dto.TaskSort;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Keyset-курсор для постраничного списка задач: сортировка + ключ последней отданной строки.
+ * Клиент получает его как непрозрачную base64url-строку и передаёт обратно в ?after=.
+ */
+record TaskCursor(TaskSort sort, Long id, LocalDateTime createdAt) {
+
+    /** Границы для первой страницы: в пределах диапазона PostgreSQL timestamp. */
+    private static final LocalDateTime MIN_CREATED_AT = LocalDateTime.of(1, 1, 1, 0, 0);
+    private static final LocalDateTime MAX_CREATED_AT = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
+    /**
+     * Курсор "до первой строки" для заданной сортировки.
+     */
+    static TaskCursor first(TaskSort sort) {
+        return switch (sort) {
+            case ID_ASC -> new TaskCursor(sort, 0L, null);
+            case ID_DESC -> new TaskCursor(sort, Long.MAX_VALUE, null);
+            case CREATED_AT_DESC -> new TaskCursor(sort, Long.MAX_VALUE, MAX_CREATED_AT);
+            case CREATED_AT_ASC -> new TaskCursor(sort, 0L, MIN_CREATED_AT);
+        };
+    }
+
+    static TaskCursor of(TaskSort sort, TaskResponse last) {
+        return new TaskCursor(sort, last.getId(), last.getCreatedAt());
+    }
+
+    String encode() {
+        String raw = sort.name() + "|" + id + "|" + (createdAt != null ? createdAt : "");
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Разбирает курсор и проверяет, что он выдан для той же сортировки, что и текущий запрос.
+     */
+    static TaskCursor decode(String value, TaskSort expectedSort) {
+        TaskCursor cursor;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            LocalDateTime createdAt = parts[2].isEmpty() ? null : LocalDateTime.parse(parts[2]);
+            cursor = new TaskCursor(TaskSort.valueOf(parts[0]), Long.valueOf(parts[1]), createdAt);
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        if (cursor.sort() != expectedSort) {
+            throw new IllegalArgumentException("Cursor was issued for sort " + cursor.sort());
+        }
+        return cursor;
+    }
+}
@@ -0,0 +1,197 @@
+package com.ExampleCursor.cursospring.service;
+
+import com.ExampleCursor.cursospring.config.TaskStreamProperties;
+import com.ExampleCursor.cursospring.dto.TaskChangeNotification;
+import com.ExampleCursor.cursospring.dto.TaskReminder;
+import com.ExampleCursor.cursospring.dto.TaskResponse;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import tools.jackson.databind.ObjectMapper;
+
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * SSE-лента изменений задач вместо опроса GET /api/tasks.
+ * <p>
+ * Событие сериализуется в JSON один раз и раскладывается в ограниченные очереди подписчиков.
+ * Отправку делает виртуальный поток, который запускается только когда в очереди что-то есть,
+ * так что простаивающий подписчик — это только открытое async-соединение без потока.
+ * Если клиент не успевает читать и очередь переполнена, его события выбрасываются
+ * и он получает событие resync: нужно перечитать список целиком.
+ * Подписчик получает изменения и напоминания только по своим задачам.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TaskEventStreamService {
+
+    private static final Set<DataWithMediaType> HEARTBEAT = SseEmitter.event().comment("heartbeat").build();
+    private static final Set<DataWithMediaType> RESYNC = SseEmitter.event()
+            .name("resync")
+            .data("{}", MediaType.APPLICATION_JSON)
+            .build();
+
+    private final TaskStreamProperties properties;
+    private final ObjectMapper objectMapper;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService sender = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicLong sequence = new AtomicLong();
+
+    public SseEmitter subscribe(String owner) {
+        SseEmitter emitter = new SseEmitter(properties.getTimeout().toMillis());
+        Subscriber subscriber = new Subscriber(owner, emitter, properties.getBufferSize());
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        enqueue(subscriber, SseEmitter.event()
+                .name("ready")
+                .data("{\"sequence\":" + sequence.get() + "}", MediaType.APPLICATION_JSON)
+                .build());
+        return emitter;
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @TransactionalEventListener
+    public void onTaskChanged(TaskChangedEvent event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        TaskChangeNotification notification = TaskChangeNotification.builder()
+                .type(event.type().name())
+                .taskId(event.taskId())
+                .task(event.task())
+                .build();
+        TaskResponse state = event.task() != null ? event.task() : event.previous();
+        broadcast(state.getOwner(), "task", notification);
+    }
+
+    /**
+     * Напоминание о сроке задачи (событие reminder), см. SseTaskReminderSink.
+     */
+    public void publishReminder(TaskReminder reminder) {
+        if (!subscribers.isEmpty()) {
+            broadcast(reminder.getOwner(), "reminder", reminder);
+        }
+    }
+
+    /**
+     * Массовый импорт не рассылается по задачам: подписчики владельца получают resync и перечитывают
+     * список. Остальных пользователей импорт не касается.
+     */
+    @EventListener
+    public void onTasksImported(TasksImportedEvent event) {
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.owner.equals(event.owner())) {
+                enqueue(subscriber, RESYNC);
+            }
+        }
+    }
+
+    @Scheduled(fixedRateString = "${app.task-stream.heartbeat-interval:15s}")
+    public void sendHeartbeats() {
+        for (Subscriber subscriber : subscribers) {
+            // Если очередь не пуста, соединение и так живое — heartbeat не нужен
+            if (subscriber.queue.isEmpty() && subscriber.queue.offer(HEARTBEAT)) {
+                schedule(subscriber);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+        sender.shutdownNow();
+    }
+
+    private void broadcast(String owner, String name, Object data) {
+        Set<DataWithMediaType> payload = SseEmitter.event()
+                .id(Long.toString(sequence.incrementAndGet()))
+                .name(name)
+                .data(objectMapper.writeValueAsString(data), MediaType.APPLICATION_JSON)
+                .build();
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.owner.equals(owner)) {
+                enqueue(subscriber, payload);
+            }
+        }
+    }
+
+    private void enqueue(Subscriber subscriber, Set<DataWithMediaType> payload) {
+        if (!subscriber.queue.offer(payload)) {
+            subscriber.overflowed = true;
+            subscriber.queue.clear();
+        }
+        schedule(subscriber);
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.draining.compareAndSet(false, true)) {
+            sender.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            while (true) {
+                if (subscriber.overflowed) {
+                    subscriber.overflowed = false;
+                    subscriber.emitter.send(RESYNC);
+                    continue;
+                }
+                Set<DataWithMediaType> next = subscriber.queue.poll();
+                if (next == null) {
+                    break;
+                }
+                subscriber.emitter.send(next);
+            }
+        } catch (Exception e) {
+            // Клиент отключился или соединение уже закрыто
+            log.debug("Dropping task stream subscriber: {}", e.getMessage());
+            subscribers.remove(subscriber);
+            subscriber.queue.clear();
+            subscriber.emitter.completeWithError(e);
+            return;
+        } finally {
+            subscriber.draining.set(false);
+        }
+        if ((!subscriber.queue.isEmpty() || subscriber.overflowed) && subscribers.contains(subscriber)) {
+            schedule(subscriber);
+        }
+    }
+
+    private static final class Subscriber {
+
+        private final String owner;
+        private final SseEmitter emitter;
+        private final BlockingQueue<Set<DataWithMediaType>> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean overflowed;
+
+        private Subscriber(String owner, SseEmitter emitter, int bufferSize) {
+            this.owner = owner;
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(bufferSize);
+        }
+    }
+}
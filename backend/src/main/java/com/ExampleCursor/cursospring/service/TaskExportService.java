@@ -0,0 +1,87 @@
+package com.ExampleCursor.cursospring.service;
+
+import com.ExampleCursor.cursospring.dto.TaskExportFormat;
+import com.ExampleCursor.cursospring.dto.TaskResponse;
+import com.ExampleCursor.cursospring.repository.TaskRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Потоковая выгрузка всех задач. Строки читаются из БД курсором (fetch size в TaskRepository.streamAll)
+ * сразу в TaskResponse (без управляемых сущностей в persistence context) и тут же пишутся в выходной поток,
+ * поэтому расход памяти не зависит от размера таблицы.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TaskExportService {
+
+    private static final int OUTPUT_BUFFER_SIZE = 64 * 1024;
+    private static final byte[] NEW_LINE = {'\n'};
+    private static final String CSV_HEADER = "id,title,description,dueDate,completed,createdAt,updatedAt\n";
+
+    private final TaskRepository taskRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Пишет все задачи owner в out в заданном формате. Возвращает число выгруженных строк.
+     * Поток out не закрывается (им владеет вызывающий, например сервлет-контейнер).
+     */
+    @Transactional(readOnly = true)
+    public long export(String owner, TaskExportFormat format, OutputStream out) throws IOException {
+        BufferedOutputStream buffered = new BufferedOutputStream(out, OUTPUT_BUFFER_SIZE);
+        if (format == TaskExportFormat.CSV) {
+            buffered.write(CSV_HEADER.getBytes(StandardCharsets.UTF_8));
+        }
+        long count = 0;
+        try (Stream<TaskResponse> rows = taskRepository.streamByOwner(owner)) {
+            Iterator<TaskResponse> it = rows.iterator();
+            while (it.hasNext()) {
+                TaskResponse row = it.next();
+                if (format == TaskExportFormat.CSV) {
+                    buffered.write(toCsvLine(row).getBytes(StandardCharsets.UTF_8));
+                } else {
+                    buffered.write(objectMapper.writeValueAsBytes(row));
+                    buffered.write(NEW_LINE);
+                }
+                count++;
+            }
+        }
+        buffered.flush();
+        log.info("Exported {} tasks of {} as {}", count, owner, format);
+        return count;
+    }
+
+    private String toCsvLine(TaskResponse t) {
+        return t.getId() + ","
+                + csv(t.getTitle()) + ","
+                + csv(t.getDescription()) + ","
+                + (t.getDueDate() != null ? t.getDueDate() : "") + ","
+                + t.getCompleted() + ","
+                + t.getCreatedAt() + ","
+                + t.getUpdatedAt() + "\n";
+    }
+
+    /**
+     * Экранирование по RFC 4180: значение в кавычках, если есть запятая, кавычка или перевод строки.
+     */
+    private String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
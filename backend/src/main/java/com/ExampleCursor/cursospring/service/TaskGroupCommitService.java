@@ -0,0 +1,182 @@
+package com.ExampleCursor.cursospring.service;
+
+import com.ExampleCursor.cursospring.config.TaskGroupCommitProperties;
+import com.ExampleCursor.cursospring.dto.CreateTaskRequest;
+import com.ExampleCursor.cursospring.dto.TaskResponse;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Создание задач с групповым коммитом (app.group-commit.enabled=true).
+ * <p>
+ * Запросы кладутся в ограниченную очередь, один поток-писатель забирает их пачками
+ * (до maxBatchSize задач или maxDelay ожидания после первой) и вставляет каждую пачку
+ * одной транзакцией через TaskService.createAll. Вызывающий получает CompletableFuture,
+ * который завершится после коммита его пачки; ошибка строки достаётся только её запросу (см. flush). Переполненная очередь — TaskQueueFullException (429).
+ * Выключенный режим просто вызывает TaskService.create.
+ * <p>
+ * При остановке ни один принятый запрос не остаётся без ответа: либо его запишет писатель,
+ * либо он завершится TaskQueueFullException (см. stop).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TaskGroupCommitService {
+
+    private final TaskService taskService;
+    private final TaskGroupCommitProperties properties;
+
+    private BlockingQueue<PendingCreate> queue;
+    private Thread writer;
+    private volatile boolean running;
+
+    @PostConstruct
+    void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        running = true;
+        writer = Thread.ofPlatform().name("task-group-commit").daemon().start(this::runWriter);
+        log.info("Task group commit enabled: queue={}, maxBatchSize={}, maxDelay={}",
+                properties.getQueueCapacity(), properties.getMaxBatchSize(), properties.getMaxDelay());
+    }
+
+    public CompletableFuture<TaskResponse> create(String owner, CreateTaskRequest request) {
+        if (!properties.isEnabled()) {
+            return CompletableFuture.completedFuture(taskService.create(owner, request));
+        }
+        PendingCreate pending = new PendingCreate(new TaskService.NewTask(owner, request), new CompletableFuture<>());
+        if (!running || !queue.offer(pending)) {
+            throw new TaskQueueFullException("Too many pending task writes, retry later");
+        }
+        // stop() мог начаться между проверкой running и offer: писатель тогда может уже выйти, не увидев
+        // этот запрос. Если забрать его обратно удалось — отвечаем сами; иначе его взял писатель или stop()
+        if (!running && queue.remove(pending)) {
+            throw shuttingDown();
+        }
+        return pending.result();
+    }
+
+    public int queuedCount() {
+        return queue != null ? queue.size() : 0;
+    }
+
+    /**
+     * Остановка: новые запросы получают 429, уже принятые дописываются. Что осталось в очереди после
+     * выхода писателя или по истечении stopTimeout (писатель прерван или завис на БД), завершается
+     * TaskQueueFullException, чтобы ни один CompletableFuture не висел вечно.
+     */
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        try {
+            writer.join(properties.getStopTimeout().toMillis());
+        } finally {
+            rejectQueued();
+        }
+    }
+
+    private void rejectQueued() {
+        List<PendingCreate> leftovers = new ArrayList<>();
+        queue.drainTo(leftovers);
+        if (leftovers.isEmpty()) {
+            return;
+        }
+        log.warn("Task group commit stopped with {} unwritten tasks, rejecting them", leftovers.size());
+        TaskQueueFullException error = shuttingDown();
+        leftovers.forEach(pending -> pending.result().completeExceptionally(error));
+    }
+
+    private static TaskQueueFullException shuttingDown() {
+        return new TaskQueueFullException("Task service is shutting down, retry later");
+    }
+
+    private void runWriter() {
+        int maxBatchSize = properties.getMaxBatchSize();
+        long maxDelayNanos = properties.getMaxDelay().toNanos();
+        List<PendingCreate> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingCreate first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + maxDelayNanos;
+                while (batch.size() < maxBatchSize) {
+                    // Сначала забираем всё, что уже накопилось, и только потом ждём
+                    if (queue.drainTo(batch, maxBatchSize - batch.size()) > 0) {
+                        continue;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    PendingCreate next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                flush(batch);
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Пачка откатывается целиком, поэтому при ошибке она делится пополам и половины записываются заново,
+     * пока ошибка не останется за одним запросом: одна плохая строка (слишком длинный title и т.п.)
+     * стоит лишних log2(n) транзакций, а не отказа всем соседям по пачке. Сбой связи с БД на строку
+     * не указывает — такая ошибка сразу достаётся всей пачке.
+     */
+    private void flush(List<PendingCreate> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            List<TaskResponse> created = taskService.createAll(batch.stream().map(PendingCreate::request).toList());
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).result().complete(created.get(i));
+            }
+        } catch (Exception e) {
+            if (batch.size() > 1 && !isConnectionFailure(e)) {
+                log.warn("Task group commit of {} tasks failed, retrying in halves: {}", batch.size(), e.toString());
+                int half = batch.size() / 2;
+                flush(batch.subList(0, half));
+                flush(batch.subList(half, batch.size()));
+                return;
+            }
+            log.error("Task group commit of {} tasks failed", batch.size(), e);
+            batch.forEach(pending -> pending.result().completeExceptionally(e));
+        }
+    }
+
+    private static boolean isConnectionFailure(Exception e) {
+        return e instanceof TransientDataAccessException
+                || e instanceof DataAccessResourceFailureException
+                || e instanceof CannotCreateTransactionException;
+    }
+
+    private record PendingCreate(TaskService.NewTask request, CompletableFuture<TaskResponse> result) {
+    }
+}
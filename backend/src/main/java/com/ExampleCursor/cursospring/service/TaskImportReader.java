@@ -0,0 +1,157 @@
+package com.ExampleCursor.cursospring.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Потоковое чтение файла импорта по записям: CSV по RFC 4180 (поля в кавычках могут содержать
+ * запятые и переводы строк) или строки NDJSON. В памяти только текущая запись, и та не длиннее
+ * maxRecordLength символов: у более длинной (например, после незакрытой кавычки) остаток
+ * пропускается, а запись возвращается с ошибкой.
+ */
+final class TaskImportReader {
+
+    /**
+     * line — номер строки файла, с которой начинается запись (с 1); error != null — запись битая.
+     */
+    record Record(long line, List<String> fields, String error) {
+    }
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Reader in;
+    private final int maxRecordLength;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int position;
+    private int limit;
+    private long line = 1;
+    private boolean started;
+
+    private final StringBuilder field = new StringBuilder();
+    private int recordLength;
+
+    TaskImportReader(Reader in, int maxRecordLength) {
+        this.in = in;
+        this.maxRecordLength = maxRecordLength;
+    }
+
+    /**
+     * Следующая CSV-запись или null в конце файла.
+     */
+    Record readCsvRecord() throws IOException {
+        int c = read();
+        if (c < 0) {
+            return null;
+        }
+        long start = line;
+        List<String> fields = new ArrayList<>();
+        String error = null;
+        boolean quoted = false;
+        resetRecord();
+        while (true) {
+            if (quoted) {
+                if (c < 0) {
+                    error = "Unterminated quoted field";
+                    break;
+                }
+                if (c == '"') {
+                    c = read();
+                    if (c != '"') {
+                        quoted = false;
+                        continue;
+                    }
+                } else if (c == '\n') {
+                    line++;
+                }
+                append((char) c);
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c == '\r' || c < 0) {
+                if (c == '\r' && peek() == '\n') {
+                    read();
+                }
+                if (c >= 0) {
+                    line++;
+                }
+                break;
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else {
+                append((char) c);
+            }
+            c = read();
+        }
+        fields.add(field.toString());
+        return new Record(start, fields, error != null ? error : lengthError());
+    }
+
+    /**
+     * Следующая строка (без \r\n) как запись из одного поля или null в конце файла.
+     */
+    Record readLine() throws IOException {
+        int c = read();
+        if (c < 0) {
+            return null;
+        }
+        long start = line;
+        resetRecord();
+        while (c >= 0 && c != '\n') {
+            append((char) c);
+            c = read();
+        }
+        if (c == '\n') {
+            line++;
+        }
+        int end = field.length();
+        if (end > 0 && field.charAt(end - 1) == '\r') {
+            field.setLength(end - 1);
+        }
+        return new Record(start, List.of(field.toString()), lengthError());
+    }
+
+    private void resetRecord() {
+        field.setLength(0);
+        recordLength = 0;
+    }
+
+    private void append(char c) {
+        if (++recordLength <= maxRecordLength) {
+            field.append(c);
+        }
+    }
+
+    private String lengthError() {
+        return recordLength > maxRecordLength ? "Record exceeds " + maxRecordLength + " characters" : null;
+    }
+
+    private int read() throws IOException {
+        int c = peek();
+        if (c >= 0) {
+            position++;
+        }
+        return c;
+    }
+
+    private int peek() throws IOException {
+        if (position == limit) {
+            limit = in.read(buffer, 0, buffer.length);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return -1;
+            }
+            // BOM в начале файла (Excel сохраняет CSV в UTF-8 с ним) — не часть первого заголовка
+            if (!started && buffer[0] == '\uFEFF') {
+                position++;
+            }
+            started = true;
+            if (position == limit) {
+                return peek();
+            }
+        }
+        return buffer[position];
+    }
+}
@@ -0,0 +1,244 @@
+package com.ExampleCursor.cursospring.service;
+
+import com.ExampleCursor.cursospring.config.CacheConfig;
+import com.ExampleCursor.cursospring.config.TaskImportProperties;
+import com.ExampleCursor.cursospring.dto.TaskExportFormat;
+import com.ExampleCursor.cursospring.dto.TaskImportError;
+import com.ExampleCursor.cursospring.dto.TaskImportResponse;
+import com.ExampleCursor.cursospring.entity.Task;
+import com.ExampleCursor.cursospring.repository.TaskBulkImportRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Потоковый импорт задач из CSV (заголовок обязателен, как в выгрузке /export) или NDJSON.
+ * Строки проверяются по мере чтения и сразу уходят в COPY (TaskBulkImportRepository), отклонённые
+ * попадают в отчёт и остальную загрузку не отменяют. В tasks загрузка переносится частями
+ * по app.import.merge-chunk-size строк, каждая своей транзакцией (см. TaskBulkImportRepository).
+ * <p>
+ * Из колонок/полей берутся title, description, dueDate, completed, остальные (id, createdAt, ...)
+ * пропускаются — выгрузку можно загрузить обратно, задачи получат новые id.
+ * Вместо TaskChangedEvent на каждую задачу после коммита публикуется один TasksImportedEvent.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TaskImportService {
+
+    private static final int MAX_TITLE_LENGTH = 255;
+    private static final List<String> COLUMNS = List.of("title", "description", "dueDate", "completed");
+
+    private final TaskBulkImportRepository taskBulkImportRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final TaskImportProperties properties;
+
+    /**
+     * Импортирует задачи из in как задачи owner. Поток не закрывается. Файл CSV без колонки title — IllegalArgumentException.
+     */
+    @CacheEvict(cacheNames = CacheConfig.TASK_PAGES, allEntries = true)
+    public TaskImportResponse importTasks(String owner, TaskExportFormat format, InputStream in) {
+        long start = System.nanoTime();
+        TaskImportReader reader = new TaskImportReader(
+                new InputStreamReader(in, StandardCharsets.UTF_8), properties.getMaxRecordLength());
+        Report report = new Report(properties.getMaxReportedErrors());
+
+        long count = taskBulkImportRepository.importTasks(owner, writer -> {
+            if (format == TaskExportFormat.CSV) {
+                readCsv(reader, writer, report);
+            } else {
+                readNdjson(reader, writer, report);
+            }
+        }, Task::now, properties.getMergeChunkSize());
+
+        log.info("Imported {} tasks as {}: failed={}, {} ms",
+                count, format, report.failed, (System.nanoTime() - start) / 1_000_000);
+        if (count > 0) {
+            eventPublisher.publishEvent(new TasksImportedEvent(owner, count));
+        }
+        return TaskImportResponse.builder()
+                .imported(count)
+                .failed(report.failed)
+                .errors(report.errors)
+                .build();
+    }
+
+    private void readCsv(TaskImportReader reader, TaskBulkImportRepository.StagingWriter writer, Report report)
+            throws IOException {
+        TaskImportReader.Record header = reader.readCsvRecord();
+        if (header == null) {
+            return;
+        }
+        int[] columns = columnIndexes(header.fields());
+        TaskImportReader.Record record;
+        while ((record = reader.readCsvRecord()) != null) {
+            List<String> fields = record.fields();
+            if (record.error() == null && fields.size() == 1 && fields.getFirst().isEmpty()) {
+                continue;
+            }
+            try {
+                if (record.error() != null) {
+                    throw new IllegalArgumentException(record.error());
+                }
+                if (fields.size() != header.fields().size()) {
+                    throw new IllegalArgumentException(
+                            "Expected " + header.fields().size() + " fields, got " + fields.size());
+                }
+                stage(writer, record.line(),
+                        fields.get(columns[0]),
+                        columns[1] >= 0 ? emptyToNull(fields.get(columns[1])) : null,
+                        columns[2] >= 0 ? parseDueDate(emptyToNull(fields.get(columns[2]))) : null,
+                        columns[3] >= 0 ? parseCompleted(emptyToNull(fields.get(columns[3]))) : false);
+            } catch (IllegalArgumentException e) {
+                report.reject(record.line(), e.getMessage());
+            }
+        }
+    }
+
+    private void readNdjson(TaskImportReader reader, TaskBulkImportRepository.StagingWriter writer, Report report)
+            throws IOException {
+        TaskImportReader.Record record;
+        while ((record = reader.readLine()) != null) {
+            String line = record.fields().getFirst();
+            if (record.error() == null && line.isBlank()) {
+                continue;
+            }
+            try {
+                if (record.error() != null) {
+                    throw new IllegalArgumentException(record.error());
+                }
+                JsonNode node = parseObject(line);
+                stage(writer, record.line(),
+                        text(node, "title"),
+                        text(node, "description"),
+                        parseDueDate(text(node, "dueDate")),
+                        node.path("completed").isBoolean()
+                                ? node.path("completed").booleanValue()
+                                : parseCompleted(text(node, "completed")));
+            } catch (IllegalArgumentException e) {
+                report.reject(record.line(), e.getMessage());
+            }
+        }
+    }
+
+    private void stage(TaskBulkImportRepository.StagingWriter writer, long line, String title, String description,
+                       LocalDate dueDate, boolean completed) throws IOException {
+        if (title == null || title.isBlank()) {
+            throw new IllegalArgumentException("Title is required");
+        }
+        if (title.length() > MAX_TITLE_LENGTH) {
+            throw new IllegalArgumentException("Title must be at most " + MAX_TITLE_LENGTH + " characters");
+        }
+        // PostgreSQL не хранит U+0000 в text: одна такая строка сорвала бы весь COPY
+        if (title.indexOf('\0') >= 0 || (description != null && description.indexOf('\0') >= 0)) {
+            throw new IllegalArgumentException("Text must not contain NUL characters");
+        }
+        writer.write(line, title, description, dueDate, completed);
+    }
+
+    private int[] columnIndexes(List<String> header) {
+        Map<String, Integer> byName = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            byName.putIfAbsent(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        int[] indexes = new int[COLUMNS.size()];
+        for (int i = 0; i < indexes.length; i++) {
+            indexes[i] = byName.getOrDefault(COLUMNS.get(i).toLowerCase(Locale.ROOT), -1);
+        }
+        if (indexes[0] < 0) {
+            throw new IllegalArgumentException("CSV header must contain a title column");
+        }
+        return indexes;
+    }
+
+    private JsonNode parseObject(String line) {
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(line);
+        } catch (JacksonException e) {
+            throw new IllegalArgumentException("Invalid JSON: " + e.getOriginalMessage());
+        }
+        if (node == null || !node.isObject()) {
+            throw new IllegalArgumentException("Expected a JSON object");
+        }
+        return node;
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        if (value == null || value.isNull()) {
+            return null;
+        }
+        if (!value.isString()) {
+            throw new IllegalArgumentException(field + " must be a string");
+        }
+        return value.stringValue();
+    }
+
+    private static LocalDate parseDueDate(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid dueDate: " + value);
+        }
+    }
+
+    private static boolean parseCompleted(String value) {
+        if (value == null) {
+            return false;
+        }
+        if (value.equalsIgnoreCase("true")) {
+            return true;
+        }
+        if (value.equalsIgnoreCase("false")) {
+            return false;
+        }
+        throw new IllegalArgumentException("Invalid completed: " + value);
+    }
+
+    private static String emptyToNull(String value) {
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * Отклонённые строки: все считаются, в ответ попадают первые maxErrors.
+     */
+    private static final class Report {
+
+        private final int maxErrors;
+        private final List<TaskImportError> errors = new ArrayList<>();
+        private long failed;
+
+        private Report(int maxErrors) {
+            this.maxErrors = maxErrors;
+        }
+
+        private void reject(long line, String error) {
+            failed++;
+            if (errors.size() < maxErrors) {
+                errors.add(TaskImportError.builder().line(line).error(error).build());
+            }
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.ExampleCursor.cursospring.service;
+
+/**
+ * Очередь групповой записи заполнена (или сервис останавливается): клиенту стоит повторить позже, 429.
+ */
+public class TaskQueueFullException extends RuntimeException {
+
+    public TaskQueueFullException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,171 @@
+package com.ExampleCursor.cursospring.service;
+
+import com.ExampleCursor.cursospring.config.TaskReminderProperties;
+import com.ExampleCursor.cursospring.dto.TaskReminder;
+import com.ExampleCursor.cursospring.dto.TaskResponse;
+import com.ExampleCursor.cursospring.repository.TaskDueRow;
+import com.ExampleCursor.cursospring.repository.TaskRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * Напоминания о наступивших сроках без периодического сканирования таблицы.
+ * <p>
+ * Открытые задачи со сроком в ближайшие horizonDays дней лежат в TaskReminderWheel (O(1) на запись).
+ * При старте они подгружаются keyset-страницами в фоне, дальше колесо обновляется по TaskChangedEvent,
+ * а каждую полночь догружается день, вошедший в горизонт. Раз в tick колесо продвигается; задачи
+ * со сроком перечитываются одним запросом и ещё раз проверяются (не выполнены, срок тот же) —
+ * так устаревшая запись в колесе не даст ложного напоминания.
+ */
+@Service
+@ConditionalOnProperty(prefix = "app.reminders", name = "enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class TaskReminderService {
+
+    private final TaskRepository taskRepository;
+    private final TaskReminderProperties properties;
+    private final List<TaskReminderSink> sinks;
+
+    private TaskReminderWheel wheel;
+    private List<TaskReminderSink> activeSinks;
+    /** Последний день срока, задачи до которого включительно держатся в колесе. */
+    private volatile LocalDate horizonEnd;
+
+    @PostConstruct
+    void init() {
+        wheel = new TaskReminderWheel(properties.getTick().toMillis(), properties.getWheelSize(),
+                properties.getWheelLevels(), System.currentTimeMillis());
+        activeSinks = sinks.stream().filter(sink -> properties.getSinks().contains(sink.name())).toList();
+        horizonEnd = LocalDate.now().plusDays(properties.getHorizonDays());
+    }
+
+    /**
+     * Начальная загрузка в фоне: приложение принимает запросы сразу, а записи, пришедшие
+     * во время загрузки, уже попадают в колесо (загрузка их не перетирает).
+     * Так же догружаются задачи после массового импорта: уже лежащие в колесе пропускаются.
+     */
+    @EventListener({ApplicationReadyEvent.class, TasksImportedEvent.class})
+    public void loadOnStartup() {
+        LocalDate today = LocalDate.now();
+        LocalDate end = horizonEnd;
+        Thread.ofVirtual().name("task-reminder-loader").start(() -> load(today, end));
+    }
+
+    @TransactionalEventListener
+    public void onTaskChanged(TaskChangedEvent event) {
+        TaskResponse task = event.task();
+        if (task == null || Boolean.TRUE.equals(task.getCompleted()) || task.getDueDate() == null
+                || task.getDueDate().isAfter(horizonEnd)) {
+            wheel.cancel(event.taskId());
+            return;
+        }
+        long deadline = deadline(task.getDueDate());
+        if (deadline > System.currentTimeMillis()) {
+            wheel.schedule(task.getId(), deadline);
+        } else {
+            wheel.cancel(task.getId());
+        }
+    }
+
+    @Scheduled(fixedRateString = "${app.reminders.tick:1m}")
+    public void fireDue() {
+        long now = System.currentTimeMillis();
+        List<Long> due = wheel.advance(now);
+        if (due.isEmpty()) {
+            return;
+        }
+        int batchSize = properties.getLoadBatchSize();
+        for (int from = 0; from < due.size(); from += batchSize) {
+            List<Long> ids = due.subList(from, Math.min(due.size(), from + batchSize));
+            for (TaskResponse task : taskRepository.findAllOwnersResponsesByIdIn(ids)) {
+                if (!Boolean.TRUE.equals(task.getCompleted()) && task.getDueDate() != null
+                        && deadline(task.getDueDate()) <= now) {
+                    send(TaskReminder.builder()
+                            .taskId(task.getId())
+                            .owner(task.getOwner())
+                            .title(task.getTitle())
+                            .dueDate(task.getDueDate())
+                            .remindAt(task.getDueDate().atTime(properties.getTimeOfDay()))
+                            .build());
+                }
+            }
+        }
+    }
+
+    /**
+     * Новый день: в горизонт входит ещё один день сроков.
+     */
+    @Scheduled(cron = "0 0 0 * * *")
+    public void extendHorizon() {
+        LocalDate end = LocalDate.now().plusDays(properties.getHorizonDays());
+        LocalDate from = horizonEnd.plusDays(1);
+        if (end.isBefore(from)) {
+            return;
+        }
+        horizonEnd = end;
+        load(from, end);
+    }
+
+    public int pendingCount() {
+        return wheel.size();
+    }
+
+    private void load(LocalDate from, LocalDate to) {
+        long start = System.nanoTime();
+        long now = System.currentTimeMillis();
+        int loaded = 0;
+        LocalDate afterDueDate = from.minusDays(1);
+        long afterId = 0;
+        try {
+            while (true) {
+                List<TaskDueRow> page = taskRepository.findOpenDuePage(
+                        afterDueDate, afterId, to, Limit.of(properties.getLoadBatchSize()));
+                for (TaskDueRow row : page) {
+                    long deadline = deadline(row.getDueDate());
+                    if (deadline > now && wheel.scheduleIfAbsent(row.getId(), deadline)) {
+                        loaded++;
+                    }
+                }
+                if (page.size() < properties.getLoadBatchSize()) {
+                    break;
+                }
+                TaskDueRow last = page.getLast();
+                afterDueDate = last.getDueDate();
+                afterId = last.getId();
+            }
+            log.info("Task reminders loaded: dueDate {}..{}, {} tasks in {} ms, {} pending",
+                    from, to, loaded, (System.nanoTime() - start) / 1_000_000, wheel.size());
+        } catch (Exception e) {
+            log.error("Failed to load task reminders for {}..{}", from, to, e);
+        }
+    }
+
+    private void send(TaskReminder reminder) {
+        for (TaskReminderSink sink : activeSinks) {
+            try {
+                sink.send(reminder);
+            } catch (Exception e) {
+                log.warn("Reminder sink {} failed for task {}: {}", sink.name(), reminder.getTaskId(), e.getMessage());
+            }
+        }
+    }
+
+    private long deadline(LocalDate dueDate) {
+        LocalDateTime at = dueDate.atTime(properties.getTimeOfDay());
+        return at.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,14 @@
+package com.ExampleCursor.cursospring.service;
+
+import com.ExampleCursor.cursospring.dto.TaskReminder;
+
+/**
+ * Получатель напоминаний. Включается по имени в app.reminders.sinks.
+ * Ошибка одного получателя не мешает остальным (TaskReminderService её только логирует).
+ */
+public interface TaskReminderSink {
+
+    String name();
+
+    void send(TaskReminder reminder);
+}
@@ -0,0 +1,204 @@
+package com.ExampleCursor.cursospring.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Иерархическое колесо таймеров для напоминаний: schedule и cancel за O(1) при любом числе задач.
+ * <p>
+ * Уровень 0 — wheelSize корзин по tick, каждый следующий уровень — корзины в wheelSize раз шире.
+ * Задача кладётся на самый нижний уровень, окно которого покрывает её срок. Когда время доходит
+ * до корзины верхнего уровня, её задачи перекладываются ниже (каскад) и в итоге срабатывают
+ * из корзины уровня 0. Сроки дальше верхнего уровня ждут в его последней корзине и перекладываются
+ * заново. Корзины — интрузивные двусвязные списки, поэтому отмена не ищет задачу в корзине.
+ * <p>
+ * Время — миллисекунды epoch. Все методы синхронизированы: операции короткие, спорить не за что.
+ */
+public class TaskReminderWheel {
+
+    private final long tickMillis;
+    private final int wheelSize;
+    private final long[] levelTick;
+    private final Bucket[][] buckets;
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final List<Long> expired = new ArrayList<>();
+
+    /** Текущее время колеса, кратно tickMillis. */
+    private long currentTime;
+
+    public TaskReminderWheel(long tickMillis, int wheelSize, int levels, long startMillis) {
+        if (tickMillis < 1 || wheelSize < 2 || levels < 1) {
+            throw new IllegalArgumentException("tick >= 1 ms, wheelSize >= 2 and levels >= 1 are required");
+        }
+        this.tickMillis = tickMillis;
+        this.wheelSize = wheelSize;
+        this.levelTick = new long[levels];
+        this.buckets = new Bucket[levels][wheelSize];
+        long tick = tickMillis;
+        for (int level = 0; level < levels; level++) {
+            levelTick[level] = tick;
+            for (int i = 0; i < wheelSize; i++) {
+                buckets[level][i] = new Bucket();
+            }
+            tick = Math.multiplyExact(tick, wheelSize);
+        }
+        this.currentTime = floor(startMillis, tickMillis);
+    }
+
+    /**
+     * Ставит (или переставляет) напоминание задачи на deadline. Срок в прошлом сработает на ближайшем advance.
+     */
+    public synchronized void schedule(long taskId, long deadlineMillis) {
+        Entry previous = entries.remove(taskId);
+        if (previous != null) {
+            previous.unlink();
+        }
+        Entry entry = new Entry(taskId, floor(deadlineMillis, tickMillis));
+        entries.put(taskId, entry);
+        place(entry);
+    }
+
+    /**
+     * Как schedule, но не трогает уже поставленное напоминание (загрузка из БД не должна
+     * перетирать то, что успело прийти из событий записи).
+     */
+    public synchronized boolean scheduleIfAbsent(long taskId, long deadlineMillis) {
+        if (entries.containsKey(taskId)) {
+            return false;
+        }
+        schedule(taskId, deadlineMillis);
+        return true;
+    }
+
+    public synchronized boolean cancel(long taskId) {
+        Entry entry = entries.remove(taskId);
+        if (entry == null) {
+            return false;
+        }
+        entry.unlink();
+        return true;
+    }
+
+    /**
+     * Продвигает колесо до nowMillis и возвращает id задач, чей срок наступил.
+     */
+    public synchronized List<Long> advance(long nowMillis) {
+        long target = floor(nowMillis, tickMillis);
+        while (currentTime < target) {
+            currentTime += tickMillis;
+            // Сверху вниз: каскад с верхнего уровня может положить задачи в корзину уровня 0 этого же тика
+            for (int level = levelTick.length - 1; level >= 0; level--) {
+                if (currentTime % levelTick[level] == 0) {
+                    flush(buckets[level][index(currentTime, level)]);
+                }
+            }
+        }
+        if (expired.isEmpty()) {
+            return List.of();
+        }
+        List<Long> due = new ArrayList<>(expired);
+        expired.clear();
+        return due;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized boolean contains(long taskId) {
+        return entries.containsKey(taskId);
+    }
+
+    private void place(Entry entry) {
+        if (entry.expiration <= currentTime) {
+            expire(entry);
+            return;
+        }
+        int top = levelTick.length - 1;
+        for (int level = 0; level <= top; level++) {
+            long tick = levelTick[level];
+            long windowEnd = floor(currentTime, tick) + tick * wheelSize;
+            if (entry.expiration < windowEnd) {
+                buckets[level][index(entry.expiration, level)].add(entry);
+                return;
+            }
+        }
+        // Дальше окна верхнего уровня: ждём в его последней корзине, потом переложим заново
+        long lastSlot = floor(currentTime, levelTick[top]) + levelTick[top] * (wheelSize - 1);
+        buckets[top][index(lastSlot, top)].add(entry);
+    }
+
+    private void flush(Bucket bucket) {
+        Entry entry = bucket.head;
+        bucket.head = null;
+        while (entry != null) {
+            Entry next = entry.next;
+            entry.bucket = null;
+            entry.prev = null;
+            entry.next = null;
+            place(entry);
+            entry = next;
+        }
+    }
+
+    private void expire(Entry entry) {
+        entries.remove(entry.taskId);
+        expired.add(entry.taskId);
+    }
+
+    private int index(long time, int level) {
+        return (int) ((time / levelTick[level]) % wheelSize);
+    }
+
+    private static long floor(long time, long unit) {
+        return Math.floorDiv(time, unit) * unit;
+    }
+
+    private static final class Bucket {
+
+        private Entry head;
+
+        private void add(Entry entry) {
+            entry.bucket = this;
+            entry.prev = null;
+            entry.next = head;
+            if (head != null) {
+                head.prev = entry;
+            }
+            head = entry;
+        }
+    }
+
+    private static final class Entry {
+
+        private final long taskId;
+        private final long expiration;
+        private Bucket bucket;
+        private Entry prev;
+        private Entry next;
+
+        private Entry(long taskId, long expiration) {
+            this.taskId = taskId;
+            this.expiration = expiration;
+        }
+
+        private void unlink() {
+            if (bucket == null) {
+                return;
+            }
+            if (prev != null) {
+                prev.next = next;
+            } else {
+                bucket.head = next;
+            }
+            if (next != null) {
+                next.prev = prev;
+            }
+            bucket = null;
+            prev = null;
+            next = null;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.ExampleCursor.cursospring.service;
+
+import java.util.List;
+
+/**
+ * Полнотекстовый поиск задач owner по title и description. Возвращает id задач по убыванию релевантности.
+ * Реализация выбирается свойством app.search.engine: postgres (tsvector + GIN) или memory
+ * (инвертированный индекс в памяти процесса — для разработки и тестов без PostgreSQL).
+ */
+public interface TaskSearchEngine {
+
+    List<Hit> search(String owner, String query, int offset, int limit);
+
+    record Hit(Long taskId, double score) {
+    }
+}
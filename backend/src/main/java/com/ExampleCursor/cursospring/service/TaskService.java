@@ -1,63 +1,499 @@
 package com.ExampleCursor.cursospring.service;
 
+import com.ExampleCursor.cursospring.config.CacheConfig;
 import com.ExampleCursor.cursospring.dto.CreateTaskRequest;
+import com.ExampleCursor.cursospring.dto.PatchTaskRequest;
+import com.ExampleCursor.cursospring.dto.TaskBatchItemResult;
+import com.ExampleCursor.cursospring.dto.TaskBatchOperation;
+import com.ExampleCursor.cursospring.dto.TaskBatchOperationType;
+import com.ExampleCursor.cursospring.dto.TaskBatchRequest;
+import com.ExampleCursor.cursospring.dto.TaskBatchResponse;
+import com.ExampleCursor.cursospring.dto.TaskPageResponse;
+import com.ExampleCursor.cursospring.dto.TaskQuery;
 import com.ExampleCursor.cursospring.dto.TaskResponse;
+import com.ExampleCursor.cursospring.dto.TaskSearchResponse;
+import com.ExampleCursor.cursospring.dto.TaskSearchResult;
+import com.ExampleCursor.cursospring.dto.TaskSort;
 import com.ExampleCursor.cursospring.dto.UpdateTaskRequest;
 import com.ExampleCursor.cursospring.entity.Task;
+import com.ExampleCursor.cursospring.repository.TaskAttachmentRepository;
+import com.ExampleCursor.cursospring.repository.TaskRecordRepository;
 import com.ExampleCursor.cursospring.repository.TaskRepository;
+import com.ExampleCursor.cursospring.repository.TaskRowChange;
+import com.ExampleCursor.cursospring.repository.TaskTombstoneRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class TaskService {
 
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+    public static final int MAX_SEARCH_PAGE_SIZE = 100;
+    /** Глубже по результатам поиска не листаем: OFFSET по рангу дорожает с каждой страницей. */
+    public static final int MAX_SEARCH_OFFSET = 10_000;
+    private static final int MAX_SEARCH_QUERY_LENGTH = 200;
+
     private final TaskRepository taskRepository;
+    private final TaskRecordRepository taskRecordRepository;
+    private final TaskTombstoneRepository taskTombstoneRepository;
+    private final TaskAttachmentRepository taskAttachmentRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TaskSearchEngine taskSearchEngine;
+
+    /**
+     * Задача owner по id; чужая задача для него не существует (404). Кэш — по паре owner:id.
+     */
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.TASKS, key = "#owner + ':' + #id")
+    public TaskResponse findById(String owner, Long id) {
+        return taskRepository.findResponseById(owner, id)
+                .orElseThrow(() -> new ResourceNotFoundException("Task not found with id: " + id));
+    }
+
+    /**
+     * Одна страница задач по keyset-курсору. Читается не больше limit + 1 строк
+     * (лишняя строка только показывает, есть ли следующая страница).
+     */
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.TASK_PAGES, key = "#query")
+    public TaskPageResponse findPage(TaskQuery query) {
+        TaskSort sort = query.getSort() != null ? query.getSort() : TaskSort.ID_ASC;
+        int limit = resolveLimit(query.getLimit());
+        if (query.getDueFrom() != null && query.getDueTo() != null && query.getDueFrom().isAfter(query.getDueTo())) {
+            throw new IllegalArgumentException("dueFrom must not be after dueTo");
+        }
+        TaskCursor cursor = query.getAfter() != null && !query.getAfter().isBlank()
+                ? TaskCursor.decode(query.getAfter(), sort)
+                : TaskCursor.first(sort);
+
+        List<TaskResponse> rows = fetchPage(query, cursor, Limit.of(limit + 1));
+        boolean hasMore = rows.size() > limit;
+        List<TaskResponse> page = hasMore ? rows.subList(0, limit) : rows;
+        return TaskPageResponse.builder()
+                .items(page)
+                .nextCursor(hasMore ? TaskCursor.of(sort, page.get(page.size() - 1)).encode() : null)
+                .hasMore(hasMore)
+                .build();
+    }
 
+    /**
+     * Задача по id с учётом архива. Не кэшируется: архивные задачи читают редко.
+     */
     @Transactional(readOnly = true)
-    public java.util.List<TaskResponse> findAll() {
-        return taskRepository.findAll().stream()
-                .map(TaskResponse::fromEntity)
+    public TaskResponse findByIdIncludingArchived(String owner, Long id) {
+        return taskRecordRepository.findResponseById(owner, id)
+                .orElseThrow(() -> new ResourceNotFoundException("Task not found with id: " + id));
+    }
+
+    private List<TaskResponse> fetchPage(TaskQuery query, TaskCursor cursor, Limit limit) {
+        if (query.isIncludeArchived()) {
+            return fetchPageIncludingArchived(query, cursor, limit);
+        }
+        return switch (cursor.sort()) {
+            case ID_ASC -> taskRepository.findPageByIdAsc(
+                    query.getOwner(), cursor.id(), query.getCompleted(), query.getDueFrom(), query.getDueTo(), limit);
+            case ID_DESC -> taskRepository.findPageByIdDesc(
+                    query.getOwner(), cursor.id(), query.getCompleted(), query.getDueFrom(), query.getDueTo(), limit);
+            case CREATED_AT_DESC -> taskRepository.findPageByCreatedAtDesc(
+                    query.getOwner(), cursor.createdAt(), cursor.id(),
+                    query.getCompleted(), query.getDueFrom(), query.getDueTo(), limit);
+            case CREATED_AT_ASC -> taskRepository.findPageByCreatedAtAsc(
+                    query.getOwner(), cursor.createdAt(), cursor.id(),
+                    query.getCompleted(), query.getDueFrom(), query.getDueTo(), limit);
+        };
+    }
+
+    private List<TaskResponse> fetchPageIncludingArchived(TaskQuery query, TaskCursor cursor, Limit limit) {
+        return switch (cursor.sort()) {
+            case ID_ASC -> taskRecordRepository.findPageByIdAsc(
+                    query.getOwner(), cursor.id(), query.getCompleted(), query.getDueFrom(), query.getDueTo(), limit);
+            case ID_DESC -> taskRecordRepository.findPageByIdDesc(
+                    query.getOwner(), cursor.id(), query.getCompleted(), query.getDueFrom(), query.getDueTo(), limit);
+            case CREATED_AT_DESC -> taskRecordRepository.findPageByCreatedAtDesc(
+                    query.getOwner(), cursor.createdAt(), cursor.id(),
+                    query.getCompleted(), query.getDueFrom(), query.getDueTo(), limit);
+            case CREATED_AT_ASC -> taskRecordRepository.findPageByCreatedAtAsc(
+                    query.getOwner(), cursor.createdAt(), cursor.id(),
+                    query.getCompleted(), query.getDueFrom(), query.getDueTo(), limit);
+        };
+    }
+
+    /**
+     * Полнотекстовый поиск по title и description, результаты по убыванию релевантности.
+     */
+    @Transactional(readOnly = true)
+    public TaskSearchResponse search(String owner, String query, int page, int size) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query is required");
+        }
+        if (query.length() > MAX_SEARCH_QUERY_LENGTH) {
+            throw new IllegalArgumentException("Search query is too long (max " + MAX_SEARCH_QUERY_LENGTH + ")");
+        }
+        if (size < 1 || size > MAX_SEARCH_PAGE_SIZE) {
+            throw new IllegalArgumentException("size must be between 1 and " + MAX_SEARCH_PAGE_SIZE);
+        }
+        if (page < 0 || (long) page * size > MAX_SEARCH_OFFSET) {
+            throw new IllegalArgumentException("page is out of range");
+        }
+        List<TaskSearchEngine.Hit> hits = taskSearchEngine.search(owner, query.trim(), page * size, size + 1);
+        boolean hasMore = hits.size() > size;
+        if (hasMore) {
+            hits = hits.subList(0, size);
+        }
+        if (hits.isEmpty()) {
+            return TaskSearchResponse.builder().query(query).page(page).size(size).items(List.of()).build();
+        }
+        Map<Long, TaskResponse> tasks = taskRepository.findResponsesByIdIn(owner,
+                        hits.stream().map(TaskSearchEngine.Hit::taskId).toList()).stream()
+                .collect(Collectors.toMap(TaskResponse::getId, Function.identity()));
+        List<TaskSearchResult> items = hits.stream()
+                .filter(hit -> tasks.containsKey(hit.taskId()))
+                .map(hit -> TaskSearchResult.builder()
+                        .task(tasks.get(hit.taskId()))
+                        .score(hit.score())
+                        .build())
                 .toList();
+        return TaskSearchResponse.builder()
+                .query(query)
+                .page(page)
+                .size(size)
+                .hasMore(hasMore)
+                .items(items)
+                .build();
+    }
+
+    private int resolveLimit(Integer requested) {
+        if (requested == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        if (requested < 1 || requested > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return requested;
     }
 
     @Transactional
-    public TaskResponse create(CreateTaskRequest request) {
-        Task task = Task.builder()
+    @CacheEvict(cacheNames = CacheConfig.TASK_PAGES, allEntries = true)
+    public TaskResponse create(String owner, CreateTaskRequest request) {
+        Task task = taskRepository.save(toEntity(owner, request));
+        log.info("Created task: id={}, title={}", task.getId(), task.getTitle());
+        TaskResponse response = TaskResponse.fromEntity(task);
+        eventPublisher.publishEvent(TaskChangedEvent.created(response));
+        return response;
+    }
+
+    /**
+     * Несколько задач в одной транзакции (INSERT JDBC-батчами) — для TaskGroupCommitService.
+     * Результаты в том же порядке, что и запросы; в одной пачке могут быть задачи разных владельцев.
+     */
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.TASK_PAGES, allEntries = true)
+    public List<TaskResponse> createAll(List<NewTask> requests) {
+        List<Task> tasks = taskRepository.saveAll(requests.stream()
+                .map(request -> toEntity(request.owner(), request.request()))
+                .toList());
+        List<TaskResponse> responses = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            TaskResponse response = TaskResponse.fromEntity(task);
+            eventPublisher.publishEvent(TaskChangedEvent.created(response));
+            responses.add(response);
+        }
+        log.info("Created tasks: count={}", responses.size());
+        return responses;
+    }
+
+    private Task toEntity(String owner, CreateTaskRequest request) {
+        return Task.builder()
+                .owner(owner)
                 .title(request.getTitle())
                 .description(request.getDescription())
                 .dueDate(request.getDueDate())
                 .completed(request.getCompleted() != null ? request.getCompleted() : false)
                 .build();
-        task = taskRepository.save(task);
-        log.info("Created task: id={}, title={}", task.getId(), task.getTitle());
-        return TaskResponse.fromEntity(task);
     }
 
+    /**
+     * Полная замена полей задачи. expectedVersion (из If-Match) сверяется с прочитанной версией; null — без проверки.
+     * Если задачу изменили между чтением и записью, @Version даёт ObjectOptimisticLockingFailureException (409).
+     */
     @Transactional
-    public TaskResponse update(Long id, UpdateTaskRequest request) {
-        Task task = taskRepository.findById(id)
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.TASKS, key = "#owner + ':' + #id"),
+            @CacheEvict(cacheNames = CacheConfig.TASK_PAGES, allEntries = true)
+    })
+    public TaskResponse update(String owner, Long id, UpdateTaskRequest request, Long expectedVersion) {
+        Task task = taskRepository.findByIdAndOwner(id, owner)
                 .orElseThrow(() -> new ResourceNotFoundException("Task not found with id: " + id));
+        if (expectedVersion != null && !expectedVersion.equals(task.getVersion())) {
+            throw new PreconditionFailedException(
+                    "Task " + id + " has been modified (version " + task.getVersion() + ")");
+        }
+        TaskResponse previous = TaskResponse.fromEntity(task);
         task.setTitle(request.getTitle());
         task.setDescription(request.getDescription());
         task.setDueDate(request.getDueDate());
         if (request.getCompleted() != null) {
             task.setCompleted(request.getCompleted());
         }
-        task = taskRepository.save(task);
+        task = taskRepository.saveAndFlush(task);
         log.info("Updated task: id={}", id);
-        return TaskResponse.fromEntity(task);
+        TaskResponse response = TaskResponse.fromEntity(task);
+        eventPublisher.publishEvent(TaskChangedEvent.updated(previous, response));
+        return response;
     }
 
+    /**
+     * Частичное обновление одним UPDATE ... RETURNING: без чтения сущности и без записи неизменённых колонок.
+     * expectedVersion (из If-Match) проверяется в том же операторе; null — без проверки.
+     */
     @Transactional
-    public void deleteById(Long id) {
-        if (!taskRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Task not found with id: " + id);
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.TASKS, key = "#owner + ':' + #id"),
+            @CacheEvict(cacheNames = CacheConfig.TASK_PAGES, allEntries = true)
+    })
+    public TaskResponse patch(String owner, Long id, PatchTaskRequest request, Long expectedVersion) {
+        if (request.isEmpty()) {
+            throw new IllegalArgumentException("Nothing to update");
+        }
+        if (request.isTitleSet() && (request.getTitle() == null || request.getTitle().isBlank())) {
+            throw new IllegalArgumentException("Title is required");
         }
-        taskRepository.deleteById(id);
+        if (request.isCompletedSet() && request.getCompleted() == null) {
+            throw new IllegalArgumentException("completed must not be null");
+        }
+        TaskRowChange change = taskRepository.patch(owner, id, request, expectedVersion, Task.now())
+                .orElseThrow(() -> noRowAffected(owner, id, expectedVersion));
+        log.info("Patched task: id={}", id);
+        eventPublisher.publishEvent(TaskChangedEvent.updated(change.previous(), change.current()));
+        return change.current();
+    }
+
+    /**
+     * Переключение completed одним UPDATE ... RETURNING.
+     */
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.TASKS, key = "#owner + ':' + #id"),
+            @CacheEvict(cacheNames = CacheConfig.TASK_PAGES, allEntries = true)
+    })
+    public TaskResponse toggleCompleted(String owner, Long id, Long expectedVersion) {
+        TaskRowChange change = taskRepository.toggleCompleted(owner, id, expectedVersion, Task.now())
+                .orElseThrow(() -> noRowAffected(owner, id, expectedVersion));
+        log.info("Toggled task: id={}, completed={}", id, change.current().getCompleted());
+        eventPublisher.publishEvent(TaskChangedEvent.updated(change.previous(), change.current()));
+        return change.current();
+    }
+
+    /**
+     * Удаление одним DELETE ... RETURNING; удалённая строка нужна для события.
+     * Надгробие для дельта-синхронизации (TaskSyncService) пишется тем же оператором.
+     */
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.TASKS, key = "#owner + ':' + #id"),
+            @CacheEvict(cacheNames = CacheConfig.TASK_PAGES, allEntries = true)
+    })
+    public void deleteById(String owner, Long id, Long expectedVersion) {
+        TaskRowChange change = taskRepository.deleteReturning(owner, id, expectedVersion, Task.now())
+                .orElseThrow(() -> noRowAffected(owner, id, expectedVersion));
         log.info("Deleted task: id={}", id);
+        eventPublisher.publishEvent(TaskChangedEvent.deleted(change.previous()));
+    }
+
+    /**
+     * Условный UPDATE/DELETE не затронул строк. Только в этом (редком) случае идём в БД ещё раз,
+     * чтобы отличить отсутствующую задачу (404) от устаревшей версии (412).
+     */
+    private RuntimeException noRowAffected(String owner, Long id, Long expectedVersion) {
+        if (expectedVersion != null) {
+            Optional<Long> actual = taskRepository.findVersionById(owner, id);
+            if (actual.isPresent()) {
+                return new PreconditionFailedException(
+                        "Task " + id + " has been modified (version " + actual.get() + ")");
+            }
+        }
+        return new ResourceNotFoundException("Task not found with id: " + id);
+    }
+
+    /**
+     * Переносит в tasks_archive одну пачку выполненных задач, не менявшихся с cutoff:
+     * INSERT ... SELECT и DELETE по id в одной транзакции. Возвращает число перенесённых задач.
+     * Для дельта-синхронизации перенесённая задача выглядит удалённой: на неё тоже пишется надгробие.
+     */
+    @Transactional
+    @CacheEvict(cacheNames = {CacheConfig.TASKS, CacheConfig.TASK_PAGES}, allEntries = true)
+    public int archiveCompleted(LocalDateTime cutoff, int batchSize) {
+        List<Task> tasks = taskRepository.findArchivable(cutoff, Limit.of(batchSize));
+        if (tasks.isEmpty()) {
+            return 0;
+        }
+        List<Long> ids = tasks.stream().map(Task::getId).toList();
+        LocalDateTime now = Task.now();
+        taskRepository.copyToArchive(ids, now);
+        taskTombstoneRepository.insertForTasks(ids, now);
+        taskRepository.deleteByIdIn(ids);
+        for (Task task : tasks) {
+            eventPublisher.publishEvent(TaskChangedEvent.archived(TaskResponse.fromEntity(task)));
+        }
+        log.info("Archived tasks: count={}", ids.size());
+        return ids.size();
+    }
+
+    /**
+     * Пакет операций create/update/delete в одной транзакции.
+     * Все обновляемые/удаляемые задачи читаются одним запросом, а INSERT/UPDATE/DELETE
+     * уходят в БД JDBC-батчами при flush (hibernate.jdbc.batch_size, order_inserts/order_updates).
+     * Ошибки отдельных операций (нет задачи, неверные поля) возвращаются в результатах и не отменяют остальные.
+     */
+    @Transactional
+    @CacheEvict(cacheNames = {CacheConfig.TASKS, CacheConfig.TASK_PAGES}, allEntries = true)
+    public TaskBatchResponse applyBatch(String owner, TaskBatchRequest request) {
+        List<TaskBatchOperation> operations = request.getOperations();
+        TaskBatchItemResult[] results = new TaskBatchItemResult[operations.size()];
+        Task[] written = new Task[operations.size()];
+        TaskResponse[] previous = new TaskResponse[operations.size()];
+
+        Set<Long> ids = operations.stream()
+                .filter(op -> op.getType() != TaskBatchOperationType.CREATE && op.getId() != null)
+                .map(TaskBatchOperation::getId)
+                .collect(Collectors.toSet());
+        Map<Long, Task> existing = taskRepository.findByOwnerAndIdIn(owner, ids).stream()
+                .collect(Collectors.toMap(Task::getId, Function.identity()));
+
+        List<Task> toCreate = new ArrayList<>();
+        List<Task> toDelete = new ArrayList<>();
+        Set<Long> seenIds = new HashSet<>();
+        for (int i = 0; i < operations.size(); i++) {
+            TaskBatchOperation op = operations.get(i);
+            String error = validate(op);
+            if (error == null && op.getId() != null && !seenIds.add(op.getId())) {
+                error = "Duplicate id in batch: " + op.getId();
+            }
+            if (error != null) {
+                results[i] = failure(i, op, TaskBatchItemResult.Status.INVALID, error);
+                continue;
+            }
+            if (op.getType() == TaskBatchOperationType.CREATE) {
+                Task task = Task.builder()
+                        .owner(owner)
+                        .title(op.getTitle())
+                        .description(op.getDescription())
+                        .dueDate(op.getDueDate())
+                        .completed(op.getCompleted() != null ? op.getCompleted() : false)
+                        .build();
+                toCreate.add(task);
+                written[i] = task;
+                continue;
+            }
+            Task task = existing.get(op.getId());
+            if (task == null) {
+                results[i] = failure(i, op, TaskBatchItemResult.Status.NOT_FOUND, "Task not found with id: " + op.getId());
+            } else if (op.getType() == TaskBatchOperationType.UPDATE) {
+                previous[i] = TaskResponse.fromEntity(task);
+                task.setTitle(op.getTitle());
+                task.setDescription(op.getDescription());
+                task.setDueDate(op.getDueDate());
+                if (op.getCompleted() != null) {
+                    task.setCompleted(op.getCompleted());
+                }
+                written[i] = task;
+            } else {
+                toDelete.add(task);
+                eventPublisher.publishEvent(TaskChangedEvent.deleted(TaskResponse.fromEntity(task)));
+                results[i] = TaskBatchItemResult.builder()
+                        .index(i)
+                        .type(op.getType())
+                        .id(op.getId())
+                        .status(TaskBatchItemResult.Status.DELETED)
+                        .build();
+            }
+        }
+
+        taskRepository.saveAll(toCreate);
+        if (!toDelete.isEmpty()) {
+            List<Long> deletedIds = toDelete.stream().map(Task::getId).toList();
+            taskTombstoneRepository.insertForTasks(deletedIds, Task.now());
+            taskAttachmentRepository.deleteByTaskIdIn(deletedIds);
+        }
+        taskRepository.deleteAll(toDelete);
+        taskRepository.flush();
+
+        int failed = 0;
+        for (int i = 0; i < results.length; i++) {
+            if (written[i] != null) {
+                TaskBatchOperation op = operations.get(i);
+                boolean created = op.getType() == TaskBatchOperationType.CREATE;
+                TaskResponse task = TaskResponse.fromEntity(written[i]);
+                results[i] = TaskBatchItemResult.builder()
+                        .index(i)
+                        .type(op.getType())
+                        .id(written[i].getId())
+                        .status(created ? TaskBatchItemResult.Status.CREATED : TaskBatchItemResult.Status.UPDATED)
+                        .task(task)
+                        .build();
+                eventPublisher.publishEvent(created
+                        ? TaskChangedEvent.created(task)
+                        : TaskChangedEvent.updated(previous[i], task));
+            } else if (results[i].getError() != null) {
+                failed++;
+            }
+        }
+        log.info("Applied task batch: operations={}, created={}, deleted={}, failed={}",
+                operations.size(), toCreate.size(), toDelete.size(), failed);
+        return TaskBatchResponse.builder()
+                .results(List.of(results))
+                .succeeded(results.length - failed)
+                .failed(failed)
+                .build();
+    }
+
+    private String validate(TaskBatchOperation op) {
+        boolean needsTitle = op.getType() != TaskBatchOperationType.DELETE;
+        if (needsTitle && (op.getTitle() == null || op.getTitle().isBlank())) {
+            return "Title is required";
+        }
+        if (op.getType() == TaskBatchOperationType.CREATE && op.getId() != null) {
+            return "id must not be set for CREATE";
+        }
+        if (op.getType() != TaskBatchOperationType.CREATE && op.getId() == null) {
+            return "id is required for " + op.getType();
+        }
+        return null;
+    }
+
+    private TaskBatchItemResult failure(int index, TaskBatchOperation op, TaskBatchItemResult.Status status, String error) {
+        return TaskBatchItemResult.builder()
+                .index(index)
+                .type(op.getType())
+                .id(op.getId())
+                .status(status)
+                .error(error)
+                .build();
+    }
+
+    /**
+     * Задача для группового создания (TaskGroupCommitService.createAll): запрос и его владелец.
+     */
+    public record NewTask(String owner, CreateTaskRequest request) {
     }
 }
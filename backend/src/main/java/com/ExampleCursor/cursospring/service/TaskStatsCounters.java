@@ -0,0 +1,160 @@
+package com.ExampleCursor.cursospring.service;
+
+import com.ExampleCursor.cursospring.dto.TaskResponse;
+import com.ExampleCursor.cursospring.dto.TaskStatsResponse;
+import com.ExampleCursor.cursospring.repository.TaskCountRow;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Счётчики статистики задач, которые обновляются на каждой записи за O(1).
+ * LongAdder распределяет инкременты по ячейкам, поэтому параллельные записи не спорят за один счётчик.
+ * <p>
+ * overdue и dueThisWeek зависят от текущей даты, поэтому дополнительно хранится гистограмма
+ * открытых задач по сроку: при смене дня (rollOver) эти два счётчика пересчитываются из неё
+ * за O(число различных сроков). Записи берут общую (read) блокировку, смена дня и перестройка —
+ * эксклюзивную, чтобы задача не попала в корзину по старой дате.
+ */
+public class TaskStatsCounters {
+
+    private final LongAdder total = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder overdue = new LongAdder();
+    private final LongAdder dueThisWeek = new LongAdder();
+    private final Map<LocalDate, LongAdder> openByDueDate = new ConcurrentHashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private volatile LocalDate today;
+    private volatile LocalDate weekEnd;
+
+    public TaskStatsCounters(LocalDate today) {
+        setDay(today);
+    }
+
+    /**
+     * Сбрасывает счётчики и заполняет их из результата агрегирующего запроса.
+     */
+    public void rebuild(LocalDate day, Collection<? extends TaskCountRow> rows) {
+        lock.writeLock().lock();
+        try {
+            total.reset();
+            completed.reset();
+            openByDueDate.clear();
+            for (TaskCountRow row : rows) {
+                long count = row.getCount();
+                total.add(count);
+                if (Boolean.TRUE.equals(row.getCompleted())) {
+                    completed.add(count);
+                } else if (row.getDueDate() != null) {
+                    openByDueDate.computeIfAbsent(row.getDueDate(), d -> new LongAdder()).add(count);
+                }
+            }
+            setDay(day);
+            recomputeDateBuckets();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Как rebuild(day, rows), но строки читаются уже под эксклюзивной блокировкой: apply(), пришедшие
+     * во время чтения, ждут и применяются к новым значениям, а не затираются ими.
+     */
+    public void rebuild(LocalDate day, Supplier<? extends Collection<? extends TaskCountRow>> rows) {
+        lock.writeLock().lock();
+        try {
+            rebuild(day, rows.get());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Учитывает задачу с весом delta: +1 — задача появилась в этом состоянии, -1 — ушла из него.
+     * Изменение задачи = apply(previous, -1) + apply(current, +1).
+     */
+    public void apply(TaskResponse task, int delta) {
+        if (task == null) {
+            return;
+        }
+        lock.readLock().lock();
+        try {
+            total.add(delta);
+            if (Boolean.TRUE.equals(task.getCompleted())) {
+                completed.add(delta);
+                return;
+            }
+            LocalDate dueDate = task.getDueDate();
+            if (dueDate == null) {
+                return;
+            }
+            openByDueDate.computeIfAbsent(dueDate, d -> new LongAdder()).add(delta);
+            if (dueDate.isBefore(today)) {
+                overdue.add(delta);
+            } else if (!dueDate.isAfter(weekEnd)) {
+                dueThisWeek.add(delta);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Переход на новую дату: пересчёт overdue/dueThisWeek и удаление пустых корзин гистограммы.
+     */
+    public void rollOver(LocalDate day) {
+        lock.writeLock().lock();
+        try {
+            if (day.equals(today)) {
+                return;
+            }
+            setDay(day);
+            openByDueDate.values().removeIf(count -> count.sum() == 0);
+            recomputeDateBuckets();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public TaskStatsResponse snapshot(LocalDate day) {
+        if (!day.equals(today)) {
+            rollOver(day);
+        }
+        long totalCount = total.sum();
+        long completedCount = completed.sum();
+        return TaskStatsResponse.builder()
+                .date(today)
+                .total(totalCount)
+                .completed(completedCount)
+                .open(totalCount - completedCount)
+                .overdue(overdue.sum())
+                .dueThisWeek(dueThisWeek.sum())
+                .build();
+    }
+
+    private void setDay(LocalDate day) {
+        today = day;
+        weekEnd = day.with(TemporalAdjusters.nextOrSame(DayOfWeek.SUNDAY));
+    }
+
+    private void recomputeDateBuckets() {
+        overdue.reset();
+        dueThisWeek.reset();
+        openByDueDate.forEach((dueDate, count) -> {
+            if (dueDate.isBefore(today)) {
+                overdue.add(count.sum());
+            } else if (!dueDate.isAfter(weekEnd)) {
+                dueThisWeek.add(count.sum());
+            }
+        });
+    }
+}
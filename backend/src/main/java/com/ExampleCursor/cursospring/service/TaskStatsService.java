@@ -0,0 +1,85 @@
+package com.ExampleCursor.cursospring.service;
+
+import com.ExampleCursor.cursospring.dto.TaskStatsResponse;
+import com.ExampleCursor.cursospring.repository.TaskOwnerCountRow;
+import com.ExampleCursor.cursospring.repository.TaskRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Статистика задач для /api/tasks/stats без COUNT(*) на каждый запрос.
+ * Счётчики у каждого владельца свои; все заполняются одним агрегирующим запросом при старте
+ * (до приёма HTTP-запросов), дальше обновляются по TaskChangedEvent после коммита,
+ * а в полночь пересчитывается просрочка. После импорта пересчитывается только владелец импорта.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TaskStatsService implements SmartInitializingSingleton {
+
+    private final TaskRepository taskRepository;
+    private final Map<String, TaskStatsCounters> counters = new ConcurrentHashMap<>();
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        LocalDate today = LocalDate.now();
+        Map<String, List<TaskOwnerCountRow>> rows = taskRepository.countByOwnerCompletedAndDueDate().stream()
+                .collect(Collectors.groupingBy(TaskOwnerCountRow::getOwner));
+        rows.forEach((owner, ownerRows) -> countersFor(owner).rebuild(today, ownerRows));
+        log.info("Task stats loaded for {} owners", rows.size());
+    }
+
+    /**
+     * После массового импорта счётчики владельца проще пересчитать, чем применять построчно. Запрос идёт
+     * под блокировкой его счётчиков (см. TaskStatsCounters.rebuild), так что изменения, закоммиченные
+     * во время пересчёта, применяются поверх него, а счётчики других владельцев не трогаются.
+     * Транзакция не readOnly, чтобы запрос ушёл в primary: на реплику импорт мог ещё не доехать.
+     */
+    @EventListener
+    @Transactional
+    public void onTasksImported(TasksImportedEvent event) {
+        String owner = event.owner();
+        countersFor(owner).rebuild(LocalDate.now(), () -> taskRepository.countByCompletedAndDueDate(owner));
+        log.info("Task stats rebuilt for {}", owner);
+    }
+
+    public TaskStatsResponse getStats(String owner) {
+        return countersFor(owner).snapshot(LocalDate.now());
+    }
+
+    @TransactionalEventListener
+    public void onTaskChanged(TaskChangedEvent event) {
+        if (event.previous() != null) {
+            countersFor(event.previous().getOwner()).apply(event.previous(), -1);
+        }
+        if (event.task() != null) {
+            countersFor(event.task().getOwner()).apply(event.task(), 1);
+        }
+    }
+
+    /**
+     * Смена дня: задачи со сроком "вчера" становятся просроченными, начинается новая неделя.
+     * getStats() тоже проверяет дату, так что пропущенный запуск не даст устаревших цифр.
+     */
+    @Scheduled(cron = "0 0 0 * * *")
+    public void rollOver() {
+        LocalDate today = LocalDate.now();
+        counters.values().forEach(ownerCounters -> ownerCounters.rollOver(today));
+    }
+
+    private TaskStatsCounters countersFor(String owner) {
+        return counters.computeIfAbsent(owner, o -> new TaskStatsCounters(LocalDate.now()));
+    }
+}
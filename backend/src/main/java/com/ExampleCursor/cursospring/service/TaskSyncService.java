@@ -0,0 +1,117 @@
+package com.ExampleCursor.cursospring.service;
+
+import com.ExampleCursor.cursospring.config.TaskSyncProperties;
+import com.ExampleCursor.cursospring.dto.TaskChangesResponse;
+import com.ExampleCursor.cursospring.dto.TaskResponse;
+import com.ExampleCursor.cursospring.entity.Task;
+import com.ExampleCursor.cursospring.entity.TaskTombstone;
+import com.ExampleCursor.cursospring.repository.TaskRepository;
+import com.ExampleCursor.cursospring.repository.TaskTombstoneRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Дельта-синхронизация: клиент хранит токен и получает только задачи, созданные, изменённые
+ * или удалённые после него, — вместо перечитывания всего списка.
+ * <p>
+ * Изменения берутся по индексу (updated_at, id), удаления — из task_tombstones по (deleted_at, task_id);
+ * обе ленты читаются keyset-страницами, токен хранит позицию в каждой. Изменения моложе
+ * settle-window не отдаются (horizon): их транзакции могли ещё не закоммититься или не дойти до реплики,
+ * а после выдачи токена с более поздним ключом они были бы потеряны.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TaskSyncService {
+
+    public static final int DEFAULT_LIMIT = 500;
+    public static final int MAX_LIMIT = 1000;
+
+    private final TaskRepository taskRepository;
+    private final TaskTombstoneRepository taskTombstoneRepository;
+    private final TaskSyncProperties properties;
+
+    /**
+     * Не больше limit изменений задач owner после since (null — первая синхронизация: все его задачи).
+     * Обе ленты сливаются по времени изменения; лента, дочитанная до конца, продвигается до horizon,
+     * чтобы следующий запрос не просматривал её заново.
+     */
+    @Transactional(readOnly = true)
+    public TaskChangesResponse findChanges(String owner, String since, Integer limit) {
+        int size = limit == null ? DEFAULT_LIMIT : limit;
+        if (size < 1 || size > MAX_LIMIT) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_LIMIT);
+        }
+        LocalDateTime now = Task.now();
+        LocalDateTime horizon = now.minus(properties.getSettleWindow());
+        TaskSyncToken token;
+        if (since == null || since.isBlank()) {
+            token = TaskSyncToken.initial(horizon);
+        } else {
+            token = TaskSyncToken.decode(since);
+            if (token.deletedAt().isBefore(now.minus(properties.getTombstoneRetention()))) {
+                throw new SyncTokenExpiredException("Sync token has expired, full resync required");
+            }
+        }
+
+        List<TaskResponse> changed = taskRepository.findChangedAfter(
+                owner, token.updatedAt(), token.taskId(), horizon, Limit.of(size + 1));
+        List<TaskTombstone> tombstones = taskTombstoneRepository.findDeletedAfter(
+                owner, token.deletedAt(), token.tombstoneId(), horizon, Limit.of(size + 1));
+
+        int c = 0;
+        int d = 0;
+        while (c + d < size && (c < changed.size() || d < tombstones.size())) {
+            boolean takeChanged = d == tombstones.size() || (c < changed.size()
+                    && !changed.get(c).getUpdatedAt().isAfter(tombstones.get(d).getDeletedAt()));
+            if (takeChanged) {
+                c++;
+            } else {
+                d++;
+            }
+        }
+        List<TaskResponse> upserted = changed.subList(0, c);
+        List<TaskTombstone> deleted = tombstones.subList(0, d);
+        boolean changedDone = c == changed.size();
+        boolean deletedDone = d == tombstones.size();
+
+        TaskResponse lastChanged = c > 0 ? upserted.get(c - 1) : null;
+        TaskTombstone lastDeleted = d > 0 ? deleted.get(d - 1) : null;
+        TaskSyncToken next = new TaskSyncToken(
+                changedDone ? horizon : lastChanged != null ? lastChanged.getUpdatedAt() : token.updatedAt(),
+                changedDone ? Long.MAX_VALUE : lastChanged != null ? lastChanged.getId() : token.taskId(),
+                deletedDone ? horizon : lastDeleted != null ? lastDeleted.getDeletedAt() : token.deletedAt(),
+                deletedDone ? Long.MAX_VALUE : lastDeleted != null ? lastDeleted.getTaskId() : token.tombstoneId());
+
+        List<Long> deletedIds = new ArrayList<>(d);
+        for (TaskTombstone tombstone : deleted) {
+            deletedIds.add(tombstone.getTaskId());
+        }
+        return TaskChangesResponse.builder()
+                .upserted(upserted)
+                .deleted(deletedIds)
+                .nextToken(next.encode())
+                .hasMore(!changedDone || !deletedDone)
+                .build();
+    }
+
+    /**
+     * Удаляет надгробия старше tombstone-retention; токены старше этого срока уже отвергаются.
+     */
+    @Transactional
+    @Scheduled(fixedDelayString = "${app.sync.purge-interval:1h}", initialDelayString = "${app.sync.purge-initial-delay:1m}")
+    public void purgeTombstones() {
+        int purged = taskTombstoneRepository.deleteOlderThan(Task.now().minus(properties.getTombstoneRetention()));
+        if (purged > 0) {
+            log.info("Purged task tombstones: count={}", purged);
+        }
+    }
+}
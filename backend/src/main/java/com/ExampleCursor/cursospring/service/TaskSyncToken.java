@@ -0,0 +1,56 @@
+package com.ExampleCursor.cursospring.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+
+/**
+ * Токен дельта-синхронизации: два keyset-ключа — последняя отданная изменённая задача (updated_at, id)
+ * и последнее отданное надгробие (deleted_at, task_id). Время хранится в микросекундах от эпохи,
+ * всё вместе — непрозрачная base64url-строка, как у TaskCursor.
+ */
+record TaskSyncToken(LocalDateTime updatedAt, long taskId, LocalDateTime deletedAt, long tombstoneId) {
+
+    private static final String VERSION = "1";
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    /**
+     * Первая синхронизация: все задачи с начала, удаления — только после horizon
+     * (удалённых раньше клиент ещё не видел).
+     */
+    static TaskSyncToken initial(LocalDateTime horizon) {
+        return new TaskSyncToken(EPOCH, 0L, horizon, Long.MAX_VALUE);
+    }
+
+    String encode() {
+        String raw = VERSION + "|" + micros(updatedAt) + "|" + taskId + "|" + micros(deletedAt) + "|" + tombstoneId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static TaskSyncToken decode(String value) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != 5 || !VERSION.equals(parts[0])) {
+                throw new IllegalArgumentException();
+            }
+            return new TaskSyncToken(fromMicros(Long.parseLong(parts[1])), Long.parseLong(parts[2]),
+                    fromMicros(Long.parseLong(parts[3])), Long.parseLong(parts[4]));
+        } catch (IllegalArgumentException | ArithmeticException | DateTimeException e) {
+            throw new IllegalArgumentException("Invalid sync token");
+        }
+    }
+
+    private static long micros(LocalDateTime time) {
+        return ChronoUnit.MICROS.between(EPOCH, time);
+    }
+
+    private static LocalDateTime fromMicros(long micros) {
+        long seconds = Math.floorDiv(micros, 1_000_000);
+        int nanos = (int) Math.floorMod(micros, 1_000_000) * 1000;
+        return LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,11 @@
+package com.ExampleCursor.cursospring.service;
+
+/**
+ * Массовый импорт закоммичен (TaskImportService). Публикуется уже после коммита и вместо
+ * TaskChangedEvent на каждую задачу: подписчики перестраивают своё состояние из БД целиком.
+ *
+ * @param owner чьи задачи добавлены
+ * @param count сколько задач добавлено
+ */
+public record TasksImportedEvent(String owner, long count) {
+}
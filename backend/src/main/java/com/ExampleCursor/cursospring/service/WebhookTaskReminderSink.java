@@ -0,0 +1,38 @@
+package com.ExampleCursor.cursospring.service;
+
+import com.ExampleCursor.cursospring.config.TaskReminderProperties;
+import com.ExampleCursor.cursospring.dto.TaskReminder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+/**
+ * POST напоминания в JSON на app.reminders.webhook-url. Без повторов: это заготовка под внешнюю
+ * систему уведомлений, упавший запрос только попадёт в лог.
+ */
+@Component
+@RequiredArgsConstructor
+public class WebhookTaskReminderSink implements TaskReminderSink {
+
+    private final TaskReminderProperties properties;
+    private final RestClient restClient = RestClient.create();
+
+    @Override
+    public String name() {
+        return "webhook";
+    }
+
+    @Override
+    public void send(TaskReminder reminder) {
+        if (properties.getWebhookUrl() == null || properties.getWebhookUrl().isBlank()) {
+            throw new IllegalStateException("app.reminders.webhook-url is not set");
+        }
+        restClient.post()
+                .uri(properties.getWebhookUrl())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(reminder)
+                .retrieve()
+                .toBodilessEntity();
+    }
+}
@@ -0,0 +1,41 @@
+-- ============================================
+-- Исходная схема: tasks, полнотекстовый поиск, версия, архив
+-- ============================================
+-- Повторяет backend/sql/create_database.sql и add_*.sql. Все операторы идемпотентны: на базе,
+-- созданной этими скриптами или прежним ddl-auto=update, миграция только добавляет недостающее
+-- (baseline-on-migrate, см. application.properties).
+
+-- Шаг 50 совпадает с allocationSize у Task.id: Hibernate берёт id блоками и вставляет JDBC-батчами.
+CREATE SEQUENCE IF NOT EXISTS tasks_id_seq INCREMENT BY 50;
+ALTER SEQUENCE tasks_id_seq INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS tasks (
+    id BIGINT PRIMARY KEY DEFAULT nextval('tasks_id_seq'),
+    title VARCHAR(255) NOT NULL,
+    description TEXT,
+    due_date DATE,
+    completed BOOLEAN NOT NULL DEFAULT false,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    version BIGINT NOT NULL DEFAULT 0
+);
+
+ALTER TABLE tasks ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+-- Полнотекстовый поиск (GET /api/tasks/search): PostgreSQL пересчитывает tsvector сам при каждой записи
+ALTER TABLE tasks ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (to_tsvector('simple', coalesce(title, '') || ' ' || coalesce(description, ''))) STORED;
+CREATE INDEX IF NOT EXISTS idx_tasks_search_vector ON tasks USING GIN (search_vector);
+
+-- Архив выполненных задач (TaskArchiveService): те же колонки и id плюс время переноса
+CREATE TABLE IF NOT EXISTS tasks_archive (
+    id BIGINT PRIMARY KEY,
+    title VARCHAR(255) NOT NULL,
+    description TEXT,
+    due_date DATE,
+    completed BOOLEAN NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    version BIGINT NOT NULL,
+    archived_at TIMESTAMP NOT NULL
+);
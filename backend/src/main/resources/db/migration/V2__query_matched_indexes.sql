@@ -0,0 +1,27 @@
+-- ============================================
+-- Индексы под запросы TaskRepository
+-- ============================================
+-- CONCURRENTLY не блокирует запись в таблицу на время построения; Flyway выполняет такой скрипт
+-- вне транзакции. Если построение прервётся, останется невалидный индекс — удалите его
+-- (DROP INDEX CONCURRENTLY) и перезапустите приложение.
+
+-- Keyset-страницы по created_at (findPageByCreatedAtDesc/Asc): условие (created_at, id) < (:at, :id)
+-- и сортировка по тем же двум колонкам целиком идут по индексу, в обе стороны.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tasks_created_at_id ON tasks (created_at, id);
+DROP INDEX CONCURRENTLY IF EXISTS idx_tasks_created_at;
+
+-- Открытые задачи по сроку: колесо напоминаний (findOpenDuePage) и просроченные.
+-- Частичный индекс не содержит выполненных задач, которых со временем большинство.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tasks_open_due_date ON tasks (due_date, id) WHERE completed = false;
+DROP INDEX CONCURRENTLY IF EXISTS idx_tasks_due_date;
+
+-- Кандидаты в архив (findArchivable): выполненные и давно не менявшиеся.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tasks_archivable ON tasks (updated_at) WHERE completed = true;
+
+-- Индекс по boolean с двумя значениями планировщик почти не использует, а платить за него приходится на каждой записи
+DROP INDEX CONCURRENTLY IF EXISTS idx_tasks_completed;
+
+-- Архив читается теми же keyset-страницами (TaskRecord: tasks UNION ALL tasks_archive)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tasks_archive_created_at_id ON tasks_archive (created_at, id);
+DROP INDEX CONCURRENTLY IF EXISTS idx_tasks_archive_created_at;
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tasks_archive_due_date ON tasks_archive (due_date, id);
@@ -0,0 +1,11 @@
+-- ============================================
+-- Надгробия удалённых задач для дельта-синхронизации (GET /api/tasks/changes)
+-- ============================================
+-- Строка пишется в той же транзакции, что и удаление (или перенос в архив): клиент, который
+-- синхронизируется по токену, узнаёт, какие задачи убрать у себя. Старше app.sync.tombstone-retention
+-- удаляются, токены старше этого срока требуют полной синхронизации.
+CREATE TABLE IF NOT EXISTS task_tombstones (
+    task_id BIGINT PRIMARY KEY,
+    deleted_at TIMESTAMP NOT NULL
+);
+CREATE INDEX IF NOT EXISTS idx_task_tombstones_deleted_at_id ON task_tombstones (deleted_at, task_id);
@@ -0,0 +1,7 @@
+-- ============================================
+-- Изменённые задачи по времени для дельта-синхронизации
+-- ============================================
+-- findChangedAfter: условие (updated_at, id) > (:at, :id) и сортировка по тем же колонкам идут по индексу,
+-- так что страница изменений стоит пропорционально числу изменений, а не размеру таблицы.
+-- Отдельный скрипт: CONCURRENTLY выполняется вне транзакции (см. V2).
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tasks_updated_at_id ON tasks (updated_at, id);
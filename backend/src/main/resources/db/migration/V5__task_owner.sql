@@ -0,0 +1,15 @@
+-- ============================================
+-- Владелец задачи (owner) — имя аутентифицированного пользователя
+-- ============================================
+-- Существующие задачи (и архив, и надгробия) достаются пользователю из app.security.user.name —
+-- до этой версии он был единственным (плейсхолдер spring.flyway.placeholders.default-owner).
+-- ADD COLUMN с константным DEFAULT в PostgreSQL 11+ не переписывает таблицу; DEFAULT сразу
+-- снимается, дальше владельца всегда задаёт приложение.
+ALTER TABLE tasks ADD COLUMN IF NOT EXISTS owner VARCHAR(100) NOT NULL DEFAULT '${default-owner}';
+ALTER TABLE tasks ALTER COLUMN owner DROP DEFAULT;
+
+ALTER TABLE tasks_archive ADD COLUMN IF NOT EXISTS owner VARCHAR(100) NOT NULL DEFAULT '${default-owner}';
+ALTER TABLE tasks_archive ALTER COLUMN owner DROP DEFAULT;
+
+ALTER TABLE task_tombstones ADD COLUMN IF NOT EXISTS owner VARCHAR(100) NOT NULL DEFAULT '${default-owner}';
+ALTER TABLE task_tombstones ALTER COLUMN owner DROP DEFAULT;
@@ -0,0 +1,29 @@
+-- ============================================
+-- Индексы под запросы, ограниченные владельцем
+-- ============================================
+-- Все запросы пользователя начинаются с owner = :owner, поэтому и индексы начинаются с owner:
+-- страница, поиск границы keyset-курсора и агрегаты читают только задачи этого пользователя.
+-- Прежние индексы без owner после этого не нужны ни одному запросу. CONCURRENTLY — как в V2.
+
+-- Фильтры completed / dueFrom / dueTo и статистика по владельцу (countByOwnerCompletedAndDueDate)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tasks_owner_completed_due_date ON tasks (owner, completed, due_date);
+
+-- Keyset-страницы по id (findPageByIdAsc/Desc) и выгрузка задач пользователя (streamByOwner)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tasks_owner_id ON tasks (owner, id);
+
+-- Keyset-страницы по created_at (findPageByCreatedAtDesc/Asc)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tasks_owner_created_at_id ON tasks (owner, created_at, id);
+DROP INDEX CONCURRENTLY IF EXISTS idx_tasks_created_at_id;
+
+-- Дельта-синхронизация (findChangedAfter)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tasks_owner_updated_at_id ON tasks (owner, updated_at, id);
+DROP INDEX CONCURRENTLY IF EXISTS idx_tasks_updated_at_id;
+
+-- Архив в запросах с ?includeArchived=true
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tasks_archive_owner_id ON tasks_archive (owner, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tasks_archive_owner_created_at_id ON tasks_archive (owner, created_at, id);
+DROP INDEX CONCURRENTLY IF EXISTS idx_tasks_archive_created_at_id;
+
+-- Удаления пользователя для синхронизации (findDeletedAfter); idx_task_tombstones_deleted_at_id остаётся для очистки
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_task_tombstones_owner_deleted_at_id
+    ON task_tombstones (owner, deleted_at, task_id);
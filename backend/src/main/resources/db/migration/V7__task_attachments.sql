@@ -0,0 +1,17 @@
+-- ============================================
+-- Вложения задач (TaskAttachmentService)
+-- ============================================
+-- Ссылка задачи на файл из app.file.upload-dir с размером на момент прикрепления. Внешнего ключа
+-- на tasks нет: архиватор переносит задачу в tasks_archive вместе с её вложениями, а при удалении
+-- задачи вложения удаляет тот же оператор (TaskRepositoryImpl.deleteReturning) или пакет.
+-- Уникальный индекс (task_id, file_name) обслуживает и выборку вложений страницы по task_id in (...).
+CREATE TABLE IF NOT EXISTS task_attachments (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    task_id BIGINT NOT NULL,
+    owner VARCHAR(100) NOT NULL,
+    file_name VARCHAR(255) NOT NULL,
+    size_in_bytes BIGINT NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    CONSTRAINT uk_task_attachments_task_id_file_name UNIQUE (task_id, file_name)
+);
+CREATE INDEX IF NOT EXISTS idx_task_attachments_file_name ON task_attachments (file_name);
@@ -0,0 +1,45 @@
+package com.ExampleCursor.cursospring.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GenerationCheckedCaffeineCacheTest {
+
+    private final GenerationCheckedCaffeineCache cache =
+            new GenerationCheckedCaffeineCache("pages", Caffeine.newBuilder().build(), true);
+
+    @Test
+    void valueReadBeforeClearIsNotCached() {
+        // Промах, чтение старых данных; тем временем запись коммитит изменение и очищает кэш
+        assertThat(cache.get("page")).isNull();
+        cache.clear();
+        cache.put("page", "stale");
+        assertThat(cache.get("page")).isNull();
+
+        // Следующее чтение начато после очистки — его результат кэшируется
+        cache.put("page", "fresh");
+        assertThat(cache.get("page").get()).isEqualTo("fresh");
+    }
+
+    @Test
+    void evictionInAnotherThreadAlsoInvalidatesPendingPut() {
+        assertThat(cache.get("task")).isNull();
+        CompletableFuture.runAsync(() -> cache.evict("other")).join();
+        cache.put("task", "stale");
+        assertThat(cache.get("task")).isNull();
+    }
+
+    @Test
+    void putWithoutEvictionInBetweenIsCached() {
+        assertThat(cache.get("a")).isNull();
+        cache.put("a", "value");
+        assertThat(cache.get("a").get()).isEqualTo("value");
+        // put без предшествующего промаха (например, другой ключ) не проверяется
+        cache.put("b", "direct");
+        assertThat(cache.get("b").get()).isEqualTo("direct");
+    }
+}
@@ -0,0 +1,150 @@
+package com.ExampleCursor.cursospring.config;
+
+import com.ExampleCursor.cursospring.repository.TaskRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Маршрутизация на двух встроенных H2: primary (схема от Hibernate) и «реплика» с той же схемой,
+ * но своими данными — по тому, какая строка видна, понятно, куда ушёл запрос.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "app.datasource.replicas[0].url=" + ReadWriteRoutingDataSourceTest.REPLICA_URL,
+        "app.datasource.health-check-interval=1h",
+        "app.datasource.replica-connection-timeout=250ms"
+})
+@ActiveProfiles("h2")
+class ReadWriteRoutingDataSourceTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;MODE=PostgreSQL;DB_CLOSE_DELAY=-1";
+
+    private static final long REPLICA_ONLY_ID = 1_000_000L;
+
+    @Autowired
+    private ReadWriteRoutingDataSource routingDataSource;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    /**
+     * Приложение читает задачи уже при старте (индекс поиска), поэтому таблица на реплике нужна
+     * до контекста; точная схема копируется с primary в setUp.
+     */
+    @BeforeAll
+    static void createReplicaTable() throws Exception {
+        try (Connection connection = DriverManager.getConnection(REPLICA_URL, "sa", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS tasks (id BIGINT PRIMARY KEY, owner VARCHAR(100), title VARCHAR(255), "
+                    + "description TEXT, due_date DATE, completed BOOLEAN, created_at TIMESTAMP, "
+                    + "updated_at TIMESTAMP, version BIGINT)");
+        }
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readWrite = new TransactionTemplate(transactionManager);
+
+        JdbcTemplate replica = new JdbcTemplate(routingDataSource.getReplicas().getFirst());
+        Path schema = Files.createTempFile("routing-schema", ".sql");
+        try {
+            new JdbcTemplate(routingDataSource).execute("SCRIPT NODATA TO '" + schema + "'");
+            replica.execute("DROP ALL OBJECTS");
+            replica.execute("RUNSCRIPT FROM '" + schema + "'");
+        } finally {
+            Files.deleteIfExists(schema);
+        }
+        replica.update("INSERT INTO tasks (id, owner, title, completed, created_at, updated_at, version) "
+                + "VALUES (?, 'user', 'replica', false, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 0)", REPLICA_ONLY_ID);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReadWriteRoutingDataSource.pinToPrimary(false);
+    }
+
+    @Test
+    void readOnlyTransactionsGoToReplicaAndWritesToPrimary() {
+        assertThat(visible(readOnly)).isTrue();
+        assertThat(visible(readWrite)).isFalse();
+    }
+
+    @Test
+    void pinnedReadsGoToPrimary() {
+        ReadWriteRoutingDataSource.pinToPrimary(true);
+
+        assertThat(visible(readOnly)).isFalse();
+        assertThat(meterRegistry.get("datasource.routing").tag("reason", "read-your-writes").counter().count())
+                .isPositive();
+    }
+
+    @Test
+    @DirtiesContext
+    void unavailableReplicaFallsBackToPrimary() {
+        ((HikariDataSource) routingDataSource.getReplicas().getFirst()).close();
+
+        assertThat(visible(readOnly)).isFalse();
+        assertThat(routingDataSource.isAvailable("replica-1")).isFalse();
+        routingDataSource.checkReplicas();
+        assertThat(routingDataSource.isAvailable("replica-1")).isFalse();
+        assertThat(meterRegistry.get("datasource.routing").tag("reason", "failover").counter().count())
+                .isPositive();
+    }
+
+    @Test
+    void busyReplicaPoolFailsOverWithoutLeavingRotation() throws Exception {
+        HikariDataSource pool = (HikariDataSource) routingDataSource.getReplicas().getFirst();
+        List<Connection> held = new ArrayList<>();
+        try {
+            for (int i = 0; i < pool.getMaximumPoolSize(); i++) {
+                held.add(pool.getConnection());
+            }
+            assertThat(visible(readOnly)).isFalse();
+            routingDataSource.checkReplicas();
+            assertThat(routingDataSource.isAvailable("replica-1")).isTrue();
+        } finally {
+            for (Connection connection : held) {
+                connection.close();
+            }
+        }
+        assertThat(visible(readOnly)).isTrue();
+    }
+
+    /** Видна ли строка, которая есть только на реплике. */
+    private boolean visible(TransactionTemplate transaction) {
+        return Boolean.TRUE.equals(transaction.execute(
+                status -> taskRepository.findResponseById("user", REPLICA_ONLY_ID).isPresent()));
+    }
+}
@@ -0,0 +1,174 @@
+package com.ExampleCursor.cursospring.controller;
+
+import com.ExampleCursor.cursospring.config.FileStorageProperties;
+import com.ExampleCursor.cursospring.service.FileShardLayout;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.UrlResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Скачивание файла: прежний путь (ResponseEntity&lt;UrlResource&gt;, копирование через буфер в куче)
+ * против FileDownloads (sendfile Tomcat). Меряются пропускная способность через реальный сокет и процессорное
+ * время потоков Tomcat на мегабайт файла (копирование через кучу почти не выделяет память — буфер один,
+ * но каждый байт дважды проходит через user space). Запуск: mvn test -Pbenchmark
+ * <p>
+ * RANDOM_PORT и @Import дают отдельный контекст, который живёт в кэше рядом с остальными: каталоги загрузок
+ * и журнала аудита у него свои.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("benchmark")
+@Import(FileDownloadBenchmarkTest.LegacyDownloadController.class)
+@Tag("benchmark")
+class FileDownloadBenchmarkTest {
+
+    private static final String FILE_NAME = "download-benchmark.bin";
+    private static final long FILE_SIZE = 256L * 1024 * 1024;
+    private static final int WARMUP = 1;
+    private static final int ROUNDS = 3;
+
+    @TempDir
+    static Path directory;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private FileStorageProperties storageProperties;
+
+    private Path file;
+
+    @DynamicPropertySource
+    static void directories(DynamicPropertyRegistry registry) {
+        registry.add("app.file.upload-dir", () -> directory.resolve("uploads").toString());
+        registry.add("app.audit.directory", () -> directory.resolve("audit").toString());
+    }
+
+    @BeforeEach
+    void setUp() throws IOException {
+        file = FileShardLayout.resolve(storageProperties.getUploadPath(), FILE_NAME);
+        Files.createDirectories(file.getParent());
+        byte[] block = new byte[1024 * 1024];
+        new Random(42).nextBytes(block);
+        try (OutputStream out = Files.newOutputStream(file)) {
+            for (long written = 0; written < FILE_SIZE; written += block.length) {
+                out.write(block);
+            }
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    void sendfileVersusResourceCopy() throws IOException {
+        String legacy = "/benchmark/legacy-download/" + FILE_NAME;
+        String current = "/api/files/" + FILE_NAME;
+        for (int i = 0; i < WARMUP; i++) {
+            download(legacy);
+            download(current);
+        }
+
+        long legacyNanos = 0;
+        long legacyCpu = 0;
+        long currentNanos = 0;
+        long currentCpu = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            long cpu = serverCpuNanos();
+            long start = System.nanoTime();
+            assertThat(download(legacy)).isEqualTo(FILE_SIZE);
+            legacyNanos += System.nanoTime() - start;
+            legacyCpu += serverCpuNanos() - cpu;
+
+            cpu = serverCpuNanos();
+            start = System.nanoTime();
+            assertThat(download(current)).isEqualTo(FILE_SIZE);
+            currentNanos += System.nanoTime() - start;
+            currentCpu += serverCpuNanos() - cpu;
+        }
+
+        double downloaded = (double) FILE_SIZE * ROUNDS;
+        double megabytes = downloaded / 1024 / 1024;
+        System.out.printf("UrlResource (heap copy): %.0f MB/s, %.0f us server CPU per MB%n",
+                megabytes / (legacyNanos / 1e9), legacyCpu / 1e3 / megabytes);
+        System.out.printf("FileDownloads (sendfile): %.0f MB/s, %.0f us server CPU per MB%n",
+                megabytes / (currentNanos / 1e9), currentCpu / 1e3 / megabytes);
+        assertThat(currentCpu).isLessThan(legacyCpu);
+    }
+
+    /** Скачивает файл в переиспользуемый буфер и возвращает число полученных байт. */
+    private long download(String path) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) URI.create("http://localhost:" + port + path)
+                .toURL().openConnection();
+        String credentials = Base64.getEncoder().encodeToString("user:password".getBytes(StandardCharsets.UTF_8));
+        connection.setRequestProperty(HttpHeaders.AUTHORIZATION, "Basic " + credentials);
+        byte[] buffer = new byte[256 * 1024];
+        long received = 0;
+        try (InputStream in = connection.getInputStream()) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                received += read;
+            }
+        }
+        return received;
+    }
+
+    /** Процессорное время потоков Tomcat (http-nio-*: worker'ы и poller, который делает sendfile). */
+    private static long serverCpuNanos() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        return Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> thread.getName().startsWith("http-nio-"))
+                .mapToLong(thread -> threads.getThreadCpuTime(thread.threadId()))
+                .filter(nanos -> nanos > 0)
+                .sum();
+    }
+
+    /** Скачивание в том виде, в каком оно было до FileDownloads. */
+    @RestController
+    static class LegacyDownloadController {
+
+        @Autowired
+        private FileStorageProperties storageProperties;
+
+        @GetMapping("/benchmark/legacy-download/{fileName}")
+        ResponseEntity<Resource> download(@PathVariable String fileName) throws IOException {
+            Path file = FileShardLayout.resolve(storageProperties.getUploadPath(), fileName);
+            Resource resource = new UrlResource(file.toUri());
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename*=UTF-8''" + fileName)
+                    .body(resource);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.ExampleCursor.cursospring.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FileDownloadsTest {
+
+    private static final String CONTENT = "0123456789abcdefghij";
+
+    @TempDir
+    Path directory;
+
+    private Path file;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        file = Files.writeString(directory.resolve("file.txt"), CONTENT);
+    }
+
+    @Test
+    void servesWholeFileWithValidatorsAndAnswers304ToThem() throws IOException {
+        MockHttpServletResponse full = download(new MockHttpServletRequest("GET", "/api/files/file.txt"));
+        assertThat(full.getStatus()).isEqualTo(200);
+        assertThat(full.getContentAsString()).isEqualTo(CONTENT);
+        assertThat(full.getHeader(HttpHeaders.ACCEPT_RANGES)).isEqualTo("bytes");
+        String eTag = full.getHeader(HttpHeaders.ETAG);
+
+        MockHttpServletRequest conditional = new MockHttpServletRequest("GET", "/api/files/file.txt");
+        conditional.addHeader(HttpHeaders.IF_NONE_MATCH, eTag);
+        MockHttpServletResponse notModified = download(conditional);
+        assertThat(notModified.getStatus()).isEqualTo(304);
+        assertThat(notModified.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    void servesSingleAndMultipleRanges() throws IOException {
+        MockHttpServletResponse single = download(rangeRequest("bytes=2-5"));
+        assertThat(single.getStatus()).isEqualTo(206);
+        assertThat(single.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 2-5/20");
+        assertThat(single.getContentAsString()).isEqualTo("2345");
+
+        MockHttpServletResponse multiple = download(rangeRequest("bytes=0-1,-3"));
+        assertThat(multiple.getStatus()).isEqualTo(206);
+        assertThat(multiple.getContentType()).startsWith("multipart/byteranges; boundary=");
+        String body = multiple.getContentAsString(StandardCharsets.US_ASCII);
+        assertThat(body).contains("Content-Range: bytes 0-1/20\r\n\r\n01", "Content-Range: bytes 17-19/20\r\n\r\nhij");
+        assertThat((long) multiple.getContentAsByteArray().length).isEqualTo(multiple.getContentLengthLong());
+
+        assertThat(download(rangeRequest("bytes=20-")).getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes */20");
+    }
+
+    @Test
+    void ignoresRangeWhenIfRangeDoesNotMatch() throws IOException {
+        MockHttpServletRequest request = rangeRequest("bytes=2-5");
+        request.addHeader(HttpHeaders.IF_RANGE, "\"stale\"");
+        MockHttpServletResponse response = download(request);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsString()).isEqualTo(CONTENT);
+    }
+
+    private MockHttpServletRequest rangeRequest(String range) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/files/file.txt");
+        request.addHeader(HttpHeaders.RANGE, range);
+        return request;
+    }
+
+    private MockHttpServletResponse download(MockHttpServletRequest request) throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FileDownloads.write(file, "file.txt", request, response);
+        return response;
+    }
+}
@@ -0,0 +1,133 @@
+package com.ExampleCursor.cursospring.controller;
+
+import com.ExampleCursor.cursospring.dto.CreateTaskRequest;
+import com.ExampleCursor.cursospring.dto.TaskResponse;
+import com.ExampleCursor.cursospring.dto.UpdateTaskRequest;
+import com.ExampleCursor.cursospring.entity.Task;
+import com.ExampleCursor.cursospring.repository.TaskRepository;
+import com.ExampleCursor.cursospring.service.TaskService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * PUT /api/tasks/{id}: If-Match (412), чужая или несуществующая задача (404), параллельное изменение (409);
+ * после изменения закэшированная страница GET /api/tasks получает новый ETag.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:task-update;MODE=PostgreSQL;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("h2")
+@AutoConfigureMockMvc
+class TaskControllerUpdateTest {
+
+    /** Пользователь из app.security.user по умолчанию (user:password). */
+    private static final String OWNER = "user";
+    private static final String BASIC_AUTH = "Basic dXNlcjpwYXNzd29yZA==";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void putWithStaleIfMatchIsPreconditionFailed() throws Exception {
+        TaskResponse task = taskService.create(OWNER, CreateTaskRequest.builder().title("draft").build());
+        String etag = "\"" + task.getId() + "-" + task.getVersion() + "\"";
+        String nextEtag = "\"" + task.getId() + "-" + (task.getVersion() + 1) + "\"";
+
+        mockMvc.perform(update(task.getId(), "first").header(HttpHeaders.IF_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, nextEtag))
+                .andExpect(jsonPath("$.title").value("first"));
+
+        mockMvc.perform(update(task.getId(), "second").header(HttpHeaders.IF_MATCH, etag))
+                .andExpect(status().isPreconditionFailed());
+        assertThat(taskService.findById(OWNER, task.getId()).getTitle()).isEqualTo("first");
+    }
+
+    @Test
+    void putOnMissingOrForeignTaskIsNotFound() throws Exception {
+        TaskResponse foreign = taskService.create("someone-else", CreateTaskRequest.builder().title("theirs").build());
+
+        mockMvc.perform(update(foreign.getId(), "mine"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(update(foreign.getId(), "mine").header(HttpHeaders.IF_MATCH, "\"" + foreign.getId() + "-0\""))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(update(Long.MAX_VALUE, "mine"))
+                .andExpect(status().isNotFound());
+        assertThat(taskService.findById("someone-else", foreign.getId()).getTitle()).isEqualTo("theirs");
+    }
+
+    @Test
+    void modificationBetweenReadAndWriteIsConflict() {
+        Long id = taskService.create(OWNER, CreateTaskRequest.builder().title("draft").build()).getId();
+
+        assertThatThrownBy(() -> transactionTemplate.executeWithoutResult(status -> {
+            Task loaded = taskRepository.findByIdAndOwner(id, OWNER).orElseThrow();
+            // Другой запрос успевает изменить задачу и закоммитить
+            CompletableFuture.runAsync(() -> taskService.update(
+                    OWNER, id, UpdateTaskRequest.builder().title("other").build(), null)).join();
+            loaded.setTitle("mine");
+            taskRepository.saveAndFlush(loaded);
+        })).isInstanceOfSatisfying(ObjectOptimisticLockingFailureException.class, ex ->
+                assertThat(new GlobalExceptionHandler().handleOptimisticLock(ex).getStatusCode())
+                        .isEqualTo(HttpStatus.CONFLICT));
+        assertThat(taskService.findById(OWNER, id).getTitle()).isEqualTo("other");
+    }
+
+    @Test
+    void pageEtagChangesAfterUpdate() throws Exception {
+        Long id = taskService.create(OWNER, CreateTaskRequest.builder().title("listed").build()).getId();
+        String before = mockMvc.perform(list())
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(list().header(HttpHeaders.IF_NONE_MATCH, before))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(update(id, "renamed")).andExpect(status().isOk());
+
+        String after = mockMvc.perform(list().header(HttpHeaders.IF_NONE_MATCH, before))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[?(@.id == " + id + ")].title").value("renamed"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(after).isNotNull().isNotEqualTo(before);
+        mockMvc.perform(list().header(HttpHeaders.IF_NONE_MATCH, after))
+                .andExpect(status().isNotModified());
+    }
+
+    private static MockHttpServletRequestBuilder list() {
+        return get("/api/tasks").param("limit", "500").header(HttpHeaders.AUTHORIZATION, BASIC_AUTH);
+    }
+
+    private static MockHttpServletRequestBuilder update(Long id, String title) {
+        return put("/api/tasks/{id}", id)
+                .header(HttpHeaders.AUTHORIZATION, BASIC_AUTH)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\": \"" + title + "\"}");
+    }
+}
@@ -0,0 +1,86 @@
+package com.ExampleCursor.cursospring.service;
+
+import com.ExampleCursor.cursospring.config.FileStorageProperties;
+import com.ExampleCursor.cursospring.dto.FileInfoDto;
+import com.ExampleCursor.cursospring.dto.FileQuery;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class FileDeduplicationTest {
+
+    @TempDir
+    Path directory;
+
+    private FileStorageService service;
+
+    @BeforeEach
+    void setUp() {
+        FileStorageProperties properties = new FileStorageProperties();
+        properties.setUploadDir(directory.toString());
+        properties.setDeduplicate(true);
+        service = new FileStorageService(properties);
+    }
+
+    @Test
+    void storesSameContentOnceAndDeletesItWithLastName() throws IOException {
+        byte[] content = new byte[256 * 1024];
+        new Random(7).nextBytes(content);
+
+        FileInfoDto first = service.storeStream("setup.exe", new ByteArrayInputStream(content), content.length);
+        FileInfoDto second = service.storeStream("setup.exe", new ByteArrayInputStream(content), content.length);
+        FileInfoDto third = service.store(new MockMultipartFile("file", "copy.exe", null, content));
+        FileInfoDto other = service.storeStream("other.bin", new ByteArrayInputStream(new byte[10]), 10);
+
+        assertThat(second.getName()).isEqualTo("setup_1.exe");
+        assertThat(third.getSha256()).isEqualTo(first.getSha256());
+        assertThat(Files.isSameFile(service.getFile(first.getName()), service.getFile(third.getName()))).isTrue();
+        assertThat(blobs()).hasSize(2);
+        assertThat(service.findPage(FileQuery.builder().build()).getItems())
+                .extracting(FileInfoDto::getName, FileInfoDto::getSha256)
+                .containsExactly(
+                        tuple("copy.exe", first.getSha256()),
+                        tuple("other.bin", other.getSha256()),
+                        tuple("setup.exe", first.getSha256()),
+                        tuple("setup_1.exe", first.getSha256()));
+
+        service.delete(first.getName());
+        service.delete(third.getName());
+        assertThat(Files.readAllBytes(service.getFile(second.getName()))).isEqualTo(content);
+        assertThat(blobs()).hasSize(2);
+
+        service.delete(second.getName());
+        assertThat(blobs()).hasSize(1);
+        service.delete(other.getName());
+        assertThat(blobs()).isEmpty();
+    }
+
+    @Test
+    void removesBlobsLeftWithoutNames() throws IOException {
+        FileInfoDto file = service.storeStream("a.txt", new ByteArrayInputStream(new byte[] {1, 2, 3}), 3);
+        Files.delete(service.getFile(file.getName()));
+        assertThat(blobs()).hasSize(1);
+
+        service.removeOrphanBlobs();
+
+        assertThat(blobs()).isEmpty();
+    }
+
+    private List<Path> blobs() throws IOException {
+        try (Stream<Path> files = Files.walk(directory.resolve(FileBlobStore.BLOBS_DIR))) {
+            return files.filter(Files::isRegularFile).toList();
+        }
+    }
+}
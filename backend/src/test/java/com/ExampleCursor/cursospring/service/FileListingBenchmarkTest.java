@@ -0,0 +1,79 @@
+package com.ExampleCursor.cursospring.service;
+
+import com.ExampleCursor.cursospring.config.FileStorageProperties;
+import com.ExampleCursor.cursospring.dto.FileInfoDto;
+import com.ExampleCursor.cursospring.dto.FileInfoPageResponse;
+import com.ExampleCursor.cursospring.dto.FileQuery;
+import com.ExampleCursor.cursospring.dto.FileSort;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Список файлов: обход каталога со stat на каждый файл (как listAll до индекса) против страницы
+ * из FileMetadataIndex. Запуск: mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+class FileListingBenchmarkTest {
+
+    private static final int FILES = 20_000;
+    private static final int PAGE_SIZE = 100;
+    private static final int WARMUP = 20;
+    private static final int ITERATIONS = 100;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void pageFromIndexDoesNotWalkDirectory() throws IOException {
+        for (int i = 0; i < FILES; i++) {
+            Files.write(directory.resolve("file-" + i + ".bin"), new byte[i % 1024]);
+        }
+        FileStorageProperties properties = new FileStorageProperties();
+        properties.setUploadDir(directory.toString());
+        FileStorageService service = new FileStorageService(properties);
+        FileQuery query = FileQuery.builder().sort(FileSort.SIZE_DESC).limit(PAGE_SIZE).build();
+
+        for (int i = 0; i < WARMUP; i++) {
+            walkDirectory();
+            service.findPage(query);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            assertThat(walkDirectory()).hasSize(FILES);
+        }
+        long walkNanos = System.nanoTime() - start;
+        start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            FileInfoPageResponse page = service.findPage(query);
+            assertThat(page.getItems()).hasSize(PAGE_SIZE);
+        }
+        long indexNanos = System.nanoTime() - start;
+
+        System.out.printf("Files.list + stat, %d files: %.2f ms per request%n",
+                FILES, walkNanos / 1e6 / ITERATIONS);
+        System.out.printf("FileMetadataIndex page of %d: %.3f ms per request%n",
+                PAGE_SIZE, indexNanos / 1e6 / ITERATIONS);
+        assertThat(indexNanos).isLessThan(walkNanos);
+    }
+
+    private List<FileInfoDto> walkDirectory() throws IOException {
+        try (Stream<Path> stream = Files.list(directory)) {
+            return stream
+                    .filter(Files::isRegularFile)
+                    .map(p -> FileInfoDto.builder()
+                            .name(p.getFileName().toString())
+                            .sizeInBytes(p.toFile().length())
+                            .build())
+                    .toList();
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.ExampleCursor.cursospring.service;
+
+import com.ExampleCursor.cursospring.dto.FileSort;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FileMetadataIndexTest {
+
+    private FileMetadataIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new FileMetadataIndex();
+        index.put(new FileMetadataIndex.Entry("report-2024.pdf", 300, 1_000, null));
+        index.put(new FileMetadataIndex.Entry("report-2025.pdf", 100, 3_000, null));
+        index.put(new FileMetadataIndex.Entry("photo.jpg", 200, 2_000, null));
+        index.put(new FileMetadataIndex.Entry("setup.exe", 200, 4_000, null));
+    }
+
+    @Test
+    void sortsByEachKeyWithNameAsTieBreaker() {
+        assertThat(names(index.page(null, FileSort.NAME_ASC, null, 10)))
+                .containsExactly("photo.jpg", "report-2024.pdf", "report-2025.pdf", "setup.exe");
+        assertThat(names(index.page(null, FileSort.SIZE_DESC, null, 10)))
+                .containsExactly("report-2024.pdf", "setup.exe", "photo.jpg", "report-2025.pdf");
+        assertThat(names(index.page(null, FileSort.MODIFIED_DESC, null, 10)))
+                .containsExactly("setup.exe", "report-2025.pdf", "photo.jpg", "report-2024.pdf");
+    }
+
+    @Test
+    void filtersByPrefixInEveryOrder() {
+        assertThat(names(index.page("report", FileSort.NAME_DESC, null, 10)))
+                .containsExactly("report-2025.pdf", "report-2024.pdf");
+        assertThat(names(index.page("report", FileSort.SIZE_ASC, null, 10)))
+                .containsExactly("report-2025.pdf", "report-2024.pdf");
+        assertThat(index.page("zzz", FileSort.NAME_ASC, null, 10)).isEmpty();
+    }
+
+    @Test
+    void pagesContinueAfterCursorWithoutGapsOrRepeats() {
+        for (FileSort sort : FileSort.values()) {
+            List<String> all = names(index.page(null, sort, null, 10));
+            List<String> paged = new ArrayList<>();
+            FileMetadataIndex.Entry after = null;
+            List<FileMetadataIndex.Entry> page;
+            do {
+                page = index.page(null, sort, after, 3);
+                paged.addAll(names(page));
+                after = page.isEmpty() ? null : FileCursor.of(sort, page.getLast()).toEntry();
+            } while (page.size() == 3);
+            assertThat(paged).as(sort.name()).isEqualTo(all);
+        }
+    }
+
+    @Test
+    void prefixPagesByPrefixRangeAndByScanAgree() {
+        // Порог 12: префикс "a" (20 имён) идёт через общий порядок, "b-1" (11 имён) — через поддиапазон имён
+        FileMetadataIndex small = new FileMetadataIndex(12);
+        FileMetadataIndex large = new FileMetadataIndex();
+        for (int i = 0; i < 20; i++) {
+            for (String name : List.of("a-" + i, "b-" + i, "c-" + i)) {
+                FileMetadataIndex.Entry entry = new FileMetadataIndex.Entry(name, (i * 7L) % 5, (i * 13L) % 11, null);
+                small.put(entry);
+                large.put(entry);
+            }
+        }
+        for (String prefix : List.of("a", "b-1", "c-19", "d")) {
+            for (FileSort sort : FileSort.values()) {
+                List<String> expected = large.page(null, sort, null, 100).stream()
+                        .map(FileMetadataIndex.Entry::name).filter(name -> name.startsWith(prefix)).toList();
+                assertThat(pagedNames(small, prefix, sort, 3)).as(prefix + " " + sort).isEqualTo(expected);
+                assertThat(pagedNames(large, prefix, sort, 3)).as(prefix + " " + sort).isEqualTo(expected);
+            }
+        }
+    }
+
+    @Test
+    void putReplacesEntryInAllOrdersAndRemoveDropsIt() {
+        index.put(new FileMetadataIndex.Entry("photo.jpg", 500, 5_000, "ab"));
+        index.remove("setup.exe");
+
+        assertThat(index.size()).isEqualTo(3);
+        assertThat(index.get("photo.jpg").sha256()).isEqualTo("ab");
+        assertThat(names(index.page(null, FileSort.SIZE_DESC, null, 10)))
+                .containsExactly("photo.jpg", "report-2024.pdf", "report-2025.pdf");
+        assertThat(names(index.page(null, FileSort.MODIFIED_ASC, null, 10)))
+                .containsExactly("report-2024.pdf", "report-2025.pdf", "photo.jpg");
+    }
+
+    private static List<String> pagedNames(FileMetadataIndex index, String prefix, FileSort sort, int limit) {
+        List<String> paged = new ArrayList<>();
+        FileMetadataIndex.Entry after = null;
+        List<FileMetadataIndex.Entry> page;
+        do {
+            page = index.page(prefix, sort, after, limit);
+            paged.addAll(names(page));
+            after = page.isEmpty() ? null : FileCursor.of(sort, page.getLast()).toEntry();
+        } while (page.size() == limit);
+        return paged;
+    }
+
+    private static List<String> names(List<FileMetadataIndex.Entry> entries) {
+        return entries.stream().map(FileMetadataIndex.Entry::name).toList();
+    }
+}
@@ -0,0 +1,141 @@
+package com.ExampleCursor.cursospring.service;
+
+import com.ExampleCursor.cursospring.config.FileStorageProperties;
+import com.ExampleCursor.cursospring.dto.FileInfoDto;
+import com.ExampleCursor.cursospring.dto.FileQuery;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FileShardLayoutTest {
+
+    private static final int THREADS = 8;
+    private static final int UPLOADS_PER_THREAD = 25;
+
+    @TempDir
+    Path directory;
+
+    private FileStorageService service;
+
+    @BeforeEach
+    void setUp() {
+        FileStorageProperties properties = new FileStorageProperties();
+        properties.setUploadDir(directory.toString());
+        service = new FileStorageService(properties);
+    }
+
+    @Test
+    void concurrentUploadsWithSameNameGetDistinctNames() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS + 1);
+        List<Future<FileInfoDto>> futures = new ArrayList<>();
+        AtomicBoolean uploading = new AtomicBoolean(true);
+        try {
+            // Пока идут загрузки, в шардах не должно появиться ни одного пустого (ещё не дописанного) файла
+            Future<Integer> emptySeen = executor.submit(() -> {
+                int empty = 0;
+                while (uploading.get()) {
+                    empty += countEmptyPublishedFiles();
+                }
+                return empty;
+            });
+            for (int i = 0; i < THREADS * UPLOADS_PER_THREAD; i++) {
+                byte[] content = ("upload " + i).getBytes(StandardCharsets.UTF_8);
+                futures.add(executor.submit(() ->
+                        service.storeStream("report.pdf", new ByteArrayInputStream(content), content.length)));
+            }
+            List<String> names = new ArrayList<>();
+            for (Future<FileInfoDto> future : futures) {
+                FileInfoDto file = future.get();
+                assertThat(file.getSizeInBytes()).isPositive();
+                names.add(file.getName());
+                Path stored = service.getFile(file.getName());
+                assertThat(stored.getParent().getParent().getParent())
+                        .isEqualTo(directory.resolve(FileShardLayout.SHARDS_DIR));
+                assertThat(new FileBlobStore().sha256(stored)).isEqualTo(file.getSha256());
+            }
+            assertThat(names).doesNotHaveDuplicates().contains("report.pdf", "report_1.pdf");
+            assertThat(service.findPage(FileQuery.builder().limit(1000).build()).getItems())
+                    .hasSize(THREADS * UPLOADS_PER_THREAD);
+            uploading.set(false);
+            assertThat(emptySeen.get()).isZero();
+            try (Stream<Path> parts = Files.list(service.getIncomingDirectory())) {
+                assertThat(parts).isEmpty();
+            }
+        } finally {
+            uploading.set(false);
+            executor.shutdownNow();
+        }
+    }
+
+    private int countEmptyPublishedFiles() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            return (int) files
+                    .filter(file -> !file.startsWith(directory.resolve(FileStorageService.INCOMING_DIR)))
+                    .filter(file -> {
+                        try {
+                            return Files.isRegularFile(file) && Files.size(file) == 0;
+                        } catch (IOException e) {
+                            // Файл пропал между обходом и stat — не пустой опубликованный
+                            return false;
+                        }
+                    })
+                    .count();
+        } catch (UncheckedIOException e) {
+            // Каталог шарда создан или изменился во время обхода — проверим на следующем круге
+            return 0;
+        }
+    }
+
+    @Test
+    void findsFlatFilesBeforeAndAfterMigration() throws Exception {
+        Files.writeString(directory.resolve("old.txt"), "old");
+        Files.writeString(directory.resolve("old_4.txt"), "old 4");
+
+        FileInfoDto next = service.storeStream("old.txt", new ByteArrayInputStream(new byte[1]), 1);
+        assertThat(next.getName()).isEqualTo("old_5.txt");
+        assertThat(service.getFile("old.txt")).isEqualTo(directory.resolve("old.txt"));
+
+        assertThat(FileShardLayout.migrate(directory, false)).isEqualTo(2);
+
+        assertThat(directory.resolve("old.txt")).doesNotExist();
+        assertThat(service.getFile("old.txt")).isEqualTo(FileShardLayout.resolve(directory, "old.txt"));
+        assertThat(Files.readString(service.getFile("old_4.txt"))).isEqualTo("old 4");
+        assertThat(FileShardLayout.migrate(directory, false)).isZero();
+    }
+
+    @Test
+    void legacyFilesNamedLikeShardDirectoriesDoNotBlockUploads() throws Exception {
+        // Файлы "0".."f" в корне совпали бы с каталогами шардов первого уровня, если бы те лежали в корне
+        List<String> legacy = new ArrayList<>();
+        for (char c : "0123456789abcdef".toCharArray()) {
+            Files.writeString(directory.resolve(String.valueOf(c)), "legacy " + c);
+            legacy.add(String.valueOf(c));
+        }
+        for (int i = 0; i < 64; i++) {
+            String name = service.storeStream("file-" + i, new ByteArrayInputStream(new byte[1]), 1).getName();
+            assertThat(service.getFile(name)).startsWith(directory.resolve(FileShardLayout.SHARDS_DIR));
+        }
+
+        assertThat(FileShardLayout.migrate(directory, false)).isEqualTo(legacy.size());
+        for (String name : legacy) {
+            assertThat(directory.resolve(name)).doesNotExist();
+            assertThat(Files.readString(service.getFile(name))).isEqualTo("legacy " + name);
+        }
+    }
+}
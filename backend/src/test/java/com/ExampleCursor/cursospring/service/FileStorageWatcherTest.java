@@ -0,0 +1,102 @@
+package com.ExampleCursor.cursospring.service;
+
+import com.ExampleCursor.cursospring.config.FileStorageProperties;
+import com.ExampleCursor.cursospring.dto.FileInfoDto;
+import com.ExampleCursor.cursospring.dto.FileInfoPageResponse;
+import com.ExampleCursor.cursospring.dto.FileQuery;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Индекс, построенный до startWatching, сверяется с диском на месте (так же, как после OVERFLOW
+ * WatchService): изменения в обход приложения подхватываются, а загрузки и удаления, идущие
+ * во время сверки, не теряются.
+ */
+class FileStorageWatcherTest {
+
+    private static final int FILES = 300;
+
+    @TempDir
+    Path directory;
+
+    private FileStorageService service;
+
+    @BeforeEach
+    void setUp() {
+        FileStorageProperties properties = new FileStorageProperties();
+        properties.setUploadDir(directory.toString());
+        service = new FileStorageService(properties);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        service.stopWatching();
+    }
+
+    @Test
+    void reconcileKeepsConcurrentUploadsAndDeletes() throws Exception {
+        List<String> stored = new ArrayList<>();
+        for (int i = 0; i < FILES; i++) {
+            stored.add(store("seed-" + i + ".txt"));
+        }
+        // Изменения в обход приложения, о которых индекс не знает
+        Files.writeString(directory.resolve("external.txt"), "external");
+        Files.delete(service.getFile(stored.getFirst()));
+
+        CompletableFuture<Void> writes = CompletableFuture.runAsync(() -> {
+            try {
+                for (int i = 0; i < FILES; i++) {
+                    store("during-" + i + ".txt");
+                    if (i % 2 == 1) {
+                        service.delete(stored.get(i));
+                    }
+                }
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        service.startWatching();
+        writes.join();
+
+        assertThat(listed()).containsExactlyInAnyOrderElementsOf(onDisk()).contains("external.txt")
+                .doesNotContain(stored.getFirst(), stored.get(1));
+    }
+
+    private String store(String name) throws IOException {
+        return service.storeStream(name, new ByteArrayInputStream(new byte[] {1, 2, 3}), 3).getName();
+    }
+
+    private List<String> listed() throws IOException {
+        List<String> names = new ArrayList<>();
+        String after = null;
+        FileInfoPageResponse page;
+        do {
+            page = service.findPage(FileQuery.builder().after(after).limit(1000).build());
+            page.getItems().stream().map(FileInfoDto::getName).forEach(names::add);
+            after = page.getNextCursor();
+        } while (page.isHasMore());
+        return names;
+    }
+
+    private List<String> onDisk() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            return files.filter(Files::isRegularFile)
+                    .filter(file -> !directory.relativize(file).startsWith(FileStorageService.INCOMING_DIR))
+                    .map(file -> file.getFileName().toString())
+                    .toList();
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.ExampleCursor.cursospring.service;
+
+import com.ExampleCursor.cursospring.config.FileStorageProperties;
+import com.ExampleCursor.cursospring.dto.FileInfoDto;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Загрузка файла: multipart (контейнер сначала пишет тело во временный файл, store() копирует его
+ * в каталог загрузок) против потоковой storeStream(). Меряются пропускная способность и байты,
+ * записанные процессом (wchar из /proc/self/io) на байт файла. Запуск: mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+class FileUploadBenchmarkTest {
+
+    private static final long FILE_SIZE = 256L * 1024 * 1024;
+    private static final int ROUNDS = 3;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void streamingWritesEachByteOnce() throws IOException {
+        FileStorageProperties properties = new FileStorageProperties();
+        properties.setUploadDir(directory.resolve("uploads").toString());
+        FileStorageService service = new FileStorageService(properties);
+        Path spool = Files.createDirectories(directory.resolve("spool"));
+
+        long spooledNanos = 0;
+        long spooledWritten = 0;
+        long streamedNanos = 0;
+        long streamedWritten = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            long written = writtenBytes();
+            long start = System.nanoTime();
+            Path part = spool.resolve("part-" + round);
+            Files.copy(new GeneratedInputStream(FILE_SIZE), part);
+            FileInfoDto spooled = service.store(new SpooledFile("spooled.bin", part));
+            Files.delete(part);
+            spooledNanos += System.nanoTime() - start;
+            spooledWritten += writtenBytes() - written;
+            assertThat(spooled.getSizeInBytes()).isEqualTo(FILE_SIZE);
+
+            written = writtenBytes();
+            start = System.nanoTime();
+            FileInfoDto streamed = service.storeStream("streamed.bin", new GeneratedInputStream(FILE_SIZE), FILE_SIZE);
+            streamedNanos += System.nanoTime() - start;
+            streamedWritten += writtenBytes() - written;
+            assertThat(streamed.getSizeInBytes()).isEqualTo(FILE_SIZE);
+            assertThat(streamed.getSha256()).hasSize(64);
+        }
+
+        double uploaded = (double) FILE_SIZE * ROUNDS;
+        System.out.printf("multipart (spool + copy): %.0f MB/s, %.2f bytes written per byte%n",
+                uploaded / 1024 / 1024 / (spooledNanos / 1e9), spooledWritten / uploaded);
+        System.out.printf("streaming (FileChannel + SHA-256): %.0f MB/s, %.2f bytes written per byte%n",
+                uploaded / 1024 / 1024 / (streamedNanos / 1e9), streamedWritten / uploaded);
+
+        if (spooledWritten > 0) {
+            assertThat(streamedWritten / uploaded).isLessThan(1.1);
+            assertThat(spooledWritten / uploaded).isGreaterThan(1.9);
+        }
+    }
+
+    /** Байты, переданные процессом в write-вызовы; 0, если /proc/self/io недоступен. */
+    private static long writtenBytes() throws IOException {
+        Path io = Path.of("/proc/self/io");
+        if (!Files.isReadable(io)) {
+            return 0;
+        }
+        return Files.readAllLines(io).stream()
+                .filter(line -> line.startsWith("wchar:"))
+                .mapToLong(line -> Long.parseLong(line.substring("wchar:".length()).trim()))
+                .findFirst()
+                .orElse(0);
+    }
+
+    /** Тело запроса заданного размера без чтения с диска. */
+    private static final class GeneratedInputStream extends InputStream {
+
+        private static final byte[] BLOCK = new byte[1024 * 1024];
+
+        static {
+            new Random(42).nextBytes(BLOCK);
+        }
+
+        private long remaining;
+
+        GeneratedInputStream(long size) {
+            this.remaining = size;
+        }
+
+        @Override
+        public int read() {
+            if (remaining == 0) {
+                return -1;
+            }
+            return BLOCK[(int) (--remaining % BLOCK.length)] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (remaining == 0) {
+                return -1;
+            }
+            int n = (int) Math.min(Math.min(len, remaining), BLOCK.length);
+            System.arraycopy(BLOCK, 0, b, off, n);
+            remaining -= n;
+            return n;
+        }
+    }
+
+    /** Как multipart-часть, которую контейнер уже сохранил во временный файл. */
+    private record SpooledFile(String name, Path path) implements MultipartFile {
+
+        @Override
+        public String getName() {
+            return "file";
+        }
+
+        @Override
+        public String getOriginalFilename() {
+            return name;
+        }
+
+        @Override
+        public String getContentType() {
+            return null;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return getSize() == 0;
+        }
+
+        @Override
+        public long getSize() {
+            try {
+                return Files.size(path);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public byte[] getBytes() throws IOException {
+            return Files.readAllBytes(path);
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return Files.newInputStream(path);
+        }
+
+        @Override
+        public void transferTo(File dest) throws IOException {
+            Files.copy(path, dest.toPath());
+        }
+    }
+}
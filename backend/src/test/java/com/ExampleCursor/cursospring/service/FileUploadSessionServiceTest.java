@@ -0,0 +1,143 @@
+package com.ExampleCursor.cursospring.service;
+
+import com.ExampleCursor.cursospring.config.FileStorageProperties;
+import com.ExampleCursor.cursospring.dto.FileInfoDto;
+import com.ExampleCursor.cursospring.dto.FileUploadSessionRequest;
+import com.ExampleCursor.cursospring.dto.FileUploadSessionResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FileUploadSessionServiceTest {
+
+    private static final String OWNER = "user";
+    private static final int CHUNK_SIZE = FileUploadSessionService.MIN_CHUNK_SIZE;
+
+    @TempDir
+    Path directory;
+
+    private FileStorageProperties properties;
+    private FileUploadSessionService service;
+
+    @BeforeEach
+    void setUp() {
+        properties = new FileStorageProperties();
+        properties.setUploadDir(directory.toString());
+        service = new FileUploadSessionService(new FileStorageService(properties), properties);
+    }
+
+    @Test
+    void assemblesChunksSentInParallelAndOutOfOrder() throws Exception {
+        byte[] content = new byte[CHUNK_SIZE * 7 + 123];
+        new Random(1).nextBytes(content);
+        FileUploadSessionResponse session = service.start(OWNER, request("big.bin", content.length));
+        assertThat(session.getChunkCount()).isEqualTo(8);
+
+        List<Integer> order = new ArrayList<>(session.getMissingChunks());
+        Collections.reverse(order);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int index : order.subList(0, 6)) {
+                futures.add(executor.submit(() -> sendChunk(session.getUploadId(), content, index)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(service.getStatus(OWNER, session.getUploadId()).getMissingChunks()).containsExactly(0, 1);
+        assertThatThrownBy(() -> service.complete(OWNER, session.getUploadId()))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        sendChunk(session.getUploadId(), content, 0);
+        sendChunk(session.getUploadId(), content, 1);
+        FileInfoDto file = service.complete(OWNER, session.getUploadId());
+
+        assertThat(Files.readAllBytes(FileShardLayout.resolve(directory, file.getName()))).isEqualTo(content);
+        assertThatThrownBy(() -> service.getStatus(OWNER, session.getUploadId()))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    void rejectsChunkWithWrongChecksumOrLength() throws IOException {
+        byte[] content = new byte[CHUNK_SIZE * 2];
+        FileUploadSessionResponse session = service.start(OWNER, request("a.bin", content.length));
+        byte[] chunk = Arrays.copyOf(content, CHUNK_SIZE);
+
+        assertThatThrownBy(() -> service.writeChunk(OWNER, session.getUploadId(), 0,
+                new ByteArrayInputStream(chunk), "00".repeat(32)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("checksum");
+        assertThatThrownBy(() -> service.writeChunk(OWNER, session.getUploadId(), 1,
+                new ByteArrayInputStream(chunk, 0, 10), null))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.getStatus("other", session.getUploadId()))
+                .isInstanceOf(ResourceNotFoundException.class);
+
+        FileUploadSessionResponse status = service.getStatus(OWNER, session.getUploadId());
+        assertThat(status.getMissingChunks()).containsExactly(0, 1);
+        assertThat(status.getReceivedBytes()).isZero();
+    }
+
+    @Test
+    void cleanUpRemovesAbandonedSessionsAndTheirFiles() throws IOException {
+        FileUploadSessionResponse session = service.start(OWNER, request("abandoned.bin", CHUNK_SIZE));
+        assertThat(incomingFiles()).hasSize(1);
+
+        properties.setUploadSessionTimeout(Duration.ZERO);
+        service.cleanUp();
+
+        assertThat(incomingFiles()).isEmpty();
+        assertThatThrownBy(() -> service.getStatus(OWNER, session.getUploadId()))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    private void sendChunk(String uploadId, byte[] content, int index) {
+        int from = index * CHUNK_SIZE;
+        int to = Math.min(content.length, from + CHUNK_SIZE);
+        try {
+            String sha256 = HexFormat.of().formatHex(
+                    MessageDigest.getInstance("SHA-256").digest(Arrays.copyOfRange(content, from, to)));
+            service.writeChunk(OWNER, uploadId, index, new ByteArrayInputStream(content, from, to - from), sha256);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private List<Path> incomingFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory.resolve(FileStorageService.INCOMING_DIR))) {
+            return files.toList();
+        }
+    }
+
+    private static FileUploadSessionRequest request(String fileName, long size) {
+        return FileUploadSessionRequest.builder()
+                .fileName(fileName)
+                .size(size)
+                .chunkSize(CHUNK_SIZE)
+                .build();
+    }
+}
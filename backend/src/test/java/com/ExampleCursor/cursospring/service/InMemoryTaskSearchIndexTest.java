@@ -0,0 +1,64 @@
+package com.ExampleCursor.cursospring.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryTaskSearchIndexTest {
+
+    private InMemoryTaskSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new InMemoryTaskSearchIndex();
+        index.index(1L, "Купить молоко", "И хлеб в магазине");
+        index.index(2L, "Изучить Spring Boot", "Пройти курс по Spring и сделать пет-проект");
+        index.index(3L, "Spring cleaning", null);
+    }
+
+    @Test
+    void findsTasksContainingAllTerms() {
+        assertThat(ids(index.search("spring boot", 0, 10))).containsExactly(2L);
+        assertThat(ids(index.search("SPRING", 0, 10))).containsExactlyInAnyOrder(2L, 3L);
+        assertThat(index.search("spring молоко", 0, 10)).isEmpty();
+    }
+
+    @Test
+    void ranksMoreFrequentTermsHigher() {
+        List<TaskSearchEngine.Hit> hits = index.search("spring", 0, 10);
+
+        assertThat(ids(hits)).containsExactly(2L, 3L);
+        assertThat(hits.get(0).score()).isGreaterThan(hits.get(1).score());
+    }
+
+    @Test
+    void reindexReplacesOldTermsAndRemoveDropsTask() {
+        index.index(1L, "Купить кефир", null);
+
+        assertThat(index.search("молоко", 0, 10)).isEmpty();
+        assertThat(ids(index.search("кефир", 0, 10))).containsExactly(1L);
+
+        index.remove(1L);
+
+        assertThat(index.search("кефир", 0, 10)).isEmpty();
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    @Test
+    void pagesThroughResults() {
+        for (long id = 10; id < 35; id++) {
+            index.index(id, "report " + id, null);
+        }
+
+        assertThat(index.search("report", 0, 10)).hasSize(10);
+        assertThat(index.search("report", 20, 10)).hasSize(5);
+        assertThat(index.search("report", 30, 10)).isEmpty();
+    }
+
+    private List<Long> ids(List<TaskSearchEngine.Hit> hits) {
+        return hits.stream().map(TaskSearchEngine.Hit::taskId).toList();
+    }
+}
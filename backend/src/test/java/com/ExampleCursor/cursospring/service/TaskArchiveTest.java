@@ -0,0 +1,69 @@
+package com.ExampleCursor.cursospring.service;
+
+import com.ExampleCursor.cursospring.dto.CreateTaskRequest;
+import com.ExampleCursor.cursospring.dto.TaskQuery;
+import com.ExampleCursor.cursospring.dto.TaskResponse;
+import com.ExampleCursor.cursospring.entity.Task;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Перенос выполненных задач в tasks_archive: пачками по batchSize, из рабочего списка и findById
+ * они пропадают, с includeArchived и через findByIdIncludingArchived — читаются, но только владельцем.
+ * Своя БД: archiveCompleted берёт выполненные задачи всех пользователей.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:task-archive;MODE=PostgreSQL;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("h2")
+class TaskArchiveTest {
+
+    private static final String OWNER = "archive";
+
+    @Autowired
+    private TaskService taskService;
+
+    @Test
+    void completedTasksMoveToArchiveAndStayReadable() {
+        TaskResponse open = create("open", false);
+        List<TaskResponse> done = List.of(create("done 1", true), create("done 2", true), create("done 3", true));
+        // В кэше до переноса — перенос должен его сбросить
+        assertThat(taskService.findById(OWNER, done.getFirst().getId()).getTitle()).isEqualTo("done 1");
+        assertThat(active(OWNER, false)).hasSize(4);
+
+        // Задачи, изменённые после cutoff, не трогаются
+        assertThat(taskService.archiveCompleted(done.getFirst().getUpdatedAt(), 2)).isZero();
+        assertThat(taskService.archiveCompleted(Task.now().plusSeconds(1), 2)).isEqualTo(2);
+        assertThat(taskService.archiveCompleted(Task.now().plusSeconds(1), 2)).isEqualTo(1);
+        assertThat(taskService.archiveCompleted(Task.now().plusSeconds(1), 2)).isZero();
+
+        assertThat(active(OWNER, false)).containsExactly(open.getId());
+        assertThat(active(OWNER, true)).containsExactly(
+                open.getId(), done.get(0).getId(), done.get(1).getId(), done.get(2).getId());
+        for (TaskResponse task : done) {
+            assertThatThrownBy(() -> taskService.findById(OWNER, task.getId()))
+                    .isInstanceOf(ResourceNotFoundException.class);
+            TaskResponse archived = taskService.findByIdIncludingArchived(OWNER, task.getId());
+            assertThat(archived.getTitle()).isEqualTo(task.getTitle());
+            assertThat(archived.getCompleted()).isTrue();
+            assertThat(archived.getVersion()).isEqualTo(task.getVersion());
+        }
+        assertThatThrownBy(() -> taskService.findByIdIncludingArchived("someone-else", done.getFirst().getId()))
+                .isInstanceOf(ResourceNotFoundException.class);
+        assertThat(active("someone-else", true)).isEmpty();
+    }
+
+    private TaskResponse create(String title, boolean completed) {
+        return taskService.create(OWNER, CreateTaskRequest.builder().title(title).completed(completed).build());
+    }
+
+    private List<Long> active(String owner, boolean includeArchived) {
+        return taskService.findPage(TaskQuery.builder().owner(owner).includeArchived(includeArchived).limit(100).build())
+                .getItems().stream().map(TaskResponse::getId).toList();
+    }
+}
@@ -0,0 +1,86 @@
+package com.ExampleCursor.cursospring.service;
+
+import com.ExampleCursor.cursospring.dto.TaskAttachmentPageResponse;
+import com.ExampleCursor.cursospring.dto.TaskBatchItemResult;
+import com.ExampleCursor.cursospring.dto.TaskBatchOperation;
+import com.ExampleCursor.cursospring.dto.TaskBatchOperationType;
+import com.ExampleCursor.cursospring.dto.TaskBatchRequest;
+import com.ExampleCursor.cursospring.dto.TaskQuery;
+import com.ExampleCursor.cursospring.dto.TaskWithAttachmentsResponse;
+import com.ExampleCursor.cursospring.entity.TaskAttachment;
+import com.ExampleCursor.cursospring.repository.TaskAttachmentRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Страница задач со вложениями: запрос страницы и один запрос вложений, сколько бы задач ни было на странице.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:attachments;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@ActiveProfiles("h2")
+class TaskAttachmentQueryCountTest {
+
+    private static final String OWNER = "attachments";
+    private static final int TASKS = 100;
+    private static final int ATTACHMENTS_PER_TASK = 3;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskAttachmentService taskAttachmentService;
+
+    @Autowired
+    private TaskAttachmentRepository taskAttachmentRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void statementCountDoesNotGrowWithPageSize() {
+        List<TaskBatchOperation> operations = new ArrayList<>();
+        for (int i = 0; i < TASKS; i++) {
+            operations.add(TaskBatchOperation.builder()
+                    .type(TaskBatchOperationType.CREATE)
+                    .title("task " + i)
+                    .build());
+        }
+        List<TaskAttachment> attachments = new ArrayList<>();
+        for (TaskBatchItemResult created : taskService.applyBatch(OWNER,
+                TaskBatchRequest.builder().operations(operations).build()).getResults()) {
+            for (int j = 0; j < ATTACHMENTS_PER_TASK; j++) {
+                attachments.add(TaskAttachment.builder()
+                        .taskId(created.getId())
+                        .owner(OWNER)
+                        .fileName("file-" + created.getId() + "-" + j + ".txt")
+                        .sizeInBytes(1024L)
+                        .build());
+            }
+        }
+        taskAttachmentRepository.saveAll(attachments);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        for (int limit : new int[] {1, 10, TASKS}) {
+            statistics.clear();
+            TaskAttachmentPageResponse page = taskAttachmentService.findPage(
+                    TaskQuery.builder().owner(OWNER).limit(limit).build());
+
+            assertThat(statistics.getPrepareStatementCount()).as("statements for limit %d", limit).isEqualTo(2);
+            assertThat(page.getItems()).hasSize(limit)
+                    .extracting(TaskWithAttachmentsResponse::getAttachments)
+                    .allSatisfy(summaries -> assertThat(summaries).hasSize(ATTACHMENTS_PER_TASK));
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.ExampleCursor.cursospring.service;
+
+import com.ExampleCursor.cursospring.dto.CreateTaskRequest;
+import com.ExampleCursor.cursospring.dto.TaskAttachmentResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.ByteArrayInputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Параллельное прикрепление одного файла к задаче: все запросы получают одно и то же вложение,
+ * ни один не падает на уникальном ключе (task_id, file_name).
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:attach;MODE=PostgreSQL;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("h2")
+class TaskAttachmentServiceTest {
+
+    private static final String OWNER = "attach";
+    private static final int THREADS = 8;
+
+    @TempDir
+    static Path directory;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskAttachmentService taskAttachmentService;
+
+    @Autowired
+    private FileStorageService fileStorageService;
+
+    @DynamicPropertySource
+    static void directories(DynamicPropertyRegistry registry) {
+        registry.add("app.file.upload-dir", () -> directory.resolve("uploads").toString());
+    }
+
+    @Test
+    void concurrentAttachesOfSameFileReturnOneAttachment() throws Exception {
+        Long taskId = taskService.create(OWNER, CreateTaskRequest.builder().title("with file").build()).getId();
+        String fileName = fileStorageService.storeStream("notes.txt", new ByteArrayInputStream(new byte[42]), 42).getName();
+
+        CyclicBarrier start = new CyclicBarrier(THREADS);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<TaskAttachmentResponse>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return taskAttachmentService.attach(OWNER, taskId, fileName);
+                }));
+            }
+            List<Long> ids = new ArrayList<>();
+            for (Future<TaskAttachmentResponse> future : futures) {
+                TaskAttachmentResponse attachment = future.get();
+                assertThat(attachment.getSizeInBytes()).isEqualTo(42);
+                ids.add(attachment.getId());
+            }
+            assertThat(ids).containsOnly(ids.getFirst());
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(taskAttachmentService.findByTask(OWNER, taskId))
+                .extracting(TaskAttachmentResponse::getFileName)
+                .containsExactly(fileName);
+        assertThat(taskAttachmentService.attach(OWNER, taskId, fileName).getId())
+                .isEqualTo(taskAttachmentService.findByTask(OWNER, taskId).getFirst().getId());
+    }
+}
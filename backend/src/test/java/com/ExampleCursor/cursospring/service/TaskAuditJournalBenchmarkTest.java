@@ -0,0 +1,75 @@
+package com.ExampleCursor.cursospring.service;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Стоимость записи в журнал аудита для потока коммита: append в отображённый сегмент при фоновом
+ * flush раз в 200 мс (с переходами между сегментами) против записи в файл с fsync на каждую запись.
+ * Запись ~500 байт — как JSON изменения задачи с состояниями до и после. Запуск: mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+class TaskAuditJournalBenchmarkTest {
+
+    private static final int RECORD_SIZE = 500;
+    private static final int APPENDS = 500_000;
+    private static final int FSYNC_WRITES = 2_000;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void mappedAppendCostsMicroseconds() throws Exception {
+        byte[] payload = new byte[RECORD_SIZE];
+        Arrays.fill(payload, (byte) 'x');
+        long[] latencies = new long[APPENDS];
+
+        ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor();
+        try (TaskAuditJournal journal = new TaskAuditJournal(directory.resolve("mapped"), 16 * 1024 * 1024)) {
+            flusher.scheduleWithFixedDelay(journal::flush, 200, 200, TimeUnit.MILLISECONDS);
+            for (int i = 0; i < APPENDS; i++) {
+                long start = System.nanoTime();
+                journal.append(payload);
+                latencies[i] = System.nanoTime() - start;
+            }
+        } finally {
+            flusher.shutdownNow();
+        }
+        Arrays.sort(latencies);
+        double mappedMean = Arrays.stream(latencies).average().orElseThrow();
+        double fsyncMean = measureFsyncPerWrite(payload);
+
+        System.out.printf("mapped append: mean %.0f ns, p50 %d ns, p99 %d ns, p99.9 %d ns, max %d us%n",
+                mappedMean, latencies[APPENDS / 2], latencies[APPENDS * 99 / 100], latencies[APPENDS * 999 / 1000],
+                latencies[APPENDS - 1] / 1000);
+        System.out.printf("write + fsync per record: mean %.0f ns%n", fsyncMean);
+
+        assertThat(latencies[APPENDS * 99 / 100]).isLessThan(TimeUnit.MICROSECONDS.toNanos(100));
+        assertThat(mappedMean * 10).isLessThan(fsyncMean);
+    }
+
+    private double measureFsyncPerWrite(byte[] payload) throws IOException {
+        try (FileChannel channel = FileChannel.open(directory.resolve("fsync.log"),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            long start = System.nanoTime();
+            for (int i = 0; i < FSYNC_WRITES; i++) {
+                channel.write(ByteBuffer.wrap(payload));
+                channel.force(false);
+            }
+            return (double) (System.nanoTime() - start) / FSYNC_WRITES;
+        }
+    }
+}
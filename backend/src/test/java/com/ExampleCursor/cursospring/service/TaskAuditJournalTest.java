@@ -0,0 +1,179 @@
+package com.ExampleCursor.cursospring.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TaskAuditJournalTest {
+
+    private static final int SEGMENT_SIZE = 4096;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void rotatesSegmentsAndReadsFromAnySequence() throws IOException {
+        try (TaskAuditJournal journal = new TaskAuditJournal(directory, SEGMENT_SIZE)) {
+            for (int i = 1; i <= 100; i++) {
+                assertThat(journal.append(payload("entry-" + i + "-" + "x".repeat(50)))).isEqualTo(i);
+                if (i % 10 == 0) {
+                    journal.flush();
+                }
+            }
+        }
+
+        assertThat(segmentCount()).isGreaterThan(2);
+        assertThat(readAll(0)).hasSize(100).first().asString().startsWith("1:entry-1-");
+        assertThat(readAll(57)).hasSize(43).first().asString().startsWith("58:entry-58-");
+        assertThat(readAll(100)).isEmpty();
+    }
+
+    @Test
+    void readsOpenJournalWithScanLimit() throws IOException {
+        try (TaskAuditJournal journal = new TaskAuditJournal(directory, SEGMENT_SIZE)) {
+            for (int i = 1; i <= 60; i++) {
+                journal.append(payload("entry-" + i + "-" + "x".repeat(50)));
+            }
+        }
+        // Сегменты, восстановленные при открытии, читаются так же, как записанные в этом запуске
+        try (TaskAuditJournal journal = new TaskAuditJournal(directory, SEGMENT_SIZE)) {
+            for (int i = 61; i <= 100; i++) {
+                journal.append(payload("entry-" + i + "-" + "x".repeat(50)));
+            }
+            List<Long> seen = new ArrayList<>();
+            assertThat(journal.read(57, 20, (seq, payload) -> seen.add(seq))).isEqualTo(77);
+            assertThat(seen).hasSize(20).startsWith(58L);
+            // visitor останавливает чтение на своей записи
+            assertThat(journal.read(0, 1000, (seq, payload) -> seq < 5)).isEqualTo(5);
+            assertThat(journal.read(99, 1000, (seq, payload) -> true)).isEqualTo(100);
+            assertThat(journal.read(100, 1000, (seq, payload) -> true)).isEqualTo(100);
+        }
+    }
+
+    @Test
+    void reopenContinuesAfterLastIntactRecord() throws IOException {
+        try (TaskAuditJournal journal = new TaskAuditJournal(directory, SEGMENT_SIZE)) {
+            journal.append(payload("first"));
+            journal.append(payload("second"));
+        }
+        // Оборванная при сбое вторая запись: payload не совпадает с CRC
+        Path segment = directory.resolve("00000001.journal");
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            int second = TaskAuditJournal.SEGMENT_HEADER + TaskAuditJournal.RECORD_HEADER + "first".length();
+            channel.write(ByteBuffer.wrap(new byte[] {'X'}), second + TaskAuditJournal.RECORD_HEADER);
+        }
+
+        try (TaskAuditJournal journal = new TaskAuditJournal(directory, SEGMENT_SIZE)) {
+            assertThat(journal.lastSequence()).isEqualTo(1);
+            assertThat(journal.append(payload("third"))).isEqualTo(2);
+        }
+        assertThat(readAll(0)).containsExactly("1:first", "2:third");
+    }
+
+    @Test
+    void allowsOneWriterPerDirectory() throws IOException {
+        try (TaskAuditJournal ignored = new TaskAuditJournal(directory, SEGMENT_SIZE)) {
+            assertThatThrownBy(() -> new TaskAuditJournal(directory, SEGMENT_SIZE))
+                    .isInstanceOf(IllegalStateException.class);
+        }
+        // После close каталог снова можно открыть в том же процессе (следующий контекст Spring)
+        try (TaskAuditJournal journal = new TaskAuditJournal(directory, SEGMENT_SIZE)) {
+            journal.close();
+        }
+    }
+
+    @Test
+    void dropsSegmentsLeftIncompleteByCrashDuringAllocation() throws IOException {
+        try (TaskAuditJournal journal = new TaskAuditJournal(directory, SEGMENT_SIZE)) {
+            journal.append(payload("first"));
+        }
+        // Сбой при создании сегментов: пустой файл, файл без MAGIC и недописанный временный
+        Files.deleteIfExists(directory.resolve("00000002.journal"));
+        Files.createFile(directory.resolve("00000002.journal"));
+        Files.write(directory.resolve("00000003.journal"), new byte[SEGMENT_SIZE / 2]);
+        Files.write(directory.resolve("00000004.journal.tmp"), new byte[100]);
+
+        try (TaskAuditJournal journal = new TaskAuditJournal(directory, SEGMENT_SIZE)) {
+            assertThat(journal.lastSequence()).isEqualTo(1);
+            for (int i = 2; i <= 100; i++) {
+                assertThat(journal.append(payload("entry-" + i + "-" + "x".repeat(50)))).isEqualTo(i);
+                if (i % 10 == 0) {
+                    journal.flush();
+                }
+            }
+        }
+        assertThat(readAll(0)).hasSize(100).first().isEqualTo("1:first");
+        try (Stream<Path> files = Files.list(directory)) {
+            assertThat(files.map(file -> file.getFileName().toString()))
+                    .noneMatch(name -> name.endsWith(".tmp"))
+                    .allMatch(name -> name.equals(".lock") || sizeOf(directory.resolve(name)) == SEGMENT_SIZE);
+        }
+    }
+
+    @Test
+    void refusesToOpenDamagedSegmentBeforeRecords() throws IOException {
+        try (TaskAuditJournal journal = new TaskAuditJournal(directory, SEGMENT_SIZE)) {
+            for (int i = 1; i <= 100; i++) {
+                journal.append(payload("entry-" + i + "-" + "x".repeat(50)));
+            }
+        }
+        Files.write(directory.resolve("00000001.journal"), new byte[0]);
+
+        assertThatThrownBy(() -> new TaskAuditJournal(directory, SEGMENT_SIZE))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("00000001.journal");
+    }
+
+    @Test
+    void releasesLockWhenRecoveryFails() throws IOException {
+        Path broken = Files.createFile(directory.resolve("broken.journal"));
+        assertThatThrownBy(() -> new TaskAuditJournal(directory, SEGMENT_SIZE))
+                .isInstanceOf(NumberFormatException.class);
+
+        Files.delete(broken);
+        try (TaskAuditJournal journal = new TaskAuditJournal(directory, SEGMENT_SIZE)) {
+            assertThat(journal.append(payload("first"))).isEqualTo(1);
+        }
+    }
+
+    private List<String> readAll(long after) throws IOException {
+        List<String> entries = new ArrayList<>();
+        TaskAuditJournal.read(directory, after, (seq, payload) -> {
+            entries.add(seq + ":" + StandardCharsets.UTF_8.decode(payload));
+            return true;
+        });
+        return entries;
+    }
+
+    private long segmentCount() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.toString().endsWith(".journal")).count();
+        }
+    }
+
+    private static long sizeOf(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] payload(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+}
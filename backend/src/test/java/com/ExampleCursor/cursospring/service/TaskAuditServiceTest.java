@@ -0,0 +1,109 @@
+package com.ExampleCursor.cursospring.service;
+
+import com.ExampleCursor.cursospring.config.TaskAuditProperties;
+import com.ExampleCursor.cursospring.dto.TaskAuditEntry;
+import com.ExampleCursor.cursospring.dto.TaskAuditPageResponse;
+import com.ExampleCursor.cursospring.dto.TaskResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class TaskAuditServiceTest {
+
+    @TempDir
+    Path directory;
+
+    private final TaskAuditProperties properties = new TaskAuditProperties();
+    private TaskAuditService service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        properties.setDirectory(directory.toString());
+        properties.setSegmentSize(DataSize.ofKilobytes(64));
+        service = new TaskAuditService(properties, JsonMapper.builder().build());
+        service.open();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        service.close();
+    }
+
+    @Test
+    void ownerReadsOnlyEntriesAboutOwnTasks() {
+        TaskResponse aliceTask = task(1L, "alice", "alice's secret");
+        TaskResponse bobTask = task(2L, "bob", "bob's task");
+        service.onTaskChanged(TaskChangedEvent.created(aliceTask));
+        service.onTaskChanged(TaskChangedEvent.created(bobTask));
+        service.onTaskChanged(TaskChangedEvent.deleted(aliceTask));
+        service.onTasksImported(new TasksImportedEvent("alice", 10));
+        service.onTaskChanged(TaskChangedEvent.updated(bobTask, task(2L, "bob", "bob's task, renamed")));
+        service.flush();
+
+        assertThat(service.read("bob", 0, 100).getItems())
+                .extracting(TaskAuditEntry::getSeq, TaskAuditEntry::getType, TaskAuditEntry::getTaskId)
+                .containsExactly(tuple(2L, "CREATED", 2L), tuple(5L, "UPDATED", 2L));
+        assertThat(service.read("alice", 0, 100).getItems())
+                .extracting(TaskAuditEntry::getType)
+                .containsExactly("CREATED", "DELETED", TaskAuditService.IMPORTED);
+        // Порция limit считается по своим записям, продолжение — после seq последней полученной
+        assertThat(service.read("alice", 0, 1).getItems()).extracting(TaskAuditEntry::getSeq).containsExactly(1L);
+        assertThat(service.read("alice", 1, 1).getItems()).extracting(TaskAuditEntry::getSeq).containsExactly(3L);
+        assertThat(service.read("carol", 0, 100).getItems()).isEmpty();
+    }
+
+    @Test
+    void scanIsCappedAndContinuesAfterSkippedEntries() {
+        properties.setMaxScanRecords(10);
+        service.onTaskChanged(TaskChangedEvent.created(task(1L, "alice", "first")));
+        for (long id = 2; id <= 25; id++) {
+            service.onTaskChanged(TaskChangedEvent.created(task(id, "bob", "bob's task " + id)));
+        }
+        service.onTaskChanged(TaskChangedEvent.created(task(26L, "alice", "last")));
+
+        TaskAuditPageResponse first = service.read("alice", 0, 100);
+        assertThat(first.getItems()).extracting(TaskAuditEntry::getSeq).containsExactly(1L);
+        assertThat(first.getNextAfter()).isEqualTo(10);
+        assertThat(first.isHasMore()).isTrue();
+
+        // Порция только из чужих записей: пустая, но продвигает nextAfter
+        TaskAuditPageResponse second = service.read("alice", first.getNextAfter(), 100);
+        assertThat(second.getItems()).isEmpty();
+        assertThat(second.getNextAfter()).isEqualTo(20);
+
+        TaskAuditPageResponse third = service.read("alice", second.getNextAfter(), 100);
+        assertThat(third.getItems()).extracting(TaskAuditEntry::getTaskId).containsExactly(26L);
+        assertThat(third.getNextAfter()).isEqualTo(26);
+        assertThat(third.isHasMore()).isFalse();
+        assertThat(service.read("alice", 26, 100).getItems()).isEmpty();
+    }
+
+    @Test
+    void readsAcrossRotatedSegments() {
+        // Сегменты по 64 КБ: 400 записей по ~400 байт займут несколько
+        for (long id = 1; id <= 400; id++) {
+            service.onTaskChanged(TaskChangedEvent.created(task(id, id % 2 == 0 ? "alice" : "bob", "x".repeat(300))));
+            if (id % 50 == 0) {
+                service.flush();
+            }
+        }
+        assertThat(directory.toFile().list((dir, name) -> name.endsWith(".journal"))).hasSizeGreaterThan(2);
+
+        assertThat(service.read("alice", 0, 1000).getItems()).hasSize(200);
+        assertThat(service.read("bob", 300, 1000).getItems())
+                .extracting(TaskAuditEntry::getSeq).startsWith(301L, 303L).hasSize(50);
+    }
+
+    private static TaskResponse task(Long id, String owner, String title) {
+        return TaskResponse.builder().id(id).owner(owner).title(title).completed(false).version(0L).build();
+    }
+}
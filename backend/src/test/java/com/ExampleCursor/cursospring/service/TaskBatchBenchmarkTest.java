@@ -0,0 +1,82 @@
+package com.ExampleCursor.cursospring.service;
+
+import com.ExampleCursor.cursospring.dto.CreateTaskRequest;
+import com.ExampleCursor.cursospring.dto.TaskBatchOperation;
+import com.ExampleCursor.cursospring.dto.TaskBatchOperationType;
+import com.ExampleCursor.cursospring.dto.TaskBatchRequest;
+import com.ExampleCursor.cursospring.dto.TaskBatchResponse;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Сравнение числа SQL-запросов: N отдельных create() против одного пакета из N операций.
+ * Запуск: mvn test -Pbenchmark
+ */
+@SpringBootTest
+@ActiveProfiles("benchmark")
+@Tag("benchmark")
+class TaskBatchBenchmarkTest {
+
+    private static final String OWNER = "benchmark";
+    private static final int TASKS = 1000;
+    private static final int BATCH_SIZE = 50;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void batchCreateUsesAboutOneStatementPerBatch() {
+        long start = System.nanoTime();
+        for (int i = 0; i < TASKS; i++) {
+            taskService.create(OWNER, CreateTaskRequest.builder().title("single " + i).build());
+        }
+        long singleMs = (System.nanoTime() - start) / 1_000_000;
+        long singleStatements = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        List<TaskBatchOperation> operations = new ArrayList<>();
+        for (int i = 0; i < TASKS; i++) {
+            operations.add(TaskBatchOperation.builder()
+                    .type(TaskBatchOperationType.CREATE)
+                    .title("batch " + i)
+                    .build());
+        }
+        start = System.nanoTime();
+        TaskBatchResponse response = taskService.applyBatch(OWNER, TaskBatchRequest.builder().operations(operations).build());
+        long batchMs = (System.nanoTime() - start) / 1_000_000;
+        long batchStatements = statistics.getPrepareStatementCount();
+
+        System.out.printf("single create: %d tasks, %d statements (%.3f per task), %d ms%n",
+                TASKS, singleStatements, (double) singleStatements / TASKS, singleMs);
+        System.out.printf("batch create:  %d tasks, %d statements (%.3f per task), %d ms%n",
+                TASKS, batchStatements, (double) batchStatements / TASKS, batchMs);
+
+        assertThat(response.getFailed()).isZero();
+        assertThat(singleStatements).isGreaterThanOrEqualTo(TASKS);
+        // INSERT-батчи + nextval на каждые allocationSize id
+        assertThat(batchStatements).isLessThanOrEqualTo(2L * TASKS / BATCH_SIZE + 2);
+    }
+}
@@ -0,0 +1,86 @@
+package com.ExampleCursor.cursospring.service;
+
+import com.ExampleCursor.cursospring.dto.CreateTaskRequest;
+import com.ExampleCursor.cursospring.dto.TaskResponse;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Нагрузочный тест создания задач: транзакция на каждую задачу против группового коммита.
+ * Выигрыш даёт экономия fsync WAL, поэтому нужен настоящий PostgreSQL (H2 в памяти не пишет на диск):
+ * BENCHMARK_PG_URL (+ BENCHMARK_PG_USER / BENCHMARK_PG_PASSWORD), схема создаётся и удаляется.
+ * Запуск: BENCHMARK_PG_URL=jdbc:postgresql://localhost:5432/scratch mvn test -Pbenchmark
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=${BENCHMARK_PG_URL}",
+        "spring.datasource.driver-class-name=org.postgresql.Driver",
+        "spring.datasource.username=${BENCHMARK_PG_USER:postgres}",
+        "spring.datasource.password=${BENCHMARK_PG_PASSWORD:}",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQLDialect",
+        "app.group-commit.enabled=true",
+        "logging.level.com.ExampleCursor.cursospring.service.TaskService=WARN"
+})
+@ActiveProfiles("benchmark")
+@EnabledIfEnvironmentVariable(named = "BENCHMARK_PG_URL", matches = ".+")
+@Tag("benchmark")
+class TaskGroupCommitBenchmarkTest {
+
+    private static final String OWNER = "benchmark";
+    private static final int CREATES = 10_000;
+    private static final int CLIENTS = 64;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskGroupCommitService taskGroupCommitService;
+
+    @Test
+    void groupCommitCreatesMoreTasksPerSecond() throws Exception {
+        measure("warm-up     ", request -> taskService.create(OWNER, request), 1_000);
+        double single = measure("per-request ", request -> taskService.create(OWNER, request), CREATES);
+        double grouped = measure("group commit", request -> taskGroupCommitService.create(OWNER, request).join(), CREATES);
+
+        assertThat(grouped).isGreaterThan(single);
+    }
+
+    private double measure(String label, Function<CreateTaskRequest, TaskResponse> create, int creates) throws Exception {
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        try {
+            long start = System.nanoTime();
+            List<Future<?>> futures = new ArrayList<>();
+            for (int c = 0; c < CLIENTS; c++) {
+                int offset = c;
+                futures.add(clients.submit(() -> {
+                    for (int i = offset; i < creates; i += CLIENTS) {
+                        TaskResponse task = create.apply(CreateTaskRequest.builder().title(label + " " + i).build());
+                        assertThat(task.getId()).isNotNull();
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            double perSecond = creates / seconds;
+            System.out.printf("%s: %d creates from %d clients in %.2f s, %.0f creates/s%n",
+                    label, creates, CLIENTS, seconds, perSecond);
+            return perSecond;
+        } finally {
+            clients.shutdown();
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.ExampleCursor.cursospring.service;
+
+import com.ExampleCursor.cursospring.config.TaskGroupCommitProperties;
+import com.ExampleCursor.cursospring.dto.CreateTaskRequest;
+import com.ExampleCursor.cursospring.dto.TaskResponse;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TaskGroupCommitServiceTest {
+
+    @Test
+    void stopRejectsRequestsTheWriterDidNotReach() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        TaskService taskService = mock(TaskService.class);
+        when(taskService.createAll(anyList())).thenAnswer(invocation -> {
+            writing.countDown();
+            release.await();
+            List<TaskService.NewTask> batch = invocation.getArgument(0);
+            return batch.stream()
+                    .map(task -> TaskResponse.builder().owner(task.owner()).title(task.request().getTitle()).build())
+                    .toList();
+        });
+        TaskGroupCommitProperties properties = new TaskGroupCommitProperties();
+        properties.setEnabled(true);
+        properties.setMaxDelay(Duration.ZERO);
+        properties.setStopTimeout(Duration.ofMillis(200));
+        TaskGroupCommitService service = new TaskGroupCommitService(taskService, properties);
+        service.start();
+
+        // Писатель завис на первой пачке, следующие запросы ждут в очереди
+        CompletableFuture<TaskResponse> written = service.create("owner", request("first"));
+        assertThat(writing.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<TaskResponse> queued1 = service.create("owner", request("second"));
+        CompletableFuture<TaskResponse> queued2 = service.create("owner", request("third"));
+
+        service.stop();
+
+        assertThat(service.queuedCount()).isZero();
+        for (CompletableFuture<TaskResponse> queued : List.of(queued1, queued2)) {
+            assertThatThrownBy(() -> queued.get(0, TimeUnit.SECONDS))
+                    .hasCauseInstanceOf(TaskQueueFullException.class);
+        }
+        assertThatThrownBy(() -> service.create("owner", request("late")))
+                .isInstanceOf(TaskQueueFullException.class);
+
+        release.countDown();
+        assertThat(written.get(5, TimeUnit.SECONDS).getTitle()).isEqualTo("first");
+    }
+
+    @Test
+    void failingRowFailsOnlyItsOwnRequest() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        TaskService taskService = mock(TaskService.class);
+        when(taskService.createAll(anyList())).thenAnswer(invocation -> {
+            writing.countDown();
+            release.await();
+            List<TaskService.NewTask> batch = invocation.getArgument(0);
+            if (batch.stream().anyMatch(task -> task.request().getTitle().equals("bad"))) {
+                throw new DataIntegrityViolationException("value too long");
+            }
+            return batch.stream()
+                    .map(task -> TaskResponse.builder().owner(task.owner()).title(task.request().getTitle()).build())
+                    .toList();
+        });
+        TaskGroupCommitProperties properties = new TaskGroupCommitProperties();
+        properties.setEnabled(true);
+        properties.setMaxDelay(Duration.ZERO);
+        TaskGroupCommitService service = new TaskGroupCommitService(taskService, properties);
+        service.start();
+        try {
+            // Первая пачка держит писателя, остальные запросы уходят одной пачкой с плохой строкой в середине
+            CompletableFuture<TaskResponse> first = service.create("owner", request("first"));
+            assertThat(writing.await(5, TimeUnit.SECONDS)).isTrue();
+            List<CompletableFuture<TaskResponse>> batch = new ArrayList<>();
+            for (String title : List.of("a", "b", "c", "bad", "d", "e", "f")) {
+                batch.add(service.create("owner", request(title)));
+            }
+            release.countDown();
+
+            assertThat(first.get(5, TimeUnit.SECONDS).getTitle()).isEqualTo("first");
+            assertThatThrownBy(() -> batch.get(3).get(5, TimeUnit.SECONDS))
+                    .hasCauseInstanceOf(DataIntegrityViolationException.class);
+            assertThat(batch).extracting(result -> result.isCompletedExceptionally() ? null : result.join().getTitle())
+                    .containsExactly("a", "b", "c", null, "d", "e", "f");
+        } finally {
+            service.stop();
+        }
+    }
+
+    @Test
+    void connectionFailureFailsWholeBatchWithoutRetries() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        TaskService taskService = mock(TaskService.class);
+        when(taskService.createAll(anyList())).thenAnswer(invocation -> {
+            writing.countDown();
+            release.await();
+            if (invocation.<List<?>>getArgument(0).size() > 1) {
+                throw new CannotCreateTransactionException("database is down");
+            }
+            return List.of(TaskResponse.builder().title("first").build());
+        });
+        TaskGroupCommitProperties properties = new TaskGroupCommitProperties();
+        properties.setEnabled(true);
+        properties.setMaxDelay(Duration.ZERO);
+        TaskGroupCommitService service = new TaskGroupCommitService(taskService, properties);
+        service.start();
+        try {
+            service.create("owner", request("first"));
+            assertThat(writing.await(5, TimeUnit.SECONDS)).isTrue();
+            List<CompletableFuture<TaskResponse>> batch = List.of(
+                    service.create("owner", request("a")), service.create("owner", request("b")));
+            release.countDown();
+
+            for (CompletableFuture<TaskResponse> result : batch) {
+                assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS))
+                        .hasCauseInstanceOf(CannotCreateTransactionException.class);
+            }
+            verify(taskService, times(2)).createAll(anyList());
+        } finally {
+            service.stop();
+        }
+    }
+
+    private static CreateTaskRequest request(String title) {
+        return CreateTaskRequest.builder().title(title).build();
+    }
+}
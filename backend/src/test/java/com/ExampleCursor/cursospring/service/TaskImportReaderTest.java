@@ -0,0 +1,53 @@
+package com.ExampleCursor.cursospring.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TaskImportReaderTest {
+
+    @Test
+    void readsQuotedCsvFieldsAcrossLines() throws IOException {
+        TaskImportReader reader = new TaskImportReader(new StringReader(
+                "\uFEFFtitle,description\r\n\"a, b\",\"multi\nline \"\"quoted\"\"\"\r\nc,\n"), 1000);
+
+        TaskImportReader.Record header = reader.readCsvRecord();
+        TaskImportReader.Record first = reader.readCsvRecord();
+        TaskImportReader.Record second = reader.readCsvRecord();
+
+        assertThat(header.fields()).containsExactly("title", "description");
+        assertThat(first.line()).isEqualTo(2);
+        assertThat(first.fields()).containsExactly("a, b", "multi\nline \"quoted\"");
+        assertThat(second.line()).isEqualTo(4);
+        assertThat(second.fields()).containsExactly("c", "");
+        assertThat(reader.readCsvRecord()).isNull();
+    }
+
+    @Test
+    void reportsUnterminatedQuoteAndOverlongRecords() throws IOException {
+        TaskImportReader reader = new TaskImportReader(new StringReader("0123456789\n\"open,\nrest"), 5);
+
+        TaskImportReader.Record overlong = reader.readCsvRecord();
+        TaskImportReader.Record unterminated = reader.readCsvRecord();
+
+        assertThat(overlong.error()).isEqualTo("Record exceeds 5 characters");
+        assertThat(overlong.fields()).containsExactly("01234");
+        assertThat(unterminated.line()).isEqualTo(2);
+        assertThat(unterminated.error()).isEqualTo("Unterminated quoted field");
+        assertThat(reader.readCsvRecord()).isNull();
+    }
+
+    @Test
+    void readsLinesWithoutLineTerminators() throws IOException {
+        TaskImportReader reader = new TaskImportReader(new StringReader("{\"a\":1}\r\n\n{\"b\":2}"), 100);
+
+        assertThat(List.of(reader.readLine(), reader.readLine(), reader.readLine()))
+                .extracting(record -> record.fields().getFirst())
+                .containsExactly("{\"a\":1}", "", "{\"b\":2}");
+        assertThat(reader.readLine()).isNull();
+    }
+}
@@ -0,0 +1,135 @@
+package com.ExampleCursor.cursospring.service;
+
+import com.ExampleCursor.cursospring.dto.CreateTaskRequest;
+import com.ExampleCursor.cursospring.dto.TaskBatchItemResult;
+import com.ExampleCursor.cursospring.dto.TaskBatchOperation;
+import com.ExampleCursor.cursospring.dto.TaskBatchOperationType;
+import com.ExampleCursor.cursospring.dto.TaskBatchRequest;
+import com.ExampleCursor.cursospring.dto.TaskExportFormat;
+import com.ExampleCursor.cursospring.dto.TaskImportResponse;
+import com.ExampleCursor.cursospring.dto.TaskPageResponse;
+import com.ExampleCursor.cursospring.dto.TaskQuery;
+import com.ExampleCursor.cursospring.dto.TaskResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Импорт через COPY: id из tasks_id_seq не пересекаются с id, которые Hibernate выдаёт блоками из той же
+ * последовательности, а повторная загрузка того же файла добавляет те же задачи под новыми id, не трогая
+ * прежние, в том числе когда загрузка переносится в tasks несколькими частями. COPY и nextval есть только
+ * в PostgreSQL (на H2 TaskBulkImportRepository отказывает), поэтому тест, как и бенчмарки записи, работает
+ * с настоящей БД из BENCHMARK_PG_URL (+ BENCHMARK_PG_USER / BENCHMARK_PG_PASSWORD); схема создаётся и удаляется (create-drop) — указывайте пустую БД.
+ * Запуск: BENCHMARK_PG_URL=jdbc:postgresql://localhost:5432/scratch mvn test -Dtest=TaskImportServiceTest
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=${BENCHMARK_PG_URL}",
+        "spring.datasource.driver-class-name=org.postgresql.Driver",
+        "spring.datasource.username=${BENCHMARK_PG_USER:postgres}",
+        "spring.datasource.password=${BENCHMARK_PG_PASSWORD:}",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false",
+        "app.search.engine=memory",
+        "app.reminders.enabled=false",
+        "app.archive.enabled=false",
+        "app.audit.enabled=false",
+        "app.import.merge-chunk-size=" + TaskImportServiceTest.CHUNK
+})
+@EnabledIfEnvironmentVariable(named = "BENCHMARK_PG_URL", matches = ".+")
+class TaskImportServiceTest {
+
+    private static final String OWNER = "import";
+    /** Больше двух блоков по 50 id: загрузка берёт несколько nextval. */
+    private static final int ROWS = 120;
+    /** Загрузка переносится в tasks тремя частями. */
+    static final int CHUNK = 50;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskImportService taskImportService;
+
+    @Test
+    void importedIdsDoNotCollideAndReimportAddsSameTasks() {
+        List<Long> created = new ArrayList<>();
+        created.add(create("before"));
+        byte[] file = csv();
+
+        TaskImportResponse first = taskImportService.importTasks(OWNER, TaskExportFormat.CSV, new ByteArrayInputStream(file));
+        // Hibernate дописывает свой блок, затем берёт новые — после блоков загрузки
+        for (int i = 0; i < 60; i++) {
+            created.add(create("after " + i));
+        }
+        TaskImportResponse second = taskImportService.importTasks(OWNER, TaskExportFormat.CSV, new ByteArrayInputStream(file));
+        created.addAll(taskService.applyBatch(OWNER, TaskBatchRequest.builder()
+                        .operations(List.of(TaskBatchOperation.builder().type(TaskBatchOperationType.CREATE).title("batch").build()))
+                        .build())
+                .getResults().stream().map(TaskBatchItemResult::getId).toList());
+
+        assertThat(first.getImported()).isEqualTo(ROWS);
+        assertThat(second.getImported()).isEqualTo(ROWS);
+        assertThat(first.getFailed()).isZero();
+        assertThat(second.getFailed()).isZero();
+
+        List<TaskResponse> all = findAll();
+        assertThat(all).extracting(TaskResponse::getId).doesNotHaveDuplicates().containsAll(created);
+        assertThat(all).hasSize(created.size() + 2 * ROWS);
+
+        // Каждая строка файла — ровно две задачи (по одной на загрузку), id идут в порядке строк
+        Map<String, List<TaskResponse>> imported = all.stream()
+                .filter(task -> task.getTitle().startsWith("imported "))
+                .collect(Collectors.groupingBy(TaskResponse::getTitle));
+        assertThat(imported).hasSize(ROWS);
+        assertThat(imported.values()).allSatisfy(copies -> {
+            assertThat(copies).hasSize(2);
+            assertThat(copies.get(0).getDescription()).isEqualTo(copies.get(1).getDescription());
+        });
+        List<Long> firstImport = all.stream().filter(task -> task.getTitle().startsWith("imported "))
+                .map(TaskResponse::getId).sorted().limit(ROWS).toList();
+        assertThat(firstImport).extracting(id -> taskService.findById(OWNER, id).getTitle())
+                .isEqualTo(titles());
+    }
+
+    private Long create(String title) {
+        return taskService.create(OWNER, CreateTaskRequest.builder().title(title).build()).getId();
+    }
+
+    private List<TaskResponse> findAll() {
+        List<TaskResponse> tasks = new ArrayList<>();
+        String after = null;
+        TaskPageResponse page;
+        do {
+            page = taskService.findPage(TaskQuery.builder().owner(OWNER).after(after).limit(50).build());
+            tasks.addAll(page.getItems());
+            after = page.getNextCursor();
+        } while (page.isHasMore());
+        return tasks;
+    }
+
+    private static byte[] csv() {
+        StringBuilder csv = new StringBuilder("title,description,completed\n");
+        for (String title : titles()) {
+            csv.append(title).append(",\"about ").append(title).append("\",false\n");
+        }
+        return csv.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static List<String> titles() {
+        List<String> titles = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            titles.add("imported %03d".formatted(i));
+        }
+        return titles;
+    }
+}
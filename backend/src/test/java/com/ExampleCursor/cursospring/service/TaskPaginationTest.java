@@ -0,0 +1,90 @@
+package com.ExampleCursor.cursospring.service;
+
+import com.ExampleCursor.cursospring.dto.CreateTaskRequest;
+import com.ExampleCursor.cursospring.dto.TaskPageResponse;
+import com.ExampleCursor.cursospring.dto.TaskQuery;
+import com.ExampleCursor.cursospring.dto.TaskResponse;
+import com.ExampleCursor.cursospring.dto.TaskSort;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Keyset-страницы GET /api/tasks: курсор ведёт по всем задачам без пропусков и повторов, последняя страница
+ * без nextCursor, курсор чужой сортировки или испорченный — IllegalArgumentException (400).
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:tasks;MODE=PostgreSQL;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("h2")
+class TaskPaginationTest {
+
+    private static final String OWNER = "pagination";
+    private static final int TASKS = 7;
+    private static final int PAGE_SIZE = 3;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Test
+    void cursorWalksAllTasksAndLastPageHasNoCursor() {
+        List<Long> created = new ArrayList<>();
+        for (int i = 0; i < TASKS; i++) {
+            created.add(taskService.create(OWNER, CreateTaskRequest.builder().title("task " + i).build()).getId());
+        }
+        taskService.create("someone-else", CreateTaskRequest.builder().title("not mine").build());
+
+        assertThat(walk(TaskSort.ID_ASC)).isEqualTo(created);
+        assertThat(walk(TaskSort.ID_DESC)).isEqualTo(created.reversed());
+        assertThat(walk(TaskSort.CREATED_AT_DESC)).containsExactlyInAnyOrderElementsOf(created);
+    }
+
+    @Test
+    void cursorOfAnotherSortOrGarbageIsRejected() {
+        for (int i = 0; i < PAGE_SIZE + 1; i++) {
+            taskService.create(OWNER + "-sort", CreateTaskRequest.builder().title("task " + i).build());
+        }
+        TaskPageResponse first = taskService.findPage(query(OWNER + "-sort", TaskSort.ID_ASC, null));
+        assertThat(first.getNextCursor()).isNotNull();
+
+        assertThatThrownBy(() -> taskService.findPage(query(OWNER + "-sort", TaskSort.ID_DESC, first.getNextCursor())))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Cursor was issued for sort ID_ASC");
+        assertThatThrownBy(() -> taskService.findPage(query(OWNER + "-sort", TaskSort.ID_ASC, "not-a-cursor")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid cursor");
+    }
+
+    /** Все страницы подряд; у каждой, кроме последней, полный размер и nextCursor. */
+    private List<Long> walk(TaskSort sort) {
+        List<Long> ids = new ArrayList<>();
+        String after = null;
+        while (true) {
+            TaskPageResponse page = taskService.findPage(query(OWNER, sort, after));
+            page.getItems().stream().map(TaskResponse::getId).forEach(ids::add);
+            if (!page.isHasMore()) {
+                assertThat(page.getNextCursor()).isNull();
+                assertThat(page.getItems()).hasSizeLessThanOrEqualTo(PAGE_SIZE);
+                break;
+            }
+            assertThat(page.getItems()).hasSize(PAGE_SIZE);
+            after = page.getNextCursor();
+        }
+        if (sort == TaskSort.CREATED_AT_DESC) {
+            assertThat(ids).doesNotHaveDuplicates();
+            assertThat(ids).isSortedAccordingTo(Comparator.comparing((Long id) ->
+                    taskService.findById(OWNER, id).getCreatedAt()).reversed());
+        }
+        return ids;
+    }
+
+    private static TaskQuery query(String owner, TaskSort sort, String after) {
+        return TaskQuery.builder().owner(owner).sort(sort).after(after).limit(PAGE_SIZE).build();
+    }
+}
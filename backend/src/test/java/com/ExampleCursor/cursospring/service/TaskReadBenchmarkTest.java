@@ -0,0 +1,112 @@
+package com.ExampleCursor.cursospring.service;
+
+import com.ExampleCursor.cursospring.dto.TaskBatchOperation;
+import com.ExampleCursor.cursospring.dto.TaskBatchOperationType;
+import com.ExampleCursor.cursospring.dto.TaskBatchRequest;
+import com.ExampleCursor.cursospring.dto.TaskResponse;
+import com.ExampleCursor.cursospring.entity.Task;
+import com.ExampleCursor.cursospring.repository.TaskRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Чтение N задач: сущности + TaskResponse.fromEntity против DTO-проекции из TaskRepository.
+ * Меряются выделенная память на поток и время. Запуск: mvn test -Pbenchmark
+ */
+@SpringBootTest
+@ActiveProfiles("benchmark")
+@Tag("benchmark")
+class TaskReadBenchmarkTest {
+
+    private static final String OWNER = "benchmark";
+    private static final int ROWS = 5_000;
+    private static final int WARMUP = 10;
+    private static final int ITERATIONS = 30;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    void setUp() {
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        long missing = ROWS - taskRepository.count();
+        while (missing > 0) {
+            List<TaskBatchOperation> operations = new ArrayList<>();
+            for (int i = 0; i < Math.min(missing, TaskBatchRequest.MAX_OPERATIONS); i++) {
+                operations.add(TaskBatchOperation.builder()
+                        .type(TaskBatchOperationType.CREATE)
+                        .title("read benchmark " + i)
+                        .description("description of task " + i)
+                        .build());
+            }
+            taskService.applyBatch(OWNER, TaskBatchRequest.builder().operations(operations).build());
+            missing -= operations.size();
+        }
+    }
+
+    @Test
+    void projectionAllocatesLessThanEntityPath() {
+        Supplier<List<TaskResponse>> entityPath = () -> readOnly.execute(status ->
+                entityManager.createQuery("select t from Task t where t.id > 0 order by t.id", Task.class)
+                        .setMaxResults(ROWS)
+                        .getResultList().stream()
+                        .map(TaskResponse::fromEntity)
+                        .toList());
+        Supplier<List<TaskResponse>> projectionPath = () -> readOnly.execute(status ->
+                taskRepository.findPageByIdAsc(OWNER, 0L, null, null, null, Limit.of(ROWS)));
+
+        Result entity = measure(entityPath);
+        Result projection = measure(projectionPath);
+
+        System.out.printf("entity path:     %d rows, %,d bytes/op, %.2f ms/op%n", ROWS, entity.bytes, entity.millis);
+        System.out.printf("projection path: %d rows, %,d bytes/op, %.2f ms/op%n", ROWS, projection.bytes, projection.millis);
+
+        assertThat(projection.bytes).isLessThan(entity.bytes);
+    }
+
+    private Result measure(Supplier<List<TaskResponse>> read) {
+        for (int i = 0; i < WARMUP; i++) {
+            assertThat(read.get()).hasSize(ROWS);
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+        long bytesBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            read.get();
+        }
+        long elapsed = System.nanoTime() - start;
+        long bytes = threads.getThreadAllocatedBytes(threadId) - bytesBefore;
+        return new Result(bytes / ITERATIONS, elapsed / 1_000_000.0 / ITERATIONS);
+    }
+
+    private record Result(long bytes, double millis) {
+    }
+}
@@ -0,0 +1,85 @@
+package com.ExampleCursor.cursospring.service;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Стоимость schedule + cancel в колесе напоминаний при 10 тыс., 100 тыс. и 1 млн ожидающих задач
+ * в сравнении с очередью по сроку на сбалансированном дереве. В колесе ни одна операция не зависит
+ * от числа задач; рост на миллионе — только промахи кэша CPU при случайном доступе к записям.
+ * Запуск: mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+class TaskReminderWheelBenchmarkTest {
+
+    private static final long MINUTE = Duration.ofMinutes(1).toMillis();
+    private static final long HORIZON = Duration.ofDays(7).toMillis();
+    private static final long START = 1_700_000_000_000L / MINUTE * MINUTE;
+    private static final int OPERATIONS = 1_000_000;
+
+    @Test
+    void scheduleCostIsFlatInPendingCount() {
+        int[] sizes = {10_000, 100_000, 1_000_000};
+        double[] wheelNanos = new double[sizes.length];
+        double[] treeNanos = new double[sizes.length];
+        measureWheel(sizes[0]); // прогрев JIT
+        measureTree(sizes[0]);
+        for (int i = 0; i < sizes.length; i++) {
+            wheelNanos[i] = measureWheel(sizes[i]);
+            treeNanos[i] = measureTree(sizes[i]);
+            System.out.printf("pending %,9d: wheel %4.0f ns/op, sorted set %4.0f ns/op%n",
+                    sizes[i], wheelNanos[i], treeNanos[i]);
+        }
+
+        assertThat(wheelNanos[2]).isLessThan(treeNanos[2]);
+    }
+
+    private double measureWheel(int pending) {
+        TaskReminderWheel wheel = new TaskReminderWheel(MINUTE, 64, 4, START);
+        SplittableRandom random = new SplittableRandom(42);
+        for (long id = 0; id < pending; id++) {
+            wheel.schedule(id, START + random.nextLong(MINUTE, HORIZON));
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < OPERATIONS; i++) {
+            wheel.schedule(pending + (i & 1023), START + random.nextLong(MINUTE, HORIZON));
+            wheel.cancel(random.nextLong(pending));
+        }
+        return (double) (System.nanoTime() - start) / OPERATIONS;
+    }
+
+    /** Для сравнения: очередь по сроку на TreeSet + HashMap для отмены, O(log n) на операцию. */
+    private double measureTree(int pending) {
+        TreeSet<long[]> queue = new TreeSet<>(Comparator.<long[]>comparingLong(e -> e[1]).thenComparingLong(e -> e[0]));
+        Map<Long, long[]> byId = new HashMap<>();
+        SplittableRandom random = new SplittableRandom(42);
+        for (long id = 0; id < pending; id++) {
+            long[] entry = {id, START + random.nextLong(MINUTE, HORIZON)};
+            queue.add(entry);
+            byId.put(id, entry);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < OPERATIONS; i++) {
+            long[] entry = {pending + (i & 1023), START + random.nextLong(MINUTE, HORIZON)};
+            long[] replaced = byId.put(entry[0], entry);
+            if (replaced != null) {
+                queue.remove(replaced);
+            }
+            queue.add(entry);
+            long[] cancelled = byId.remove(random.nextLong(pending));
+            if (cancelled != null) {
+                queue.remove(cancelled);
+            }
+        }
+        return (double) (System.nanoTime() - start) / OPERATIONS;
+    }
+}
@@ -0,0 +1,52 @@
+package com.ExampleCursor.cursospring.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TaskReminderWheelTest {
+
+    private static final long MINUTE = Duration.ofMinutes(1).toMillis();
+    private static final long DAY = Duration.ofDays(1).toMillis();
+    private static final long START = 1_700_000_000_000L / MINUTE * MINUTE;
+
+    @Test
+    void firesAtDeadlineAcrossLevels() {
+        TaskReminderWheel wheel = new TaskReminderWheel(MINUTE, 8, 3, START);
+        wheel.schedule(1, START + 3 * MINUTE);
+        wheel.schedule(2, START + 50 * MINUTE);
+        wheel.schedule(3, START + 2 * DAY);
+
+        assertThat(wheel.advance(START + 2 * MINUTE)).isEmpty();
+        assertThat(wheel.advance(START + 3 * MINUTE)).containsExactly(1L);
+        assertThat(wheel.advance(START + 49 * MINUTE)).isEmpty();
+        assertThat(wheel.advance(START + 50 * MINUTE)).containsExactly(2L);
+        assertThat(wheel.advance(START + 2 * DAY - MINUTE)).isEmpty();
+        assertThat(wheel.advance(START + 2 * DAY)).containsExactly(3L);
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void cancelAndRescheduleReplaceTheOldDeadline() {
+        TaskReminderWheel wheel = new TaskReminderWheel(MINUTE, 8, 3, START);
+        wheel.schedule(1, START + 10 * MINUTE);
+        wheel.schedule(2, START + 10 * MINUTE);
+        wheel.schedule(1, START + 20 * MINUTE);
+        assertThat(wheel.cancel(2)).isTrue();
+        assertThat(wheel.scheduleIfAbsent(1, START + 5 * MINUTE)).isFalse();
+
+        assertThat(wheel.advance(START + 10 * MINUTE)).isEmpty();
+        assertThat(wheel.advance(START + 20 * MINUTE)).containsExactly(1L);
+        assertThat(wheel.cancel(1)).isFalse();
+    }
+
+    @Test
+    void pastDeadlineFiresOnNextAdvance() {
+        TaskReminderWheel wheel = new TaskReminderWheel(MINUTE, 8, 3, START);
+        wheel.schedule(1, START - DAY);
+
+        assertThat(wheel.advance(START)).containsExactly(1L);
+    }
+}
@@ -0,0 +1,122 @@
+package com.ExampleCursor.cursospring.service;
+
+import com.ExampleCursor.cursospring.dto.TaskResponse;
+import com.ExampleCursor.cursospring.dto.TaskStatsResponse;
+import com.ExampleCursor.cursospring.repository.TaskCountRow;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TaskStatsCountersTest {
+
+    /** Среда: неделя заканчивается в воскресенье 2026-10-18. */
+    private static final LocalDate WEDNESDAY = LocalDate.of(2026, 10, 14);
+
+    @Test
+    void rebuildsFromAggregateRows() {
+        TaskStatsCounters counters = new TaskStatsCounters(WEDNESDAY);
+        counters.rebuild(WEDNESDAY, List.of(
+                row(true, null, 5),
+                row(false, null, 2),
+                row(false, WEDNESDAY.minusDays(1), 3),
+                row(false, WEDNESDAY.plusDays(4), 4),
+                row(false, WEDNESDAY.plusDays(5), 1)));
+
+        TaskStatsResponse stats = counters.snapshot(WEDNESDAY);
+
+        assertThat(stats.getTotal()).isEqualTo(15);
+        assertThat(stats.getCompleted()).isEqualTo(5);
+        assertThat(stats.getOpen()).isEqualTo(10);
+        assertThat(stats.getOverdue()).isEqualTo(3);
+        assertThat(stats.getDueThisWeek()).isEqualTo(4);
+    }
+
+    @Test
+    void appliesCreateUpdateDelete() {
+        TaskStatsCounters counters = new TaskStatsCounters(WEDNESDAY);
+        TaskResponse open = task(false, WEDNESDAY.plusDays(1));
+        TaskResponse done = task(true, WEDNESDAY.plusDays(1));
+
+        counters.apply(open, 1);
+        assertThat(counters.snapshot(WEDNESDAY).getDueThisWeek()).isEqualTo(1);
+
+        counters.apply(open, -1);
+        counters.apply(done, 1);
+        TaskStatsResponse stats = counters.snapshot(WEDNESDAY);
+        assertThat(stats.getTotal()).isEqualTo(1);
+        assertThat(stats.getCompleted()).isEqualTo(1);
+        assertThat(stats.getDueThisWeek()).isZero();
+
+        counters.apply(done, -1);
+        assertThat(counters.snapshot(WEDNESDAY).getTotal()).isZero();
+    }
+
+    @Test
+    void rollsOverOverdueAndWeekOnNewDay() {
+        TaskStatsCounters counters = new TaskStatsCounters(WEDNESDAY);
+        counters.apply(task(false, WEDNESDAY), 1);
+        counters.apply(task(false, WEDNESDAY.plusDays(6)), 1);
+
+        assertThat(counters.snapshot(WEDNESDAY).getOverdue()).isZero();
+        assertThat(counters.snapshot(WEDNESDAY).getDueThisWeek()).isEqualTo(1);
+
+        TaskStatsResponse nextMonday = counters.snapshot(WEDNESDAY.plusDays(5));
+        assertThat(nextMonday.getOverdue()).isEqualTo(1);
+        assertThat(nextMonday.getDueThisWeek()).isEqualTo(1);
+    }
+
+    @Test
+    void applyDuringRebuildQueryIsNotOverwritten() throws Exception {
+        TaskStatsCounters counters = new TaskStatsCounters(WEDNESDAY);
+        CountDownLatch querying = new CountDownLatch(1);
+        CountDownLatch applied = new CountDownLatch(1);
+        CompletableFuture<Void> rebuild = CompletableFuture.runAsync(() -> counters.rebuild(WEDNESDAY, () -> {
+            querying.countDown();
+            // Запрос уже прочитал 3 задачи; задача, закоммиченная после него, применяется параллельно
+            try {
+                assertThat(applied.await(200, TimeUnit.MILLISECONDS)).isFalse();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            return List.of(row(false, null, 3));
+        }));
+        assertThat(querying.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<Void> apply = CompletableFuture.runAsync(() -> {
+            counters.apply(task(false, null), 1);
+            applied.countDown();
+        });
+
+        rebuild.get(5, TimeUnit.SECONDS);
+        apply.get(5, TimeUnit.SECONDS);
+        assertThat(counters.snapshot(WEDNESDAY).getTotal()).isEqualTo(4);
+    }
+
+    private TaskResponse task(boolean completed, LocalDate dueDate) {
+        return TaskResponse.builder().id(1L).title("t").completed(completed).dueDate(dueDate).build();
+    }
+
+    private TaskCountRow row(boolean completed, LocalDate dueDate, long count) {
+        return new TaskCountRow() {
+            @Override
+            public Boolean getCompleted() {
+                return completed;
+            }
+
+            @Override
+            public LocalDate getDueDate() {
+                return dueDate;
+            }
+
+            @Override
+            public Long getCount() {
+                return count;
+            }
+        };
+    }
+}
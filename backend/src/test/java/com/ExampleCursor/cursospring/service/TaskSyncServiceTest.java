@@ -0,0 +1,117 @@
+package com.ExampleCursor.cursospring.service;
+
+import com.ExampleCursor.cursospring.controller.GlobalExceptionHandler;
+import com.ExampleCursor.cursospring.dto.CreateTaskRequest;
+import com.ExampleCursor.cursospring.dto.TaskBatchOperation;
+import com.ExampleCursor.cursospring.dto.TaskBatchOperationType;
+import com.ExampleCursor.cursospring.dto.TaskBatchRequest;
+import com.ExampleCursor.cursospring.dto.TaskChangesResponse;
+import com.ExampleCursor.cursospring.dto.TaskResponse;
+import com.ExampleCursor.cursospring.entity.Task;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * GET /api/tasks/changes: удаление доходит до клиента надгробием, изменения и удаления идут по времени
+ * без пропусков и повторов, токен старше tombstone-retention — SyncTokenExpiredException (410).
+ * Удаление идёт через пакетный DELETE: одиночный deleteById — DELETE ... RETURNING только для PostgreSQL.
+ * settle-window=0s, чтобы только что сделанные изменения сразу попадали в ответ.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:task-sync;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "app.sync.settle-window=0s",
+        "app.sync.tombstone-retention=1h"
+})
+@ActiveProfiles("h2")
+class TaskSyncServiceTest {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskSyncService taskSyncService;
+
+    @Test
+    void deletedTaskArrivesAsTombstone() throws InterruptedException {
+        String owner = "sync-delete";
+        TaskResponse kept = create(owner, "kept");
+        TaskResponse removed = create(owner, "removed");
+        TaskChangesResponse initial = taskSyncService.findChanges(owner, null, null);
+        assertThat(initial.getUpserted()).extracting(TaskResponse::getId).containsExactly(kept.getId(), removed.getId());
+        assertThat(initial.getDeleted()).isEmpty();
+
+        delete(owner, removed.getId());
+
+        TaskChangesResponse changes = taskSyncService.findChanges(owner, initial.getNextToken(), null);
+        assertThat(changes.getUpserted()).isEmpty();
+        assertThat(changes.getDeleted()).containsExactly(removed.getId());
+        assertThat(changes.isHasMore()).isFalse();
+        // Чужие удаления не видны, повторный запрос с новым токеном пуст
+        assertThat(taskSyncService.findChanges("someone-else", initial.getNextToken(), null).getDeleted()).isEmpty();
+        TaskChangesResponse again = taskSyncService.findChanges(owner, changes.getNextToken(), null);
+        assertThat(again.getUpserted()).isEmpty();
+        assertThat(again.getDeleted()).isEmpty();
+    }
+
+    @Test
+    void createAndDeleteBetweenSyncsComeInTimeOrder() throws InterruptedException {
+        String owner = "sync-order";
+        String since = taskSyncService.findChanges(owner, null, null).getNextToken();
+
+        TaskResponse shortLived = create(owner, "short-lived");
+        TaskResponse before = create(owner, "before");
+        delete(owner, shortLived.getId());
+        TaskResponse after = create(owner, "after");
+
+        // По одному изменению за запрос: ленты изменений и удалений сливаются по времени
+        List<String> events = new ArrayList<>();
+        TaskChangesResponse page;
+        do {
+            page = taskSyncService.findChanges(owner, since, 1);
+            page.getUpserted().forEach(task -> events.add("upsert " + task.getId()));
+            page.getDeleted().forEach(id -> events.add("delete " + id));
+            since = page.getNextToken();
+        } while (page.isHasMore());
+
+        // Созданная и удалённая в одном окне задача приходит только надгробием
+        assertThat(events).containsExactly(
+                "upsert " + before.getId(), "delete " + shortLived.getId(), "upsert " + after.getId());
+    }
+
+    @Test
+    void tokenOlderThanTombstoneRetentionIsGone() {
+        String expired = new TaskSyncToken(
+                Task.now().minusDays(1), 0L, Task.now().minus(Duration.ofHours(2)), Long.MAX_VALUE).encode();
+
+        assertThatThrownBy(() -> taskSyncService.findChanges("sync-expired", expired, null))
+                .isInstanceOfSatisfying(SyncTokenExpiredException.class, ex ->
+                        assertThat(new GlobalExceptionHandler().handleSyncTokenExpired(ex).getStatusCode())
+                                .isEqualTo(HttpStatus.GONE));
+        assertThatThrownBy(() -> taskSyncService.findChanges("sync-expired", "garbage", null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid sync token");
+    }
+
+    /** Пауза, чтобы у соседних изменений различалось время (точность — микросекунды). */
+    private TaskResponse create(String owner, String title) throws InterruptedException {
+        Thread.sleep(2);
+        return taskService.create(owner, CreateTaskRequest.builder().title(title).build());
+    }
+
+    private void delete(String owner, Long id) throws InterruptedException {
+        Thread.sleep(2);
+        taskService.applyBatch(owner, TaskBatchRequest.builder()
+                .operations(List.of(TaskBatchOperation.builder().type(TaskBatchOperationType.DELETE).id(id).build()))
+                .build());
+    }
+}
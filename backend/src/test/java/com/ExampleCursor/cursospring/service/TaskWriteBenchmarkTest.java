@@ -0,0 +1,134 @@
+package com.ExampleCursor.cursospring.service;
+
+import com.ExampleCursor.cursospring.dto.PatchTaskRequest;
+import com.ExampleCursor.cursospring.dto.TaskBatchOperation;
+import com.ExampleCursor.cursospring.dto.TaskBatchOperationType;
+import com.ExampleCursor.cursospring.dto.TaskBatchRequest;
+import com.ExampleCursor.cursospring.dto.TaskBatchResponse;
+import com.ExampleCursor.cursospring.dto.TaskResponse;
+import com.ExampleCursor.cursospring.dto.UpdateTaskRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Пропускная способность записи: PUT (findById + UPDATE всех колонок через сущность) против
+ * PATCH (один UPDATE ... RETURNING). UPDATE ... RETURNING есть только в PostgreSQL, поэтому тест
+ * работает с настоящей БД из BENCHMARK_PG_URL (+ BENCHMARK_PG_USER / BENCHMARK_PG_PASSWORD).
+ * Схема создаётся и удаляется (create-drop) — указывайте пустую БД.
+ * Запуск: BENCHMARK_PG_URL=jdbc:postgresql://localhost:5432/scratch mvn test -Pbenchmark
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=${BENCHMARK_PG_URL}",
+        "spring.datasource.driver-class-name=org.postgresql.Driver",
+        "spring.datasource.username=${BENCHMARK_PG_USER:postgres}",
+        "spring.datasource.password=${BENCHMARK_PG_PASSWORD:}",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQLDialect"
+})
+@ActiveProfiles("benchmark")
+@EnabledIfEnvironmentVariable(named = "BENCHMARK_PG_URL", matches = ".+")
+@Tag("benchmark")
+class TaskWriteBenchmarkTest {
+
+    private static final String OWNER = "benchmark";
+    private static final int TASKS = 500;
+    private static final int WRITES = 5000;
+    private static final int THREADS = 8;
+
+    @Autowired
+    private TaskService taskService;
+
+    private final List<Long> ids = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        List<TaskBatchOperation> operations = new ArrayList<>();
+        for (int i = 0; i < TASKS; i++) {
+            operations.add(TaskBatchOperation.builder()
+                    .type(TaskBatchOperationType.CREATE)
+                    .title("task " + i)
+                    .description("description " + i)
+                    .build());
+        }
+        TaskBatchResponse response = taskService.applyBatch(OWNER, TaskBatchRequest.builder().operations(operations).build());
+        ids.clear();
+        response.getResults().forEach(result -> ids.add(result.getId()));
+    }
+
+    @Test
+    void patchIsFasterThanPut() throws Exception {
+        AtomicLong counter = new AtomicLong();
+        // Клиент уже знает все поля задачи и отправляет их целиком, как делал фронт до PATCH
+        LongConsumer put = id -> taskService.update(OWNER, id, UpdateTaskRequest.builder()
+                .title("task " + id)
+                .description("description " + id)
+                .completed(counter.incrementAndGet() % 2 == 0)
+                .build(), null);
+        LongConsumer patch = id -> taskService.toggleCompleted(OWNER, id, null);
+
+        measure("put   ", put, 1);
+        measure("patch ", patch, 1);
+        double putOps = measure("put   ", put, THREADS);
+        double patchOps = measure("patch ", patch, THREADS);
+
+        assertThat(patchOps).isGreaterThan(putOps);
+    }
+
+    @Test
+    void patchChecksIfMatchVersion() {
+        Long id = ids.getFirst();
+        TaskResponse before = taskService.findById(OWNER, id);
+        PatchTaskRequest request = new PatchTaskRequest();
+        request.setDescription(null);
+        TaskResponse after = taskService.patch(OWNER, id, request, before.getVersion());
+
+        assertThat(after.getDescription()).isNull();
+        assertThat(after.getTitle()).isEqualTo(before.getTitle());
+        assertThat(after.getVersion()).isEqualTo(before.getVersion() + 1);
+        assertThatThrownBy(() -> taskService.patch(OWNER, id, request, before.getVersion()))
+                .isInstanceOf(PreconditionFailedException.class);
+        assertThatThrownBy(() -> taskService.deleteById(OWNER, Long.MAX_VALUE, null))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    private double measure(String label, LongConsumer write, int threads) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            long start = System.nanoTime();
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int offset = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = offset; i < WRITES; i += threads) {
+                        write.accept(ids.get(i % ids.size()));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            double opsPerSecond = WRITES / seconds;
+            System.out.printf("%s %d threads: %d writes in %.2f s, %.0f ops/s%n",
+                    label, threads, WRITES, seconds, opsPerSecond);
+            return opsPerSecond;
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
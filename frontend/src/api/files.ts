@@ -4,6 +4,14 @@ const credentials: RequestCredentials = 'include'
 export interface FileInfo {
   name: string
   sizeInBytes: number
+  lastModified: string
+  sha256: string | null
+}
+
+export interface FilePage {
+  items: FileInfo[]
+  nextCursor: string | null
+  hasMore: boolean
 }
 
 async function request<T>(url: string, options?: RequestInit): Promise<T> {
@@ -52,9 +60,23 @@ export async function uploadFile(file: File): Promise<FileInfo> {
   return res.json()
 }
 
-/** Список всех файлов. */
-export function listFiles(): Promise<FileInfo[]> {
-  return request<FileInfo[]>(BASE)
+/** Страница списка файлов по имени; следующая — after = nextCursor. */
+export function listFiles(after?: string | null, limit = 1000): Promise<FilePage> {
+  const params = new URLSearchParams({ limit: String(limit) })
+  if (after) params.set('after', after)
+  return request<FilePage>(`${BASE}?${params}`)
+}
+
+/** Весь список файлов: страницы подряд по nextCursor, пока hasMore. */
+export async function listAllFiles(limit = 1000): Promise<FileInfo[]> {
+  const files: FileInfo[] = []
+  let after: string | null = null
+  do {
+    const page = await listFiles(after, limit)
+    files.push(...page.items)
+    after = page.hasMore ? page.nextCursor : null
+  } while (after)
+  return files
 }
 
 /** Скачать файл по имени (сохраняется через браузер). */
@@ -1,4 +1,4 @@
-import type { Task, CreateTaskRequest, UpdateTaskRequest } from '../types/task'
+import type { Task, TaskPage, TaskChangeNotification, CreateTaskRequest, UpdateTaskRequest, PatchTaskRequest } from '../types/task'
 
 const BASE = '/api/tasks'
 const credentials: RequestCredentials = 'include'
@@ -26,12 +26,52 @@ async function request<T>(url: string, options?: RequestInit): Promise<T> {
   return res.json()
 }
 
+function getPage(after?: string | null, limit = 200): Promise<TaskPage> {
+  const params = new URLSearchParams({ limit: String(limit) })
+  if (after) params.set('after', after)
+  return request<TaskPage>(`${BASE}?${params}`)
+}
+
 export const tasksApi = {
-  getAll: () => request<Task[]>(BASE),
+  getPage,
+  /** Все задачи: страницы подряд по nextCursor, пока hasMore. */
+  getAll: async (limit = 200): Promise<Task[]> => {
+    const tasks: Task[] = []
+    let after: string | null = null
+    do {
+      const page = await getPage(after, limit)
+      tasks.push(...page.items)
+      after = page.hasMore ? page.nextCursor : null
+    } while (after)
+    return tasks
+  },
   create: (data: CreateTaskRequest) =>
     request<Task>(BASE, { method: 'POST', body: JSON.stringify(data) }),
   update: (id: number, data: UpdateTaskRequest) =>
     request<Task>(`${BASE}/${id}`, { method: 'PUT', body: JSON.stringify(data) }),
+  /** Изменить только переданные поля. С version запрос не пройдёт (412), если задачу уже кто-то изменил. */
+  patch: (id: number, data: PatchTaskRequest, version?: number) =>
+    request<Task>(`${BASE}/${id}`, {
+      method: 'PATCH',
+      body: JSON.stringify(data),
+      headers: version !== undefined ? { 'If-Match': `"${id}-${version}"` } : undefined,
+    }),
   delete: (id: number) =>
     request<void>(`${BASE}/${id}`, { method: 'DELETE' }),
+  /**
+   * Подписка на ленту изменений (SSE); возвращает функцию отписки. onChange получает одно изменение задачи,
+   * onResync — сигнал перечитать список целиком: resync от сервера или переподключение (пока соединения
+   * не было, события могли пропасть).
+   */
+  subscribe: (onChange: (change: TaskChangeNotification) => void, onResync: () => void) => {
+    const source = new EventSource(`${BASE}/stream`, { withCredentials: true })
+    let connected = false
+    source.addEventListener('ready', () => {
+      if (connected) onResync()
+      connected = true
+    })
+    source.addEventListener('task', (e) => onChange(JSON.parse((e as MessageEvent).data)))
+    source.addEventListener('resync', onResync)
+    return () => source.close()
+  },
 }
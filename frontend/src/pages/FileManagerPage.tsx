@@ -22,8 +22,7 @@ export function FileManagerPage() {
   const loadFiles = async () => {
     setError(null)
     try {
-      const data = await filesApi.listFiles()
-      setFiles(data)
+      setFiles(await filesApi.listAllFiles())
     } catch (e) {
       setError(e instanceof Error ? e.message : 'Не удалось загрузить список файлов')
     } finally {
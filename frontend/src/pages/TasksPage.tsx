@@ -2,7 +2,7 @@ import { useState, useEffect } from 'react'
 import { Link } from 'react-router-dom'
 import { useAuth } from '../contexts/AuthContext'
 import { tasksApi } from '../api/tasks'
-import type { Task, CreateTaskRequest } from '../types/task'
+import type { Task, TaskChangeNotification, CreateTaskRequest } from '../types/task'
 
 export function TasksPage() {
   const { user, logout } = useAuth()
@@ -15,8 +15,7 @@ export function TasksPage() {
   const loadTasks = async () => {
     setError(null)
     try {
-      const data = await tasksApi.getAll()
-      setTasks(data)
+      setTasks(await tasksApi.getAll())
     } catch (e) {
       setError(e instanceof Error ? e.message : 'Не удалось загрузить задачи')
     } finally {
@@ -28,6 +27,28 @@ export function TasksPage() {
     loadTasks()
   }, [])
 
+  /** Вставить или заменить задачу (список упорядочен по id); более старую версию не применяем. */
+  const upsertTask = (task: Task) =>
+    setTasks((current) => {
+      const index = current.findIndex((t) => t.id === task.id)
+      if (index < 0) return [...current, task].sort((a, b) => a.id - b.id)
+      if (current[index].version > task.version) return current
+      const next = current.slice()
+      next[index] = task
+      return next
+    })
+
+  const removeTask = (id: number) => setTasks((current) => current.filter((t) => t.id !== id))
+
+  // Изменения приходят по SSE и применяются к списку на месте; целиком он перечитывается только по resync
+  useEffect(() => {
+    const applyChange = (change: TaskChangeNotification) => {
+      if (change.task) upsertTask(change.task)
+      else removeTask(change.taskId)
+    }
+    return tasksApi.subscribe(applyChange, () => loadTasks())
+  }, [])
+
   const handleAdd = async (e: React.FormEvent) => {
     e.preventDefault()
     const title = form.title?.trim()
@@ -35,14 +56,13 @@ export function TasksPage() {
     setSubmitting(true)
     setError(null)
     try {
-      await tasksApi.create({
+      upsertTask(await tasksApi.create({
         title,
         description: form.description?.trim() || undefined,
         dueDate: form.dueDate || undefined,
         completed: form.completed ?? false,
-      })
+      }))
       setForm({ title: '', description: '', completed: false })
-      await loadTasks()
     } catch (e) {
       setError(e instanceof Error ? e.message : 'Не удалось создать задачу')
     } finally {
@@ -55,7 +75,7 @@ export function TasksPage() {
     setError(null)
     try {
       await tasksApi.delete(id)
-      await loadTasks()
+      removeTask(id)
     } catch (e) {
       setError(e instanceof Error ? e.message : 'Не удалось удалить')
     }
@@ -64,13 +84,7 @@ export function TasksPage() {
   const handleToggleCompleted = async (task: Task) => {
     setError(null)
     try {
-      await tasksApi.update(task.id, {
-        title: task.title,
-        description: task.description ?? undefined,
-        dueDate: task.dueDate ?? undefined,
-        completed: !task.completed,
-      })
-      await loadTasks()
+      upsertTask(await tasksApi.patch(task.id, { completed: !task.completed }, task.version))
     } catch (e) {
       setError(e instanceof Error ? e.message : 'Не удалось обновить задачу')
     }
@@ -6,6 +6,20 @@ export interface Task {
   completed: boolean
   createdAt: string
   updatedAt: string
+  version: number
+}
+
+export interface TaskPage {
+  items: Task[]
+  nextCursor: string | null
+  hasMore: boolean
+}
+
+/** Событие task из SSE-ленты GET /api/tasks/stream; task — состояние после изменения (null для DELETED и ARCHIVED). */
+export interface TaskChangeNotification {
+  type: 'CREATED' | 'UPDATED' | 'DELETED' | 'ARCHIVED'
+  taskId: number
+  task: Task | null
 }
 
 export interface CreateTaskRequest {
@@ -15,6 +29,8 @@ export interface CreateTaskRequest {
   completed?: boolean
 }
 
+export type PatchTaskRequest = Partial<UpdateTaskRequest>
+
 export interface UpdateTaskRequest {
   title: string
   description?: string | null